@@ -0,0 +1,149 @@
+package com.pesitwizard.benchmarks;
+
+import static com.pesitwizard.fpdu.ParameterGroupIdentifier.*;
+import static com.pesitwizard.fpdu.ParameterIdentifier.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.pesitwizard.fpdu.ConnectMessageBuilder;
+import com.pesitwizard.fpdu.CreateMessageBuilder;
+import com.pesitwizard.fpdu.Fpdu;
+import com.pesitwizard.fpdu.FpduBuilder;
+import com.pesitwizard.fpdu.FpduParser;
+import com.pesitwizard.fpdu.FpduType;
+import com.pesitwizard.fpdu.ParameterValue;
+
+/**
+ * In-memory FPDU encoding and decoding: FpduParser, FpduBuilder,
+ * ParameterValue and FpduType lookups.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FpduCodecBenchmark {
+
+    private static final FpduType[] TYPES = FpduType.values();
+
+    /** DTF payload size (bytes) */
+    @Param({ "506", "4090", "32762" })
+    public int dtfSize;
+
+    private Fpdu connect;
+    private Fpdu create;
+    private byte[] connectBytes;
+    private byte[] createBytes;
+    private byte[] dtfBytes;
+    private byte[] payload;
+    private int typeIndex;
+
+    @Setup
+    public void setup() throws IOException {
+        connect = new ConnectMessageBuilder()
+                .demandeur("BENCH_PARTNER")
+                .serveur("BENCH_SERVER")
+                .writeAccess()
+                .syncIntervalKb(256)
+                .syncAckWindow(4)
+                .resyncEnabled(true)
+                .build(1);
+        create = new CreateMessageBuilder()
+                .filename("BENCHFILE")
+                .transferId(42)
+                .variableFormat()
+                .recordLength(dtfSize)
+                .maxEntitySize(dtfSize + 6)
+                .fileSizeKB(1024)
+                .build(2);
+        connectBytes = FpduBuilder.buildFpdu(connect);
+        createBytes = FpduBuilder.buildFpdu(create);
+        payload = new byte[dtfSize];
+        dtfBytes = FpduBuilder.buildFpdu(FpduType.DTF, 2, 0, payload);
+    }
+
+    @Benchmark
+    public Fpdu parseConnect() {
+        return new FpduParser(connectBytes).parse();
+    }
+
+    @Benchmark
+    public Fpdu parseCreate() {
+        return new FpduParser(createBytes).parse();
+    }
+
+    @Benchmark
+    public Fpdu parseDtf() {
+        return new FpduParser(dtfBytes).parse();
+    }
+
+    @Benchmark
+    public byte[] buildConnect() {
+        return FpduBuilder.buildFpdu(connect);
+    }
+
+    @Benchmark
+    public byte[] buildCreate() {
+        return FpduBuilder.buildFpdu(create);
+    }
+
+    @Benchmark
+    public byte[] buildDtf() {
+        return FpduBuilder.buildFpdu(FpduType.DTF, 2, 0, payload);
+    }
+
+    @Benchmark
+    public byte[] buildSyn() {
+        return FpduBuilder.buildFpdu(new Fpdu(FpduType.SYN).withIdDst(2)
+                .withParameter(new ParameterValue(PI_20_NUM_SYNC, 17)));
+    }
+
+    @Benchmark
+    public ParameterValue parameterValueInt() {
+        return new ParameterValue(PI_20_NUM_SYNC, 123456);
+    }
+
+    @Benchmark
+    public ParameterValue parameterValueString() {
+        return new ParameterValue(PI_12_NOM_FICHIER, "BENCHFILE");
+    }
+
+    @Benchmark
+    public ParameterValue parameterValueGroup() {
+        return new ParameterValue(PGI_09_ID_FICHIER,
+                new ParameterValue(PI_11_TYPE_FICHIER, 0),
+                new ParameterValue(PI_12_NOM_FICHIER, "BENCHFILE"));
+    }
+
+    /**
+     * Lookup cycling through every FPDU type, the way a session decodes a mix
+     * of FPDUs.
+     */
+    @Benchmark
+    public FpduType fpduTypeFrom() {
+        FpduType type = TYPES[typeIndex++ % TYPES.length];
+        return FpduType.from(type.getPhase(), type.getType());
+    }
+
+    /**
+     * Lookup of the most frequent FPDU on the wire.
+     */
+    @Benchmark
+    public FpduType fpduTypeFromDtf() {
+        return FpduType.from(FpduType.DTF.getPhase(), FpduType.DTF.getType());
+    }
+}
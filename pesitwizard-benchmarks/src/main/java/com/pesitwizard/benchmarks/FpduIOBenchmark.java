@@ -0,0 +1,101 @@
+package com.pesitwizard.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.pesitwizard.fpdu.FpduCodec;
+import com.pesitwizard.fpdu.FpduFrame;
+import com.pesitwizard.fpdu.FpduIO;
+import com.pesitwizard.fpdu.FpduType;
+
+/**
+ * Stream framing of DTF FPDUs: FpduIO reads and writes, compared with the
+ * reusable-buffer FpduCodec. Each invocation handles {@value #FPDUS} FPDUs.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FpduIOBenchmark {
+
+    static final int FPDUS = 256;
+
+    /** DTF payload size (bytes) */
+    @Param({ "506", "4090", "32762" })
+    public int dtfSize;
+
+    private byte[] payload;
+    private byte[] stream;
+    private FpduCodec codec;
+    private DataOutputStream sink;
+
+    @Setup
+    public void setup() throws IOException {
+        payload = new byte[dtfSize];
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (int i = 0; i < FPDUS; i++) {
+            FpduIO.writeFpduWithData(out, FpduType.DTF, 2, 0, payload);
+        }
+        stream = bytes.toByteArray();
+        codec = new FpduCodec(dtfSize + 6);
+        sink = new DataOutputStream(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FPDUS)
+    public void readRawFpdu(Blackhole bh) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(stream));
+        for (int i = 0; i < FPDUS; i++) {
+            bh.consume(FpduIO.readRawFpdu(in));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FPDUS)
+    public void readFpdu(Blackhole bh) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(stream));
+        for (int i = 0; i < FPDUS; i++) {
+            bh.consume(FpduIO.readFpdu(in));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FPDUS)
+    public void readFrame(Blackhole bh) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(stream));
+        for (int i = 0; i < FPDUS; i++) {
+            FpduFrame frame = codec.read(in);
+            bh.consume(frame.payloadLength());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FPDUS)
+    public void writeFpduWithData() throws IOException {
+        for (int i = 0; i < FPDUS; i++) {
+            FpduIO.writeFpduWithData(sink, FpduType.DTF, 2, 0, payload);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.pesitwizard.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.security.cert.Certificate;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.pesitwizard.server.PesitServerApplication;
+import com.pesitwizard.server.config.PesitServerProperties;
+import com.pesitwizard.server.config.SslProperties;
+import com.pesitwizard.server.entity.PesitServerConfig;
+import com.pesitwizard.server.handler.PesitSessionHandler;
+import com.pesitwizard.server.repository.CertificateStoreRepository;
+import com.pesitwizard.server.service.PesitServerInstance;
+import com.pesitwizard.server.ssl.SslContextFactory;
+import com.pesitwizard.transport.TcpTransportChannel;
+import com.pesitwizard.transport.TlsTransportChannel;
+import com.pesitwizard.transport.TransportChannel;
+
+/**
+ * Embedded PeSIT server for loopback benchmarks.
+ *
+ * Boots the server application (in-memory H2, no HTTP port) and runs a real
+ * {@link PesitServerInstance} on a free local port, over plain TCP or TLS with
+ * a throw-away self-signed certificate.
+ */
+public class LoopbackServer implements AutoCloseable {
+
+    public static final String SERVER_ID = "BENCH_SERVER";
+    public static final String PARTNER_ID = "BENCH";
+
+    private static final String STORE_PASSWORD = "benchmark";
+
+    private final Path workDir;
+    private final Path receiveDir;
+    private final boolean tls;
+    private final ConfigurableApplicationContext context;
+    private final PesitServerInstance instance;
+    private final int port;
+    private byte[] truststore;
+
+    public LoopbackServer(boolean tls, int maxEntitySize) throws Exception {
+        this.tls = tls;
+        this.workDir = Files.createTempDirectory("pesit-bench");
+        this.receiveDir = Files.createDirectories(workDir.resolve("received"));
+        this.port = freePort();
+
+        Map<String, Object> props = new HashMap<>();
+        props.put("spring.datasource.url", "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1");
+        props.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        props.put("spring.h2.console.enabled", "false");
+        props.put("spring.main.banner-mode", "off");
+        props.put("logging.level.root", "WARN");
+        props.put("logging.level.com.pesitwizard", "WARN");
+        props.put("pesit.server.server-id", SERVER_ID);
+        props.put("pesit.server.max-entity-size", maxEntitySize);
+        props.put("pesit.server.strict-partner-check", false);
+        props.put("pesit.server.strict-file-check", false);
+        props.put("pesit.server.receive-directory", receiveDir.toString());
+        props.put("pesit.server.send-directory", workDir.toString());
+
+        // Passed as command line arguments so they override the server's application.yml
+        String[] args = props.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+        context = new SpringApplicationBuilder(PesitServerApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args);
+
+        PesitServerProperties properties = context.getBean(PesitServerProperties.class);
+        properties.setPort(port);
+
+        PesitServerConfig config = new PesitServerConfig();
+        config.setServerId(SERVER_ID);
+        config.setPort(port);
+
+        SslProperties sslProperties = new SslProperties();
+        if (tls) {
+            sslProperties.setEnabled(true);
+            sslProperties.setKeystoreData(Base64.getEncoder().encodeToString(createKeystore()));
+            sslProperties.setKeystorePassword(STORE_PASSWORD);
+        }
+        SslContextFactory sslContextFactory = new SslContextFactory(
+                context.getBean(CertificateStoreRepository.class), sslProperties);
+
+        instance = new PesitServerInstance(config, properties, context.getBean(PesitSessionHandler.class),
+                sslProperties, sslContextFactory);
+        instance.start();
+    }
+
+    /**
+     * New client channel to this server, not yet connected.
+     */
+    public TransportChannel newChannel() {
+        return tls ? new TlsTransportChannel("localhost", port, truststore, STORE_PASSWORD)
+                : new TcpTransportChannel("localhost", port);
+    }
+
+    /**
+     * Delete files received so far.
+     */
+    public void clearReceived() throws IOException {
+        try (Stream<Path> files = Files.list(receiveDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        instance.stop();
+        context.close();
+        try (Stream<Path> files = Files.walk(workDir)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Self-signed server key pair generated with keytool; the matching
+     * truststore is kept for client channels.
+     */
+    private byte[] createKeystore() throws Exception {
+        Path keystoreFile = workDir.resolve("server.p12");
+        Path keytool = Path.of(System.getProperty("java.home"), "bin", "keytool");
+        Process process = new ProcessBuilder(keytool.toString(), "-genkeypair",
+                "-alias", "pesit", "-keyalg", "EC", "-groupname", "secp256r1",
+                "-dname", "CN=localhost", "-ext", "SAN=dns:localhost,ip:127.0.0.1",
+                "-validity", "2", "-storetype", "PKCS12", "-keystore", keystoreFile.toString(),
+                "-storepass", STORE_PASSWORD, "-keypass", STORE_PASSWORD)
+                .redirectErrorStream(true)
+                .start();
+        String output = new String(process.getInputStream().readAllBytes());
+        if (process.waitFor() != 0) {
+            throw new IOException("keytool failed: " + output);
+        }
+        byte[] keystore = Files.readAllBytes(keystoreFile);
+
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        keyStore.load(new ByteArrayInputStream(keystore), STORE_PASSWORD.toCharArray());
+        Certificate certificate = keyStore.getCertificate("pesit");
+
+        KeyStore trustStore = KeyStore.getInstance("PKCS12");
+        trustStore.load(null, null);
+        trustStore.setCertificateEntry("pesit", certificate);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        trustStore.store(out, STORE_PASSWORD.toCharArray());
+        truststore = out.toByteArray();
+        return keystore;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.pesitwizard.benchmarks;
+
+import static com.pesitwizard.fpdu.ParameterIdentifier.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.pesitwizard.client.pesit.FpduWriter;
+import com.pesitwizard.fpdu.ConnectMessageBuilder;
+import com.pesitwizard.fpdu.CreateMessageBuilder;
+import com.pesitwizard.fpdu.Fpdu;
+import com.pesitwizard.fpdu.FpduType;
+import com.pesitwizard.fpdu.ParameterValue;
+import com.pesitwizard.session.PesitSession;
+import com.pesitwizard.transport.AbstractSocketTransportChannel;
+
+/**
+ * End-to-end send of one file to an embedded {@link LoopbackServer}, from
+ * CONNECT to RELEASE, through {@link PesitSession}. The data goes through the
+ * client's {@link FpduWriter}, which packs articles into multi-article DTFs
+ * up to PI 25. One operation is one complete transfer, so the score includes
+ * session setup, the database tracking of the server and the write of the
+ * received file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoopbackTransferBenchmark {
+
+    private static final int CLIENT_CONNECTION_ID = 1;
+    private static final byte[] DIAG_OK = { 0, 0, 0 };
+
+    @Param({ "TCP", "TLS" })
+    public String transport;
+
+    /** Maximum entity size (PI 25); each DTF is filled with articles up to it */
+    @Param({ "4096", "32768", "65535" })
+    public int entitySize;
+
+    /** Article length (PI 32) */
+    @Param({ "506" })
+    public int recordLength;
+
+    /** Sync point interval in KB (PI 7), 0 = no sync points */
+    @Param({ "0", "256" })
+    public int syncIntervalKb;
+
+    /** Sync point acknowledgment window (PI 7) */
+    @Param({ "4" })
+    public int syncWindow;
+
+    @Param({ "1024", "16384" })
+    public int fileSizeKb;
+
+    /** Client write buffer coalescing DTFs, in KB (0 = one write per FPDU) */
+    @Param({ "0", "64" })
+    public int writeBufferKb;
+
+    private final AtomicInteger transferIds = new AtomicInteger(1);
+    private LoopbackServer server;
+    private byte[] file;
+
+    @Setup(Level.Trial)
+    public void startServer() throws Exception {
+        server = new LoopbackServer("TLS".equals(transport), Math.max(entitySize, 4096));
+        file = new byte[fileSizeKb * 1024];
+        ThreadLocalRandom.current().nextBytes(file);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearReceived() throws Exception {
+        server.clearReceived();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() throws Exception {
+        server.close();
+    }
+
+    @Benchmark
+    public long sendFile() throws Exception {
+        AbstractSocketTransportChannel channel = (AbstractSocketTransportChannel) server.newChannel();
+        channel.setWriteCoalescing(writeBufferKb * 1024, 5);
+        try (PesitSession session = new PesitSession(channel, true)) {
+            ConnectMessageBuilder connect = new ConnectMessageBuilder()
+                    .demandeur(LoopbackServer.PARTNER_ID)
+                    .serveur(LoopbackServer.SERVER_ID)
+                    .writeAccess();
+            if (syncIntervalKb > 0) {
+                connect.syncIntervalKb(syncIntervalKb).syncAckWindow(syncWindow);
+            }
+            Fpdu aconnect = session.sendFpduWithAck(connect.build(CLIENT_CONNECTION_ID));
+            int serverId = aconnect.getIdSrc();
+
+            session.sendFpduWithAck(new CreateMessageBuilder()
+                    .filename("BENCHFILE")
+                    .transferId(transferIds.getAndIncrement() % 0xFFFFFF)
+                    .variableFormat()
+                    .recordLength(recordLength)
+                    .maxEntitySize(entitySize)
+                    .fileSizeKB(fileSizeKb)
+                    .build(serverId));
+            session.sendFpduWithAck(new Fpdu(FpduType.OPEN).withIdDst(serverId));
+            session.sendFpduWithAck(new Fpdu(FpduType.WRITE).withIdDst(serverId));
+
+            FpduWriter writer = new FpduWriter(session, serverId, entitySize, recordLength, true);
+            int bufferSize = writer.getArticleLength() * writer.getArticlesPerDtf();
+            long syncIntervalBytes = syncIntervalKb * 1024L;
+            long sinceSync = 0;
+            int syncPoint = 0;
+            for (int pos = 0; pos < file.length;) {
+                int length = Math.min(bufferSize, file.length - pos);
+                if (syncIntervalBytes > 0) {
+                    // Never cross a sync point inside one DTF, as the client does
+                    length = (int) Math.min(length, syncIntervalBytes - sinceSync);
+                }
+                writer.writeArticles(file, pos, length);
+                pos += length;
+                sinceSync += length;
+                if (syncIntervalBytes > 0 && sinceSync >= syncIntervalBytes && pos < file.length) {
+                    session.sendSyncPoint(new Fpdu(FpduType.SYN).withIdDst(serverId)
+                            .withParameter(new ParameterValue(PI_20_NUM_SYNC, ++syncPoint)), syncWindow);
+                    sinceSync = 0;
+                }
+            }
+            session.awaitSyncPoints();
+
+            session.sendFpdu(new Fpdu(FpduType.DTF_END).withIdDst(serverId)
+                    .withParameter(new ParameterValue(PI_02_DIAG, DIAG_OK)));
+            session.sendFpduWithAck(new Fpdu(FpduType.TRANS_END).withIdDst(serverId));
+            session.sendFpduWithAck(new Fpdu(FpduType.CLOSE).withIdDst(serverId)
+                    .withParameter(new ParameterValue(PI_02_DIAG, DIAG_OK)));
+            session.sendFpduWithAck(new Fpdu(FpduType.DESELECT).withIdDst(serverId)
+                    .withParameter(new ParameterValue(PI_02_DIAG, DIAG_OK)));
+            session.sendFpduWithAck(new Fpdu(FpduType.RELEASE).withIdDst(serverId)
+                    .withIdSrc(CLIENT_CONNECTION_ID)
+                    .withParameter(new ParameterValue(PI_02_DIAG, DIAG_OK)));
+            return syncPoint;
+        }
+    }
+}
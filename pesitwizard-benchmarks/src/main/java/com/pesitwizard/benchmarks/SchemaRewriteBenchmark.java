@@ -0,0 +1,101 @@
+package com.pesitwizard.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.pesitwizard.server.config.ClusterSchemaConfig;
+import com.pesitwizard.server.config.ClusterSchemaInterceptor;
+
+/**
+ * Per-statement cost of the cluster schema rewrite applied by
+ * ClusterSchemaInterceptor to every Hibernate statement, compared with the
+ * previous chain of {@code String.replaceAll} calls.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SchemaRewriteBenchmark {
+
+    private static final String SCHEMA = "cluster_bench";
+
+    /** Statements typical of the transfer path */
+    private static final String[] STATEMENTS = {
+            "update transfer_records set bytes_transferred=?,last_sync_point=?,status=?,updated_at=? where id=?",
+            "select p1_0.id,p1_0.access_type,p1_0.enabled,p1_0.password from partners p1_0 where p1_0.id=?",
+            "select v1_0.id,v1_0.direction,v1_0.local_path from virtual_files v1_0 where v1_0.id=?",
+            "insert into file_checksums (algorithm,checksum,file_path,id) values (?,?,?,default)",
+    };
+
+    private ClusterSchemaInterceptor interceptor;
+    private String[] distinct;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int index;
+    }
+
+    @Setup
+    public void setup() {
+        interceptor = new ClusterSchemaInterceptor(new ClusterSchemaConfig() {
+            @Override
+            public String getSchemaName() {
+                return SCHEMA;
+            }
+        });
+        // More distinct statements than the cache holds: every call misses
+        distinct = new String[16384];
+        for (int i = 0; i < distinct.length; i++) {
+            distinct[i] = STATEMENTS[i % STATEMENTS.length] + " and " + i + "=" + i;
+        }
+    }
+
+    /** Rewrite before the precompiled pattern and cache */
+    @Benchmark
+    public String replaceAllChain(Cursor cursor) {
+        return replaceAll(STATEMENTS[cursor.index++ % STATEMENTS.length], SCHEMA);
+    }
+
+    @Benchmark
+    public String interceptorCached(Cursor cursor) {
+        return interceptor.inspect(STATEMENTS[cursor.index++ % STATEMENTS.length]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String interceptorCachedContended(Cursor cursor) {
+        return interceptor.inspect(STATEMENTS[cursor.index++ % STATEMENTS.length]);
+    }
+
+    @Benchmark
+    public String interceptorUncached(Cursor cursor) {
+        return interceptor.inspect(distinct[cursor.index++ % distinct.length]);
+    }
+
+    private static String replaceAll(String sql, String schema) {
+        return sql
+                .replaceAll("\\bpartners\\b", schema + ".partners")
+                .replaceAll("\\bvirtual_files\\b", schema + ".virtual_files")
+                .replaceAll("\\bcertificates\\b", schema + ".certificates")
+                .replaceAll("\\bcertificate_stores\\b", schema + ".certificate_stores")
+                .replaceAll("\\btransfer_records\\b", schema + ".transfer_records")
+                .replaceAll("\\baudit_events\\b", schema + ".audit_events")
+                .replaceAll("\\bpesit_server_config\\b", schema + ".pesit_server_config")
+                .replaceAll("\\bapi_keys\\b", schema + ".api_keys")
+                .replaceAll("\\bsecret_entries\\b", schema + ".secret_entries")
+                .replaceAll("\\bfile_checksums\\b", schema + ".file_checksums");
+    }
+}
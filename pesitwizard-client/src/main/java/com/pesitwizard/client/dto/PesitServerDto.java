@@ -50,6 +50,16 @@ public class PesitServerDto {
     @Builder.Default
     private Integer readTimeout = 60000;
 
+    @Builder.Default
+    private Integer maxIdleSessions = 4;
+
+    @Builder.Default
+    private Integer sessionIdleTimeout = 30000;
+
+    private Integer maxEntitySize;
+
+    private Integer stripes;
+
     @Builder.Default
     private boolean enabled = true;
 
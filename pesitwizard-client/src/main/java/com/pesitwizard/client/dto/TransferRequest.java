@@ -90,6 +90,9 @@ public class TransferRequest {
      */
     private Long syncPointIntervalBytes;
 
+    /** Override sync point acknowledgment window (PI_07, 0-16) */
+    private Integer syncAckWindow;
+
     /** Enable resynchronization capability (PI_23) */
     private Boolean resyncEnabled;
 
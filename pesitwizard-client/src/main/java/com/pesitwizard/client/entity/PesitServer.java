@@ -77,6 +77,26 @@ public class PesitServer {
     @Builder.Default
     private Integer readTimeout = 60000;
 
+    /** Idle sessions kept connected for later transfers (0 = one connection per transfer) */
+    @Builder.Default
+    private Integer maxIdleSessions = 4;
+
+    /** Time an idle session is kept connected, in milliseconds */
+    @Builder.Default
+    private Integer sessionIdleTimeout = 30000;
+
+    /**
+     * Largest entity size (PI 25) offered to this server, e.g. 4096 for CX
+     * (null = the largest the server accepts in ACONNECT, up to 65535)
+     */
+    private Integer maxEntitySize;
+
+    /**
+     * Sessions a large file is striped over when this server is a
+     * pesitwizard server accepting striped transfers (null or 1 = one session)
+     */
+    private Integer stripes;
+
     /** Whether this server is enabled */
     @Builder.Default
     private boolean enabled = true;
@@ -68,6 +68,15 @@ public class TransferConfig {
     @Min(1)
     private Integer syncPointInterval = 100;
 
+    /**
+     * Sync point acknowledgment window declared in PI 7 (0-16): number of SYN
+     * that may be sent before waiting for their ACK_SYN
+     */
+    @Builder.Default
+    @Min(0)
+    @Max(16)
+    private Integer syncAckWindow = 4;
+
     /** Enable resynchronization */
     @Builder.Default
     private boolean resyncEnabled = false;
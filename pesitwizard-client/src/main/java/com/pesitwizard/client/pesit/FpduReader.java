@@ -7,8 +7,8 @@ import java.util.ArrayDeque;
 import java.util.Deque;
 
 import com.pesitwizard.fpdu.Fpdu;
+import com.pesitwizard.fpdu.FpduFrame;
 import com.pesitwizard.fpdu.FpduParser;
-import com.pesitwizard.fpdu.FpduType;
 import com.pesitwizard.session.PesitSession;
 
 import lombok.extern.slf4j.Slf4j;
@@ -77,38 +77,35 @@ public class FpduReader {
     /**
      * Parse concatenated FPDUs from a buffer.
      * Structure: [len1][fpdu1_content][len2][fpdu2_content]...
+     *
+     * DTF* FPDUs are not parsed: their payload is appended straight from the
+     * buffer to the aggregated data.
      */
     private void parseConcatenatedFpdus(ByteBuffer buffer) {
         ByteArrayOutputStream dtfData = null;
         Fpdu dtfFpdu = null;
+        FpduFrame frame = new FpduFrame();
 
         while (buffer.remaining() >= 6) {
-            int subLen = buffer.getShort() & 0xFFFF;
-            if (subLen < 6 || subLen > buffer.remaining() + 2) {
+            int start = buffer.position();
+            int subLen = buffer.getShort(start) & 0xFFFF;
+            if (subLen < 6 || subLen > buffer.remaining()) {
                 log.warn("Invalid sub-FPDU length: {} (remaining: {})", subLen, buffer.remaining());
                 break;
             }
-
-            // Read sub-FPDU content (without the length prefix we just read)
-            byte[] subContent = new byte[subLen - 2];
-            buffer.get(subContent);
-
-            FpduParser parser = new FpduParser(subContent);
-            Fpdu fpdu = parser.parse();
+            buffer.position(start + subLen);
+            frame.wrap(buffer, start, subLen);
 
             // For DTF* FPDUs, aggregate data into a single FPDU
-            if (isDtfType(fpdu.getFpduType())) {
+            if (frame.isDtf()) {
                 if (dtfFpdu == null) {
-                    dtfFpdu = fpdu;
+                    dtfFpdu = new Fpdu(frame.getFpduType())
+                            .withIdDst(frame.getIdDst())
+                            .withIdSrc(frame.getIdSrc());
                     dtfData = new ByteArrayOutputStream();
                 }
-                if (fpdu.getData() != null) {
-                    try {
-                        dtfData.write(fpdu.getData());
-                    } catch (IOException e) {
-                        // ByteArrayOutputStream doesn't throw
-                    }
-                }
+                ByteBuffer payload = frame.payload();
+                dtfData.write(payload.array(), payload.arrayOffset() + payload.position(), payload.remaining());
             } else {
                 // Non-DTF FPDU: flush any accumulated DTF data first
                 if (dtfFpdu != null) {
@@ -117,7 +114,7 @@ public class FpduReader {
                     dtfFpdu = null;
                     dtfData = null;
                 }
-                pendingFpdus.add(fpdu);
+                pendingFpdus.add(new FpduParser(frame).parse());
             }
         }
 
@@ -128,9 +125,4 @@ public class FpduReader {
             log.debug("Aggregated {} bytes from concatenated DTF FPDUs", dtfData.size());
         }
     }
-
-    private boolean isDtfType(FpduType type) {
-        return type == FpduType.DTF || type == FpduType.DTFDA
-                || type == FpduType.DTFMA || type == FpduType.DTFFA;
-    }
 }
@@ -5,8 +5,10 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.pesitwizard.compression.ArticleCompressor;
 import com.pesitwizard.fpdu.Fpdu;
 import com.pesitwizard.fpdu.FpduBuilder;
+import com.pesitwizard.fpdu.FpduFrame;
 import com.pesitwizard.fpdu.FpduType;
 import com.pesitwizard.session.PesitSession;
 
@@ -18,6 +20,10 @@ import lombok.extern.slf4j.Slf4j;
  * Handles automatic chunking of data based on negotiated PI_25 (max entity
  * size)
  * and optional multi-article DTF (DTFMA) for variable-length records.
+ * With multi-article DTFs, {@link #writeArticles} fills each DTF with as many
+ * articles as PI 25 allows, so a larger entity means fewer FPDUs.
+ * When PI 21 compression was negotiated, each article is compressed on its
+ * own (see {@link #setCompressor}).
  */
 @Slf4j
 public class FpduWriter {
@@ -31,6 +37,9 @@ public class FpduWriter {
     private final boolean useMultiArticle; // Use DTFMA for variable records
 
     private long totalBytesSent = 0;
+    private ArticleCompressor compressor;
+    private byte[] compressBuffer;
+    private long compressedBytesSent = 0;
 
     /**
      * Create a writer for fixed-length records (simple DTF).
@@ -67,6 +76,60 @@ public class FpduWriter {
         return maxEntitySize - FPDU_HEADER_SIZE;
     }
 
+    /**
+     * Compress every article with the negotiated PI 21 type; articles are
+     * then limited so that their compressed form always fits in one DTF.
+     */
+    public void setCompressor(ArticleCompressor compressor) {
+        this.compressor = compressor;
+    }
+
+    /**
+     * Mark a sync point sent after the articles written so far: the next
+     * article is not compressed vertically (PeSIT E Annexe A).
+     */
+    public void syncPoint() {
+        if (compressor != null) {
+            compressor.reset();
+        }
+    }
+
+    /**
+     * Get the largest article sent in one DTF.
+     */
+    public int getMaxArticlePerDtf() {
+        return compressor != null ? ArticleCompressor.maxArticleLength(getMaxDataPerDtf()) : getMaxDataPerDtf();
+    }
+
+    /**
+     * Get the article size used by {@link #writeArticles}: the record length
+     * (PI 32), within what one DTF can carry.
+     */
+    public int getArticleLength() {
+        return recordLength > 0 ? Math.min(recordLength, getMaxArticlePerDtf()) : getMaxArticlePerDtf();
+    }
+
+    /**
+     * Get the number of articles of {@link #getArticleLength()} bytes packed
+     * in one DTF: 1 unless multi-article DTFs are used.
+     */
+    public int getArticlesPerDtf() {
+        if (!useMultiArticle) {
+            return 1;
+        }
+        int articleLength = getArticleLength();
+        int payload = compressor != null ? ArticleCompressor.maxCompressedLength(articleLength) : articleLength;
+        int articles = getMaxDataPerDtf() / (ARTICLE_PREFIX_SIZE + payload);
+        return Math.max(1, Math.min(articles, FpduFrame.MAX_ARTICLES));
+    }
+
+    /**
+     * Get total compressed bytes sent so far (0 without compression).
+     */
+    public long getCompressedBytesSent() {
+        return compressedBytesSent;
+    }
+
     /**
      * Get total bytes sent so far.
      */
@@ -83,7 +146,7 @@ public class FpduWriter {
      * @return Total bytes written
      */
     public long writeFromStream(InputStream inputStream, WriteCallback callback) throws IOException {
-        int maxDataPerDtf = getMaxDataPerDtf();
+        int maxDataPerDtf = getMaxArticlePerDtf();
         byte[] buffer = new byte[maxDataPerDtf];
         int bytesRead;
 
@@ -108,7 +171,7 @@ public class FpduWriter {
             return;
         }
 
-        int maxDataPerDtf = getMaxDataPerDtf();
+        int maxDataPerDtf = getMaxArticlePerDtf();
 
         if (data.length <= maxDataPerDtf) {
             // Single DTF is sufficient
@@ -126,9 +189,32 @@ public class FpduWriter {
         }
     }
 
+    /**
+     * Write {@code data[offset, offset + length)} cut into articles of
+     * {@link #getArticleLength()} bytes, packed into DTFs as by
+     * {@link #writeMultiArticle}. Reading {@link #getArticleLength()} ×
+     * {@link #getArticlesPerDtf()} bytes at a time fills every DTF.
+     * Without multi-article DTFs, each article goes in its own DTF.
+     */
+    public void writeArticles(byte[] data, int offset, int length) throws IOException {
+        int articleLength = getArticleLength();
+        if (!useMultiArticle) {
+            for (int pos = offset; pos < offset + length; pos += articleLength) {
+                sendSingleDtf(java.util.Arrays.copyOfRange(data, pos, Math.min(pos + articleLength, offset + length)));
+            }
+            return;
+        }
+        List<byte[]> articles = new ArrayList<>((length + articleLength - 1) / articleLength);
+        for (int pos = offset; pos < offset + length; pos += articleLength) {
+            articles.add(java.util.Arrays.copyOfRange(data, pos, Math.min(pos + articleLength, offset + length)));
+        }
+        writeMultiArticle(articles);
+    }
+
     /**
      * Write multiple articles as a single DTFMA FPDU if they fit,
-     * otherwise split across multiple DTFMAs.
+     * otherwise split across multiple DTFMAs. Compressed articles are
+     * packed by their compressed size.
      */
     public void writeMultiArticle(List<byte[]> articles) throws IOException {
         if (articles == null || articles.isEmpty()) {
@@ -138,71 +224,96 @@ public class FpduWriter {
         int maxDataPerDtf = getMaxDataPerDtf();
         List<byte[]> currentBatch = new ArrayList<>();
         int currentBatchSize = 0;
+        int currentBatchData = 0;
 
         for (byte[] article : articles) {
-            int articleTotalSize = ARTICLE_PREFIX_SIZE + article.length;
+            // If single article exceeds limit, split it
+            if (article.length > getMaxArticlePerDtf()) {
+                flushBatch(currentBatch, currentBatchData);
+                currentBatch.clear();
+                currentBatchSize = 0;
+                currentBatchData = 0;
+                log.warn("Article size {} exceeds max entity size {}, sending as simple DTFs",
+                        article.length, maxEntitySize);
+                writeDtf(article);
+                continue;
+            }
 
-            if (currentBatchSize + articleTotalSize > maxDataPerDtf) {
+            byte[] payload = compress(article);
+            int articleTotalSize = ARTICLE_PREFIX_SIZE + payload.length;
+            if (currentBatchSize + articleTotalSize > maxDataPerDtf
+                    || currentBatch.size() == FpduFrame.MAX_ARTICLES) {
                 // Flush current batch
-                if (!currentBatch.isEmpty()) {
-                    sendMultiArticleDtf(currentBatch);
-                    currentBatch.clear();
-                    currentBatchSize = 0;
-                }
-
-                // If single article exceeds limit, split it
-                if (articleTotalSize > maxDataPerDtf) {
-                    log.warn("Article size {} exceeds max entity size {}, sending as simple DTF",
-                            article.length, maxEntitySize);
-                    writeDtf(article);
-                    continue;
-                }
+                flushBatch(currentBatch, currentBatchData);
+                currentBatch.clear();
+                currentBatchSize = 0;
+                currentBatchData = 0;
             }
 
-            currentBatch.add(article);
+            currentBatch.add(payload);
             currentBatchSize += articleTotalSize;
+            currentBatchData += article.length;
         }
 
         // Flush remaining
-        if (!currentBatch.isEmpty()) {
-            sendMultiArticleDtf(currentBatch);
-        }
+        flushBatch(currentBatch, currentBatchData);
     }
 
     /**
      * Send a single DTF FPDU with the given data.
      */
     private void sendSingleDtf(byte[] data) throws IOException {
+        sendDtf(compress(data), data.length);
+    }
+
+    /**
+     * Compress an article when PI 21 was negotiated.
+     */
+    private byte[] compress(byte[] data) {
+        if (compressor == null) {
+            return data;
+        }
+        if (compressBuffer == null) {
+            compressBuffer = new byte[getMaxDataPerDtf()];
+        }
+        int length = compressor.compress(data, 0, data.length, compressBuffer, 0);
+        compressedBytesSent += length;
+        return java.util.Arrays.copyOf(compressBuffer, length);
+    }
+
+    /**
+     * Send one article (already compressed if needed) as a simple DTF.
+     */
+    private void sendDtf(byte[] payload, int dataLength) throws IOException {
         Fpdu dtfFpdu = new Fpdu(FpduType.DTF)
                 .withIdDst(serverConnectionId);
         try {
-            session.sendFpduWithData(dtfFpdu, data);
+            session.sendFpduWithData(dtfFpdu, payload);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new IOException("Interrupted while sending DTF", e);
         }
-        totalBytesSent += data.length;
-        log.debug("Sent DTF: {} bytes, total: {}", data.length, totalBytesSent);
+        totalBytesSent += dataLength;
+        log.debug("Sent DTF: {} bytes, total: {}", dataLength, totalBytesSent);
     }
 
     /**
-     * Send a DTFMA (multi-article DTF) FPDU.
+     * Send a batch of articles (already compressed if needed): a simple DTF
+     * for one article, a DTFMA (multi-article DTF) FPDU otherwise.
      */
-    private void sendMultiArticleDtf(List<byte[]> articles) throws IOException {
-        byte[] dtfmaData = FpduBuilder.buildMultiArticleDtf(serverConnectionId, articles, maxEntitySize);
-        if (dtfmaData != null) {
-            session.sendRawFpdu(dtfmaData);
-            int dataSize = articles.stream().mapToInt(a -> a.length).sum();
-            totalBytesSent += dataSize;
-            log.debug("Sent DTFMA: {} articles, {} bytes data, total: {}",
-                    articles.size(), dataSize, totalBytesSent);
-        } else {
-            // Fallback: send as individual DTFs
-            log.warn("DTFMA too large, falling back to individual DTFs");
-            for (byte[] article : articles) {
-                sendSingleDtf(article);
-            }
+    private void flushBatch(List<byte[]> payloads, int dataSize) throws IOException {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        if (payloads.size() == 1) {
+            sendDtf(payloads.get(0), dataSize);
+            return;
         }
+        byte[] dtfmaData = FpduBuilder.buildMultiArticleDtf(serverConnectionId, payloads, maxEntitySize);
+        session.sendRawFpdu(dtfmaData);
+        totalBytesSent += dataSize;
+        log.debug("Sent DTFMA: {} articles, {} bytes data, total: {}",
+                payloads.size(), dataSize, totalBytesSent);
     }
 
     /**
@@ -23,6 +23,7 @@ import lombok.extern.slf4j.Slf4j;
 public class PesitServerService {
 
     private final PesitServerRepository serverRepository;
+    private final TlsContextCache tlsContextCache;
 
     @Transactional(readOnly = true)
     public List<PesitServer> getAllServers() {
@@ -109,6 +110,7 @@ public class PesitServerService {
         PesitServer server = serverRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Server not found: " + id));
         serverRepository.delete(server);
+        tlsContextCache.invalidate(id);
         log.info("Deleted PeSIT server: {}", server.getName());
     }
 
@@ -142,6 +144,10 @@ public class PesitServerService {
                 // TLS certificates are uploaded separately via dedicated endpoints
                 .connectionTimeout(dto.getConnectionTimeout())
                 .readTimeout(dto.getReadTimeout())
+                .maxIdleSessions(dto.getMaxIdleSessions())
+                .sessionIdleTimeout(dto.getSessionIdleTimeout())
+                .maxEntitySize(dto.getMaxEntitySize())
+                .stripes(dto.getStripes())
                 .enabled(dto.isEnabled())
                 .defaultServer(dto.isDefaultServer())
                 .build();
@@ -157,6 +163,10 @@ public class PesitServerService {
         // TLS certificates are uploaded separately via dedicated endpoints
         server.setConnectionTimeout(dto.getConnectionTimeout());
         server.setReadTimeout(dto.getReadTimeout());
+        server.setMaxIdleSessions(dto.getMaxIdleSessions());
+        server.setSessionIdleTimeout(dto.getSessionIdleTimeout());
+        server.setMaxEntitySize(dto.getMaxEntitySize());
+        server.setStripes(dto.getStripes());
         server.setEnabled(dto.isEnabled());
         server.setDefaultServer(dto.isDefaultServer());
     }
@@ -174,6 +184,10 @@ public class PesitServerService {
                 .keystoreConfigured(server.getKeystoreData() != null && server.getKeystoreData().length > 0)
                 .connectionTimeout(server.getConnectionTimeout())
                 .readTimeout(server.getReadTimeout())
+                .maxIdleSessions(server.getMaxIdleSessions())
+                .sessionIdleTimeout(server.getSessionIdleTimeout())
+                .maxEntitySize(server.getMaxEntitySize())
+                .stripes(server.getStripes())
                 .enabled(server.isEnabled())
                 .defaultServer(server.isDefaultServer())
                 .build();
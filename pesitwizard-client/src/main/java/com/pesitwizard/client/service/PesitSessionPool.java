@@ -0,0 +1,296 @@
+package com.pesitwizard.client.service;
+
+import static com.pesitwizard.fpdu.ParameterIdentifier.PI_02_DIAG;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.pesitwizard.client.entity.PesitServer;
+import com.pesitwizard.fpdu.Fpdu;
+import com.pesitwizard.fpdu.FpduBuilder;
+import com.pesitwizard.fpdu.FpduType;
+import com.pesitwizard.fpdu.ParameterValue;
+import com.pesitwizard.session.PesitSession;
+import com.pesitwizard.transport.TransportChannel;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps connected PeSIT sessions open between transfers.
+ *
+ * A session is reusable after DESELECT: the server is back in CN03 and
+ * accepts another CREATE/SELECT on the same connection, so consecutive
+ * transfers to a partner skip the TCP/TLS handshake and CONNECT/ACONNECT.
+ * Sessions are keyed by server and by the encoded CONNECT FPDU (partner,
+ * password, access type, sync point options): a transfer only reuses a
+ * session connected with the exact same parameters.
+ *
+ * Idle sessions are probed before reuse and closed with RELEASE after
+ * {@link PesitServer#getSessionIdleTimeout()}.
+ */
+@Slf4j
+@Service
+public class PesitSessionPool {
+
+    private static final int DEFAULT_MAX_IDLE = 4;
+    private static final int DEFAULT_IDLE_TIMEOUT = 30000;
+
+    private final Map<SessionKey, Deque<PooledSession>> idle = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the transport channel of a new session
+     */
+    @FunctionalInterface
+    public interface ChannelFactory {
+        TransportChannel create() throws IOException;
+    }
+
+    /**
+     * Borrow a session for one transfer. The session is connected lazily by
+     * {@link Lease#connect(Fpdu)}: an idle session connected with the same
+     * CONNECT is reused, otherwise a new connection is opened.
+     *
+     * @param receiveTimeout receive timeout applied to a reused session
+     */
+    public Lease lease(PesitServer server, int receiveTimeout, ChannelFactory channelFactory) {
+        return new Lease(server, receiveTimeout, channelFactory);
+    }
+
+    /**
+     * Number of idle sessions currently kept open
+     */
+    public int getIdleCount() {
+        return idle.values().stream().mapToInt(deque -> {
+            synchronized (deque) {
+                return deque.size();
+            }
+        }).sum();
+    }
+
+    /**
+     * Close the sessions idle for longer than their server's idle timeout
+     */
+    @Scheduled(fixedDelayString = "${pesitwizard.client.session-pool.eviction-interval:5000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        List<PooledSession> expired = new ArrayList<>();
+        for (Deque<PooledSession> deque : idle.values()) {
+            synchronized (deque) {
+                for (Iterator<PooledSession> it = deque.iterator(); it.hasNext();) {
+                    PooledSession session = it.next();
+                    if (now - session.idleSince >= session.idleTimeout) {
+                        it.remove();
+                        expired.add(session);
+                    }
+                }
+            }
+        }
+        for (PooledSession session : expired) {
+            log.debug("Closing session to {} idle for {} ms", session.channel.getRemoteAddress(),
+                    now - session.idleSince);
+            release(session);
+        }
+    }
+
+    /**
+     * Close every idle session
+     */
+    @PreDestroy
+    public void shutdown() {
+        List<PooledSession> sessions = new ArrayList<>();
+        for (Deque<PooledSession> deque : idle.values()) {
+            synchronized (deque) {
+                sessions.addAll(deque);
+                deque.clear();
+            }
+        }
+        sessions.forEach(PesitSessionPool::release);
+    }
+
+    private PooledSession poll(SessionKey key) {
+        Deque<PooledSession> deque = idle.get(key);
+        if (deque == null) {
+            return null;
+        }
+        while (true) {
+            PooledSession session;
+            synchronized (deque) {
+                // Most recently used first: the least likely to have been dropped
+                session = deque.pollLast();
+            }
+            if (session == null) {
+                return null;
+            }
+            if (System.currentTimeMillis() - session.idleSince < session.idleTimeout
+                    && session.channel.isAlive()) {
+                return session;
+            }
+            log.debug("Discarding stale session to {}", session.channel.getRemoteAddress());
+            discard(session);
+        }
+    }
+
+    private void offer(PooledSession session, int maxIdle) {
+        Deque<PooledSession> deque = idle.computeIfAbsent(session.key, k -> new ArrayDeque<>());
+        boolean pooled;
+        synchronized (deque) {
+            pooled = deque.size() < maxIdle;
+            if (pooled) {
+                session.idleSince = System.currentTimeMillis();
+                deque.addLast(session);
+            }
+        }
+        if (!pooled) {
+            release(session);
+        }
+    }
+
+    /** End a session cleanly: RELEASE, then close the connection */
+    private static void release(PooledSession session) {
+        try {
+            session.session.sendFpduWithAck(new Fpdu(FpduType.RELEASE)
+                    .withIdDst(session.serverConnectionId)
+                    .withIdSrc(session.connectionId)
+                    .withParameter(new ParameterValue(PI_02_DIAG, new byte[] { 0x00, 0x00, 0x00 })));
+        } catch (Exception e) {
+            log.debug("RELEASE failed on {}: {}", session.channel.getRemoteAddress(), e.getMessage());
+        }
+        discard(session);
+    }
+
+    private static void discard(PooledSession session) {
+        try {
+            session.session.close();
+        } catch (IOException e) {
+            log.debug("Error closing session: {}", e.getMessage());
+        }
+    }
+
+    private static int orDefault(Integer value, int defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Identifies interchangeable sessions: same server configuration, same
+     * CONNECT FPDU
+     */
+    private record SessionKey(String serverId, Instant serverUpdatedAt, ByteBuffer connect) {
+    }
+
+    private static final class PooledSession {
+        private final SessionKey key;
+        private final TransportChannel channel;
+        private final PesitSession session;
+        private final Fpdu aconnect;
+        private final int connectionId;
+        private final int serverConnectionId;
+        private final int idleTimeout;
+        private long idleSince;
+
+        private PooledSession(SessionKey key, TransportChannel channel, PesitSession session, Fpdu connect,
+                Fpdu aconnect, int idleTimeout) {
+            this.key = key;
+            this.channel = channel;
+            this.session = session;
+            this.aconnect = aconnect;
+            this.connectionId = connect.getIdSrc();
+            this.serverConnectionId = aconnect.getIdSrc();
+            this.idleTimeout = idleTimeout;
+        }
+    }
+
+    /**
+     * A session borrowed for one transfer. Call {@link #release()} once the
+     * transfer ended with DESELECT to give the session back; closing an
+     * unreleased lease drops the connection, as its protocol state is unknown.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final PesitServer server;
+        private final int receiveTimeout;
+        private final ChannelFactory channelFactory;
+        private PooledSession pooled;
+        private boolean released;
+
+        private Lease(PesitServer server, int receiveTimeout, ChannelFactory channelFactory) {
+            this.server = server;
+            this.receiveTimeout = receiveTimeout;
+            this.channelFactory = channelFactory;
+        }
+
+        /**
+         * Get a session connected with {@code connect}.
+         *
+         * @return the ACONNECT of the session, which may come from an
+         *         earlier transfer
+         */
+        public Fpdu connect(Fpdu connect) throws IOException, InterruptedException {
+            if (pooled != null) {
+                throw new IllegalStateException("Lease already connected");
+            }
+            SessionKey key = new SessionKey(server.getId(), server.getUpdatedAt(),
+                    ByteBuffer.wrap(FpduBuilder.buildFpdu(connect)));
+            pooled = poll(key);
+            if (pooled != null) {
+                pooled.channel.setReceiveTimeout(receiveTimeout);
+                log.info("Reusing session to {} (server connection id {})", pooled.channel.getRemoteAddress(),
+                        pooled.serverConnectionId);
+                return pooled.aconnect;
+            }
+            TransportChannel channel = channelFactory.create();
+            PesitSession session = new PesitSession(channel, false);
+            try {
+                Fpdu aconnect = session.sendFpduWithAck(connect);
+                pooled = new PooledSession(key, channel, session, connect, aconnect,
+                        orDefault(server.getSessionIdleTimeout(), DEFAULT_IDLE_TIMEOUT));
+                return aconnect;
+            } catch (IOException | InterruptedException | RuntimeException e) {
+                session.close();
+                throw e;
+            }
+        }
+
+        public PesitSession getSession() {
+            if (pooled == null) {
+                throw new IllegalStateException("Lease not connected");
+            }
+            return pooled.session;
+        }
+
+        /**
+         * The transfer ended cleanly (DESELECT acknowledged): keep the session
+         * for the next transfer, or RELEASE it if the pool is full or disabled
+         */
+        public void release() {
+            if (pooled == null || released) {
+                return;
+            }
+            released = true;
+            int maxIdle = orDefault(server.getMaxIdleSessions(), DEFAULT_MAX_IDLE);
+            if (maxIdle > 0 && pooled.channel.isConnected()) {
+                offer(pooled, maxIdle);
+            } else {
+                PesitSessionPool.release(pooled);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (pooled != null && !released) {
+                discard(pooled);
+            }
+        }
+    }
+}
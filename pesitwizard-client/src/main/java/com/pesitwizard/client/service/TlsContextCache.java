@@ -0,0 +1,77 @@
+package com.pesitwizard.client.service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.pesitwizard.client.entity.PesitServer;
+import com.pesitwizard.client.security.SecretsService;
+import com.pesitwizard.transport.TlsTransportChannel;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * SSL contexts of the configured servers, built once per version of their
+ * truststore and keystore.
+ *
+ * Loading the PKCS12 stores is skipped on each connection, and connections
+ * to a server share the client session cache of its context: handshakes
+ * after the first one resume the TLS session (session ID, or TLS 1.3 session
+ * ticket) instead of running a full handshake. A context is rebuilt when the
+ * server is updated (its {@code updatedAt} changes, e.g. on a store upload).
+ */
+@Slf4j
+@Service
+public class TlsContextCache {
+
+    private final SecretsService secretsService;
+    private final int sessionCacheSize;
+    private final int sessionTimeout;
+    private final Map<String, CachedContext> contexts = new ConcurrentHashMap<>();
+
+    public TlsContextCache(SecretsService secretsService,
+            @Value("${pesitwizard.client.tls.session-cache-size:1000}") int sessionCacheSize,
+            @Value("${pesitwizard.client.tls.session-timeout:3600}") int sessionTimeout) {
+        this.secretsService = secretsService;
+        this.sessionCacheSize = sessionCacheSize;
+        this.sessionTimeout = sessionTimeout;
+    }
+
+    /**
+     * SSL context for a server with a configured truststore
+     */
+    public SSLContext getContext(PesitServer server) {
+        CachedContext cached = contexts.get(server.getId());
+        if (cached != null && Objects.equals(cached.updatedAt(), server.getUpdatedAt())) {
+            return cached.context();
+        }
+        SSLContext context = TlsTransportChannel.createSslContext(
+                server.getTruststoreData(),
+                secretsService.decrypt(server.getTruststorePassword()),
+                server.getKeystoreData(),
+                secretsService.decrypt(server.getKeystorePassword()));
+        SSLSessionContext sessions = context.getClientSessionContext();
+        sessions.setSessionCacheSize(sessionCacheSize);
+        sessions.setSessionTimeout(sessionTimeout);
+        contexts.put(server.getId(), new CachedContext(server.getUpdatedAt(), context));
+        log.debug("SSL context built for server {}", server.getName());
+        return context;
+    }
+
+    /**
+     * Drop the context of a server, e.g. when it is deleted
+     */
+    public void invalidate(String serverId) {
+        contexts.remove(serverId);
+    }
+
+    private record CachedContext(Instant updatedAt, SSLContext context) {
+    }
+}
@@ -7,17 +7,30 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -44,9 +57,15 @@ import com.pesitwizard.client.repository.StorageConnectionRepository;
 import com.pesitwizard.client.repository.TransferConfigRepository;
 import com.pesitwizard.client.repository.TransferHistoryRepository;
 import com.pesitwizard.client.security.SecretsService;
+import com.pesitwizard.compression.ArticleCompressor;
+import com.pesitwizard.compression.ArticleDecompressor;
+import com.pesitwizard.compression.CompressionType;
+import com.pesitwizard.connector.ChannelConnector;
 import com.pesitwizard.connector.ConnectorException;
+import com.pesitwizard.connector.FileChannelConnector;
 import com.pesitwizard.connector.StorageConnector;
 import com.pesitwizard.exception.PesitException;
+import com.pesitwizard.fpdu.Capabilities;
 import com.pesitwizard.fpdu.ConnectMessageBuilder;
 import com.pesitwizard.fpdu.CreateMessageBuilder;
 import com.pesitwizard.fpdu.Fpdu;
@@ -54,6 +73,7 @@ import com.pesitwizard.fpdu.FpduType;
 import com.pesitwizard.fpdu.ParameterGroupIdentifier;
 import com.pesitwizard.fpdu.ParameterIdentifier;
 import com.pesitwizard.fpdu.ParameterValue;
+import com.pesitwizard.fpdu.Stripe;
 import com.pesitwizard.session.PesitSession;
 import com.pesitwizard.transport.TcpTransportChannel;
 import com.pesitwizard.transport.TlsTransportChannel;
@@ -75,6 +95,12 @@ public class TransferService {
 
         private static final AtomicInteger TRANSFER_ID_COUNTER = new AtomicInteger(1);
 
+        /** Largest entity size (PI 25) that fits the 16-bit FPDU length */
+        private static final int MAX_ENTITY_SIZE = 65535;
+
+        /** Smallest range sent as a stripe of a striped transfer */
+        private static final long MIN_STRIPE_SIZE = 32L * 1024 * 1024;
+
         /** Set of transfer IDs that have been requested to cancel */
         private final Set<String> cancelledTransfers = ConcurrentHashMap.newKeySet();
 
@@ -88,6 +114,8 @@ public class TransferService {
         private final ObjectMapper objectMapper;
         private final SecretsService secretsService;
         private final TransferProgressService progressService;
+        private final PesitSessionPool sessionPool;
+        private final TlsContextCache tlsContextCache;
 
         public TransferResponse sendFile(TransferRequest request) {
                 String correlationId = request.getCorrelationId() != null ? request.getCorrelationId()
@@ -150,28 +178,42 @@ public class TransferService {
                 InputStream inputStream = null;
 
                 try {
-                        if (sourceConnId != null) {
-                                connector = createConnectorFromConnectionId(sourceConnId);
-                                inputStream = connector.read(filename, 0);
-                                log.info("Streaming {} bytes from connector {} path {}", fileSize, sourceConnId,
-                                                filename);
+                        String checksum = null;
+                        int stripes = acceptedStripes(server, request, config, fileSize);
+                        if (stripes > 1) {
+                                checksum = sendStriped(request, historyId, server, config, fileSize, stripes);
                         } else {
-                                Path localFile = Path.of(filename);
-                                inputStream = new BufferedInputStream(Files.newInputStream(localFile), 64 * 1024);
-                                log.info("Streaming {} bytes from local file {}", fileSize, filename);
-                        }
-
-                        TransportChannel channel = createChannel(server, fileSize);
+                                if (sourceConnId != null) {
+                                        connector = createConnectorFromConnectionId(sourceConnId);
+                                        // File-backed connectors hand out mapped pages instead of read copies
+                                        Optional<FileChannelConnector> files = connector
+                                                        .capability(FileChannelConnector.class);
+                                        inputStream = files.isPresent() ? files.get().readMapped(filename, 0)
+                                                        : connector.read(filename, 0);
+                                        log.info("Streaming {} bytes from connector {} path {}", fileSize,
+                                                        sourceConnId, filename);
+                                } else {
+                                        Path localFile = Path.of(filename);
+                                        inputStream = new BufferedInputStream(Files.newInputStream(localFile),
+                                                        64 * 1024);
+                                        log.info("Streaming {} bytes from local file {}", fileSize, filename);
+                                }
 
-                        try (PesitSession session = new PesitSession(channel, false)) {
-                                executeSendTransferStreaming(session, server, request, inputStream, fileSize, config,
-                                                historyId);
+                                try (PesitSessionPool.Lease lease = sessionPool.lease(server,
+                                                receiveTimeout(server, fileSize), () -> createChannel(server, fileSize))) {
+                                        executeSendTransferStreaming(lease, server, request, inputStream, fileSize,
+                                                        config, historyId);
+                                }
                         }
 
                         // Update history on success
                         log.info("Transfer {} completed successfully, updating DB and sending WebSocket", historyId);
+                        String fileChecksum = checksum;
                         historyRepository.findById(historyId).ifPresent(history -> {
                                 history.setStatus(TransferStatus.COMPLETED);
+                                if (fileChecksum != null) {
+                                        history.setChecksum(fileChecksum);
+                                }
                                 history.setBytesTransferred(fileSize);
                                 history.setCompletedAt(Instant.now());
                                 historyRepository.save(history);
@@ -228,6 +270,171 @@ public class TransferService {
                 }
         }
 
+        /**
+         * Number of sessions to stripe a send over: the stripes configured for
+         * the server, at most one per {@link #MIN_STRIPE_SIZE} bytes of the
+         * file, capped by the stripes the server accepts in ACONNECT. A source
+         * connector without parallel range reads gets a single session. The
+         * probing session goes back to the pool, where the first stripe picks
+         * it up.
+         *
+         * @return 1 to send the file in a single session
+         */
+        private int acceptedStripes(PesitServer server, TransferRequest request, TransferConfig config,
+                        long fileSize) throws IOException, InterruptedException {
+                int wanted = server.getStripes() != null
+                                ? (int) Math.min(server.getStripes(), fileSize / MIN_STRIPE_SIZE)
+                                : 1;
+                if (wanted < 2 || !readsParallelRanges(request.getSourceConnectionId())) {
+                        return 1;
+                }
+                Fpdu aconnect;
+                try (PesitSessionPool.Lease lease = sessionPool.lease(server, receiveTimeout(server, fileSize),
+                                () -> createChannel(server, fileSize))) {
+                        aconnect = lease.connect(buildSendConnect(server, request, config, fileSize));
+                        lease.release();
+                }
+                int accepted = peerCapabilities(aconnect).stripes();
+                if (accepted < 2) {
+                        log.warn("Server {} does not accept striped transfers, sending {} bytes in one session",
+                                        server.getName(), fileSize);
+                        return 1;
+                }
+                return Math.min(wanted, accepted);
+        }
+
+        /**
+         * Stripes read the source at several offsets at once, which a
+         * stream-only connector can only do by reading each prefix again
+         */
+        private boolean readsParallelRanges(String sourceConnId) {
+                if (sourceConnId == null) {
+                        return true;
+                }
+                StorageConnector connector = createConnectorFromConnectionId(sourceConnId);
+                try {
+                        if (!ChannelConnector.of(connector).supportsParallelRanges()) {
+                                log.info("Source connector {} cannot read ranges in parallel, sending without stripes",
+                                                connector.getType());
+                                return false;
+                        }
+                        return true;
+                } finally {
+                        connector.close();
+                }
+        }
+
+        /**
+         * Send a file as {@code count} stripes over as many concurrent sessions.
+         * The server assembles the stripes into one file and returns its
+         * checksum, verified against the local file when there is one.
+         *
+         * @return the checksum of the file
+         */
+        private String sendStriped(TransferRequest request, String historyId, PesitServer server,
+                        TransferConfig config, long fileSize, int count) throws IOException, InterruptedException {
+                List<Stripe> stripes = Stripe.split(UUID.randomUUID().toString(), fileSize, count);
+                log.info("Sending {} bytes as {} stripes of {} bytes", fileSize, count, stripes.get(0).length());
+                AtomicLong stripedBytes = new AtomicLong();
+                ExecutorService executor = Executors.newFixedThreadPool(count,
+                                Thread.ofPlatform().name("stripe-" + historyId + "-", 0).daemon().factory());
+                try {
+                        CompletionService<String> results = new ExecutorCompletionService<>(executor);
+                        for (Stripe stripe : stripes) {
+                                results.submit(() -> sendStripe(request, historyId, server, config, stripe,
+                                                stripedBytes));
+                        }
+                        // Digest the local file while the stripes are sent
+                        String localChecksum = request.getSourceConnectionId() == null
+                                        ? stripedChecksum(Path.of(request.getFilename()), stripes)
+                                        : null;
+                        String checksum = null;
+                        for (int i = 0; i < count; i++) {
+                                try {
+                                        String stripeChecksum = results.take().get();
+                                        if (stripeChecksum != null) {
+                                                checksum = stripeChecksum;
+                                        }
+                                } catch (ExecutionException e) {
+                                        // Stop the other stripes at their next read
+                                        cancelledTransfers.add(historyId);
+                                        if (e.getCause() instanceof RuntimeException cause) {
+                                                throw cause;
+                                        }
+                                        throw new IOException("Stripe failed: " + e.getCause().getMessage(),
+                                                        e.getCause());
+                                }
+                        }
+                        if (checksum == null) {
+                                log.warn("Server returned no checksum for striped transfer {}", historyId);
+                        } else if (localChecksum != null && !localChecksum.equals(checksum)) {
+                                throw new IOException("Striped transfer checksum mismatch: local " + localChecksum
+                                                + ", server " + checksum);
+                        }
+                        return checksum;
+                } finally {
+                        executor.shutdownNow();
+                }
+        }
+
+        private String sendStripe(TransferRequest request, String historyId, PesitServer server,
+                        TransferConfig config, Stripe stripe, AtomicLong stripedBytes) throws Exception {
+                StorageConnector connector = null;
+                InputStream inputStream;
+                if (request.getSourceConnectionId() != null) {
+                        connector = createConnectorFromConnectionId(request.getSourceConnectionId());
+                        inputStream = connector.read(request.getFilename(), stripe.offset());
+                } else {
+                        FileChannel channel = FileChannel.open(Path.of(request.getFilename()));
+                        channel.position(stripe.offset());
+                        inputStream = new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024);
+                }
+                try (InputStream in = inputStream;
+                                PesitSessionPool.Lease lease = sessionPool.lease(server,
+                                                receiveTimeout(server, stripe.length()),
+                                                () -> createChannel(server, stripe.length()))) {
+                        return executeSendTransferStreaming(lease, server, request, in, stripe.length(), config,
+                                        historyId, stripe, stripedBytes);
+                } finally {
+                        if (connector != null) {
+                                connector.close();
+                        }
+                }
+        }
+
+        /**
+         * Checksum of a striped file as the server computes it: from the
+         * SHA-256 of each stripe range, see {@link Stripe#fileChecksum}.
+         */
+        private String stripedChecksum(Path file, List<Stripe> stripes) throws IOException {
+                MessageDigest digest;
+                try {
+                        digest = MessageDigest.getInstance("SHA-256");
+                } catch (Exception e) {
+                        return null;
+                }
+                List<String> stripeChecksums = new ArrayList<>();
+                try (FileChannel channel = FileChannel.open(file)) {
+                        ByteBuffer buffer = ByteBuffer.allocateDirect(1024 * 1024);
+                        for (Stripe stripe : stripes) {
+                                long position = stripe.offset();
+                                long end = stripe.offset() + stripe.length();
+                                while (position < end) {
+                                        buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+                                        int n = channel.read(buffer, position);
+                                        if (n < 0) {
+                                                throw new IOException(file + " is shorter than its stripes");
+                                        }
+                                        position += n;
+                                        buffer.flip();
+                                        digest.update(buffer);
+                                }
+                                stripeChecksums.add(HexFormat.of().formatHex(digest.digest()));
+                        }
+                }
+                return Stripe.fileChecksum(stripeChecksums);
+        }
+
         public TransferResponse receiveFile(TransferRequest request) {
                 String correlationId = request.getCorrelationId() != null ? request.getCorrelationId()
                                 : UUID.randomUUID().toString();
@@ -287,16 +494,15 @@ public class TransferService {
                                                         attempt, restartPoint, restartBytePosition);
                                 }
 
-                                TransportChannel channel = createChannel(server);
-
                                 // Always use a connector - local connector if none specified
                                 StorageConnector connector = destConnId != null
                                                 ? createConnectorFromConnectionId(destConnId)
                                                 : connectorRegistry.createConnector("local", java.util.Map.of());
 
                                 long bytesReceived;
-                                try (PesitSession session = new PesitSession(channel, false)) {
-                                        bytesReceived = executeReceiveTransfer(session, server, request,
+                                try (PesitSessionPool.Lease lease = sessionPool.lease(server,
+                                                receiveTimeout(server, 0), () -> createChannel(server))) {
+                                        bytesReceived = executeReceiveTransfer(lease, server, request,
                                                         connector, resolvedFilename, config, historyId,
                                                         restartPoint, restartBytePosition);
                                 } finally {
@@ -401,19 +607,26 @@ public class TransferService {
                 history = historyRepository.save(history);
 
                 try {
-                        TransportChannel channel = createChannel(server);
-
-                        try (PesitSession session = new PesitSession(channel, false)) {
-                                switch (request.getMode()) {
-                                        case FPDU -> executeMessageFpdu(session, server, request.getPartnerId(),
-                                                        request.getMessage());
-                                        case PI99 -> executeMessagePi99(session, server, request.getPartnerId(),
-                                                        request.getMessage(),
-                                                        request.isUsePi91());
-                                        case FILE ->
-                                                executeMessageAsFile(session, server, request.getPartnerId(),
-                                                                request.getMessage(),
-                                                                request.getMessageName());
+                        if (request.getMode() == MessageRequest.MessageMode.FILE) {
+                                // Plain file transfer: may reuse a pooled session
+                                try (PesitSessionPool.Lease lease = sessionPool.lease(server,
+                                                receiveTimeout(server, 0), () -> createChannel(server))) {
+                                        executeMessageAsFile(lease, server, request.getPartnerId(),
+                                                        request.getMessage(), request.getMessageName());
+                                }
+                        } else {
+                                TransportChannel channel = createChannel(server);
+
+                                try (PesitSession session = new PesitSession(channel, false)) {
+                                        switch (request.getMode()) {
+                                                case FPDU -> executeMessageFpdu(session, server, request.getPartnerId(),
+                                                                request.getMessage());
+                                                case PI99 -> executeMessagePi99(session, server,
+                                                                request.getPartnerId(), request.getMessage(),
+                                                                request.isUsePi91());
+                                                default -> throw new IllegalStateException(
+                                                                "Unexpected message mode: " + request.getMode());
+                                        }
                                 }
                         }
 
@@ -628,21 +841,33 @@ public class TransferService {
         }
 
         /**
-         * Calculate optimal chunk size based on file size.
-         * PeSIT SIT standard: max entity size = 4050 bytes (article) + 6 (header) =
-         * 4056
-         * CX and most servers support max 4096 bytes.
-         * We use 4096 as the standard max to ensure compatibility.
+         * Entity size (PI 25) to offer: the largest one the server accepts, as
+         * announced in ACONNECT (65535 if it announced none), capped by the
+         * server's configured override (e.g. 4096 for CX) and by {@code cap}.
          */
-        private int calculateOptimalChunkSize(long fileSize) {
-                // Use 4096 as the standard PeSIT chunk size (compatible with SIT/CX)
-                return 4096;
+        static int proposedEntitySize(PesitServer server, Fpdu aconnect, Integer cap) {
+                int size = MAX_ENTITY_SIZE;
+                ParameterValue aconnectPi25 = aconnect.getParameter(ParameterIdentifier.PI_25_TAILLE_MAX_ENTITE);
+                if (aconnectPi25 != null && aconnectPi25.getValue() != null) {
+                        int serverMaxEntitySize = parseNumericValue(aconnectPi25.getValue());
+                        log.info("ACONNECT: Server max entity size (PI 25) = {}", serverMaxEntitySize);
+                        if (serverMaxEntitySize > 0) {
+                                size = Math.min(size, serverMaxEntitySize);
+                        }
+                }
+                if (server.getMaxEntitySize() != null && server.getMaxEntitySize() > 0) {
+                        size = Math.min(size, server.getMaxEntitySize());
+                }
+                if (cap != null && cap > 0) {
+                        size = Math.min(size, cap);
+                }
+                return size;
         }
 
         /**
          * Parse a numeric value from a byte array (big-endian).
          */
-        private int parseNumericValue(byte[] bytes) {
+        private static int parseNumericValue(byte[] bytes) {
                 int value = 0;
                 for (byte b : bytes) {
                         value = (value << 8) | (b & 0xFF);
@@ -650,18 +875,21 @@ public class TransferService {
                 return value;
         }
 
-        private TransportChannel createChannel(PesitServer server) {
-                return createChannel(server, 0);
-        }
-
-        private TransportChannel createChannel(PesitServer server, long fileSize) {
+        private int receiveTimeout(PesitServer server, long fileSize) {
                 // Calculate timeout based on file size: min 60s, add 1 minute per 50MB
                 int baseTimeout = server.getReadTimeout() != null ? server.getReadTimeout() : 60000;
                 int fileSizeTimeout = (int) ((fileSize / (50 * 1024 * 1024)) * 60000);
                 int timeout = Math.max(baseTimeout, baseTimeout + fileSizeTimeout);
                 // Cap at 30 minutes max
-                timeout = Math.min(timeout, 30 * 60 * 1000);
+                return Math.min(timeout, 30 * 60 * 1000);
+        }
 
+        private TransportChannel createChannel(PesitServer server) {
+                return createChannel(server, 0);
+        }
+
+        private TransportChannel createChannel(PesitServer server, long fileSize) {
+                int timeout = receiveTimeout(server, fileSize);
                 if (fileSize > 0) {
                         log.info("Using timeout of {}ms for file size {} bytes", timeout, fileSize);
                 }
@@ -669,13 +897,8 @@ public class TransferService {
                 if (server.isTlsEnabled()) {
                         TlsTransportChannel tlsChannel;
                         if (server.getTruststoreData() != null && server.getTruststoreData().length > 0) {
-                                tlsChannel = new TlsTransportChannel(
-                                                server.getHost(),
-                                                server.getPort(),
-                                                server.getTruststoreData(),
-                                                secretsService.decrypt(server.getTruststorePassword()),
-                                                server.getKeystoreData(),
-                                                secretsService.decrypt(server.getKeystorePassword()));
+                                tlsChannel = new TlsTransportChannel(server.getHost(), server.getPort(),
+                                                tlsContextCache.getContext(server));
                         } else {
                                 tlsChannel = new TlsTransportChannel(server.getHost(), server.getPort());
                         }
@@ -750,120 +973,116 @@ public class TransferService {
          * Execute send transfer with streaming - reads from InputStream in chunks
          * without loading entire file into memory.
          */
-        private void executeSendTransferStreaming(PesitSession session, PesitServer server,
+        private void executeSendTransferStreaming(PesitSessionPool.Lease lease, PesitServer server,
                         TransferRequest request, InputStream inputStream, long fileSize, TransferConfig config,
                         String historyId)
                         throws IOException, InterruptedException {
-                int connectionId = 1;
+                executeSendTransferStreaming(lease, server, request, inputStream, fileSize, config, historyId,
+                                null, null);
+        }
 
+        /**
+         * Send one stripe of a striped transfer, or the whole file if
+         * {@code stripe} is null. A stripe sends {@code stripe.length()} bytes
+         * of {@code inputStream}, without sync points, and adds its progress to
+         * {@code stripedBytes}.
+         *
+         * @return the whole-file checksum returned in ACK(DESELECT) by the
+         *         server when this stripe completed the file, null otherwise
+         */
+        private String executeSendTransferStreaming(PesitSessionPool.Lease lease, PesitServer server,
+                        TransferRequest request, InputStream inputStream, long fileSize, TransferConfig config,
+                        String historyId, Stripe stripe, AtomicLong stripedBytes)
+                        throws IOException, InterruptedException {
                 // Resolve transfer parameters from request or config
                 String virtualFile = request.getVirtualFile() != null ? request.getVirtualFile()
                                 : request.getRemoteFilename();
-                // Auto-calculate chunkSize based on file size, or use explicit override
-                int chunkSize = request.getChunkSize() != null ? request.getChunkSize()
-                                : calculateOptimalChunkSize(fileSize);
                 // Record length (PI 32) - request overrides config (configured per virtual file
                 // on server)
                 int recordLength = request.getRecordLength() != null ? request.getRecordLength()
                                 : (config.getRecordLength() != null ? config.getRecordLength() : 506);
 
-                log.info("Streaming transfer: virtualFile={}, fileSize={}, chunkSize={}, recordLength={} (PI32)",
-                                virtualFile, fileSize, chunkSize, recordLength);
+                log.info("Streaming transfer: virtualFile={}, fileSize={}, recordLength={} (PI32)",
+                                virtualFile, fileSize, recordLength);
 
                 // Determine sync point settings (request overrides config)
                 boolean syncPointsEnabled = request.getSyncPointsEnabled() != null
                                 ? request.getSyncPointsEnabled()
                                 : config.isSyncPointsEnabled();
-                boolean resyncEnabled = request.getResyncEnabled() != null
-                                ? request.getResyncEnabled()
-                                : config.isResyncEnabled();
+                // Sync point acknowledgment window: SYNs allowed in flight before waiting for ACK_SYN
+                int declaredSyncWindow = request.getSyncAckWindow() != null ? request.getSyncAckWindow()
+                                : (config.getSyncAckWindow() != null ? config.getSyncAckWindow() : 1);
 
                 // Progress tracking: update every 5% of file or minimum every 32KB
                 final long progressUpdateInterval = Math.max(32 * 1024, fileSize / 20);
                 long bytesSinceLastProgressUpdate = 0;
                 log.info("Progress update interval: {} bytes (fileSize={})", progressUpdateInterval, fileSize);
 
-                // Calculate sync interval BEFORE CONNECT so we can declare it in PI 7
-                long plannedSyncIntervalBytes = calculateSyncPointInterval(request, config,
-                                (int) Math.min(fileSize, Integer.MAX_VALUE));
-                int plannedSyncIntervalKb = plannedSyncIntervalBytes > 0
-                                ? (int) (plannedSyncIntervalBytes / 1024)
-                                : 0; // 0 = no sync points
-
-                // CONNECT - declare the SAME interval we will actually use for sending SYN
-                ConnectMessageBuilder connectBuilder = new ConnectMessageBuilder()
-                                .demandeur(request.getPartnerId())
-                                .serveur(server.getServerId())
-                                .writeAccess()
-                                .syncPointsEnabled(syncPointsEnabled && plannedSyncIntervalKb > 0)
-                                .syncIntervalKb(plannedSyncIntervalKb)
-                                .resyncEnabled(resyncEnabled);
-                if (request.getPassword() != null && !request.getPassword().isEmpty()) {
-                        String password = secretsService.decrypt(request.getPassword());
-                        connectBuilder.password(password);
-                }
-                log.info("CONNECT (streaming): declaring sync interval = {} KB (syncEnabled={})",
-                                plannedSyncIntervalKb, syncPointsEnabled && plannedSyncIntervalKb > 0);
-                Fpdu connectFpdu = connectBuilder.build(connectionId);
-
-                Fpdu aconnect = session.sendFpduWithAck(connectFpdu);
+                // Reuses an idle session connected with the same parameters, if any
+                // (the stripes of a file all connect as for the whole file)
+                Fpdu aconnect = lease.connect(buildSendConnect(server, request, config,
+                                stripe != null ? stripe.fileSize() : fileSize));
+                PesitSession session = lease.getSession();
                 int serverConnectionId = aconnect.getIdSrc();
 
                 // Parse negotiated sync points from ACONNECT (PI 7)
                 // Format: [interval_high][interval_low][ack_window]
                 int negotiatedSyncIntervalKb = 0;
+                int syncWindow = 1;
                 ParameterValue pi7 = aconnect.getParameter(ParameterIdentifier.PI_07_SYNC_POINTS);
                 if (pi7 != null && pi7.getValue() != null && pi7.getValue().length >= 3) {
                         byte[] syncBytes = pi7.getValue();
                         negotiatedSyncIntervalKb = ((syncBytes[0] & 0xFF) << 8) | (syncBytes[1] & 0xFF);
                         int negotiatedSyncWindow = syncBytes[2] & 0xFF;
-                        log.info("ACONNECT: Negotiated sync points - interval={}KB, window={}",
-                                        negotiatedSyncIntervalKb, negotiatedSyncWindow);
+                        // Never exceed what either side declared; keep at least one SYN in flight
+                        syncWindow = Math.max(1, Math.min(Math.min(declaredSyncWindow, 16), negotiatedSyncWindow));
+                        log.info("ACONNECT: Negotiated sync points - interval={}KB, window={} (using {})",
+                                        negotiatedSyncIntervalKb, negotiatedSyncWindow, syncWindow);
                         // If server returns 0 for interval, sync points are disabled
                         if (negotiatedSyncIntervalKb == 0) {
                                 syncPointsEnabled = false;
                                 log.info("Server disabled sync points (interval=0)");
                         }
                 }
-
-                // Parse PI 25 from ACONNECT - server's max entity size capability
-                int serverMaxEntitySize = 0;
-                ParameterValue aconnectPi25 = aconnect.getParameter(ParameterIdentifier.PI_25_TAILLE_MAX_ENTITE);
-                if (aconnectPi25 != null && aconnectPi25.getValue() != null) {
-                        serverMaxEntitySize = parseNumericValue(aconnectPi25.getValue());
-                        log.info("ACONNECT: Server max entity size (PI 25) = {}", serverMaxEntitySize);
+                // A stripe cannot be restarted on its own: no sync points
+                if (stripe != null) {
+                        syncPointsEnabled = false;
                 }
 
                 // CREATE - negotiate PI 25 with retry (propose max, reduce until accepted)
                 int transferId = TRANSFER_ID_COUNTER.getAndIncrement() % 0xFFFFFF;
                 long fileSizeKB = (fileSize + 1023) / 1024; // Round up to KB
-                // Start with server's limit from ACONNECT if available, otherwise max (65535)
-                int initialPi25 = serverMaxEntitySize > 0 ? serverMaxEntitySize : 65535;
+                // Start with the largest entity the server accepts (request chunk size overrides)
+                int initialPi25 = proposedEntitySize(server, aconnect, request.getChunkSize());
                 log.info("CREATE (streaming): starting negotiation with PI25={}, syncPointsEnabled={}",
                                 initialPi25, syncPointsEnabled);
 
                 // PI 25 (entity) and PI 32 (article) are INDEPENDENT
                 // Use recordLength from config as PI 32, negotiate only PI 25
                 NegotiatedCreate negotiatedStreaming = negotiateCreate(session, serverConnectionId,
-                                virtualFile, transferId, fileSizeKB, initialPi25, recordLength);
+                                virtualFile, transferId, fileSizeKB, initialPi25, recordLength,
+                                stripe != null ? stripe.encode() : null);
+                if (stripe != null) {
+                        // Echoed only by a server that joined the stripe to its target file
+                        ParameterValue echo = negotiatedStreaming.ackCreate()
+                                        .getParameter(ParameterIdentifier.PI_99_MESSAGE_LIBRE);
+                        if (echo == null || echo.getValue() == null
+                                        || !stripe.encode().equals(new String(echo.getValue(), StandardCharsets.ISO_8859_1))) {
+                                throw new RuntimeException("Server did not accept stripe " + stripe.encode());
+                        }
+                }
                 // Actual chunk size = PI 32 (article size), not PI 25 - 6
                 int actualChunkSizeStreaming = recordLength > 0 ? recordLength : 506;
                 log.info("CREATE (streaming) negotiation complete: PI25={}, chunk size={}",
                                 negotiatedStreaming.negotiatedPi25(), actualChunkSizeStreaming);
 
-                // OPEN (ORF) - open file for writing
-                Fpdu openFpdu = new Fpdu(FpduType.OPEN)
-                                .withIdDst(serverConnectionId);
-                Fpdu ackOpenStreaming = session.sendFpduWithAck(openFpdu);
+                // OPEN (ORF) - open file for writing, proposing compression (PI 21) if enabled
+                CompressionType proposedCompression = resolveCompression(request, config);
+                Fpdu ackOpenStreaming = session.sendFpduWithAck(buildOpen(serverConnectionId, proposedCompression));
                 checkAckDiagnostic(ackOpenStreaming, "ACK_OPEN");
 
                 // Check negotiated compression from ACK_OPEN (PI 21)
-                ParameterValue pi21Streaming = ackOpenStreaming.getParameter(ParameterIdentifier.PI_21_COMPRESSION);
-                if (pi21Streaming != null && pi21Streaming.getValue() != null && pi21Streaming.getValue().length >= 1) {
-                        int compressionAccepted = pi21Streaming.getValue()[0] & 0xFF;
-                        log.info("Streaming ACK_OPEN: Compression {}",
-                                        compressionAccepted == 0 ? "refused" : "accepted");
-                }
+                CompressionType compression = negotiatedCompression(ackOpenStreaming, proposedCompression);
 
                 // WRITE (signals start of data transfer, no data payload)
                 Fpdu writeFpdu = new Fpdu(FpduType.WRITE)
@@ -882,6 +1101,10 @@ public class TransferService {
                 long totalSent = 0;
                 long bytesSinceLastSync = 0;
                 int syncPointNumber = 0;
+                // Byte offset of each sync point still awaiting its ACK_SYN
+                Map<Integer, Long> syncPointOffsets = new HashMap<>();
+                int acknowledgedSyncPoint = 0;
+                long bytesAtAcknowledgedSyncPoint = 0;
                 // Use server-negotiated sync interval (from ACONNECT PI 7)
                 long negotiatedSyncIntervalBytes = negotiatedSyncIntervalKb * 1024L;
                 long syncIntervalBytes = negotiatedSyncIntervalBytes > 0
@@ -891,29 +1114,44 @@ public class TransferService {
                 log.info("Sync interval: {} bytes (negotiated={}KB, syncEnabled={})",
                                 syncIntervalBytes, negotiatedSyncIntervalKb, syncPointsEnabled);
 
-                // Create FpduWriter with negotiated entity size (PI_25)
+                // Create FpduWriter with negotiated entity size (PI_25), packing articles
+                // of PI 32 bytes into multi-article DTFs
                 int negotiatedEntitySize = negotiatedStreaming.negotiatedPi25();
                 FpduWriter fpduWriter = new FpduWriter(session, serverConnectionId, negotiatedEntitySize,
-                                actualChunkSizeStreaming, false);
-                log.info("FpduWriter created: maxEntitySize={}, maxDataPerDtf={}",
-                                negotiatedEntitySize, fpduWriter.getMaxDataPerDtf());
+                                actualChunkSizeStreaming, true);
+                if (compression != CompressionType.NONE) {
+                        fpduWriter.setCompressor(new ArticleCompressor(compression));
+                }
+                log.info("FpduWriter created: maxEntitySize={}, maxDataPerDtf={}, articlesPerDtf={}, compression={}",
+                                negotiatedEntitySize, fpduWriter.getMaxDataPerDtf(), fpduWriter.getArticlesPerDtf(),
+                                compression);
 
-                // Read in optimal chunk sizes based on entity limit
-                int readBufferSize = Math.min(actualChunkSizeStreaming, fpduWriter.getMaxDataPerDtf());
+                // Read enough articles at a time to fill one DTF
+                int readBufferSize = fpduWriter.getArticleLength() * fpduWriter.getArticlesPerDtf();
                 byte[] buffer = new byte[readBufferSize];
                 int bytesRead;
-
-                while ((bytesRead = inputStream.read(buffer)) != -1) {
+                // A stripe stops at the end of its range
+                long remaining = stripe != null ? stripe.length() : Long.MAX_VALUE;
+
+                while (remaining > 0) {
+                        long readLength = Math.min(buffer.length, remaining);
+                        if (syncPointsEnabled && syncIntervalBytes > 0) {
+                                // Never go past the next sync point
+                                readLength = Math.min(readLength, syncIntervalBytes - bytesSinceLastSync);
+                        }
+                        bytesRead = inputStream.readNBytes(buffer, 0, (int) readLength);
+                        if (bytesRead == 0) {
+                                break;
+                        }
+                        remaining -= bytesRead;
                         // Check for cancellation
                         if (isCancelled(historyId)) {
                                 log.info("Streaming transfer {} cancelled at {} bytes", historyId, totalSent);
                                 throw new RuntimeException("Transfer cancelled by user");
                         }
 
-                        byte[] chunk = bytesRead == buffer.length ? buffer : java.util.Arrays.copyOf(buffer, bytesRead);
-
-                        // FpduWriter handles chunking if data exceeds entity size
-                        fpduWriter.writeDtf(chunk);
+                        // FpduWriter cuts the articles and packs them up to the entity size
+                        fpduWriter.writeArticles(buffer, 0, bytesRead);
                         totalSent = fpduWriter.getTotalBytesSent();
                         bytesSinceLastSync += bytesRead;
                         bytesSinceLastProgressUpdate += bytesRead;
@@ -921,7 +1159,14 @@ public class TransferService {
 
                         // Update progress in database periodically
                         if (bytesSinceLastProgressUpdate >= progressUpdateInterval) {
-                                updateTransferProgress(historyId, totalSent, fileSize, syncPointNumber);
+                                if (stripe != null) {
+                                        updateTransferProgress(historyId,
+                                                        stripedBytes.addAndGet(bytesSinceLastProgressUpdate),
+                                                        stripe.fileSize(), 0);
+                                } else {
+                                        updateTransferProgress(historyId, totalSent, fileSize, acknowledgedSyncPoint,
+                                                        bytesAtAcknowledgedSyncPoint);
+                                }
                                 bytesSinceLastProgressUpdate = 0;
                         }
 
@@ -931,14 +1176,36 @@ public class TransferService {
                                 Fpdu synFpdu = new Fpdu(FpduType.SYN)
                                                 .withIdDst(serverConnectionId)
                                                 .withParameter(new ParameterValue(PI_20_NUM_SYNC, syncPointNumber));
-                                session.sendFpduWithAck(synFpdu);
-                                log.info("Sync point {} acknowledged at {} bytes", syncPointNumber, totalSent);
+                                // Keep streaming while up to syncWindow SYNs await their ACK_SYN
+                                syncPointOffsets.put(syncPointNumber, totalSent);
+                                session.sendSyncPoint(synFpdu, syncWindow);
+                                fpduWriter.syncPoint();
+                                log.info("Sync point {} sent at {} bytes ({} unacknowledged)", syncPointNumber,
+                                                totalSent, session.getUnacknowledgedSyncPoints());
                                 bytesSinceLastSync = 0;
-                                updateTransferProgress(historyId, totalSent, fileSize, syncPointNumber);
+                                // Sync points are numbered in order: only the pending tail is unacknowledged
+                                int acknowledged = syncPointNumber - session.getUnacknowledgedSyncPoints();
+                                if (acknowledged > acknowledgedSyncPoint) {
+                                        acknowledgedSyncPoint = acknowledged;
+                                        bytesAtAcknowledgedSyncPoint = syncPointOffsets.get(acknowledged);
+                                        syncPointOffsets.keySet().removeIf(n -> n <= acknowledged);
+                                        updateTransferProgress(historyId, totalSent, fileSize, acknowledgedSyncPoint,
+                                                        bytesAtAcknowledgedSyncPoint);
+                                }
                         }
                 }
 
+                // All sync points must be acknowledged before DTF_END
+                session.awaitSyncPoints();
+                if (syncPointNumber > acknowledgedSyncPoint) {
+                        updateTransferProgress(historyId, totalSent, fileSize, syncPointNumber,
+                                        syncPointOffsets.get(syncPointNumber));
+                }
+                if (stripe != null) {
+                        stripedBytes.addAndGet(bytesSinceLastProgressUpdate);
+                }
                 log.info("Streaming complete: sent {} bytes in total", totalSent);
+                recordCompression(compression, totalSent, fpduWriter.getCompressedBytesSent());
 
                 // DTF_END - signal end of data transfer
                 Fpdu dtfEndFpdu = new Fpdu(FpduType.DTF_END)
@@ -961,22 +1228,68 @@ public class TransferService {
                 Fpdu deselectFpdu = new Fpdu(FpduType.DESELECT)
                                 .withIdDst(serverConnectionId)
                                 .withParameter(new ParameterValue(PI_02_DIAG, new byte[] { 0x00, 0x00, 0x00 }));
-                session.sendFpduWithAck(deselectFpdu);
+                Fpdu ackDeselect = session.sendFpduWithAck(deselectFpdu);
+                ParameterValue checksum = ackDeselect.getParameter(ParameterIdentifier.PI_99_MESSAGE_LIBRE);
+
+                // Back in CN03: keep the session for the next transfer (RELEASE when evicted)
+                lease.release();
+                return stripe != null && checksum != null && checksum.getValue() != null
+                                ? Stripe.parseChecksum(new String(checksum.getValue(), StandardCharsets.ISO_8859_1))
+                                : null;
+        }
 
-                // RELEASE
-                Fpdu releaseFpdu = new Fpdu(FpduType.RELEASE)
-                                .withIdDst(serverConnectionId)
-                                .withIdSrc(connectionId)
-                                .withParameter(new ParameterValue(PI_02_DIAG, new byte[] { 0x00, 0x00, 0x00 }));
-                session.sendFpduWithAck(releaseFpdu);
+        /**
+         * CONNECT of a send. Asks for striped transfers when striping is
+         * configured for the server, whatever the file size, so that every send
+         * to the server shares the pooled sessions.
+         */
+        private Fpdu buildSendConnect(PesitServer server, TransferRequest request, TransferConfig config,
+                        long fileSize) throws IOException {
+                boolean syncPointsEnabled = request.getSyncPointsEnabled() != null
+                                ? request.getSyncPointsEnabled()
+                                : config.isSyncPointsEnabled();
+                boolean resyncEnabled = request.getResyncEnabled() != null
+                                ? request.getResyncEnabled()
+                                : config.isResyncEnabled();
+                int declaredSyncWindow = request.getSyncAckWindow() != null ? request.getSyncAckWindow()
+                                : (config.getSyncAckWindow() != null ? config.getSyncAckWindow() : 1);
+
+                // Calculate sync interval BEFORE CONNECT so we can declare it in PI 7
+                long plannedSyncIntervalBytes = calculateSyncPointInterval(request, config,
+                                (int) Math.min(fileSize, Integer.MAX_VALUE));
+                int plannedSyncIntervalKb = plannedSyncIntervalBytes > 0
+                                ? (int) (plannedSyncIntervalBytes / 1024)
+                                : 0; // 0 = no sync points
+
+                // CONNECT - declare the SAME interval we will actually use for sending SYN
+                ConnectMessageBuilder connectBuilder = new ConnectMessageBuilder()
+                                .demandeur(request.getPartnerId())
+                                .serveur(server.getServerId())
+                                .writeAccess()
+                                .syncPointsEnabled(syncPointsEnabled && plannedSyncIntervalKb > 0)
+                                .syncIntervalKb(plannedSyncIntervalKb)
+                                .resyncEnabled(resyncEnabled);
+                if (syncPointsEnabled && plannedSyncIntervalKb > 0) {
+                        connectBuilder.syncAckWindow(declaredSyncWindow);
+                }
+                if (request.getPassword() != null && !request.getPassword().isEmpty()) {
+                        String password = secretsService.decrypt(request.getPassword());
+                        connectBuilder.password(password);
+                }
+                Capabilities offered = new Capabilities(server.getStripes() != null ? server.getStripes() : 0);
+                if (!offered.isEmpty()) {
+                        connectBuilder.message(offered.encode());
+                }
+                log.info("CONNECT (streaming): declaring sync interval = {} KB, window = {} (syncEnabled={})",
+                                plannedSyncIntervalKb, declaredSyncWindow, syncPointsEnabled && plannedSyncIntervalKb > 0);
+                return connectBuilder.build(1);
         }
 
-        private long executeReceiveTransfer(PesitSession session, PesitServer server,
+        private long executeReceiveTransfer(PesitSessionPool.Lease lease, PesitServer server,
                         TransferRequest request, StorageConnector connector, String destPath, TransferConfig config,
                         String historyId, int restartPoint, long restartBytePosition)
                         throws IOException, InterruptedException, ConnectorException, RestartRequiredException {
                 int connectionId = 1;
-                int chunkSize = config.getChunkSize();
                 String remoteFilename = request.getRemoteFilename();
 
                 // Determine sync point settings (request overrides config)
@@ -1002,8 +1315,12 @@ public class TransferService {
                 }
                 Fpdu connectFpdu = connectBuilder.build(connectionId);
 
-                Fpdu aconnect = session.sendFpduWithAck(connectFpdu);
+                Fpdu aconnect = lease.connect(connectFpdu);
+                PesitSession session = lease.getSession();
                 int serverConnectionId = aconnect.getIdSrc();
+                // Entity size offered in SELECT: request or config chunk size, within the server's limit
+                int chunkSize = proposedEntitySize(server, aconnect,
+                                request.getChunkSize() != null ? request.getChunkSize() : config.getChunkSize());
 
                 // SELECT
                 String virtualFile = request.getVirtualFile() != null ? request.getVirtualFile() : remoteFilename;
@@ -1048,8 +1365,13 @@ public class TransferService {
                         log.warn("PGI 40 not found in ACK_SELECT - progress percentage will be unknown");
                 }
 
-                // OPEN (file-level - no idSrc)
-                session.sendFpduWithAck(new Fpdu(FpduType.OPEN).withIdDst(serverConnectionId));
+                // OPEN (file-level - no idSrc), proposing compression (PI 21) if enabled
+                CompressionType proposedCompression = resolveCompression(request, config);
+                Fpdu ackOpen = session.sendFpduWithAck(buildOpen(serverConnectionId, proposedCompression));
+                CompressionType compression = negotiatedCompression(ackOpen, proposedCompression);
+                ArticleDecompressor decompressor = compression != CompressionType.NONE
+                                ? new ArticleDecompressor(compression)
+                                : null;
 
                 // READ with restart point (PI 18)
                 if (restartPoint > 0) {
@@ -1083,10 +1405,17 @@ public class TransferService {
                                 raf.seek(restartBytePosition);
                                 raf.setLength(restartBytePosition); // Truncate any data after restart point
                         } else {
-                                // Normal mode - use connector (supports all storage types)
-                                outputStream = connector.write(destPath, false);
+                                // Normal mode - use connector (supports all storage types),
+                                // sized from PI 42 when the connector is file-backed
+                                Optional<FileChannelConnector> files = connector
+                                                .capability(FileChannelConnector.class);
+                                outputStream = files.isPresent() ? files.get().write(destPath, expectedFileSize)
+                                                : connector.write(destPath, false);
                         }
 
+                        // Compressed articles are decoded straight into the destination
+                        OutputStream decodedSink = raf != null ? Channels.newOutputStream(raf.getChannel())
+                                        : outputStream;
                         FpduReader fpduReader = new FpduReader(session);
                         boolean receiving = true;
                         while (receiving) {
@@ -1099,12 +1428,20 @@ public class TransferService {
                                                 || fpduType == FpduType.DTFMA || fpduType == FpduType.DTFFA) {
                                         byte[] data = received.getData();
                                         if (data != null && data.length > 0) {
-                                                if (raf != null) {
+                                                if (decompressor != null) {
+                                                        long decoded = decompressor.getBytesOut();
+                                                        decompressor.decode(ByteBuffer.wrap(data), decodedSink);
+                                                        if (fpduType != FpduType.DTFDA && fpduType != FpduType.DTFMA) {
+                                                                decompressor.endArticle();
+                                                        }
+                                                        totalBytes += decompressor.getBytesOut() - decoded;
+                                                } else if (raf != null) {
                                                         raf.write(data);
+                                                        totalBytes += data.length;
                                                 } else {
                                                         outputStream.write(data);
+                                                        totalBytes += data.length;
                                                 }
-                                                totalBytes += data.length;
                                                 chunkCount++;
 
                                                 // Send progress update (throttled)
@@ -1128,6 +1465,10 @@ public class TransferService {
                                         }
                                         // Track byte position at this sync point BEFORE sending ACK
                                         lastSyncPointBytePosition = totalBytes;
+                                        // The next article is not compressed vertically
+                                        if (decompressor != null) {
+                                                decompressor.reset();
+                                        }
                                         log.debug("Received SYN #{} at byte position {}", lastSyncPoint,
                                                         lastSyncPointBytePosition);
                                         // Send ACK_SYN
@@ -1191,10 +1532,13 @@ public class TransferService {
                 // Final progress update
                 progressService.sendProgress(historyId, totalBytes, expectedFileSize, lastSyncPoint);
                 log.info("Wrote {} bytes to connector in {} chunks", totalBytes, chunkCount);
+                if (decompressor != null) {
+                        recordCompression(compression, decompressor.getBytesOut(), decompressor.getBytesIn());
+                }
 
                 // Cleanup: only if not interrupted by server (IDT)
                 if (!interrupted) {
-                        // Normal cleanup: TRANS_END, CLOSE, DESELECT, RELEASE
+                        // Normal cleanup: TRANS_END, CLOSE, DESELECT, then back to the pool
                         session.sendFpduWithAck(
                                         new Fpdu(FpduType.TRANS_END).withIdDst(serverConnectionId));
                         session.sendFpduWithAck(new Fpdu(FpduType.CLOSE).withIdDst(serverConnectionId)
@@ -1203,10 +1547,7 @@ public class TransferService {
                         session.sendFpduWithAck(new Fpdu(FpduType.DESELECT).withIdDst(serverConnectionId)
                                         .withParameter(new ParameterValue(PI_02_DIAG,
                                                         new byte[] { 0x00, 0x00, 0x00 })));
-                        session.sendFpduWithAck(
-                                        new Fpdu(FpduType.RELEASE).withIdDst(serverConnectionId).withIdSrc(connectionId)
-                                                        .withParameter(new ParameterValue(PI_02_DIAG,
-                                                                        new byte[] { 0x00, 0x00, 0x00 })));
+                        lease.release();
                 } else if (restartEndCode == 4) {
                         // PI 19 = 4: error, restart should follow - throw special exception
                         // Restart from sync point 0 means restart from beginning
@@ -1288,7 +1629,7 @@ public class TransferService {
                 session.sendFpduWithAck(releaseFpdu);
         }
 
-        private void executeMessageAsFile(PesitSession session, PesitServer server, String partnerId,
+        private void executeMessageAsFile(PesitSessionPool.Lease lease, PesitServer server, String partnerId,
                         String message, String messageName) throws IOException, InterruptedException {
                 byte[] data = message.getBytes(java.nio.charset.StandardCharsets.UTF_8);
                 String filename = messageName != null ? messageName : "message_" + System.currentTimeMillis() + ".txt";
@@ -1300,7 +1641,7 @@ public class TransferService {
                                 .build();
                 // Use streaming version with ByteArrayInputStream
                 try (InputStream inputStream = new java.io.ByteArrayInputStream(data)) {
-                        executeSendTransferStreaming(session, server, request, inputStream, data.length, config, null);
+                        executeSendTransferStreaming(lease, server, request, inputStream, data.length, config, null);
                 }
         }
 
@@ -1339,6 +1680,15 @@ public class TransferService {
          * Update transfer progress in database and send WebSocket notification.
          */
         public void updateTransferProgress(String historyId, long bytesTransferred, long fileSize, int lastSyncPoint) {
+                updateTransferProgress(historyId, bytesTransferred, fileSize, lastSyncPoint, bytesTransferred);
+        }
+
+        /**
+         * Update transfer progress when the last acknowledged sync point lags
+         * behind the bytes sent (pipelined sync points).
+         */
+        public void updateTransferProgress(String historyId, long bytesTransferred, long fileSize, int lastSyncPoint,
+                        long bytesAtLastSyncPoint) {
                 if (historyId == null)
                         return;
 
@@ -1350,7 +1700,7 @@ public class TransferService {
                         history.setBytesTransferred(bytesTransferred);
                         if (lastSyncPoint > 0) {
                                 history.setLastSyncPoint(lastSyncPoint);
-                                history.setBytesAtLastSyncPoint(bytesTransferred);
+                                history.setBytesAtLastSyncPoint(bytesAtLastSyncPoint);
                         }
                         historyRepository.saveAndFlush(history);
                 });
@@ -1365,6 +1715,75 @@ public class TransferService {
          * - Files 10-100MB: every 1MB
          * - Files > 100MB: every 5MB
          */
+        /**
+         * Compression to propose in OPEN: the request override or the config flag
+         * enables it, the config selects the type (horizontal by default).
+         */
+        private CompressionType resolveCompression(TransferRequest request, TransferConfig config) {
+                boolean enabled = request.getCompressionEnabled() != null ? request.getCompressionEnabled()
+                                : config.isCompressionEnabled();
+                if (!enabled) {
+                        return CompressionType.NONE;
+                }
+                CompressionType type = CompressionType.fromCode(
+                                config.getCompressionType() != null ? config.getCompressionType() : 0);
+                return type != CompressionType.NONE ? type : CompressionType.HORIZONTAL;
+        }
+
+        /**
+         * pesitwizard extensions the server accepted in ACONNECT (PI 99); none for
+         * other PeSIT implementations.
+         */
+        private Capabilities peerCapabilities(Fpdu aconnect) {
+                ParameterValue pi99 = aconnect.getParameter(ParameterIdentifier.PI_99_MESSAGE_LIBRE);
+                return pi99 != null && pi99.getValue() != null
+                                ? Capabilities.parse(new String(pi99.getValue(), StandardCharsets.ISO_8859_1))
+                                : Capabilities.NONE;
+        }
+
+        private Fpdu buildOpen(int serverConnectionId, CompressionType compression) {
+                Fpdu open = new Fpdu(FpduType.OPEN).withIdDst(serverConnectionId);
+                if (compression != CompressionType.NONE) {
+                        open.withParameter(new ParameterValue(PI_21_COMPRESSION, compression.toPi21()));
+                }
+                return open;
+        }
+
+        /**
+         * Compression accepted in ACK_OPEN (PI 21); absent means refused. Only
+         * types we proposed are honoured.
+         */
+        private CompressionType negotiatedCompression(Fpdu ackOpen, CompressionType proposed) {
+                if (proposed == CompressionType.NONE) {
+                        return CompressionType.NONE;
+                }
+                ParameterValue pi21 = ackOpen.getParameter(PI_21_COMPRESSION);
+                CompressionType accepted = pi21 != null
+                                ? CompressionType.fromPi21(pi21.getValue()).negotiate(proposed)
+                                : CompressionType.NONE;
+                log.info("ACK_OPEN: compression {} {}", proposed, accepted == CompressionType.NONE
+                                ? "refused"
+                                : "accepted as " + accepted);
+                return accepted;
+        }
+
+        /**
+         * Attach the compression ratio of the transfer to the current observation
+         */
+        private void recordCompression(CompressionType compression, long bytes, long compressedBytes) {
+                if (compression == CompressionType.NONE || compressedBytes == 0) {
+                        return;
+                }
+                double ratio = (double) bytes / compressedBytes;
+                log.info("Compression {}: {} bytes as {} bytes (ratio {})", compression, bytes, compressedBytes,
+                                String.format("%.2f", ratio));
+                Observation observation = observationRegistry.getCurrentObservation();
+                if (observation != null) {
+                        observation.lowCardinalityKeyValue("pesit.compression", compression.name())
+                                        .highCardinalityKeyValue("pesit.compression.ratio", String.format("%.2f", ratio));
+                }
+        }
+
         /**
          * Check ACK FPDU diagnostic (PI 2). Throws PesitException if non-zero.
          * According to PeSIT spec, diagnostic code 0 = success, any other value =
@@ -1389,10 +1808,12 @@ public class TransferService {
          * negotiated.
          * 
          * @param articleSize Fixed PI 32 value (from config.recordLength)
+         * @param message     PI 99 of CREATE (stripe descriptor), or null
          * @return NegotiatedCreate with the successful ACK_CREATE and negotiated PI 25
          */
         private NegotiatedCreate negotiateCreate(PesitSession session, int serverConnectionId,
-                        String virtualFile, int transferId, long fileSizeKB, int initialPi25, int articleSize)
+                        String virtualFile, int transferId, long fileSizeKB, int initialPi25, int articleSize,
+                        String message)
                         throws IOException, InterruptedException {
                 int proposedPi25 = initialPi25 > 0 ? initialPi25 : 65535; // Start with max if not specified
                 int proposedPi32 = articleSize > 0 ? articleSize : 506; // Fixed article size (default 506)
@@ -1408,6 +1829,7 @@ public class TransferService {
                                         .recordLength(proposedPi32)
                                         .maxEntitySize(proposedPi25)
                                         .fileSizeKB(fileSizeKB)
+                                        .message(message)
                                         .build(serverConnectionId);
 
                         Fpdu ackCreate = session.sendFpduWithAck(createFpdu);
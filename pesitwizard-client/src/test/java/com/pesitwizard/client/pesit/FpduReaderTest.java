@@ -0,0 +1,63 @@
+package com.pesitwizard.client.pesit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.pesitwizard.fpdu.Fpdu;
+import com.pesitwizard.fpdu.FpduBuilder;
+import com.pesitwizard.fpdu.FpduType;
+import com.pesitwizard.fpdu.ParameterIdentifier;
+import com.pesitwizard.fpdu.ParameterValue;
+import com.pesitwizard.session.PesitSession;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FpduReader Tests")
+class FpduReaderTest {
+
+    @Mock
+    private PesitSession session;
+
+    @Test
+    @DisplayName("should return a single FPDU as parsed")
+    void shouldReadSingleFpdu() throws IOException {
+        when(session.receiveRawFpdu()).thenReturn(FpduBuilder.buildFpdu(FpduType.DTF, 3, 1, "data".getBytes()));
+
+        Fpdu fpdu = new FpduReader(session).read();
+
+        assertEquals(FpduType.DTF, fpdu.getFpduType());
+        assertArrayEquals("data".getBytes(), fpdu.getData());
+    }
+
+    @Test
+    @DisplayName("should aggregate concatenated DTFs and keep the following FPDU")
+    void shouldAggregateConcatenatedDtf() throws IOException {
+        ByteArrayOutputStream entity = new ByteArrayOutputStream();
+        entity.writeBytes(FpduBuilder.buildFpdu(FpduType.DTFDA, 3, 1, "hello ".getBytes()));
+        entity.writeBytes(FpduBuilder.buildFpdu(FpduType.DTFFA, 3, 1, "world".getBytes()));
+        entity.writeBytes(FpduBuilder.buildFpdu(new Fpdu(FpduType.SYN).withIdDst(3)
+                .withParameter(new ParameterValue(ParameterIdentifier.PI_20_NUM_SYNC, 1))));
+        when(session.receiveRawFpdu()).thenReturn(entity.toByteArray());
+
+        FpduReader reader = new FpduReader(session);
+        Fpdu dtf = reader.read();
+        assertEquals(FpduType.DTFDA, dtf.getFpduType());
+        assertEquals(3, dtf.getIdDst());
+        assertEquals(1, dtf.getIdSrc());
+        assertArrayEquals("hello world".getBytes(), dtf.getData());
+
+        assertTrue(reader.hasPending());
+        Fpdu syn = reader.read();
+        assertEquals(FpduType.SYN, syn.getFpduType());
+        assertNotNull(syn.getParameter(ParameterIdentifier.PI_20_NUM_SYNC));
+        verify(session, times(1)).receiveRawFpdu();
+    }
+}
@@ -5,7 +5,9 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -14,9 +16,14 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.pesitwizard.compression.ArticleCompressor;
+import com.pesitwizard.compression.ArticleDecompressor;
+import com.pesitwizard.compression.CompressionType;
+import com.pesitwizard.fpdu.FpduFrame;
 import com.pesitwizard.session.PesitSession;
 
 @ExtendWith(MockitoExtension.class)
@@ -218,6 +225,51 @@ class FpduWriterTest {
             verify(session, atLeast(2)).sendRawFpdu(any());
         }
 
+        @Test
+        @DisplayName("should fill each DTF with as many articles as the entity allows")
+        void shouldFillDtfsWithArticles() throws Exception {
+            FpduWriter writer = new FpduWriter(session, SERVER_CONNECTION_ID, 65535, 506, true);
+            // (65535 - 6) / (2 + 506) articles per DTF
+            assertEquals(128, writer.getArticlesPerDtf());
+            byte[] data = new byte[506 * (128 * 2 + 1)];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (byte) i;
+            }
+
+            writer.writeArticles(data, 0, data.length);
+
+            ArgumentCaptor<byte[]> fpdus = ArgumentCaptor.forClass(byte[].class);
+            verify(session, times(2)).sendRawFpdu(fpdus.capture());
+            ArgumentCaptor<byte[]> last = ArgumentCaptor.forClass(byte[].class);
+            verify(session).sendFpduWithData(any(), last.capture());
+            ByteArrayOutputStream received = new ByteArrayOutputStream();
+            for (byte[] fpdu : fpdus.getAllValues()) {
+                FpduFrame frame = FpduFrame.of(fpdu);
+                assertEquals(128, frame.articleCount());
+                assertEquals(fpdu.length, frame.declaredLength());
+                assertTrue(fpdu.length <= 65535);
+                frame.forEachArticle(article -> {
+                    assertEquals(506, article.remaining());
+                    received.write(article.array(), article.arrayOffset() + article.position(), article.remaining());
+                });
+            }
+            received.write(last.getValue());
+            assertArrayEquals(data, received.toByteArray());
+            assertEquals(data.length, writer.getTotalBytesSent());
+        }
+
+        @Test
+        @DisplayName("should send one article per DTF without multi-article DTFs")
+        void shouldSendOneArticlePerDtfWithoutMultiArticle() throws Exception {
+            FpduWriter writer = new FpduWriter(session, SERVER_CONNECTION_ID, 65535, 506, false);
+            assertEquals(1, writer.getArticlesPerDtf());
+
+            writer.writeArticles(new byte[1012], 0, 1012);
+
+            verify(session, times(2)).sendFpduWithData(any(), any());
+            verify(session, never()).sendRawFpdu(any());
+        }
+
         @Test
         @DisplayName("should handle empty article list")
         void shouldHandleEmptyArticleList() throws Exception {
@@ -231,6 +283,80 @@ class FpduWriterTest {
         }
     }
 
+    @Nested
+    @DisplayName("Compressed DTF (PI 21)")
+    class CompressionTests {
+
+        @Test
+        @DisplayName("should send compressed articles that decode to the data")
+        void shouldSendCompressedArticles() throws Exception {
+            FpduWriter writer = new FpduWriter(session, SERVER_CONNECTION_ID, 106);
+            writer.setCompressor(new ArticleCompressor(CompressionType.HORIZONTAL));
+            byte[] data = new byte[250];
+            java.util.Arrays.fill(data, 0, 200, (byte) ' ');
+
+            writer.writeDtf(data);
+
+            ArgumentCaptor<byte[]> payloads = ArgumentCaptor.forClass(byte[].class);
+            verify(session, times(3)).sendFpduWithData(any(), payloads.capture());
+            ArticleDecompressor decompressor = new ArticleDecompressor(CompressionType.HORIZONTAL);
+            ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+            for (byte[] payload : payloads.getAllValues()) {
+                assertTrue(payload.length <= writer.getMaxDataPerDtf());
+                decompressor.decode(ByteBuffer.wrap(payload), decoded);
+                decompressor.endArticle();
+            }
+            assertArrayEquals(data, decoded.toByteArray());
+            assertEquals(250, writer.getTotalBytesSent());
+            assertTrue(writer.getCompressedBytesSent() < 100);
+        }
+
+        @Test
+        @DisplayName("should not compress vertically the first article after a sync point")
+        void shouldRestartVerticalCompressionAtSyncPoint() throws Exception {
+            FpduWriter writer = new FpduWriter(session, SERVER_CONNECTION_ID, 4096);
+            writer.setCompressor(new ArticleCompressor(CompressionType.VERTICAL));
+            byte[] article = { 1, 2, 3, 4 };
+
+            writer.writeDtf(article);
+            writer.writeDtf(article);
+            writer.syncPoint();
+            writer.writeDtf(article);
+
+            ArgumentCaptor<byte[]> payloads = ArgumentCaptor.forClass(byte[].class);
+            verify(session, times(3)).sendFpduWithData(any(), payloads.capture());
+            assertArrayEquals(new byte[] { 4, 1, 2, 3, 4 }, payloads.getAllValues().get(0));
+            assertArrayEquals(new byte[] { (byte) 0xC4 }, payloads.getAllValues().get(1));
+            assertArrayEquals(new byte[] { 4, 1, 2, 3, 4 }, payloads.getAllValues().get(2));
+        }
+
+        @Test
+        @DisplayName("should pack compressed articles into multi-article DTFs")
+        void shouldPackCompressedArticles() throws Exception {
+            FpduWriter writer = new FpduWriter(session, SERVER_CONNECTION_ID, 4096, 100, true);
+            writer.setCompressor(new ArticleCompressor(CompressionType.BOTH));
+            byte[] data = new byte[100 * writer.getArticlesPerDtf()];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (byte) (i % 100 < 50 ? ' ' : i % 7);
+            }
+
+            writer.writeArticles(data, 0, data.length);
+
+            ArgumentCaptor<byte[]> fpdus = ArgumentCaptor.forClass(byte[].class);
+            verify(session).sendRawFpdu(fpdus.capture());
+            FpduFrame frame = FpduFrame.of(fpdus.getValue());
+            assertEquals(writer.getArticlesPerDtf(), frame.articleCount());
+            ArticleDecompressor decompressor = new ArticleDecompressor(CompressionType.BOTH);
+            ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+            frame.forEachArticle(article -> {
+                decompressor.decode(article, decoded);
+                decompressor.endArticle();
+            });
+            assertArrayEquals(data, decoded.toByteArray());
+            assertEquals(data.length, writer.getTotalBytesSent());
+        }
+    }
+
     @Nested
     @DisplayName("Error Handling")
     class ErrorHandlingTests {
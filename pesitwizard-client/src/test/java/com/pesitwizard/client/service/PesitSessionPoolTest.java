@@ -0,0 +1,136 @@
+package com.pesitwizard.client.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.pesitwizard.client.entity.PesitServer;
+import com.pesitwizard.fpdu.ConnectMessageBuilder;
+import com.pesitwizard.fpdu.Fpdu;
+import com.pesitwizard.fpdu.FpduBuilder;
+import com.pesitwizard.fpdu.FpduParser;
+import com.pesitwizard.fpdu.FpduType;
+import com.pesitwizard.fpdu.ParameterIdentifier;
+import com.pesitwizard.fpdu.ParameterValue;
+import com.pesitwizard.transport.TransportChannel;
+
+@DisplayName("PesitSessionPool Tests")
+class PesitSessionPoolTest {
+
+    private PesitSessionPool pool;
+    private PesitServer server;
+    private List<TransportChannel> channels;
+
+    @BeforeEach
+    void setUp() {
+        pool = new PesitSessionPool();
+        server = PesitServer.builder().id("srv-1").name("test").host("localhost").port(5000)
+                .serverId("SERVER").updatedAt(Instant.now()).build();
+        channels = new ArrayList<>();
+    }
+
+    /** A connected channel answering ACONNECT, then RELCONF */
+    private TransportChannel newChannel() throws IOException {
+        TransportChannel channel = mock(TransportChannel.class);
+        when(channel.receive()).thenReturn(
+                FpduBuilder.buildFpdu(FpduType.ACONNECT, 1, 42,
+                        new ParameterValue(ParameterIdentifier.PI_06_VERSION, 2)),
+                FpduBuilder.buildFpdu(FpduType.RELCONF, 1, 42));
+        when(channel.isConnected()).thenReturn(true);
+        when(channel.isAlive()).thenReturn(true);
+        channels.add(channel);
+        return channel;
+    }
+
+    private static Fpdu connect(String partner) throws IOException {
+        return new ConnectMessageBuilder().demandeur(partner).serveur("SERVER").writeAccess().build(1);
+    }
+
+    private void transfer(String partner) throws Exception {
+        try (PesitSessionPool.Lease lease = pool.lease(server, 60000, this::newChannel)) {
+            assertEquals(42, lease.connect(connect(partner)).getIdSrc());
+            lease.release();
+        }
+    }
+
+    private static int sent(TransportChannel channel, FpduType type) throws IOException {
+        return (int) mockingDetails(channel).getInvocations().stream()
+                .filter(i -> i.getMethod().getName().equals("send"))
+                .filter(i -> new FpduParser((byte[]) i.getArgument(0)).parse().getFpduType() == type)
+                .count();
+    }
+
+    @Test
+    @DisplayName("should reuse an idle session connected with the same CONNECT")
+    void shouldReuseIdleSession() throws Exception {
+        transfer("CLIENT");
+        transfer("CLIENT");
+        transfer("CLIENT");
+
+        assertEquals(1, channels.size());
+        assertEquals(1, sent(channels.get(0), FpduType.CONNECT));
+        verify(channels.get(0), times(2)).setReceiveTimeout(60000);
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    @Test
+    @DisplayName("should open a new session for different CONNECT parameters")
+    void shouldKeySessionsOnConnect() throws Exception {
+        transfer("CLIENT");
+        transfer("OTHER");
+
+        assertEquals(2, channels.size());
+        assertEquals(2, pool.getIdleCount());
+    }
+
+    @Test
+    @DisplayName("should drop the connection of an unreleased lease")
+    void shouldDropUnreleasedLease() throws Exception {
+        try (PesitSessionPool.Lease lease = pool.lease(server, 60000, this::newChannel)) {
+            lease.connect(connect("CLIENT"));
+        }
+        verify(channels.get(0)).close();
+        assertEquals(0, sent(channels.get(0), FpduType.RELEASE));
+
+        transfer("CLIENT");
+        assertEquals(2, channels.size());
+    }
+
+    @Test
+    @DisplayName("should not reuse a session that failed its health check")
+    void shouldDiscardStaleSession() throws Exception {
+        transfer("CLIENT");
+        when(channels.get(0).isAlive()).thenReturn(false);
+
+        transfer("CLIENT");
+
+        assertEquals(2, channels.size());
+        verify(channels.get(0)).close();
+    }
+
+    @Test
+    @DisplayName("should RELEASE sessions on idle eviction or when pooling is disabled")
+    void shouldReleaseEvictedSessions() throws Exception {
+        server.setSessionIdleTimeout(0);
+        transfer("CLIENT");
+        pool.evictIdle();
+
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(1, sent(channels.get(0), FpduType.RELEASE));
+        verify(channels.get(0)).close();
+
+        server.setMaxIdleSessions(0);
+        transfer("CLIENT");
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(1, sent(channels.get(1), FpduType.RELEASE));
+        verify(channels.get(1), never()).isAlive();
+    }
+}
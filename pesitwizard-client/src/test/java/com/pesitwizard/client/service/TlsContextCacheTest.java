@@ -0,0 +1,57 @@
+package com.pesitwizard.client.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.security.KeyStore;
+import java.time.Instant;
+
+import javax.net.ssl.SSLContext;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.pesitwizard.client.entity.PesitServer;
+import com.pesitwizard.client.security.SecretsService;
+
+@DisplayName("TlsContextCache Tests")
+class TlsContextCacheTest {
+
+    private TlsContextCache cache;
+    private PesitServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        SecretsService secretsService = mock(SecretsService.class);
+        when(secretsService.decrypt(any())).thenAnswer(i -> i.getArgument(0));
+        cache = new TlsContextCache(secretsService, 100, 600);
+
+        KeyStore truststore = KeyStore.getInstance("PKCS12");
+        truststore.load(null, "changeit".toCharArray());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        truststore.store(out, "changeit".toCharArray());
+
+        server = PesitServer.builder().id("srv-1").name("test").host("localhost").port(5000)
+                .serverId("SERVER").tlsEnabled(true).truststoreData(out.toByteArray())
+                .truststorePassword("changeit").updatedAt(Instant.now()).build();
+    }
+
+    @Test
+    @DisplayName("should share one context per server until it is updated")
+    void shouldReuseContextUntilServerUpdated() {
+        SSLContext first = cache.getContext(server);
+        assertSame(first, cache.getContext(server));
+        assertEquals(600, first.getClientSessionContext().getSessionTimeout());
+        assertEquals(100, first.getClientSessionContext().getSessionCacheSize());
+
+        server.setUpdatedAt(server.getUpdatedAt().plusSeconds(1));
+        SSLContext updated = cache.getContext(server);
+        assertNotSame(first, updated);
+
+        cache.invalidate("srv-1");
+        assertNotSame(updated, cache.getContext(server));
+    }
+}
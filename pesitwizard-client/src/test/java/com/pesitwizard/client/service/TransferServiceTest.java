@@ -0,0 +1,58 @@
+package com.pesitwizard.client.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.pesitwizard.client.entity.PesitServer;
+import com.pesitwizard.fpdu.Fpdu;
+import com.pesitwizard.fpdu.FpduType;
+import com.pesitwizard.fpdu.ParameterIdentifier;
+import com.pesitwizard.fpdu.ParameterValue;
+
+@DisplayName("TransferService Tests")
+class TransferServiceTest {
+
+    private static Fpdu aconnect(Integer pi25) {
+        Fpdu aconnect = new Fpdu(FpduType.ACONNECT);
+        if (pi25 != null) {
+            aconnect.withParameter(new ParameterValue(ParameterIdentifier.PI_25_TAILLE_MAX_ENTITE, pi25));
+        }
+        return aconnect;
+    }
+
+    private static PesitServer server(Integer maxEntitySize) {
+        return PesitServer.builder().id("srv-1").name("test").host("localhost").port(5000)
+                .serverId("SERVER").maxEntitySize(maxEntitySize).build();
+    }
+
+    @Test
+    @DisplayName("should propose the largest entity when the server announces none")
+    void shouldProposeLargestEntityByDefault() {
+        assertEquals(65535, TransferService.proposedEntitySize(server(null), aconnect(null), null));
+    }
+
+    @Test
+    @DisplayName("should propose the entity size announced in ACONNECT PI 25")
+    void shouldProposeAconnectEntitySize() {
+        assertEquals(32768, TransferService.proposedEntitySize(server(null), aconnect(32768), null));
+        assertEquals(65535, TransferService.proposedEntitySize(server(null), aconnect(0), null));
+    }
+
+    @Test
+    @DisplayName("should cap the entity size with the server override")
+    void shouldCapWithServerOverride() {
+        assertEquals(4096, TransferService.proposedEntitySize(server(4096), aconnect(32768), null));
+        assertEquals(8192, TransferService.proposedEntitySize(server(16384), aconnect(8192), null));
+        assertEquals(32768, TransferService.proposedEntitySize(server(0), aconnect(32768), null));
+    }
+
+    @Test
+    @DisplayName("should cap the entity size with the requested chunk size")
+    void shouldCapWithChunkSize() {
+        assertEquals(1024, TransferService.proposedEntitySize(server(4096), aconnect(32768), 1024));
+        assertEquals(4096, TransferService.proposedEntitySize(server(4096), aconnect(32768), 8192));
+        assertEquals(32768, TransferService.proposedEntitySize(server(null), aconnect(32768), 0));
+    }
+}
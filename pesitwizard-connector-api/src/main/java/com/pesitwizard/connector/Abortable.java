@@ -0,0 +1,31 @@
+package com.pesitwizard.connector;
+
+import java.io.IOException;
+
+/**
+ * Optional capability of connector output streams whose data only becomes
+ * visible on a successful close, such as multipart uploads.
+ *
+ * A caller that cannot complete a file, e.g. on an interrupted transfer,
+ * aborts the stream instead of closing it, so that no truncated file is
+ * published:
+ *
+ * <pre>
+ * if (out instanceof Abortable abortable) {
+ *     abortable.abort();
+ * } else {
+ *     out.close();
+ * }
+ * </pre>
+ */
+public interface Abortable {
+
+    /**
+     * Discard the stream without publishing what was written. Data already
+     * stored may be kept for a resume, depending on the connector
+     * configuration. Closing the stream afterwards has no effect.
+     *
+     * @throws IOException if the storage could not be told to discard it
+     */
+    void abort() throws IOException;
+}
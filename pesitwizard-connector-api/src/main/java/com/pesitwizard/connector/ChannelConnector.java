@@ -0,0 +1,154 @@
+package com.pesitwizard.connector;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Optional capability of connectors giving channel access to files:
+ * sequential channels, seekable reads, and positioned reads and writes.
+ *
+ * Like the other capabilities, it is looked up with
+ * {@link StorageConnector#capability(Class)}. {@link #of(StorageConnector)}
+ * does so, and adapts a stream-only connector through the default methods
+ * below, built on
+ * {@link #read(String, long)} and {@link #write(String, boolean)}. Connectors
+ * with native range access override them, and report through
+ * {@link #supportsParallelRanges()} and {@link #supportsResume()} which
+ * access patterns are worth using:
+ *
+ * <pre>
+ * ChannelConnector channels = ChannelConnector.of(connector);
+ * if (channels.supportsParallelRanges()) {
+ *     // read disjoint ranges of the file from several threads
+ * }
+ * </pre>
+ */
+public interface ChannelConnector extends StorageConnector {
+
+    /**
+     * Channel access to any connector: its {@link ChannelConnector}
+     * capability when it has one, otherwise an adapter over its streams.
+     * Closing the adapter closes the connector.
+     *
+     * @param connector Initialized connector
+     * @return Channel view of the connector
+     */
+    static ChannelConnector of(StorageConnector connector) {
+        return connector.capability(ChannelConnector.class).orElseGet(() -> new StreamChannelConnector(connector));
+    }
+
+    /**
+     * Open a channel reading a file sequentially from a position.
+     * Caller is responsible for closing the channel.
+     *
+     * @param path   File path
+     * @param offset Byte offset to start reading from
+     * @return Channel positioned at offset
+     * @throws ConnectorException if file not found or error
+     */
+    default ReadableByteChannel openReadable(String path, long offset) throws ConnectorException {
+        return Channels.newChannel(offset > 0 ? read(path, offset) : read(path));
+    }
+
+    /**
+     * Open a channel writing a file sequentially.
+     * Caller is responsible for closing the channel.
+     *
+     * @param path   File path
+     * @param append If true, append to existing file
+     * @return Channel for writing file content
+     * @throws ConnectorException on error
+     */
+    default WritableByteChannel openWritable(String path, boolean append) throws ConnectorException {
+        return Channels.newChannel(write(path, append));
+    }
+
+    /**
+     * Open a read-only seekable channel on a file. Unless the connector
+     * overrides it, each read is one {@link #read(String, long, ByteBuffer)}
+     * call, so reads should use large buffers.
+     *
+     * @param path File path
+     * @return Seekable channel at position 0
+     * @throws ConnectorException if file not found or error
+     */
+    default SeekableByteChannel openSeekable(String path) throws ConnectorException {
+        return new RangeReadChannel(this, path, getMetadata(path).getSize());
+    }
+
+    /**
+     * Read bytes at a position, without any channel state.
+     *
+     * @param path     File path
+     * @param position Byte offset to read from
+     * @param dst      Buffer filled up to its remaining space
+     * @return Number of bytes read, -1 at end of file
+     * @throws ConnectorException if file not found or error
+     */
+    default int read(String path, long position, ByteBuffer dst) throws ConnectorException {
+        try (InputStream in = read(path, position)) {
+            byte[] bytes = in.readNBytes(dst.remaining());
+            if (bytes.length == 0 && dst.hasRemaining()) {
+                return -1;
+            }
+            dst.put(bytes);
+            return bytes.length;
+        } catch (IOException e) {
+            throw new ConnectorException("Failed to read " + path + " at " + position, e);
+        }
+    }
+
+    /**
+     * Write bytes at a position, without any channel state. Unless the
+     * connector overrides it, only writes at the end of the file, i.e.
+     * appends, are supported.
+     *
+     * @param path     File path
+     * @param position Byte offset to write at
+     * @param src      Buffer written up to its limit
+     * @return Number of bytes written
+     * @throws ConnectorException with {@code NOT_SUPPORTED} for a position
+     *                            the connector cannot write at, or on error
+     */
+    default int write(String path, long position, ByteBuffer src) throws ConnectorException {
+        long size = exists(path) ? getMetadata(path).getSize() : 0;
+        if (position != size) {
+            throw new ConnectorException(ConnectorException.ErrorCode.NOT_SUPPORTED,
+                    getType() + " connector can only append to " + path + " (" + size + " bytes), not write at "
+                            + position);
+        }
+        int length = src.remaining();
+        try (WritableByteChannel out = openWritable(path, size > 0)) {
+            while (src.hasRemaining()) {
+                out.write(src);
+            }
+            return length;
+        } catch (IOException e) {
+            throw new ConnectorException("Failed to write " + path + " at " + position, e);
+        }
+    }
+
+    /**
+     * Check if disjoint ranges of a file can be read concurrently, each at
+     * the cost of reading that range only.
+     *
+     * @return true if parallel range reads are efficient
+     */
+    default boolean supportsParallelRanges() {
+        return false;
+    }
+
+    /**
+     * Check if this connector supports resume (partial read/write).
+     *
+     * @return true if resume is supported
+     */
+    @Override
+    boolean supportsResume();
+}
@@ -0,0 +1,72 @@
+package com.pesitwizard.connector;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+
+/**
+ * Optional capability of connectors backed by a file system, giving
+ * {@link FileChannel} access to files instead of plain streams.
+ *
+ * Callers look it up with {@link StorageConnector#capability(Class)} and fall
+ * back to {@link StorageConnector#read(String)} and
+ * {@link StorageConnector#write(String)} when the connector does not offer it:
+ *
+ * <pre>
+ * Optional&lt;FileChannelConnector&gt; files = connector.capability(FileChannelConnector.class);
+ * InputStream in = files.isPresent() ? files.get().readMapped(path, 0) : connector.read(path);
+ * </pre>
+ */
+public interface FileChannelConnector {
+
+    /**
+     * Open a file for positioned reads, or for zero-copy transfers with
+     * {@link FileChannel#transferTo}.
+     * Caller is responsible for closing the channel.
+     *
+     * @param path File path
+     * @return Channel open for reading
+     * @throws ConnectorException if file not found or error
+     */
+    FileChannel openReadChannel(String path) throws ConnectorException;
+
+    /**
+     * Read a file sequentially through memory-mapped windows, without copying
+     * it through a heap buffer. Suited to large sequential sends.
+     *
+     * @param path   File path
+     * @param offset Byte offset to start reading from
+     * @return InputStream positioned at offset
+     * @throws ConnectorException if file not found or error
+     */
+    InputStream readMapped(String path, long offset) throws ConnectorException;
+
+    /**
+     * Open a file for positioned writes, truncated and sized up front when
+     * the expected size is known.
+     * Caller is responsible for closing the channel, and for truncating it if
+     * less than the expected size is written.
+     *
+     * @param path         File path
+     * @param expectedSize Announced file size in bytes, 0 if unknown
+     * @return Channel open for writing
+     * @throws ConnectorException with {@code DISK_FULL} if the expected size
+     *                            does not fit in the space free when opening,
+     *                            or on error
+     */
+    FileChannel openWriteChannel(String path, long expectedSize) throws ConnectorException;
+
+    /**
+     * Write a file sequentially, sized up front when the expected size is
+     * known. Large files may bypass the page cache, depending on the
+     * connector configuration. The file is cut to the bytes written on close.
+     *
+     * @param path         File path
+     * @param expectedSize Announced file size in bytes, 0 if unknown
+     * @return OutputStream for writing file content
+     * @throws ConnectorException with {@code DISK_FULL} if the expected size
+     *                            does not fit in the space free when opening,
+     *                            or on error
+     */
+    OutputStream write(String path, long expectedSize) throws ConnectorException;
+}
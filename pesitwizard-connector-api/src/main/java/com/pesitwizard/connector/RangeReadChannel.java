@@ -0,0 +1,100 @@
+package com.pesitwizard.connector;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+
+/**
+ * Read-only seekable channel issuing one positioned read per call.
+ */
+class RangeReadChannel implements SeekableByteChannel {
+
+    private final ChannelConnector connector;
+    private final String path;
+    private final long size;
+    private long position;
+    private boolean open = true;
+
+    RangeReadChannel(ChannelConnector connector, String path, long size) {
+        this.connector = connector;
+        this.path = path;
+        this.size = size;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        checkOpen();
+        if (position >= size) {
+            return -1;
+        }
+        if (!dst.hasRemaining()) {
+            return 0;
+        }
+        int limit = dst.limit();
+        // Never ask past the end of the file
+        if (dst.remaining() > size - position) {
+            dst.limit(dst.position() + (int) (size - position));
+        }
+        try {
+            int n = connector.read(path, position, dst);
+            if (n > 0) {
+                position += n;
+            }
+            return n;
+        } catch (ConnectorException e) {
+            throw new IOException(e.getMessage(), e);
+        } finally {
+            dst.limit(limit);
+        }
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long position() throws IOException {
+        checkOpen();
+        return position;
+    }
+
+    @Override
+    public SeekableByteChannel position(long newPosition) throws IOException {
+        checkOpen();
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("Negative position: " + newPosition);
+        }
+        position = newPosition;
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        checkOpen();
+        return size;
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long size) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() {
+        open = false;
+    }
+
+    private void checkOpen() throws ClosedChannelException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+    }
+}
@@ -4,6 +4,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Storage Connector Interface - SDK for creating pluggable storage backends.
@@ -185,6 +186,19 @@ public interface StorageConnector extends AutoCloseable {
         return false;
     }
 
+    /**
+     * Look up an optional capability of this connector, such as
+     * {@link FileChannelConnector} or {@link ChannelConnector}. This is the
+     * one way capabilities are discovered: wrappers delegating to another
+     * connector override it to expose the capabilities of their delegate.
+     *
+     * @param type Capability interface
+     * @return This connector as that capability, or empty if not supported
+     */
+    default <T> Optional<T> capability(Class<T> type) {
+        return type.isInstance(this) ? Optional.of(type.cast(this)) : Optional.empty();
+    }
+
     /**
      * Close the connector and release resources.
      */
@@ -0,0 +1,120 @@
+package com.pesitwizard.connector;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Channel access to a stream-only connector, through the default methods of
+ * {@link ChannelConnector}. Everything else is delegated.
+ */
+final class StreamChannelConnector implements ChannelConnector {
+
+    private final StorageConnector delegate;
+
+    StreamChannelConnector(StorageConnector delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String getType() {
+        return delegate.getType();
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public String getVersion() {
+        return delegate.getVersion();
+    }
+
+    @Override
+    public void initialize(Map<String, String> config) throws ConnectorException {
+        delegate.initialize(config);
+    }
+
+    @Override
+    public boolean testConnection() throws ConnectorException {
+        return delegate.testConnection();
+    }
+
+    @Override
+    public boolean exists(String path) throws ConnectorException {
+        return delegate.exists(path);
+    }
+
+    @Override
+    public FileMetadata getMetadata(String path) throws ConnectorException {
+        return delegate.getMetadata(path);
+    }
+
+    @Override
+    public List<FileMetadata> list(String path) throws ConnectorException {
+        return delegate.list(path);
+    }
+
+    @Override
+    public InputStream read(String path) throws ConnectorException {
+        return delegate.read(path);
+    }
+
+    @Override
+    public InputStream read(String path, long offset) throws ConnectorException {
+        return delegate.read(path, offset);
+    }
+
+    @Override
+    public OutputStream write(String path) throws ConnectorException {
+        return delegate.write(path);
+    }
+
+    @Override
+    public OutputStream write(String path, boolean append) throws ConnectorException {
+        return delegate.write(path, append);
+    }
+
+    @Override
+    public void delete(String path) throws ConnectorException {
+        delegate.delete(path);
+    }
+
+    @Override
+    public void mkdir(String path) throws ConnectorException {
+        delegate.mkdir(path);
+    }
+
+    @Override
+    public void rename(String sourcePath, String targetPath) throws ConnectorException {
+        delegate.rename(sourcePath, targetPath);
+    }
+
+    @Override
+    public List<ConfigParameter> getRequiredParameters() {
+        return delegate.getRequiredParameters();
+    }
+
+    @Override
+    public List<ConfigParameter> getOptionalParameters() {
+        return delegate.getOptionalParameters();
+    }
+
+    @Override
+    public boolean supportsResume() {
+        return delegate.supportsResume();
+    }
+
+    @Override
+    public <T> Optional<T> capability(Class<T> type) {
+        return type.isInstance(this) ? Optional.of(type.cast(this)) : delegate.capability(type);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -0,0 +1,109 @@
+package com.pesitwizard.connector;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+class ChannelConnectorTest {
+
+    private final MemoryConnector memory = new MemoryConnector();
+    private final ChannelConnector channels = ChannelConnector.of(memory);
+
+    @Test
+    void testStreamOnlyConnectorIsAdapted() {
+        assertThat(channels).isInstanceOf(StreamChannelConnector.class);
+        assertThat(channels.getType()).isEqualTo("memory");
+        assertThat(channels.supportsParallelRanges()).isFalse();
+        assertThat(channels.supportsResume()).isFalse();
+    }
+
+    @Test
+    void testCapabilitiesOfTheAdapter() {
+        assertThat(channels.capability(ChannelConnector.class)).containsSame(channels);
+        assertThat(channels.capability(FileChannelConnector.class)).isEmpty();
+    }
+
+    @Test
+    void testChannelCapabilityIsLookedUp() {
+        ChannelConnector native_ = new NativeChannels();
+        // A wrapper exposing the capability of its delegate
+        StorageConnector wrapper = new MemoryConnector() {
+            @Override
+            public <T> Optional<T> capability(Class<T> type) {
+                return native_.capability(type);
+            }
+        };
+
+        assertThat(ChannelConnector.of(native_)).isSameAs(native_);
+        assertThat(ChannelConnector.of(wrapper)).isSameAs(native_);
+    }
+
+    @Test
+    void testAdapterClosesConnector() {
+        channels.close();
+
+        assertThat(memory.closed).isTrue();
+    }
+
+    @Test
+    void testSequentialChannels() throws Exception {
+        try (WritableByteChannel out = channels.openWritable("seq.txt", false)) {
+            out.write(ByteBuffer.wrap("0123456789".getBytes(StandardCharsets.US_ASCII)));
+        }
+        try (WritableByteChannel out = channels.openWritable("seq.txt", true)) {
+            out.write(ByteBuffer.wrap("AB".getBytes(StandardCharsets.US_ASCII)));
+        }
+
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        try (ReadableByteChannel in = channels.openReadable("seq.txt", 4)) {
+            Channels.newInputStream(in).transferTo(received);
+        }
+        assertThat(received.toString(StandardCharsets.US_ASCII)).isEqualTo("456789AB");
+    }
+
+    @Test
+    void testPositionedRead() throws Exception {
+        memory.files.put("data.txt", "0123456789".getBytes(StandardCharsets.US_ASCII));
+
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        assertThat(channels.read("data.txt", 3, buffer)).isEqualTo(4);
+        assertThat(new String(buffer.array(), StandardCharsets.US_ASCII)).isEqualTo("3456");
+        assertThat(channels.read("data.txt", 10, ByteBuffer.allocate(4))).isEqualTo(-1);
+        assertThat(channels.read("data.txt", 8, ByteBuffer.allocate(4))).isEqualTo(2);
+    }
+
+    @Test
+    void testPositionedWriteAppends() throws Exception {
+        assertThat(channels.write("new.txt", 0, ByteBuffer.wrap("01234".getBytes()))).isEqualTo(5);
+        assertThat(channels.write("new.txt", 5, ByteBuffer.wrap("567".getBytes()))).isEqualTo(3);
+
+        assertThat(memory.files.get("new.txt")).isEqualTo("01234567".getBytes());
+    }
+
+    @Test
+    void testPositionedWriteElsewhereIsNotSupported() {
+        memory.files.put("data.txt", "0123456789".getBytes());
+
+        assertThatThrownBy(() -> channels.write("data.txt", 2, ByteBuffer.wrap("xx".getBytes())))
+                .isInstanceOf(ConnectorException.class)
+                .extracting(e -> ((ConnectorException) e).getErrorCode())
+                .isEqualTo(ConnectorException.ErrorCode.NOT_SUPPORTED);
+        assertThat(memory.files.get("data.txt")).isEqualTo("0123456789".getBytes());
+    }
+
+    /** Connector implementing the channel capability itself */
+    private static class NativeChannels extends MemoryConnector implements ChannelConnector {
+        @Override
+        public boolean supportsResume() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.pesitwizard.connector;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stream-only connector keeping files in memory, counting the streams opened
+ */
+class MemoryConnector implements StorageConnector {
+
+    final Map<String, byte[]> files = new ConcurrentHashMap<>();
+    int reads;
+    boolean closed;
+
+    @Override
+    public String getType() {
+        return "memory";
+    }
+
+    @Override
+    public String getName() {
+        return "In-memory";
+    }
+
+    @Override
+    public String getVersion() {
+        return "1.0.0";
+    }
+
+    @Override
+    public void initialize(Map<String, String> config) {
+    }
+
+    @Override
+    public boolean testConnection() {
+        return true;
+    }
+
+    @Override
+    public boolean exists(String path) {
+        return files.containsKey(path);
+    }
+
+    @Override
+    public FileMetadata getMetadata(String path) throws ConnectorException {
+        byte[] data = files.get(path);
+        if (data == null) {
+            throw new ConnectorException(ConnectorException.ErrorCode.FILE_NOT_FOUND, "Not found: " + path);
+        }
+        return FileMetadata.builder().name(path).path(path).size(data.length).build();
+    }
+
+    @Override
+    public List<FileMetadata> list(String path) {
+        return new ArrayList<>();
+    }
+
+    @Override
+    public InputStream read(String path) throws ConnectorException {
+        return read(path, 0);
+    }
+
+    @Override
+    public InputStream read(String path, long offset) throws ConnectorException {
+        byte[] data = files.get(path);
+        if (data == null) {
+            throw new ConnectorException(ConnectorException.ErrorCode.FILE_NOT_FOUND, "Not found: " + path);
+        }
+        reads++;
+        int from = (int) Math.min(offset, data.length);
+        return new ByteArrayInputStream(data, from, data.length - from);
+    }
+
+    @Override
+    public OutputStream write(String path) {
+        return write(path, false);
+    }
+
+    @Override
+    public OutputStream write(String path, boolean append) {
+        byte[] existing = append ? files.getOrDefault(path, new byte[0]) : new byte[0];
+        return new ByteArrayOutputStream() {
+            {
+                writeBytes(existing);
+            }
+
+            @Override
+            public void close() {
+                files.put(path, toByteArray());
+            }
+        };
+    }
+
+    @Override
+    public void delete(String path) {
+        files.remove(path);
+    }
+
+    @Override
+    public void mkdir(String path) {
+    }
+
+    @Override
+    public void rename(String sourcePath, String targetPath) {
+        files.put(targetPath, files.remove(sourcePath));
+    }
+
+    @Override
+    public List<ConfigParameter> getRequiredParameters() {
+        return List.of();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+}
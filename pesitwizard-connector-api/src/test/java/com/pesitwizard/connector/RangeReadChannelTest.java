@@ -0,0 +1,72 @@
+package com.pesitwizard.connector;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RangeReadChannelTest {
+
+    private final MemoryConnector memory = new MemoryConnector();
+    private SeekableByteChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        memory.files.put("seek.txt", "0123456789".getBytes(StandardCharsets.US_ASCII));
+        channel = ChannelConnector.of(memory).openSeekable("seek.txt");
+    }
+
+    @Test
+    void testSequentialReads() throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+
+        assertThat(channel.size()).isEqualTo(10);
+        assertThat(channel.read(buffer)).isEqualTo(4);
+        assertThat(channel.position()).isEqualTo(4);
+        buffer.clear();
+        assertThat(channel.read(buffer)).isEqualTo(4);
+        assertThat(new String(buffer.array(), StandardCharsets.US_ASCII)).isEqualTo("4567");
+    }
+
+    @Test
+    void testReadNeverPastEnd() throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate(8);
+        channel.position(7);
+
+        assertThat(channel.read(buffer)).isEqualTo(3);
+        assertThat(buffer.limit()).isEqualTo(8);
+        assertThat(channel.read(buffer)).isEqualTo(-1);
+        // One positioned read per call, none at the end of the file
+        assertThat(memory.reads).isEqualTo(1);
+    }
+
+    @Test
+    void testSeek() throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate(2);
+        channel.position(5);
+        channel.read(buffer);
+
+        assertThat(new String(buffer.array(), StandardCharsets.US_ASCII)).isEqualTo("56");
+        assertThatThrownBy(() -> channel.position(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testReadOnly() {
+        assertThatThrownBy(() -> channel.write(ByteBuffer.allocate(1))).isInstanceOf(NonWritableChannelException.class);
+        assertThatThrownBy(() -> channel.truncate(0)).isInstanceOf(NonWritableChannelException.class);
+    }
+
+    @Test
+    void testClosed() throws Exception {
+        channel.close();
+
+        assertThat(channel.isOpen()).isFalse();
+        assertThatThrownBy(() -> channel.read(ByteBuffer.allocate(1))).isInstanceOf(ClosedChannelException.class);
+    }
+}
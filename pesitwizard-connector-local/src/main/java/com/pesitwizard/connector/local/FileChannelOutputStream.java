@@ -0,0 +1,103 @@
+package com.pesitwizard.connector.local;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Writes a file sequentially through one off-heap buffer, then cuts the file
+ * to the bytes written, dropping any length reserved up front.
+ *
+ * With an alignment above 1 the channel is expected to be opened for direct
+ * I/O: the buffer is aligned and only whole blocks are written, the last one
+ * padded with zeros before the file is cut back to its real length.
+ */
+class FileChannelOutputStream extends OutputStream {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final int alignment;
+    private long written;
+    private boolean closed;
+
+    /**
+     * @param bufferSize bytes gathered per write, rounded up to the alignment
+     * @param alignment  block size for direct I/O, 1 for buffered I/O
+     */
+    FileChannelOutputStream(FileChannel channel, int bufferSize, int alignment) {
+        this.channel = channel;
+        this.alignment = alignment;
+        int size = (bufferSize + alignment - 1) / alignment * alignment;
+        this.buffer = ByteBuffer.allocateDirect(size + alignment - 1).alignedSlice(alignment);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        while (len > 0) {
+            int n = Math.min(len, buffer.remaining());
+            buffer.put(b, off, n);
+            off += n;
+            len -= n;
+            if (!buffer.hasRemaining()) {
+                drain(buffer.position());
+            }
+        }
+    }
+
+    /**
+     * Write the whole blocks gathered so far; a partial block waits for more
+     * data or for close
+     */
+    @Override
+    public void flush() throws IOException {
+        if (!closed) {
+            drain(buffer.position() / alignment * alignment);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            int tail = buffer.position();
+            if (tail > 0) {
+                int padded = (tail + alignment - 1) / alignment * alignment;
+                while (buffer.position() < padded) {
+                    buffer.put((byte) 0);
+                }
+                drain(padded);
+                written -= padded - tail;
+            }
+            channel.truncate(written);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void drain(int length) throws IOException {
+        if (length == 0) {
+            return;
+        }
+        buffer.flip();
+        int limit = buffer.limit();
+        buffer.limit(length);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        written += length;
+        buffer.limit(limit);
+        buffer.compact();
+    }
+}
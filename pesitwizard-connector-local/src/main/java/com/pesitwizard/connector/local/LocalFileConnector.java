@@ -4,7 +4,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileStore;
 import java.nio.file.Files;
+import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributes;
@@ -15,19 +22,43 @@ import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.pesitwizard.connector.ChannelConnector;
 import com.pesitwizard.connector.ConfigParameter;
 import com.pesitwizard.connector.ConnectorException;
+import com.pesitwizard.connector.FileChannelConnector;
 import com.pesitwizard.connector.FileMetadata;
-import com.pesitwizard.connector.StorageConnector;
 
 /**
  * Local filesystem storage connector.
+ *
+ * Its {@link ChannelConnector} channels are plain {@link FileChannel}s, so
+ * ranges can be read and written in parallel. Besides, it offers
+ * {@link FileChannelConnector}: memory-mapped reads, and writes sized from
+ * the announced file size. With
+ * {@code directIo}, files of at least {@code directIoMinSizeMb} are written
+ * with O_DIRECT, bypassing the page cache so that a large transfer does not
+ * evict the pages of other applications, such as a database, on the host.
  */
-public class LocalFileConnector implements StorageConnector {
+public class LocalFileConnector implements ChannelConnector, FileChannelConnector {
 
     private static final Logger log = LoggerFactory.getLogger(LocalFileConnector.class);
 
+    private static final long MB = 1024 * 1024;
+    /** Bytes gathered per write system call by {@link #write(String, long)} */
+    private static final int WRITE_BUFFER_SIZE = 1024 * 1024;
+    /** Block size assumed when the file store does not report one */
+    private static final int DEFAULT_BLOCK_SIZE = 4096;
+    /**
+     * JDK-specific {@code ExtendedOpenOption.DIRECT}, looked up by name so
+     * that the connector does not compile against internal API; null if the
+     * JDK has none
+     */
+    private static final OpenOption DIRECT = directOption();
+
     private Path basePath;
+    private int mmapWindowSize;
+    private boolean directIo;
+    private long directIoMinSize;
     private boolean initialized = false;
 
     @Override
@@ -49,6 +80,25 @@ public class LocalFileConnector implements StorageConnector {
     public void initialize(Map<String, String> config) throws ConnectorException {
         String baseDir = config.getOrDefault("basePath", ".");
         this.basePath = Path.of(baseDir).toAbsolutePath().normalize();
+        try {
+            long mmapWindowMb = Long.parseLong(config.getOrDefault("mmapWindowMb", "64"));
+            if (mmapWindowMb <= 0) {
+                throw new ConnectorException(
+                        ConnectorException.ErrorCode.INVALID_CONFIG,
+                        "mmapWindowMb must be positive: " + mmapWindowMb);
+            }
+            this.mmapWindowSize = (int) Math.min(mmapWindowMb * MB, Integer.MAX_VALUE);
+            this.directIoMinSize = Long.parseLong(config.getOrDefault("directIoMinSizeMb", "256")) * MB;
+        } catch (NumberFormatException e) {
+            throw new ConnectorException(
+                    ConnectorException.ErrorCode.INVALID_CONFIG,
+                    "Invalid number: " + e.getMessage());
+        }
+        this.directIo = Boolean.parseBoolean(config.getOrDefault("directIo", "false"));
+        if (directIo && DIRECT == null) {
+            log.warn("Direct I/O not supported by this JDK, using buffered writes");
+            this.directIo = false;
+        }
 
         if (!Files.exists(basePath)) {
             try {
@@ -211,6 +261,135 @@ public class LocalFileConnector implements StorageConnector {
         }
     }
 
+    @Override
+    public FileChannel openReadChannel(String path) throws ConnectorException {
+        checkInitialized();
+        Path resolved = resolvePath(path);
+
+        if (!Files.exists(resolved)) {
+            throw new ConnectorException(
+                    ConnectorException.ErrorCode.FILE_NOT_FOUND,
+                    "File not found: " + path);
+        }
+
+        try {
+            return FileChannel.open(resolved, StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw new ConnectorException("Failed to open file: " + path, e);
+        }
+    }
+
+    @Override
+    public InputStream readMapped(String path, long offset) throws ConnectorException {
+        FileChannel channel = openReadChannel(path);
+        try {
+            return new MappedFileInputStream(channel, offset, mmapWindowSize);
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new ConnectorException("Failed to map file: " + path, e);
+        }
+    }
+
+    @Override
+    public FileChannel openWriteChannel(String path, long expectedSize) throws ConnectorException {
+        checkInitialized();
+        Path resolved = resolvePath(path);
+        reserve(resolved, path, expectedSize);
+
+        try {
+            return FileChannel.open(resolved, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new ConnectorException("Failed to write file: " + path, e);
+        }
+    }
+
+    @Override
+    public OutputStream write(String path, long expectedSize) throws ConnectorException {
+        checkInitialized();
+        Path resolved = resolvePath(path);
+        reserve(resolved, path, expectedSize);
+
+        if (directIo && expectedSize >= directIoMinSize) {
+            try {
+                int blockSize = blockSize(resolved);
+                FileChannel channel = FileChannel.open(resolved, StandardOpenOption.WRITE, DIRECT);
+                log.debug("Writing {} with direct I/O ({} byte blocks)", resolved, blockSize);
+                return new FileChannelOutputStream(channel, WRITE_BUFFER_SIZE, blockSize);
+            } catch (IOException | UnsupportedOperationException e) {
+                log.info("Direct I/O not available for {}, using buffered writes: {}", resolved, e.getMessage());
+            }
+        }
+        try {
+            return new FileChannelOutputStream(FileChannel.open(resolved, StandardOpenOption.WRITE),
+                    WRITE_BUFFER_SIZE, 1);
+        } catch (IOException e) {
+            throw new ConnectorException("Failed to write file: " + path, e);
+        }
+    }
+
+    @Override
+    public ReadableByteChannel openReadable(String path, long offset) throws ConnectorException {
+        FileChannel channel = openReadChannel(path);
+        try {
+            return channel.position(offset);
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new ConnectorException("Failed to open file at offset: " + path, e);
+        }
+    }
+
+    @Override
+    public WritableByteChannel openWritable(String path, boolean append) throws ConnectorException {
+        checkInitialized();
+        Path resolved = resolvePath(path);
+
+        try {
+            Path parent = resolved.getParent();
+            if (parent != null && !Files.exists(parent)) {
+                Files.createDirectories(parent);
+            }
+            return FileChannel.open(resolved, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new ConnectorException("Failed to write file: " + path, e);
+        }
+    }
+
+    @Override
+    public SeekableByteChannel openSeekable(String path) throws ConnectorException {
+        return openReadChannel(path);
+    }
+
+    @Override
+    public int read(String path, long position, ByteBuffer dst) throws ConnectorException {
+        try (FileChannel channel = openReadChannel(path)) {
+            return channel.read(dst, position);
+        } catch (IOException e) {
+            throw new ConnectorException("Failed to read file: " + path, e);
+        }
+    }
+
+    @Override
+    public int write(String path, long position, ByteBuffer src) throws ConnectorException {
+        checkInitialized();
+        Path resolved = resolvePath(path);
+
+        try (FileChannel channel = FileChannel.open(resolved, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            int written = 0;
+            while (src.hasRemaining()) {
+                written += channel.write(src, position + written);
+            }
+            return written;
+        } catch (IOException e) {
+            throw new ConnectorException("Failed to write file: " + path, e);
+        }
+    }
+
+    @Override
+    public boolean supportsParallelRanges() {
+        return true;
+    }
+
     @Override
     public void delete(String path) throws ConnectorException {
         checkInitialized();
@@ -248,7 +427,10 @@ public class LocalFileConnector implements StorageConnector {
 
     @Override
     public List<ConfigParameter> getOptionalParameters() {
-        return List.of(ConfigParameter.optional("basePath", "Base directory", "."));
+        return List.of(ConfigParameter.optional("basePath", "Base directory", "."),
+                ConfigParameter.integer("mmapWindowMb", "Memory-mapped read window (MB)", 64),
+                ConfigParameter.optional("directIo", "Write large files with direct I/O (O_DIRECT)", "false"),
+                ConfigParameter.integer("directIoMinSizeMb", "Minimum file size for direct I/O (MB)", 256));
     }
 
     @Override
@@ -269,6 +451,70 @@ public class LocalFileConnector implements StorageConnector {
         }
     }
 
+    /**
+     * Create or empty a file, then extend it to the expected size. The
+     * length is only set, so the file stays sparse and no block is
+     * allocated: the free space check makes a disk already too small fail
+     * here, but space taken by others meanwhile still fails the transfer
+     * on write.
+     */
+    private void reserve(Path resolved, String path, long expectedSize) throws ConnectorException {
+        try {
+            Path parent = resolved.getParent();
+            if (parent != null && !Files.exists(parent)) {
+                Files.createDirectories(parent);
+            }
+            if (expectedSize > 0 && parent != null) {
+                long usable = Files.getFileStore(parent).getUsableSpace();
+                if (usable < expectedSize) {
+                    throw new ConnectorException(
+                            ConnectorException.ErrorCode.DISK_FULL,
+                            "Not enough space for " + path + ": " + expectedSize + " bytes announced, "
+                                    + usable + " available");
+                }
+            }
+            try (RandomAccessFile file = new RandomAccessFile(resolved.toFile(), "rw")) {
+                file.setLength(0);
+                if (expectedSize > 0) {
+                    file.setLength(expectedSize);
+                }
+            }
+        } catch (IOException e) {
+            throw new ConnectorException("Failed to write file: " + path, e);
+        }
+    }
+
+    private static OpenOption directOption() {
+        try {
+            for (Object option : Class.forName("com.sun.nio.file.ExtendedOpenOption").getEnumConstants()) {
+                if (option instanceof OpenOption openOption && "DIRECT".equals(openOption.toString())) {
+                    return openOption;
+                }
+            }
+        } catch (ClassNotFoundException | LinkageError e) {
+            log.debug("Extended open options not available: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    private static int blockSize(Path file) {
+        try {
+            FileStore store = Files.getFileStore(file);
+            long size = store.getBlockSize();
+            return size > 0 && size <= MB ? (int) size : DEFAULT_BLOCK_SIZE;
+        } catch (IOException | UnsupportedOperationException e) {
+            return DEFAULT_BLOCK_SIZE;
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.debug("Error closing channel: {}", e.getMessage());
+        }
+    }
+
     private Path resolvePath(String path) {
         if (path == null || path.isEmpty() || path.equals(".")) {
             return basePath;
@@ -43,6 +43,9 @@ public class LocalFileConnectorFactory implements ConnectorFactory {
 
     @Override
     public List<ConfigParameter> getOptionalParameters() {
-        return List.of(ConfigParameter.optional("basePath", "Base directory", "."));
+        return List.of(ConfigParameter.optional("basePath", "Base directory", "."),
+                ConfigParameter.integer("mmapWindowMb", "Memory-mapped read window (MB)", 64),
+                ConfigParameter.optional("directIo", "Write large files with direct I/O (O_DIRECT)", "false"),
+                ConfigParameter.integer("directIoMinSizeMb", "Minimum file size for direct I/O (MB)", 256));
     }
 }
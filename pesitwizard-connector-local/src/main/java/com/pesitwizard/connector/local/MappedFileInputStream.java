@@ -0,0 +1,71 @@
+package com.pesitwizard.connector.local;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads a file sequentially through read-only memory-mapped windows.
+ *
+ * Bytes are copied straight from the page cache into the caller's buffer,
+ * with no read system call per chunk. One window is mapped at a time; the
+ * previous one is released by the garbage collector.
+ */
+class MappedFileInputStream extends InputStream {
+
+    private final FileChannel channel;
+    private final long size;
+    private final int windowSize;
+    private long position;
+    private MappedByteBuffer window;
+
+    MappedFileInputStream(FileChannel channel, long offset, int windowSize) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        this.windowSize = windowSize;
+        this.position = offset;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return nextWindow() ? window.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!nextWindow()) {
+            return -1;
+        }
+        int n = Math.min(len, window.remaining());
+        window.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return window != null ? window.remaining() : 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    private boolean nextWindow() throws IOException {
+        if (window != null && window.hasRemaining()) {
+            return true;
+        }
+        if (position >= size) {
+            return false;
+        }
+        long length = Math.min(windowSize, size - position);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        position += length;
+        return true;
+    }
+}
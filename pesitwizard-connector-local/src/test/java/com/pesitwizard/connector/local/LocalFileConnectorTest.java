@@ -4,17 +4,25 @@ import static org.assertj.core.api.Assertions.*;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import com.pesitwizard.connector.ChannelConnector;
 import com.pesitwizard.connector.ConnectorException;
+import com.pesitwizard.connector.FileChannelConnector;
 import com.pesitwizard.connector.FileMetadata;
 
 class LocalFileConnectorTest {
@@ -181,4 +189,113 @@ class LocalFileConnectorTest {
         assertThatThrownBy(() -> uninit.exists("test"))
                 .isInstanceOf(ConnectorException.class);
     }
+
+    @Test
+    void testFileChannelCapability() {
+        assertThat(connector.capability(FileChannelConnector.class)).containsSame(connector);
+    }
+
+    @Test
+    void testMappedReadAcrossWindows() throws Exception {
+        connector.close();
+        connector = new LocalFileConnector();
+        connector.initialize(Map.of("basePath", tempDir.toString(), "mmapWindowMb", "1"));
+        byte[] data = randomBytes(3 * 1024 * 1024 + 5);
+        Files.write(tempDir.resolve("mapped.dat"), data);
+
+        try (InputStream is = connector.readMapped("mapped.dat", 100)) {
+            assertThat(is.readAllBytes()).isEqualTo(Arrays.copyOfRange(data, 100, data.length));
+        }
+    }
+
+    @Test
+    void testMmapWindowMustBePositive() {
+        LocalFileConnector invalid = new LocalFileConnector();
+        for (String window : List.of("0", "-1")) {
+            assertThatThrownBy(() -> invalid.initialize(Map.of("basePath", tempDir.toString(), "mmapWindowMb", window)))
+                    .isInstanceOf(ConnectorException.class)
+                    .extracting(e -> ((ConnectorException) e).getErrorCode())
+                    .isEqualTo(ConnectorException.ErrorCode.INVALID_CONFIG);
+        }
+    }
+
+    @Test
+    void testSizedWriteKeepsWrittenBytes() throws Exception {
+        try (OutputStream os = connector.write("sized.txt", 4096)) {
+            os.write("Hello, Vectis!".getBytes());
+        }
+
+        assertThat(Files.readString(tempDir.resolve("sized.txt"))).isEqualTo("Hello, Vectis!");
+    }
+
+    @Test
+    void testDirectIoWrite() throws Exception {
+        connector.close();
+        connector = new LocalFileConnector();
+        connector.initialize(Map.of("basePath", tempDir.toString(), "directIo", "true", "directIoMinSizeMb", "0"));
+        byte[] data = randomBytes(2 * 1024 * 1024 + 123);
+
+        // Falls back to buffered writes where the file system refuses O_DIRECT
+        try (OutputStream os = connector.write("direct.dat", data.length)) {
+            os.write(data, 0, 1000);
+            os.flush();
+            os.write(data, 1000, data.length - 1000);
+        }
+
+        assertThat(Files.readAllBytes(tempDir.resolve("direct.dat"))).isEqualTo(data);
+    }
+
+    @Test
+    void testPositionedWrites() throws Exception {
+        try (FileChannel channel = connector.openWriteChannel("positioned.txt", 10)) {
+            channel.write(ByteBuffer.wrap("56789".getBytes()), 5);
+            channel.write(ByteBuffer.wrap("01234".getBytes()), 0);
+        }
+
+        assertThat(Files.readString(tempDir.resolve("positioned.txt"))).isEqualTo("0123456789");
+    }
+
+    @Test
+    void testWriteRefusedWhenAnnouncedSizeDoesNotFit() {
+        assertThatThrownBy(() -> connector.write("huge.dat", Long.MAX_VALUE / 2))
+                .isInstanceOf(ConnectorException.class)
+                .extracting(e -> ((ConnectorException) e).getErrorCode())
+                .isEqualTo(ConnectorException.ErrorCode.DISK_FULL);
+    }
+
+    @Test
+    void testChannelCapability() {
+        assertThat(ChannelConnector.of(connector)).isSameAs(connector);
+        assertThat(connector.supportsParallelRanges()).isTrue();
+    }
+
+    @Test
+    void testPositionedReadsAndWrites() throws Exception {
+        connector.write("ranges.txt", 5, ByteBuffer.wrap("56789".getBytes()));
+        connector.write("ranges.txt", 0, ByteBuffer.wrap("01234".getBytes()));
+
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        assertThat(connector.read("ranges.txt", 3, buffer)).isEqualTo(4);
+        assertThat(new String(buffer.array(), StandardCharsets.US_ASCII)).isEqualTo("3456");
+        assertThat(connector.read("ranges.txt", 10, ByteBuffer.allocate(4))).isEqualTo(-1);
+    }
+
+    @Test
+    void testSeekableChannel() throws Exception {
+        Files.writeString(tempDir.resolve("seek.txt"), "0123456789");
+
+        try (SeekableByteChannel channel = connector.openSeekable("seek.txt")) {
+            ByteBuffer buffer = ByteBuffer.allocate(10);
+            channel.position(6);
+            assertThat(channel.read(buffer)).isEqualTo(4);
+            assertThat(new String(buffer.array(), 0, 4, StandardCharsets.US_ASCII)).isEqualTo("6789");
+            assertThat(channel.size()).isEqualTo(10);
+        }
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] data = new byte[size];
+        new Random(42).nextBytes(data);
+        return data;
+    }
 }
@@ -1,36 +1,56 @@
 package com.pesitwizard.connector.s3;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.PipedInputStream;
-import java.io.PipedOutputStream;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
-import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3ClientBuilder;
 import software.amazon.awssdk.services.s3.model.*;
 
+import com.pesitwizard.connector.ChannelConnector;
 import com.pesitwizard.connector.ConfigParameter;
 import com.pesitwizard.connector.ConnectorException;
 import com.pesitwizard.connector.FileMetadata;
-import com.pesitwizard.connector.StorageConnector;
 
-public class S3Connector implements StorageConnector {
+/**
+ * AWS S3 / MinIO storage connector.
+ *
+ * Writes are streamed as multipart uploads of {@code partSizeMb} parts, up
+ * to {@code uploadConcurrency} in parallel; reads larger than one chunk are
+ * prefetched with {@code readAhead} parallel ranged GETs. Positioned reads
+ * are single ranged GETs, so callers may fetch ranges from several threads.
+ */
+public class S3Connector implements ChannelConnector {
     private static final Logger log = LoggerFactory.getLogger(S3Connector.class);
+    private static final int MIB = 1024 * 1024;
+    /** Smallest part S3 accepts, except for the last one */
+    static final int MIN_PART_SIZE = 5 * MIB;
     private S3Client s3;
     private String bucket;
     private String prefix;
     private boolean initialized = false;
+    private int partSize;
+    private int uploadConcurrency;
+    private int readChunkSize;
+    private int readAhead;
+    private ExecutorService executor;
 
     @Override public String getType() { return "s3"; }
     @Override public String getName() { return "AWS S3 / MinIO"; }
@@ -46,6 +66,14 @@ public class S3Connector implements StorageConnector {
         String endpoint = config.get("endpoint");
 
         if (bucket == null) throw new ConnectorException(ConnectorException.ErrorCode.INVALID_CONFIG, "Bucket required");
+        try {
+            partSize = Math.max(Integer.parseInt(config.getOrDefault("partSizeMb", "8")) * MIB, MIN_PART_SIZE);
+            uploadConcurrency = Math.max(Integer.parseInt(config.getOrDefault("uploadConcurrency", "4")), 1);
+            readChunkSize = Math.max(Integer.parseInt(config.getOrDefault("readChunkSizeMb", "8")), 1) * MIB;
+            readAhead = Math.max(Integer.parseInt(config.getOrDefault("readAhead", "4")), 1);
+        } catch (NumberFormatException e) {
+            throw new ConnectorException(ConnectorException.ErrorCode.INVALID_CONFIG, "Invalid number: " + e.getMessage());
+        }
 
         try {
             S3ClientBuilder builder = S3Client.builder().region(Region.of(region));
@@ -56,6 +84,7 @@ public class S3Connector implements StorageConnector {
                 builder.endpointOverride(URI.create(endpoint)).forcePathStyle(true);
             }
             s3 = builder.build();
+            executor = Executors.newVirtualThreadPerTaskExecutor();
             initialized = true;
             log.info("S3 connected to bucket: {}", bucket);
         } catch (Exception e) {
@@ -91,22 +120,69 @@ public class S3Connector implements StorageConnector {
         }
         return result;
     }
-    @Override public InputStream read(String path) throws ConnectorException {
-        checkInit(); return s3.getObject(GetObjectRequest.builder().bucket(bucket).key(resolve(path)).build());
+    @Override public InputStream read(String path) throws ConnectorException { return read(path, 0); }
+    @Override
+    public InputStream read(String path, long offset) throws ConnectorException {
+        checkInit();
+        String key = resolve(path);
+        long size = getMetadata(path).getSize();
+        if (size - offset <= readChunkSize) {
+            return s3.getObject(GetObjectRequest.builder().bucket(bucket).key(key).range("bytes=" + offset + "-").build());
+        }
+        return new S3PrefetchInputStream(s3, bucket, key, offset, size, readChunkSize, readAhead, executor);
     }
-    @Override public InputStream read(String path, long offset) throws ConnectorException {
-        checkInit(); return s3.getObject(GetObjectRequest.builder().bucket(bucket).key(resolve(path)).range("bytes=" + offset + "-").build());
+    @Override
+    public int read(String path, long position, ByteBuffer dst) throws ConnectorException {
+        checkInit();
+        if (!dst.hasRemaining()) return 0;
+        GetObjectRequest request = GetObjectRequest.builder().bucket(bucket).key(resolve(path))
+                .range("bytes=" + position + "-" + (position + dst.remaining() - 1)).build();
+        try (ResponseInputStream<GetObjectResponse> in = s3.getObject(request)) {
+            byte[] bytes = in.readNBytes(dst.remaining());
+            dst.put(bytes);
+            return bytes.length > 0 ? bytes.length : -1;
+        } catch (NoSuchKeyException e) {
+            throw new ConnectorException(ConnectorException.ErrorCode.FILE_NOT_FOUND, "Not found: " + path, e);
+        } catch (S3Exception e) {
+            // 416: range starting past the end of the object
+            if (e.statusCode() == 416) return -1;
+            throw new ConnectorException("Read error", e);
+        } catch (IOException e) {
+            throw new ConnectorException("Read error", e);
+        }
     }
+    /**
+     * S3 objects are written whole: only a write at position 0 of a missing
+     * object is supported, as a new upload holding just that buffer.
+     */
+    @Override
+    public int write(String path, long position, ByteBuffer src) throws ConnectorException {
+        checkInit();
+        if (position != 0 || exists(path)) {
+            throw new ConnectorException(ConnectorException.ErrorCode.NOT_SUPPORTED, "S3 cannot write " + path + " at " + position + ": objects are written whole");
+        }
+        int length = src.remaining();
+        try (WritableByteChannel out = Channels.newChannel(write(path))) {
+            while (src.hasRemaining()) out.write(src);
+            return length;
+        } catch (IOException e) {
+            throw new ConnectorException("Write error", e);
+        }
+    }
+    @Override public boolean supportsParallelRanges() { return true; }
     @Override public OutputStream write(String path) throws ConnectorException { return write(path, false); }
-    @Override public OutputStream write(String path, boolean append) throws ConnectorException {
+
+    /**
+     * Open a multipart upload stream. S3 objects cannot be appended to: with
+     * {@code append}, only a missing object can be written.
+     */
+    @Override
+    public OutputStream write(String path, boolean append) throws ConnectorException {
         checkInit();
-        try {
-            PipedInputStream pis = new PipedInputStream();
-            PipedOutputStream pos = new PipedOutputStream(pis);
-            String key = resolve(path);
-            Thread.startVirtualThread(() -> { try { s3.putObject(PutObjectRequest.builder().bucket(bucket).key(key).build(), RequestBody.fromInputStream(pis, -1)); } catch (Exception e) { log.error("S3 upload error", e); } });
-            return pos;
-        } catch (Exception e) { throw new ConnectorException("Write error", e); }
+        if (append && exists(path)) {
+            throw new ConnectorException(ConnectorException.ErrorCode.NOT_SUPPORTED, "S3 cannot append to " + path);
+        }
+        return new S3MultipartOutputStream(s3, bucket, resolve(path), partSize, uploadConcurrency + 1, executor);
     }
     @Override public void delete(String path) throws ConnectorException {
         checkInit(); s3.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(resolve(path)).build());
@@ -121,10 +197,14 @@ public class S3Connector implements StorageConnector {
         return List.of(ConfigParameter.required("bucket", "S3 bucket name"));
     }
     @Override public List<ConfigParameter> getOptionalParameters() {
-        return List.of(ConfigParameter.password("accessKey", "AWS Access Key"), ConfigParameter.password("secretKey", "AWS Secret Key"), ConfigParameter.optional("region", "AWS Region", "us-east-1"), ConfigParameter.optional("endpoint", "Custom endpoint (MinIO)", null));
+        return List.of(ConfigParameter.password("accessKey", "AWS Access Key"), ConfigParameter.password("secretKey", "AWS Secret Key"), ConfigParameter.optional("region", "AWS Region", "us-east-1"), ConfigParameter.optional("endpoint", "Custom endpoint (MinIO)", null),
+                ConfigParameter.integer("partSizeMb", "Multipart upload part size (MiB, at least 5)", 8),
+                ConfigParameter.integer("uploadConcurrency", "Parts uploaded in parallel", 4),
+                ConfigParameter.integer("readChunkSizeMb", "Ranged GET size (MiB)", 8),
+                ConfigParameter.integer("readAhead", "Ranged GETs prefetched in parallel", 4));
     }
     @Override public boolean supportsResume() { return true; }
-    @Override public void close() { if (s3 != null) s3.close(); initialized = false; }
+    @Override public void close() { if (executor != null) executor.shutdownNow(); if (s3 != null) s3.close(); initialized = false; }
 
     private void checkInit() throws ConnectorException { if (!initialized) throw new ConnectorException(ConnectorException.ErrorCode.INVALID_CONFIG, "Not initialized"); }
     private String resolve(String p) { return prefix.isEmpty() ? p : prefix + "/" + p; }
@@ -0,0 +1,246 @@
+package com.pesitwizard.connector.s3;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import com.pesitwizard.connector.Abortable;
+
+/**
+ * Writes an S3 object as a multipart upload.
+ *
+ * Data is gathered in part-size buffers from a bounded pool; each full buffer
+ * is uploaded as one part on the connector executor while the writer fills
+ * the next, so memory stays at {@code buffers} parts whatever the object
+ * size. The first part failure is rethrown by the next write or by close.
+ *
+ * close completes the upload. If it fails, or if the stream is aborted, the
+ * upload is aborted so that S3 does not keep its parts. An object smaller
+ * than one part is sent with a single PutObject.
+ */
+class S3MultipartOutputStream extends OutputStream implements Abortable {
+
+    private static final Logger log = LoggerFactory.getLogger(S3MultipartOutputStream.class);
+
+    private final S3Client s3;
+    private final String bucket;
+    private final String key;
+    private final int partSize;
+    private final int maxBuffers;
+    private final ExecutorService executor;
+    private final BlockingQueue<byte[]> freeBuffers;
+    private final List<CompletedPart> parts = new ArrayList<>();
+    private final List<Future<?>> uploads = new ArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private String uploadId;
+    private int nextPartNumber = 1;
+    private int allocatedBuffers;
+    private byte[] buffer;
+    private int filled;
+    private boolean closed;
+
+    /**
+     * @param buffers parts held in memory at most, i.e. parallel part uploads
+     *                plus the one being filled
+     */
+    S3MultipartOutputStream(S3Client s3, String bucket, String key, int partSize, int buffers,
+            ExecutorService executor) {
+        this.s3 = s3;
+        this.bucket = bucket;
+        this.key = key;
+        this.partSize = partSize;
+        this.maxBuffers = Math.max(buffers, 2);
+        this.executor = executor;
+        this.freeBuffers = new ArrayBlockingQueue<>(maxBuffers);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        checkFailure();
+        while (len > 0) {
+            if (buffer == null) {
+                buffer = takeBuffer();
+            }
+            int n = Math.min(len, partSize - filled);
+            System.arraycopy(b, off, buffer, filled, n);
+            filled += n;
+            off += n;
+            len -= n;
+            if (filled == partSize) {
+                uploadPart();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            checkFailure();
+            if (uploadId == null) {
+                // Never reached one part: a plain PutObject is cheaper
+                s3.putObject(PutObjectRequest.builder().bucket(bucket).key(key).build(),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer != null ? buffer : new byte[0],
+                                0, filled), filled));
+                return;
+            }
+            if (filled > 0) {
+                uploadPart();
+            }
+            awaitUploads();
+            checkFailure();
+            List<CompletedPart> sorted;
+            synchronized (parts) {
+                sorted = new ArrayList<>(parts);
+            }
+            sorted.sort(Comparator.comparing(CompletedPart::partNumber));
+            s3.completeMultipartUpload(CompleteMultipartUploadRequest.builder().bucket(bucket).key(key)
+                    .uploadId(uploadId).multipartUpload(CompletedMultipartUpload.builder().parts(sorted).build())
+                    .build());
+            log.debug("Completed upload of {} in {} part(s)", key, sorted.size());
+        } catch (IOException | RuntimeException e) {
+            abandon();
+            throw e instanceof IOException io ? io : new IOException("S3 upload of " + key + " failed", e);
+        } finally {
+            buffer = null;
+            freeBuffers.clear();
+        }
+    }
+
+    /**
+     * Give up the object: nothing is published and the uploaded parts are
+     * discarded
+     */
+    @Override
+    public void abort() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        abandon();
+        buffer = null;
+        freeBuffers.clear();
+    }
+
+    private void uploadPart() throws IOException {
+        if (uploadId == null) {
+            uploadId = s3.createMultipartUpload(CreateMultipartUploadRequest.builder().bucket(bucket).key(key)
+                    .build()).uploadId();
+        }
+        int partNumber = nextPartNumber++;
+        byte[] data = buffer;
+        int length = filled;
+        buffer = null;
+        filled = 0;
+        uploads.add(executor.submit(() -> {
+            try {
+                UploadPartResponse response = s3.uploadPart(UploadPartRequest.builder().bucket(bucket).key(key)
+                        .uploadId(uploadId).partNumber(partNumber).contentLength((long) length).build(),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(data, 0, length), length));
+                synchronized (parts) {
+                    parts.add(CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build());
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                freeBuffers.offer(data);
+            }
+        }));
+    }
+
+    /**
+     * A free part buffer; waits for a part upload to finish when all are in use
+     */
+    private byte[] takeBuffer() throws IOException {
+        byte[] free = freeBuffers.poll();
+        if (free != null) {
+            return free;
+        }
+        if (allocatedBuffers < maxBuffers) {
+            allocatedBuffers++;
+            return new byte[partSize];
+        }
+        try {
+            while ((free = freeBuffers.poll(100, TimeUnit.MILLISECONDS)) == null) {
+                checkFailure();
+            }
+            return free;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a part upload of " + key);
+        }
+    }
+
+    private void awaitUploads() throws IOException {
+        try {
+            for (Future<?> upload : uploads) {
+                upload.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while completing the upload of " + key);
+        } catch (ExecutionException e) {
+            failure.compareAndSet(null, e.getCause());
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        Throwable t = failure.get();
+        if (t != null) {
+            throw new IOException("S3 upload of " + key + " failed: " + t.getMessage(), t);
+        }
+    }
+
+    /**
+     * Abort the upload and its parts already uploaded
+     */
+    private void abandon() {
+        uploads.forEach(upload -> upload.cancel(true));
+        if (uploadId == null) {
+            return;
+        }
+        try {
+            s3.abortMultipartUpload(AbortMultipartUploadRequest.builder().bucket(bucket).key(key).uploadId(uploadId)
+                    .build());
+            log.info("Aborted upload {} of {}", uploadId, key);
+        } catch (RuntimeException e) {
+            log.warn("Could not abort upload {} of {}: {}", uploadId, key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.pesitwizard.connector.s3;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+/**
+ * Reads a range of an S3 object with parallel ranged GETs.
+ *
+ * The range is cut in chunks; up to {@code readAhead} chunks ahead of the
+ * reader are fetched at once on the connector executor, into buffers reused
+ * once consumed. The reader gets the chunks in order, so a large object
+ * streams at the throughput of several connections.
+ */
+class S3PrefetchInputStream extends InputStream {
+
+    private final S3Client s3;
+    private final String bucket;
+    private final String key;
+    private final long end;
+    private final int chunkSize;
+    private final int readAhead;
+    private final ExecutorService executor;
+    private final Queue<Future<Chunk>> pending = new ArrayDeque<>();
+    private final BlockingQueue<byte[]> freeBuffers;
+    private long nextFetch;
+    private Chunk current;
+    private int position;
+    private boolean closed;
+
+    /**
+     * @param start first byte to read
+     * @param end   end of the range (exclusive), normally the object size
+     */
+    S3PrefetchInputStream(S3Client s3, String bucket, String key, long start, long end, int chunkSize,
+            int readAhead, ExecutorService executor) {
+        this.s3 = s3;
+        this.bucket = bucket;
+        this.key = key;
+        this.end = end;
+        this.chunkSize = chunkSize;
+        this.readAhead = Math.max(readAhead, 1);
+        this.executor = executor;
+        this.freeBuffers = new ArrayBlockingQueue<>(this.readAhead + 1);
+        this.nextFetch = start;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (current == null || position == current.length()) {
+            if (!nextChunk()) {
+                return -1;
+            }
+        }
+        int n = Math.min(len, current.length() - position);
+        System.arraycopy(current.data(), position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return current != null ? current.length() - position : 0;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            pending.forEach(chunk -> chunk.cancel(true));
+            pending.clear();
+            freeBuffers.clear();
+            current = null;
+        }
+    }
+
+    private boolean nextChunk() throws IOException {
+        if (current != null) {
+            freeBuffers.offer(current.data());
+            current = null;
+        }
+        prefetch();
+        Future<Chunk> next = pending.poll();
+        if (next == null) {
+            return false;
+        }
+        try {
+            current = next.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading " + key);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException io ? io
+                    : new IOException("S3 read of " + key + " failed: " + cause.getMessage(), cause);
+        }
+        position = 0;
+        prefetch();
+        return true;
+    }
+
+    private void prefetch() {
+        while (pending.size() < readAhead && nextFetch < end) {
+            long from = nextFetch;
+            int length = (int) Math.min(chunkSize, end - from);
+            nextFetch += length;
+            pending.add(executor.submit(() -> fetch(from, length)));
+        }
+    }
+
+    private Chunk fetch(long from, int length) throws IOException {
+        byte[] data = freeBuffers.poll();
+        if (data == null) {
+            data = new byte[chunkSize];
+        }
+        GetObjectRequest request = GetObjectRequest.builder().bucket(bucket).key(key)
+                .range("bytes=" + from + "-" + (from + length - 1)).build();
+        try (ResponseInputStream<GetObjectResponse> in = s3.getObject(request)) {
+            int read = in.readNBytes(data, 0, length);
+            if (read < length) {
+                throw new EOFException("S3 object " + key + " truncated at " + (from + read));
+            }
+        }
+        return new Chunk(data, length);
+    }
+
+    private record Chunk(byte[] data, int length) {
+    }
+}
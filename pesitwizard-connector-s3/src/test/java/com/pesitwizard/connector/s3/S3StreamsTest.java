@@ -0,0 +1,198 @@
+package com.pesitwizard.connector.s3;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+class S3StreamsTest {
+
+    private static final int PART_SIZE = S3Connector.MIN_PART_SIZE;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final FakeS3 s3 = new FakeS3();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testMultipartUpload() throws Exception {
+        byte[] data = randomBytes(2 * PART_SIZE + 12_345);
+
+        try (OutputStream out = new S3MultipartOutputStream(s3, "bucket", "big.dat", PART_SIZE, 3, executor)) {
+            for (int off = 0; off < data.length; off += 100_000) {
+                out.write(data, off, Math.min(100_000, data.length - off));
+            }
+        }
+
+        assertThat(s3.objects.get("big.dat")).isEqualTo(data);
+        assertThat(s3.uploadedParts).isEqualTo(3);
+        assertThat(s3.aborted).isFalse();
+    }
+
+    @Test
+    void testSmallObjectUsesSinglePut() throws Exception {
+        try (OutputStream out = new S3MultipartOutputStream(s3, "bucket", "small.txt", PART_SIZE, 3, executor)) {
+            out.write("Hello, S3!".getBytes());
+        }
+
+        assertThat(s3.objects.get("small.txt")).isEqualTo("Hello, S3!".getBytes());
+        assertThat(s3.uploadedParts).isZero();
+    }
+
+    @Test
+    void testFailedPartAbortsUpload() {
+        s3.failPart = 2;
+        byte[] data = randomBytes(3 * PART_SIZE);
+
+        assertThatThrownBy(() -> {
+            try (OutputStream out = new S3MultipartOutputStream(s3, "bucket", "big.dat", PART_SIZE, 2, executor)) {
+                out.write(data);
+            }
+        }).isInstanceOf(IOException.class).hasMessageContaining("part 2 refused");
+
+        assertThat(s3.aborted).isTrue();
+        assertThat(s3.objects).doesNotContainKey("big.dat");
+    }
+
+    @Test
+    void testAbortedUploadIsNotPublished() throws Exception {
+        S3MultipartOutputStream out = new S3MultipartOutputStream(s3, "bucket", "big.dat", PART_SIZE, 3, executor);
+        out.write(randomBytes(PART_SIZE + 10));
+        out.abort();
+        out.close();
+
+        assertThat(s3.aborted).isTrue();
+        assertThat(s3.objects).doesNotContainKey("big.dat");
+    }
+
+    @Test
+    void testPrefetchedRangedReads() throws Exception {
+        byte[] data = randomBytes(10_000);
+        s3.objects.put("big.dat", data);
+
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        try (InputStream in = new S3PrefetchInputStream(s3, "bucket", "big.dat", 1_500, data.length, 1_000, 3,
+                executor)) {
+            in.transferTo(received);
+        }
+
+        assertThat(received.toByteArray()).isEqualTo(java.util.Arrays.copyOfRange(data, 1_500, data.length));
+        assertThat(s3.rangedGets).isEqualTo(9);
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] data = new byte[size];
+        new Random(42).nextBytes(data);
+        return data;
+    }
+
+    /**
+     * In-memory S3 holding objects and the parts of multipart uploads
+     */
+    private static class FakeS3 implements S3Client {
+        final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+        final Map<Integer, byte[]> parts = new ConcurrentHashMap<>();
+        volatile int uploadedParts;
+        volatile int rangedGets;
+        volatile int failPart;
+        volatile boolean aborted;
+
+        @Override
+        public PutObjectResponse putObject(PutObjectRequest request, RequestBody body) {
+            objects.put(request.key(), content(body));
+            return PutObjectResponse.builder().build();
+        }
+
+        @Override
+        public CreateMultipartUploadResponse createMultipartUpload(CreateMultipartUploadRequest request) {
+            return CreateMultipartUploadResponse.builder().uploadId("upload-1").build();
+        }
+
+        @Override
+        public synchronized UploadPartResponse uploadPart(UploadPartRequest request, RequestBody body) {
+            if (request.partNumber() == failPart) {
+                throw new IllegalStateException("part " + failPart + " refused");
+            }
+            parts.put(request.partNumber(), content(body));
+            uploadedParts++;
+            return UploadPartResponse.builder().eTag("etag-" + request.partNumber()).build();
+        }
+
+        @Override
+        public CompleteMultipartUploadResponse completeMultipartUpload(CompleteMultipartUploadRequest request) {
+            ByteArrayOutputStream object = new ByteArrayOutputStream();
+            for (CompletedPart part : request.multipartUpload().parts()) {
+                object.writeBytes(parts.get(part.partNumber()));
+            }
+            objects.put(request.key(), object.toByteArray());
+            return CompleteMultipartUploadResponse.builder().build();
+        }
+
+        @Override
+        public AbortMultipartUploadResponse abortMultipartUpload(AbortMultipartUploadRequest request) {
+            aborted = true;
+            return AbortMultipartUploadResponse.builder().build();
+        }
+
+        @Override
+        public synchronized ResponseInputStream<GetObjectResponse> getObject(GetObjectRequest request) {
+            rangedGets++;
+            byte[] object = objects.get(request.key());
+            String[] range = request.range().substring("bytes=".length()).split("-");
+            int from = Integer.parseInt(range[0]);
+            int to = Integer.parseInt(range[1]) + 1;
+            return new ResponseInputStream<>(GetObjectResponse.builder().build(),
+                    AbortableInputStream.create(new ByteArrayInputStream(object, from, to - from)));
+        }
+
+        @Override
+        public String serviceName() {
+            return "s3";
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private static byte[] content(RequestBody body) {
+            try (InputStream in = body.contentStreamProvider().newStream()) {
+                return in.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package com.pesitwizard.connector.sftp;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import com.pesitwizard.connector.ConnectorException;
+
+/**
+ * SFTP channels to one server account, shared by every connector instance
+ * configured for it: up to {@code maxSessions} SSH sessions carrying up to
+ * {@code channelsPerSession} channels each.
+ *
+ * A borrowed channel is used by one caller at a time ({@link ChannelSftp}
+ * is not thread-safe) and returned with {@link #release}. Channels idle for
+ * a while are checked with a round trip before being lent again; channels
+ * and sessions idle longer than {@code idleTimeoutMs} are closed, so a warm
+ * pool saves the SSH handshake of each transfer without holding connections
+ * forever. Sessions send SSH keepalives while open.
+ *
+ * The pool lock only guards the bookkeeping: a borrower reserves an idle
+ * channel or a slot for a new one, then connects and validates outside the
+ * lock, so one slow server round trip does not hold up the other borrowers.
+ * The pool is closed when the last connector using it detaches.
+ */
+class SftpChannelPool {
+
+    private static final Logger log = LoggerFactory.getLogger(SftpChannelPool.class);
+
+    /** Idle channels are checked with a round trip when borrowed after this delay */
+    static final long VALIDATE_AFTER_IDLE_MS = 5_000;
+
+    private static final Map<String, SftpChannelPool> POOLS = new ConcurrentHashMap<>();
+    private static final ScheduledExecutorService EVICTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "sftp-pool-evictor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Settings settings;
+    private final SessionFactory sessionFactory;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final List<PooledSession> sessions = new ArrayList<>();
+    private final Deque<PooledChannel> idle = new ArrayDeque<>();
+    private ScheduledFuture<?> eviction;
+    /** Connectors attached, guarded by the POOLS entry */
+    private int users;
+    private boolean closed;
+
+    SftpChannelPool(Settings settings, SessionFactory sessionFactory) {
+        this.settings = settings;
+        this.sessionFactory = sessionFactory;
+    }
+
+    /**
+     * The pool of a server account, created on first use. Each connector
+     * attaching to it must {@link #detach()} when closed.
+     */
+    static SftpChannelPool attach(Settings settings) {
+        return POOLS.compute(settings.key(), (key, pool) -> {
+            if (pool == null) {
+                pool = new SftpChannelPool(settings, new JSchSessionFactory(settings));
+                long period = Math.max(settings.idleTimeoutMs() / 2, 1_000);
+                pool.eviction = EVICTOR.scheduleWithFixedDelay(pool::evictIdle, period, period,
+                        TimeUnit.MILLISECONDS);
+            }
+            pool.users++;
+            return pool;
+        });
+    }
+
+    /**
+     * A connector no longer uses the pool: the last one closes it
+     */
+    void detach() {
+        boolean last = POOLS.computeIfPresent(settings.key(), (key, pool) -> {
+            if (pool != this) {
+                return pool;
+            }
+            return --users > 0 ? pool : null;
+        }) == null;
+        if (last) {
+            close();
+        }
+    }
+
+    /**
+     * Borrow a healthy channel, opening a channel or session if the limits
+     * allow, otherwise waiting up to {@code borrowTimeoutMs} for a release
+     */
+    PooledChannel borrow() throws ConnectorException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.borrowTimeoutMs());
+        while (true) {
+            Reservation reservation = reserve(deadline);
+            if (reservation.channel() == null) {
+                return open(reservation.session());
+            }
+            if (isHealthy(reservation.channel())) {
+                return reservation.channel();
+            }
+            release(reservation.channel(), true);
+        }
+    }
+
+    /**
+     * Take an idle channel, or count a new channel on a session with room
+     * for it, or on a new session; waits while both limits are reached
+     */
+    private Reservation reserve(long deadline) throws ConnectorException {
+        lock.lock();
+        try {
+            while (true) {
+                if (closed) {
+                    throw new ConnectorException(ConnectorException.ErrorCode.CONNECTION_FAILED,
+                            "SFTP pool for " + settings.describe() + " is closed");
+                }
+                PooledChannel channel = idle.pollFirst();
+                if (channel != null) {
+                    return new Reservation(channel, channel.owner());
+                }
+                for (PooledSession session : sessions) {
+                    if (session.isConnected() && session.channels < settings.channelsPerSession()) {
+                        session.channels++;
+                        return new Reservation(null, session);
+                    }
+                }
+                sessions.removeIf(session -> session.isClosed() && session.channels == 0);
+                if (sessions.size() < settings.maxSessions()) {
+                    // Connected by the borrower; the other borrowers skip it until then
+                    PooledSession session = new PooledSession();
+                    session.channels = 1;
+                    sessions.add(session);
+                    return new Reservation(null, session);
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new ConnectorException(ConnectorException.ErrorCode.CONNECTION_FAILED,
+                            "No SFTP channel available for " + settings.describe() + " within "
+                                    + settings.borrowTimeoutMs() + " ms");
+                }
+                released.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConnectorException(ConnectorException.ErrorCode.CONNECTION_FAILED,
+                    "Interrupted while waiting for an SFTP channel");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Return a borrowed channel; a broken one is closed instead
+     */
+    void release(PooledChannel channel, boolean broken) {
+        boolean destroy;
+        boolean lastOfClosedPool = false;
+        lock.lock();
+        try {
+            destroy = closed || broken || !channel.channel().isConnected();
+            if (destroy) {
+                forget(channel.owner());
+                lastOfClosedPool = closed && channel.owner().channels == 0 && sessions.remove(channel.owner());
+            } else {
+                channel.touch();
+                idle.addFirst(channel);
+            }
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (destroy) {
+            disconnect(List.of(channel), lastOfClosedPool ? List.of(channel.owner()) : List.of());
+        }
+    }
+
+    /**
+     * Open the reserved channel, connecting its session first if it is new
+     */
+    private PooledChannel open(PooledSession target) throws ConnectorException {
+        try {
+            if (target.session == null) {
+                target.session = sessionFactory.connect();
+                log.info("SFTP connected: {} (up to {} sessions)", settings.describe(), settings.maxSessions());
+            }
+            ChannelSftp channel = (ChannelSftp) target.session.openChannel("sftp");
+            channel.connect(settings.connectTimeoutMs());
+            channel.setBulkRequests(settings.pipelineDepth());
+            return new PooledChannel(channel, target);
+        } catch (JSchException | RuntimeException e) {
+            lock.lock();
+            try {
+                forget(target);
+                released.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw new ConnectorException(ConnectorException.ErrorCode.CONNECTION_FAILED, e.getMessage(), e);
+        }
+    }
+
+    private boolean isHealthy(PooledChannel channel) {
+        if (!channel.channel().isConnected() || !channel.owner().isConnected()) {
+            return false;
+        }
+        if (System.currentTimeMillis() - channel.lastUsed < VALIDATE_AFTER_IDLE_MS) {
+            return true;
+        }
+        try {
+            channel.channel().realpath(".");
+            return true;
+        } catch (Exception e) {
+            log.debug("Dropping stale SFTP channel to {}: {}", settings.describe(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Uncount a channel of a session, dropping the session once it is
+     * closed or was never connected; called under the lock
+     */
+    private void forget(PooledSession owner) {
+        owner.channels--;
+        if (owner.channels == 0 && (owner.isClosed() || owner.session == null)) {
+            sessions.remove(owner);
+        }
+    }
+
+    /**
+     * Close the channels idle for longer than the idle timeout, then the
+     * sessions left without channels
+     */
+    void evictIdle() {
+        List<PooledChannel> expired = new ArrayList<>();
+        List<PooledSession> unused = new ArrayList<>();
+        lock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            for (Iterator<PooledChannel> it = idle.iterator(); it.hasNext();) {
+                PooledChannel channel = it.next();
+                if (now - channel.lastUsed > settings.idleTimeoutMs()) {
+                    it.remove();
+                    forget(channel.owner());
+                    expired.add(channel);
+                }
+            }
+            sessions.removeIf(session -> session.channels == 0 && unused.add(session));
+        } finally {
+            lock.unlock();
+        }
+        disconnect(expired, unused);
+    }
+
+    /**
+     * Close every idle channel and session; channels still borrowed are
+     * closed when returned
+     */
+    private void close() {
+        List<PooledChannel> channels;
+        List<PooledSession> unused = new ArrayList<>();
+        lock.lock();
+        try {
+            closed = true;
+            channels = new ArrayList<>(idle);
+            idle.clear();
+            channels.forEach(channel -> forget(channel.owner()));
+            sessions.removeIf(session -> session.channels == 0 && unused.add(session));
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (eviction != null) {
+            eviction.cancel(false);
+        }
+        disconnect(channels, unused);
+        log.debug("Closed SFTP pool for {}", settings.describe());
+    }
+
+    private void disconnect(List<PooledChannel> channels, List<PooledSession> unused) {
+        try {
+            channels.forEach(channel -> channel.channel().disconnect());
+            for (PooledSession session : unused) {
+                if (session.session != null) {
+                    session.session.disconnect();
+                    log.debug("Closed idle SFTP session to {}", settings.describe());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Closing SFTP connections to {} failed: {}", settings.describe(), e.getMessage());
+        }
+    }
+
+    /**
+     * Opens the SSH sessions of a pool
+     */
+    @FunctionalInterface
+    interface SessionFactory {
+        Session connect() throws JSchException;
+    }
+
+    private record JSchSessionFactory(Settings settings) implements SessionFactory {
+        @Override
+        public Session connect() throws JSchException {
+            JSch jsch = new JSch();
+            if (settings.privateKeyPath() != null) jsch.addIdentity(settings.privateKeyPath());
+            Session session = jsch.getSession(settings.username(), settings.host(), settings.port());
+            if (settings.password() != null) session.setPassword(settings.password());
+            session.setConfig("StrictHostKeyChecking", "no");
+            session.setServerAliveInterval(settings.keepaliveMs());
+            session.connect(settings.connectTimeoutMs());
+            return session;
+        }
+    }
+
+    /**
+     * Connection settings of a pool; pools are shared by account
+     */
+    record Settings(String host, int port, String username, String password, String privateKeyPath,
+            int maxSessions, int channelsPerSession, int pipelineDepth, long idleTimeoutMs, int keepaliveMs,
+            int connectTimeoutMs, long borrowTimeoutMs) {
+
+        String key() {
+            return username + "@" + host + ":" + port + "#" + java.util.Objects.hash(password, privateKeyPath);
+        }
+
+        String describe() {
+            return username + "@" + host + ":" + port;
+        }
+    }
+
+    /** An idle channel taken, or a channel counted on a session and still to open */
+    private record Reservation(PooledChannel channel, PooledSession session) {
+    }
+
+    private static final class PooledSession {
+        /** Null until connected by the borrower that created it */
+        private volatile Session session;
+        private int channels;
+
+        boolean isConnected() {
+            Session s = session;
+            return s != null && s.isConnected();
+        }
+
+        boolean isClosed() {
+            Session s = session;
+            return s != null && !s.isConnected();
+        }
+    }
+
+    /**
+     * A channel lent by the pool
+     */
+    static final class PooledChannel {
+        private final ChannelSftp channel;
+        private final PooledSession owner;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        private PooledChannel(ChannelSftp channel, PooledSession owner) {
+            this.channel = channel;
+            this.owner = owner;
+        }
+
+        ChannelSftp channel() {
+            return channel;
+        }
+
+        private PooledSession owner() {
+            return owner;
+        }
+
+        private void touch() {
+            lastUsed = System.currentTimeMillis();
+        }
+    }
+}
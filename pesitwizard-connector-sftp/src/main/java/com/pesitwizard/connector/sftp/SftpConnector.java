@@ -1,7 +1,12 @@
 package com.pesitwizard.connector.sftp;
 
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -11,22 +16,31 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.jcraft.jsch.ChannelSftp;
-import com.jcraft.jsch.JSch;
-import com.jcraft.jsch.JSchException;
-import com.jcraft.jsch.Session;
 import com.jcraft.jsch.SftpATTRS;
 import com.jcraft.jsch.SftpException;
+import com.pesitwizard.connector.ChannelConnector;
 import com.pesitwizard.connector.ConfigParameter;
 import com.pesitwizard.connector.ConnectorException;
 import com.pesitwizard.connector.FileMetadata;
-import com.pesitwizard.connector.StorageConnector;
+import com.pesitwizard.connector.sftp.SftpChannelPool.PooledChannel;
 
-public class SftpConnector implements StorageConnector {
+/**
+ * SFTP storage connector.
+ *
+ * Operations borrow a channel from the {@link SftpChannelPool} shared by all
+ * connectors of the same account, so concurrent transfers run on separate
+ * channels and a new connector reuses warm sessions. Streams keep their
+ * channel until closed. Reads keep {@code pipelineDepth} READ requests
+ * outstanding, and writes are sent as large pipelined WRITE requests, so
+ * latency does not throttle throughput. Each positioned read borrows its own
+ * channel, so ranges of a file can be read in parallel.
+ */
+public class SftpConnector implements ChannelConnector {
     private static final Logger log = LoggerFactory.getLogger(SftpConnector.class);
-    private String host, username, password, privateKeyPath, basePath;
-    private int port;
-    private Session session;
-    private ChannelSftp channel;
+    /** Bytes gathered per SFTP WRITE request */
+    private static final int WRITE_BUFFER_SIZE = 32 * 1024;
+    private String basePath;
+    private SftpChannelPool pool;
     private boolean initialized = false;
 
     @Override public String getType() { return "sftp"; }
@@ -35,87 +49,186 @@ public class SftpConnector implements StorageConnector {
 
     @Override
     public void initialize(Map<String, String> config) throws ConnectorException {
-        host = config.get("host");
-        port = Integer.parseInt(config.getOrDefault("port", "22"));
-        username = config.get("username");
-        password = config.get("password");
-        privateKeyPath = config.get("privateKey");
+        String host = config.get("host");
+        String username = config.get("username");
         basePath = config.getOrDefault("basePath", "");
         
         if (host == null) throw new ConnectorException(ConnectorException.ErrorCode.INVALID_CONFIG, "Host required");
         if (username == null) throw new ConnectorException(ConnectorException.ErrorCode.INVALID_CONFIG, "Username required");
         
         try {
-            JSch jsch = new JSch();
-            if (privateKeyPath != null) jsch.addIdentity(privateKeyPath);
-            session = jsch.getSession(username, host, port);
-            if (password != null) session.setPassword(password);
-            session.setConfig("StrictHostKeyChecking", "no");
-            session.connect(30000);
-            channel = (ChannelSftp) session.openChannel("sftp");
-            channel.connect();
-            initialized = true;
-            log.info("SFTP connected: {}@{}:{}", username, host, port);
-        } catch (JSchException e) {
-            throw new ConnectorException(ConnectorException.ErrorCode.CONNECTION_FAILED, e.getMessage(), e);
+            pool = SftpChannelPool.attach(new SftpChannelPool.Settings(host, Integer.parseInt(config.getOrDefault("port", "22")),
+                    username, config.get("password"), config.get("privateKey"),
+                    Math.max(Integer.parseInt(config.getOrDefault("maxSessions", "2")), 1),
+                    Math.max(Integer.parseInt(config.getOrDefault("channelsPerSession", "4")), 1),
+                    Math.max(Integer.parseInt(config.getOrDefault("pipelineDepth", "32")), 1),
+                    Long.parseLong(config.getOrDefault("idleTimeoutMs", "60000")),
+                    Integer.parseInt(config.getOrDefault("keepaliveMs", "15000")),
+                    30000, Long.parseLong(config.getOrDefault("borrowTimeoutMs", "30000"))));
+        } catch (NumberFormatException e) {
+            throw new ConnectorException(ConnectorException.ErrorCode.INVALID_CONFIG, "Invalid number: " + e.getMessage());
         }
+        // Fail fast on unreachable hosts and bad credentials
+        try {
+            pool.release(pool.borrow(), false);
+        } catch (ConnectorException e) {
+            pool.detach();
+            throw e;
+        }
+        initialized = true;
+        log.info("SFTP connector ready: {}@{}", username, host);
     }
 
     @Override public boolean testConnection() throws ConnectorException {
-        checkInit(); try { channel.pwd(); return true; } catch (Exception e) { return false; }
+        checkInit(); try { return call(c -> c.realpath(".") != null); } catch (Exception e) { return false; }
     }
     @Override public boolean exists(String path) throws ConnectorException {
-        checkInit(); try { channel.stat(resolve(path)); return true; } catch (SftpException e) { return false; }
+        checkInit(); try { return call(c -> c.stat(resolve(path)) != null); } catch (ConnectorException e) { if (e.getCause() instanceof SftpException) return false; throw e; }
     }
     @Override public FileMetadata getMetadata(String path) throws ConnectorException {
         checkInit();
-        try {
-            SftpATTRS a = channel.stat(resolve(path));
-            return FileMetadata.builder().name(path).path(path).size(a.getSize())
-                .lastModified(java.time.Instant.ofEpochSecond(a.getMTime())).directory(a.isDir()).build();
-        } catch (SftpException e) { throw new ConnectorException("Metadata error", e); }
+        SftpATTRS a = call(c -> c.stat(resolve(path)), "Metadata error");
+        return FileMetadata.builder().name(path).path(path).size(a.getSize())
+            .lastModified(java.time.Instant.ofEpochSecond(a.getMTime())).directory(a.isDir()).build();
     }
     @Override @SuppressWarnings("unchecked")
     public List<FileMetadata> list(String path) throws ConnectorException {
         checkInit();
-        try {
-            List<FileMetadata> r = new ArrayList<>();
-            for (ChannelSftp.LsEntry e : (Vector<ChannelSftp.LsEntry>) channel.ls(resolve(path))) {
-                if (!e.getFilename().startsWith("."))
-                    r.add(FileMetadata.builder().name(e.getFilename()).path(path+"/"+e.getFilename())
-                        .size(e.getAttrs().getSize()).directory(e.getAttrs().isDir()).build());
-            }
-            return r;
-        } catch (SftpException e) { throw new ConnectorException("List error", e); }
-    }
-    @Override public InputStream read(String path) throws ConnectorException {
-        checkInit(); try { return channel.get(resolve(path)); } catch (SftpException e) { throw new ConnectorException("Read error", e); }
+        Vector<ChannelSftp.LsEntry> entries = call(c -> (Vector<ChannelSftp.LsEntry>) c.ls(resolve(path)), "List error");
+        List<FileMetadata> r = new ArrayList<>();
+        for (ChannelSftp.LsEntry e : entries) {
+            if (!e.getFilename().startsWith("."))
+                r.add(FileMetadata.builder().name(e.getFilename()).path(path+"/"+e.getFilename())
+                    .size(e.getAttrs().getSize()).directory(e.getAttrs().isDir()).build());
+        }
+        return r;
     }
+    @Override public InputStream read(String path) throws ConnectorException { return read(path, 0); }
     @Override public InputStream read(String path, long offset) throws ConnectorException {
-        checkInit(); try { return channel.get(resolve(path), null, offset); } catch (SftpException e) { throw new ConnectorException("Read error", e); }
+        checkInit();
+        PooledChannel channel = pool.borrow();
+        try {
+            return new ChannelInputStream(channel.channel().get(resolve(path), null, offset), channel);
+        } catch (SftpException e) {
+            pool.release(channel, false);
+            throw new ConnectorException("Read error", e);
+        } catch (RuntimeException e) {
+            pool.release(channel, true);
+            throw e;
+        }
     }
+    @Override public int read(String path, long position, ByteBuffer dst) throws ConnectorException {
+        checkInit();
+        int wanted = dst.remaining();
+        if (wanted == 0) return 0;
+        byte[] bytes = call(c -> { try (InputStream in = c.get(resolve(path), null, position)) { return in.readNBytes(wanted); } }, "Read error");
+        dst.put(bytes);
+        return bytes.length > 0 ? bytes.length : -1;
+    }
+    @Override public boolean supportsParallelRanges() { return true; }
     @Override public OutputStream write(String path) throws ConnectorException { return write(path, false); }
     @Override public OutputStream write(String path, boolean append) throws ConnectorException {
-        checkInit(); try { return channel.put(resolve(path), append ? ChannelSftp.APPEND : ChannelSftp.OVERWRITE); } catch (SftpException e) { throw new ConnectorException("Write error", e); }
+        checkInit();
+        PooledChannel channel = pool.borrow();
+        try {
+            OutputStream out = channel.channel().put(resolve(path), append ? ChannelSftp.APPEND : ChannelSftp.OVERWRITE);
+            return new BufferedOutputStream(new ChannelOutputStream(out, channel), WRITE_BUFFER_SIZE);
+        } catch (SftpException e) {
+            pool.release(channel, false);
+            throw new ConnectorException("Write error", e);
+        } catch (RuntimeException e) {
+            pool.release(channel, true);
+            throw e;
+        }
     }
     @Override public void delete(String path) throws ConnectorException {
-        checkInit(); try { channel.rm(resolve(path)); } catch (SftpException e) { /* ignore */ }
+        checkInit(); try { call(c -> { c.rm(resolve(path)); return null; }); } catch (ConnectorException e) { if (!(e.getCause() instanceof SftpException)) throw e; }
     }
     @Override public void mkdir(String path) throws ConnectorException {
-        checkInit(); try { channel.mkdir(resolve(path)); } catch (SftpException e) { /* ignore */ }
+        checkInit(); try { call(c -> { c.mkdir(resolve(path)); return null; }); } catch (ConnectorException e) { if (!(e.getCause() instanceof SftpException)) throw e; }
     }
     @Override public void rename(String src, String dst) throws ConnectorException {
-        checkInit(); try { channel.rename(resolve(src), resolve(dst)); } catch (SftpException e) { throw new ConnectorException("Rename error", e); }
+        checkInit(); call(c -> { c.rename(resolve(src), resolve(dst)); return null; }, "Rename error");
     }
     @Override public List<ConfigParameter> getRequiredParameters() {
         return List.of(ConfigParameter.required("host", "SFTP host"), ConfigParameter.required("username", "Username"));
     }
     @Override public List<ConfigParameter> getOptionalParameters() {
-        return List.of(ConfigParameter.password("password", "Password"), ConfigParameter.integer("port", "Port", 22));
+        return List.of(ConfigParameter.password("password", "Password"), ConfigParameter.integer("port", "Port", 22),
+                ConfigParameter.integer("maxSessions", "SSH sessions per account", 2),
+                ConfigParameter.integer("channelsPerSession", "SFTP channels per session", 4),
+                ConfigParameter.integer("pipelineDepth", "Outstanding READ requests per stream", 32),
+                ConfigParameter.integer("idleTimeoutMs", "Idle channels and sessions are closed after (ms)", 60000),
+                ConfigParameter.integer("keepaliveMs", "SSH keepalive interval (ms)", 15000),
+                ConfigParameter.integer("borrowTimeoutMs", "Wait for a free channel (ms)", 30000));
     }
     @Override public boolean supportsResume() { return true; }
-    @Override public void close() { if (channel != null) channel.disconnect(); if (session != null) session.disconnect(); initialized = false; }
+    /** Channels stay in the shared pool, closed once idle or when its last connector closes */
+    @Override public void close() { if (initialized) { initialized = false; pool.detach(); } }
     
     private void checkInit() throws ConnectorException { if (!initialized) throw new ConnectorException(ConnectorException.ErrorCode.INVALID_CONFIG, "Not initialized"); }
     private String resolve(String p) { return basePath.isEmpty() ? p : basePath + "/" + p; }
+
+    @FunctionalInterface
+    private interface SftpCall<T> { T apply(ChannelSftp channel) throws SftpException, IOException; }
+
+    private <T> T call(SftpCall<T> operation) throws ConnectorException { return call(operation, "SFTP error"); }
+
+    /**
+     * Run an operation on a borrowed channel. An SFTP status error leaves the
+     * channel usable; any other failure drops it from the pool.
+     */
+    private <T> T call(SftpCall<T> operation, String error) throws ConnectorException {
+        PooledChannel channel = pool.borrow();
+        boolean broken = true;
+        try {
+            T result = operation.apply(channel.channel());
+            broken = false;
+            return result;
+        } catch (SftpException e) {
+            broken = false;
+            throw new ConnectorException(error, e);
+        } catch (IOException e) {
+            throw new ConnectorException(error, e);
+        } finally {
+            pool.release(channel, broken);
+        }
+    }
+
+    /**
+     * Stream returning its channel to the pool when closed
+     */
+    private final class ChannelInputStream extends FilterInputStream {
+        private final PooledChannel channel;
+        private boolean closed;
+        private boolean broken;
+
+        ChannelInputStream(InputStream in, PooledChannel channel) { super(in); this.channel = channel; }
+
+        @Override public int read() throws IOException { try { return super.read(); } catch (IOException e) { broken = true; throw e; } }
+        @Override public int read(byte[] b, int off, int len) throws IOException { try { return super.read(b, off, len); } catch (IOException e) { broken = true; throw e; } }
+        @Override public void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            try { super.close(); } catch (IOException e) { broken = true; throw e; } finally { pool.release(channel, broken); }
+        }
+    }
+
+    /**
+     * Stream returning its channel to the pool when closed
+     */
+    private final class ChannelOutputStream extends FilterOutputStream {
+        private final PooledChannel channel;
+        private boolean closed;
+        private boolean broken;
+
+        ChannelOutputStream(OutputStream out, PooledChannel channel) { super(out); this.channel = channel; }
+
+        @Override public void write(byte[] b, int off, int len) throws IOException { try { out.write(b, off, len); } catch (IOException e) { broken = true; throw e; } }
+        @Override public void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            try { out.close(); } catch (IOException e) { broken = true; throw e; } finally { pool.release(channel, broken); }
+        }
+    }
 }
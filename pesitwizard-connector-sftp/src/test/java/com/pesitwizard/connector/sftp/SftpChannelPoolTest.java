@@ -0,0 +1,198 @@
+package com.pesitwizard.connector.sftp;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.Session;
+import com.pesitwizard.connector.ConnectorException;
+import com.pesitwizard.connector.sftp.SftpChannelPool.PooledChannel;
+
+class SftpChannelPoolTest {
+
+    private final List<Session> sessions = new CopyOnWriteArrayList<>();
+
+    private static SftpChannelPool.Settings settings(int maxSessions, int channelsPerSession, long idleTimeoutMs) {
+        return new SftpChannelPool.Settings("sftp.example.com", 22, "user", "secret", null, maxSessions,
+                channelsPerSession, 32, idleTimeoutMs, 15000, 1000, 200);
+    }
+
+    private SftpChannelPool pool(int maxSessions, int channelsPerSession) {
+        return new SftpChannelPool(settings(maxSessions, channelsPerSession, 60_000), this::connect);
+    }
+
+    private Session connect() throws com.jcraft.jsch.JSchException {
+        Session session = mock(Session.class);
+        when(session.isConnected()).thenReturn(true);
+        when(session.openChannel("sftp")).thenAnswer(inv -> {
+            ChannelSftp channel = mock(ChannelSftp.class);
+            when(channel.isConnected()).thenReturn(true);
+            return channel;
+        });
+        sessions.add(session);
+        return session;
+    }
+
+    @Test
+    void testReturnedChannelIsReused() throws Exception {
+        SftpChannelPool pool = pool(2, 4);
+
+        PooledChannel first = pool.borrow();
+        pool.release(first, false);
+        PooledChannel second = pool.borrow();
+
+        assertThat(second).isSameAs(first);
+        assertThat(sessions).hasSize(1);
+        verify(first.channel()).setBulkRequests(32);
+    }
+
+    @Test
+    void testConcurrentBorrowersShareSessions() throws Exception {
+        SftpChannelPool pool = pool(2, 2);
+
+        PooledChannel a = pool.borrow();
+        PooledChannel b = pool.borrow();
+        PooledChannel c = pool.borrow();
+
+        assertThat(List.of(a.channel(), b.channel(), c.channel())).doesNotHaveDuplicates();
+        assertThat(sessions).hasSize(2);
+    }
+
+    @Test
+    void testBrokenChannelIsClosed() throws Exception {
+        SftpChannelPool pool = pool(1, 1);
+        PooledChannel broken = pool.borrow();
+
+        pool.release(broken, true);
+        PooledChannel next = pool.borrow();
+
+        verify(broken.channel()).disconnect();
+        assertThat(next).isNotSameAs(broken);
+    }
+
+    @Test
+    void testDisconnectedIdleChannelIsEvictedOnBorrow() throws Exception {
+        SftpChannelPool pool = pool(1, 1);
+        PooledChannel dropped = pool.borrow();
+        pool.release(dropped, false);
+        when(dropped.channel().isConnected()).thenReturn(false);
+
+        PooledChannel next = pool.borrow();
+
+        assertThat(next).isNotSameAs(dropped);
+        verify(dropped.channel()).disconnect();
+    }
+
+    @Test
+    void testIdleChannelsAndSessionsAreEvicted() throws Exception {
+        SftpChannelPool pool = new SftpChannelPool(settings(1, 1, 0), this::connect);
+        PooledChannel channel = pool.borrow();
+        pool.release(channel, false);
+        Thread.sleep(5);
+
+        pool.evictIdle();
+
+        verify(channel.channel()).disconnect();
+        verify(sessions.get(0)).disconnect();
+        assertThat(pool.borrow()).isNotSameAs(channel);
+        assertThat(sessions).hasSize(2);
+    }
+
+    @Test
+    void testBorrowWaitsAtMaxSize() throws Exception {
+        SftpChannelPool pool = pool(1, 2);
+        PooledChannel a = pool.borrow();
+        pool.borrow();
+
+        assertThatThrownBy(pool::borrow).isInstanceOf(ConnectorException.class)
+                .hasMessageContaining("No SFTP channel available");
+
+        CompletableFuture<PooledChannel> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.borrow();
+            } catch (ConnectorException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+        pool.release(a, false);
+
+        assertThat(waiting.get(1, TimeUnit.SECONDS)).isSameAs(a);
+        assertThat(sessions).hasSize(1);
+    }
+
+    @Test
+    void testConnectDoesNotHoldThePool() throws Exception {
+        CountDownLatch connecting = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        SftpChannelPool pool = new SftpChannelPool(settings(2, 1, 60_000), () -> {
+            if (!sessions.isEmpty()) {
+                connecting.countDown();
+                try {
+                    proceed.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return connect();
+        });
+        PooledChannel first = pool.borrow();
+
+        CompletableFuture<PooledChannel> slow = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.borrow();
+            } catch (ConnectorException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(connecting.await(1, TimeUnit.SECONDS)).isTrue();
+
+        // The second session is still connecting: the pool stays usable
+        pool.release(first, false);
+        assertThat(pool.borrow()).isSameAs(first);
+
+        proceed.countDown();
+        assertThat(slow.get(1, TimeUnit.SECONDS)).isNotSameAs(first);
+    }
+
+    @Test
+    void testFailedConnectFreesItsSlot() throws Exception {
+        boolean[] fail = { true };
+        SftpChannelPool pool = new SftpChannelPool(settings(1, 1, 60_000), () -> {
+            if (fail[0]) {
+                throw new com.jcraft.jsch.JSchException("Auth fail");
+            }
+            return connect();
+        });
+
+        assertThatThrownBy(pool::borrow).isInstanceOf(ConnectorException.class).hasMessageContaining("Auth fail");
+        fail[0] = false;
+
+        assertThat(pool.borrow()).isNotNull();
+    }
+
+    @Test
+    void testPoolIsClosedWithItsLastConnector() throws Exception {
+        SftpChannelPool.Settings settings = settings(1, 1, 60_000);
+        SftpChannelPool pool = SftpChannelPool.attach(settings);
+        assertThat(SftpChannelPool.attach(settings)).isSameAs(pool);
+
+        pool.detach();
+        assertThat(SftpChannelPool.attach(settings)).isSameAs(pool);
+        pool.detach();
+        pool.detach();
+
+        assertThatThrownBy(pool::borrow).isInstanceOf(ConnectorException.class).hasMessageContaining("closed");
+        SftpChannelPool fresh = SftpChannelPool.attach(settings);
+        assertThat(fresh).isNotSameAs(pool);
+        fresh.detach();
+    }
+}
@@ -0,0 +1,164 @@
+package com.pesitwizard.compression;
+
+/**
+ * Compresses articles for DTF payloads, as defined by PeSIT E Annexe A.
+ *
+ * A compressed article is a sequence of strings, each introduced by a header
+ * byte whose two high bits give the kind and six low bits a length from 1 to
+ * 63:
+ * <ul>
+ * <li>{@code 00} length bytes follow, not compressed</li>
+ * <li>{@code 10} the next byte is repeated length times (horizontal)</li>
+ * <li>{@code 11} length bytes are the same as at the same positions of the
+ * previous article, padded with {@code 0x40} if shorter (vertical)</li>
+ * </ul>
+ * The worst case (no run at all) adds one byte per 63 bytes.
+ *
+ * The first article, and the first one after each sync point (see
+ * {@link #reset()}), is never compressed vertically.
+ *
+ * Instances keep the previous article and are reused for a whole transfer;
+ * they are not thread-safe.
+ */
+public class ArticleCompressor {
+
+    static final int LITERAL = 0x00;
+    static final int REPEAT = 0x80;
+    static final int COPY_PREVIOUS = 0xC0;
+    static final int MAX_COUNT = 0x3F;
+    /** Padding of a previous article shorter than the current one */
+    static final byte PAD = 0x40;
+
+    /** Shortest run worth a repeat string (2 bytes) */
+    private static final int MIN_REPEAT = 3;
+    /** Shortest run worth a copy string (1 byte) */
+    private static final int MIN_COPY = 2;
+
+    private final CompressionType type;
+    private byte[] previous = new byte[0];
+    private int previousLength;
+    private boolean hasPrevious;
+    private long bytesIn;
+    private long bytesOut;
+
+    public ArticleCompressor(CompressionType type) {
+        if (type == CompressionType.NONE) {
+            throw new IllegalArgumentException("No compression type");
+        }
+        this.type = type;
+    }
+
+    /**
+     * Largest compressed size of an article of {@code length} bytes.
+     */
+    public static int maxCompressedLength(int length) {
+        return length + (length + MAX_COUNT - 1) / MAX_COUNT;
+    }
+
+    /**
+     * Largest article whose compressed form always fits in
+     * {@code maxCompressedLength} bytes.
+     */
+    public static int maxArticleLength(int maxCompressedLength) {
+        return maxCompressedLength - (maxCompressedLength + MAX_COUNT) / (MAX_COUNT + 1);
+    }
+
+    /**
+     * Compress {@code src[offset, offset + length)} as one article into
+     * {@code dst}, which needs {@link #maxCompressedLength(int)} bytes from
+     * {@code dstOffset}.
+     *
+     * @return number of bytes written to {@code dst}
+     */
+    public int compress(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+        int out = dstOffset;
+        int literalStart = -1;
+        int i = 0;
+        while (i < length) {
+            int copy = type.isVertical() ? copyRun(src, offset, length, i) : 0;
+            int repeat = type.isHorizontal() ? repeatRun(src, offset, length, i) : 0;
+            if (copy >= MIN_COPY && (copy >= repeat || repeat < MIN_REPEAT)) {
+                out = closeLiteral(dst, literalStart, out);
+                literalStart = -1;
+                dst[out++] = (byte) (COPY_PREVIOUS | copy);
+                i += copy;
+            } else if (repeat >= MIN_REPEAT) {
+                out = closeLiteral(dst, literalStart, out);
+                literalStart = -1;
+                dst[out++] = (byte) (REPEAT | repeat);
+                dst[out++] = src[offset + i];
+                i += repeat;
+            } else {
+                if (literalStart >= 0 && out - literalStart - 1 == MAX_COUNT) {
+                    out = closeLiteral(dst, literalStart, out);
+                    literalStart = -1;
+                }
+                if (literalStart < 0) {
+                    // Control byte patched when the literal string ends
+                    literalStart = out++;
+                }
+                dst[out++] = src[offset + i++];
+            }
+        }
+        out = closeLiteral(dst, literalStart, out);
+
+        if (type.isVertical()) {
+            if (previous.length < length) {
+                previous = new byte[length];
+            }
+            System.arraycopy(src, offset, previous, 0, length);
+            previousLength = length;
+            hasPrevious = true;
+        }
+        bytesIn += length;
+        bytesOut += out - dstOffset;
+        return out - dstOffset;
+    }
+
+    /**
+     * Forget the previous article, after a sync point or when a transfer
+     * restarts: the next article is not compressed vertically.
+     */
+    public void reset() {
+        hasPrevious = false;
+    }
+
+    /** Article bytes compressed so far */
+    public long getBytesIn() {
+        return bytesIn;
+    }
+
+    /** Compressed bytes produced so far */
+    public long getBytesOut() {
+        return bytesOut;
+    }
+
+    private static int closeLiteral(byte[] dst, int literalStart, int out) {
+        if (literalStart >= 0) {
+            dst[literalStart] = (byte) (LITERAL | (out - literalStart - 1));
+        }
+        return out;
+    }
+
+    private int copyRun(byte[] src, int offset, int length, int i) {
+        if (!hasPrevious) {
+            return 0;
+        }
+        int limit = Math.min(length, i + MAX_COUNT);
+        int n = i;
+        while (n < limit && src[offset + n] == (n < previousLength ? previous[n] : PAD)) {
+            n++;
+        }
+        return n - i;
+    }
+
+    private static int repeatRun(byte[] src, int offset, int length, int i) {
+        int limit = Math.min(length, i + MAX_COUNT);
+        byte b = src[offset + i];
+        int n = i + 1;
+        while (n < limit && src[offset + n] == b) {
+            n++;
+        }
+        return n - i;
+    }
+}
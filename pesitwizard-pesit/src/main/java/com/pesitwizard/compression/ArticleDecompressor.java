@@ -0,0 +1,157 @@
+package com.pesitwizard.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Streaming decoder for articles compressed as defined by PeSIT E Annexe A,
+ * see {@link ArticleCompressor}.
+ *
+ * An article may arrive in several pieces (DTFDA, DTFMA, DTFFA), and a string
+ * may be split between two pieces: the decoder keeps its position across
+ * {@link #decode} calls until {@link #endArticle()}. Decoded bytes go to the
+ * sink at the end of each call. The article being decoded is kept in one
+ * reusable buffer, which also serves as the previous article for vertical
+ * compression.
+ *
+ * Not thread-safe; use one instance per transfer.
+ */
+public class ArticleDecompressor {
+
+    private final CompressionType type;
+    private byte[] current = new byte[4096];
+    private int currentLength;
+    private byte[] previous = new byte[0];
+    private int previousLength;
+    private boolean hasPrevious;
+
+    // String in progress: literal bytes left, or repeat count awaiting its byte
+    private int literalRemaining;
+    private int repeatPending;
+
+    private long bytesIn;
+    private long bytesOut;
+
+    public ArticleDecompressor(CompressionType type) {
+        if (type == CompressionType.NONE) {
+            throw new IllegalArgumentException("No compression type");
+        }
+        this.type = type;
+    }
+
+    /**
+     * Decode a piece of an article and write the decoded bytes to
+     * {@code sink}. The buffer is fully consumed.
+     */
+    public void decode(ByteBuffer src, OutputStream sink) throws IOException {
+        int start = type.isVertical() ? currentLength : 0;
+        if (!type.isVertical()) {
+            currentLength = 0;
+        }
+        bytesIn += src.remaining();
+        while (src.hasRemaining()) {
+            int b = src.get() & 0xFF;
+            if (literalRemaining > 0) {
+                append(b);
+                literalRemaining--;
+            } else if (repeatPending > 0) {
+                ensureCapacity(repeatPending);
+                Arrays.fill(current, currentLength, currentLength + repeatPending, (byte) b);
+                currentLength += repeatPending;
+                repeatPending = 0;
+            } else {
+                int count = b & ArticleCompressor.MAX_COUNT;
+                if (count == 0) {
+                    throw new IOException("Invalid compressed string: empty count");
+                }
+                switch (b & ~ArticleCompressor.MAX_COUNT) {
+                    case ArticleCompressor.LITERAL -> literalRemaining = count;
+                    case ArticleCompressor.REPEAT -> repeat(b, count);
+                    case ArticleCompressor.COPY_PREVIOUS -> copyPrevious(count);
+                    default -> throw new IOException(String.format("Invalid compressed string: 0x%02X", b));
+                }
+            }
+        }
+        int length = currentLength - start;
+        if (length > 0) {
+            sink.write(current, start, length);
+            bytesOut += length;
+        }
+    }
+
+    /**
+     * Mark the end of the current article.
+     *
+     * @throws IOException if the article ends inside a string
+     */
+    public void endArticle() throws IOException {
+        if (literalRemaining > 0 || repeatPending > 0) {
+            literalRemaining = 0;
+            repeatPending = 0;
+            currentLength = 0;
+            throw new IOException("Compressed article truncated");
+        }
+        if (type.isVertical()) {
+            byte[] swap = previous;
+            previous = current;
+            previousLength = currentLength;
+            hasPrevious = true;
+            current = swap.length > 0 ? swap : new byte[previous.length];
+        }
+        currentLength = 0;
+    }
+
+    /**
+     * Forget the previous article and any partial string, after a sync point
+     * or when a transfer restarts.
+     */
+    public void reset() {
+        literalRemaining = 0;
+        repeatPending = 0;
+        currentLength = 0;
+        hasPrevious = false;
+    }
+
+    /** Compressed bytes decoded so far */
+    public long getBytesIn() {
+        return bytesIn;
+    }
+
+    /** Decoded bytes produced so far */
+    public long getBytesOut() {
+        return bytesOut;
+    }
+
+    private void append(int b) {
+        ensureCapacity(1);
+        current[currentLength++] = (byte) b;
+    }
+
+    private void repeat(int b, int count) throws IOException {
+        if (!type.isHorizontal()) {
+            throw new IOException(String.format("Horizontal string without horizontal compression: 0x%02X", b));
+        }
+        repeatPending = count;
+    }
+
+    private void copyPrevious(int count) throws IOException {
+        if (!type.isVertical() || !hasPrevious) {
+            throw new IOException("Invalid vertical string: " + count + " bytes at position " + currentLength
+                    + " without a previous article");
+        }
+        ensureCapacity(count);
+        // The previous article is padded with 0x40 when shorter
+        int copied = Math.max(0, Math.min(count, previousLength - currentLength));
+        System.arraycopy(previous, currentLength, current, currentLength, copied);
+        Arrays.fill(current, currentLength + copied, currentLength + count, ArticleCompressor.PAD);
+        currentLength += count;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (currentLength + extra > current.length) {
+            current = Arrays.copyOf(current, Math.max(current.length * 2, currentLength + extra));
+        }
+    }
+}
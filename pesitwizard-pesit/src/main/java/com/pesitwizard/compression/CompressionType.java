@@ -0,0 +1,68 @@
+package com.pesitwizard.compression;
+
+/**
+ * PeSIT data compression modes, negotiated with PI 21 on OPEN / ACK(OPEN).
+ *
+ * PI 21 holds two bytes: compression requested (or accepted) as 0 or 1, then
+ * the type: 1 horizontal, 2 vertical, 3 both.
+ */
+public enum CompressionType {
+
+    NONE(0),
+    /** Runs of a repeated character within an article */
+    HORIZONTAL(1),
+    /** Characters identical to the same position in the previous article */
+    VERTICAL(2),
+    BOTH(3);
+
+    private final int code;
+
+    CompressionType(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public boolean isHorizontal() {
+        return (code & HORIZONTAL.code) != 0;
+    }
+
+    public boolean isVertical() {
+        return (code & VERTICAL.code) != 0;
+    }
+
+    /**
+     * Resolve a type code; unknown codes mean no compression.
+     */
+    public static CompressionType fromCode(int code) {
+        return code >= 0 && code < values().length ? values()[code] : NONE;
+    }
+
+    /**
+     * Decode a PI 21 value. A single non-zero byte (older peers) requests
+     * horizontal compression.
+     */
+    public static CompressionType fromPi21(byte[] value) {
+        if (value == null || value.length == 0 || value[0] == 0) {
+            return NONE;
+        }
+        return value.length >= 2 ? fromCode(value[1] & 0xFF) : HORIZONTAL;
+    }
+
+    /**
+     * Encode this type as a PI 21 value.
+     */
+    public byte[] toPi21() {
+        return new byte[] { (byte) (this == NONE ? 0 : 1), (byte) code };
+    }
+
+    /**
+     * The modes both sides support: the requested ones that are also in
+     * {@code supported}.
+     */
+    public CompressionType negotiate(CompressionType supported) {
+        return fromCode(code & supported.code);
+    }
+}
@@ -0,0 +1,74 @@
+package com.pesitwizard.fpdu;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * pesitwizard extensions supported by a peer, exchanged in PI 99 (free
+ * message) of CONNECT and ACONNECT, e.g. {@code PWZ-CAPS:STRIPES=4}.
+ *
+ * A client announces what it wants to use; a pesitwizard server answers with
+ * what it accepts. Other PeSIT implementations neither send nor answer it,
+ * so the extensions stay off with them:
+ * <ul>
+ * <li>{@code STRIPES=n}: striped transfers over up to n sessions, see
+ * {@link Stripe}.</li>
+ * </ul>
+ * PI 21 compression is standard PeSIT and negotiated in OPEN, not here.
+ *
+ * @param stripes stripes wanted or accepted, 0 for none
+ */
+public record Capabilities(int stripes) {
+
+    /** A peer without pesitwizard extensions */
+    public static final Capabilities NONE = new Capabilities(0);
+
+    private static final String PREFIX = "PWZ-CAPS:";
+    private static final String STRIPES = "STRIPES=";
+
+    public Capabilities {
+        stripes = Math.max(0, stripes);
+    }
+
+    /**
+     * True when no extension is announced: no PI 99 is sent then
+     */
+    public boolean isEmpty() {
+        return stripes < 2;
+    }
+
+    /**
+     * PI 99 message announcing these capabilities
+     */
+    public String encode() {
+        List<String> tokens = new ArrayList<>();
+        if (stripes > 1) {
+            tokens.add(STRIPES + stripes);
+        }
+        return PREFIX + String.join(",", tokens);
+    }
+
+    /**
+     * Parse a PI 99 capability message; unknown tokens are ignored.
+     *
+     * @return the capabilities, {@link #NONE} if the message is not a
+     *         capability message
+     */
+    public static Capabilities parse(String message) {
+        if (message == null || !message.startsWith(PREFIX)) {
+            return NONE;
+        }
+        int stripes = 0;
+        for (String token : message.substring(PREFIX.length()).split(",")) {
+            token = token.trim();
+            if (token.startsWith(STRIPES)) {
+                try {
+                    stripes = Integer.parseInt(token.substring(STRIPES.length()));
+                } catch (NumberFormatException e) {
+                    stripes = 0;
+                }
+            }
+        }
+        return new Capabilities(stripes);
+    }
+}
@@ -16,6 +16,7 @@ public class ConnectMessageBuilder {
     private int syncIntervalKb = 64; // Default: 64 KB interval (SIT minimum is 4 KB)
     private int syncAckWindow = 1; // Default: window of 1
     private boolean resyncEnabled = false;
+    private String message = null;
 
     public ConnectMessageBuilder demandeur(String demandeur) {
         this.demandeur = demandeur;
@@ -92,6 +93,14 @@ public class ConnectMessageBuilder {
         return this;
     }
 
+    /**
+     * Set free message (PI_99 MESSAGE_LIBRE)
+     */
+    public ConnectMessageBuilder message(String message) {
+        this.message = message;
+        return this;
+    }
+
     /**
      * Build complete CONNECT FPDU
      * 
@@ -128,11 +137,16 @@ public class ConnectMessageBuilder {
         // PI_22 (access type) - MUST come after PI_07
         fpdu.withParameter(new ParameterValue(ParameterIdentifier.PI_22_TYPE_ACCES, accessType));
 
-        // PI_23 (resync) - last
+        // PI_23 (resync)
         if (resyncEnabled) {
             fpdu.withParameter(new ParameterValue(ParameterIdentifier.PI_23_RESYNC, 1));
         }
 
+        // PI_99 (free message) - last
+        if (message != null) {
+            fpdu.withParameter(new ParameterValue(ParameterIdentifier.PI_99_MESSAGE_LIBRE, message));
+        }
+
         return fpdu;
     }
 }
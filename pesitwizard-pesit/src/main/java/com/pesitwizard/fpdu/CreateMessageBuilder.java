@@ -24,6 +24,7 @@ public class CreateMessageBuilder {
     private int maxReservation = 0; // 0=no limit
     private String creationDate = null;
     private boolean isRestart = false; // PI 15: indicates this is a resumed transfer
+    private String message = null; // PI 99: free message
 
     public CreateMessageBuilder filename(String filename) {
         this.filename = filename;
@@ -89,6 +90,14 @@ public class CreateMessageBuilder {
         return this;
     }
 
+    /**
+     * Set free message (PI 99), sent after all other parameters
+     */
+    public CreateMessageBuilder message(String message) {
+        this.message = message;
+        return this;
+    }
+
     /**
      * Build complete CREATE FPDU with all parameters
      * 
@@ -129,7 +138,7 @@ public class CreateMessageBuilder {
         ParameterValue pi25 = new ParameterValue(PI_25_TAILLE_MAX_ENTITE, maxEntitySize);
 
         // Build FPDU with PIs in correct order: PGI9, PI13, PI15 (if restart), PI17,
-        // PI25, PGI30, PGI40, PGI50
+        // PI25, PGI30, PGI40, PGI50, PI99
         Fpdu fpdu = new Fpdu(FpduType.CREATE)
                 .withParameter(pgi9)
                 .withParameter(pi13);
@@ -145,6 +154,9 @@ public class CreateMessageBuilder {
                 .withParameter(pgi40)
                 .withParameter(pgi50)
                 .withIdDst(serverConnectionId);
+        if (message != null) {
+            fpdu.withParameter(new ParameterValue(PI_99_MESSAGE_LIBRE, message));
+        }
 
         return fpdu;
     }
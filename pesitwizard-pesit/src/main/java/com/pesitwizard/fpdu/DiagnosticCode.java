@@ -75,6 +75,25 @@ public enum DiagnosticCode {
                 || this == D2_228 || this == D2_229 || this == D2_230 || this == D2_043;
     }
 
+    /** Lookup by [code][reason]; each row is sized to the highest reason of its code */
+    private static final DiagnosticCode[][] BY_CODE_REASON = new DiagnosticCode[256][];
+
+    static {
+        int[] maxReason = new int[256];
+        for (DiagnosticCode d : values()) {
+            maxReason[d.getCode() & 0xFF] = Math.max(maxReason[d.getCode() & 0xFF], d.getReason() & 0xFFFF);
+        }
+        for (DiagnosticCode d : values()) {
+            int code = d.getCode() & 0xFF;
+            if (BY_CODE_REASON[code] == null) {
+                BY_CODE_REASON[code] = new DiagnosticCode[maxReason[code] + 1];
+            }
+            if (BY_CODE_REASON[code][d.getReason() & 0xFFFF] == null) {
+                BY_CODE_REASON[code][d.getReason() & 0xFFFF] = d;
+            }
+        }
+    }
+
     private final byte code;
     private final short reason;
     private final String message;
@@ -91,12 +110,20 @@ public enum DiagnosticCode {
         }
         int code = (pi2.getValue()[0] & 0xFF);
         int reason = (pi2.getValue()[1] & 0xFF) << 8 | pi2.getValue()[2] & 0xFF;
-        for (DiagnosticCode diagnosticCode : DiagnosticCode.values()) {
-            if (diagnosticCode.getCode() == code && diagnosticCode.getReason() == reason) {
-                return diagnosticCode;
-            }
+        return fromCode(code, reason);
+    }
+
+    /**
+     * Find the diagnostic for a code (0-255) and reason (0-65535).
+     *
+     * @return the diagnostic, or null if unknown
+     */
+    public static DiagnosticCode fromCode(int code, int reason) {
+        if (code < 0 || code > 0xFF || reason < 0) {
+            return null;
         }
-        return null;
+        DiagnosticCode[] row = BY_CODE_REASON[code];
+        return row != null && reason < row.length ? row[reason] : null;
     }
 
     /**
@@ -0,0 +1,413 @@
+package com.pesitwizard.fpdu;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.MessageDigest;
+
+import com.pesitwizard.compression.ArticleCompressor;
+import com.pesitwizard.transcoding.RecordTranscoder;
+
+/**
+ * Streams a file region as consecutive length-prefixed DTF FPDUs.
+ *
+ * On a channel (plain TCP), each DTF is its 8-byte wire header followed by
+ * {@link FileChannel#transferTo}, so file data is never copied into the JVM.
+ * On a stream (TLS), consecutive DTFs are assembled in one reusable buffer
+ * filled by positioned reads and written {@value #STREAM_BATCH_SIZE} bytes at
+ * a time.
+ *
+ * Neither mode flushes per FPDU; the caller flushes once after the last DTF.
+ * Reads are positioned, so restarting deep into a file costs no skip.
+ *
+ * An optional {@link MessageDigest} is updated with the data sent. In stream
+ * mode it reads the batch buffer; in channel mode it reads a read-only
+ * mapping of the region just transferred, which is already in the page cache.
+ *
+ * With an {@link ArticleCompressor} (PI 21 negotiated), each DTF carries one
+ * compressed article of at most {@link ArticleCompressor#maxArticleLength}
+ * file bytes. Compression needs the data in the JVM, so it is only supported
+ * in stream mode; the digest covers the uncompressed data.
+ *
+ * Likewise an optional {@link RecordTranscoder} (PI 16 = EBCDIC) translates
+ * each chunk in place in stream mode; the digest covers the file bytes. A
+ * transcoder that {@linkplain RecordTranscoder#readsRecords() reads records}
+ * sends one record per DTF instead of full chunks.
+ *
+ * Stream mode also accepts a sequential source (e.g. a storage connector
+ * stream) in place of a file; it is read in order through the same buffer.
+ */
+public class DtfStreamWriter {
+
+    /** TCP length prefix (2) + FPDU header (6) */
+    public static final int WIRE_HEADER_LENGTH = 2 + FpduFrame.HEADER_LENGTH;
+
+    /** Bytes gathered per stream write in stream mode (at least one DTF) */
+    public static final int STREAM_BATCH_SIZE = 64 * 1024;
+
+    /** Size of the file mappings used to digest data sent in channel mode */
+    static final int DIGEST_WINDOW_SIZE = 16 * 1024 * 1024;
+
+    private final int maxChunkSize;
+    private final int idDst;
+    private final ByteBuffer header = ByteBuffer.allocate(WIRE_HEADER_LENGTH);
+    private byte[] buffer;
+    private long bytesWritten;
+    private int fpduCount;
+    private MessageDigest digest;
+    private ArticleCompressor compressor;
+    private RecordTranscoder transcoder;
+    private byte[] article;
+    private MappedByteBuffer digestWindow;
+    private long digestWindowStart;
+
+    /**
+     * @param maxChunkSize maximum data bytes per DTF
+     * @param idDst        destination connection ID (partner's connection ID)
+     */
+    public DtfStreamWriter(int maxChunkSize, int idDst) {
+        if (maxChunkSize <= 0 || maxChunkSize > FpduCodec.MAX_FPDU_LENGTH - FpduFrame.HEADER_LENGTH) {
+            throw new IllegalArgumentException("Invalid DTF chunk size: " + maxChunkSize);
+        }
+        this.maxChunkSize = maxChunkSize;
+        this.idDst = idDst;
+    }
+
+    /**
+     * Update {@code digest} with every data byte sent from now on, in order.
+     *
+     * @return this writer
+     */
+    public DtfStreamWriter digest(MessageDigest digest) {
+        this.digest = digest;
+        return this;
+    }
+
+    /**
+     * Compress every DTF payload with {@code compressor} (stream mode only).
+     *
+     * @return this writer
+     */
+    public DtfStreamWriter compressor(ArticleCompressor compressor) {
+        this.compressor = compressor;
+        return this;
+    }
+
+    /**
+     * Translate every DTF payload with {@code transcoder} (stream mode only).
+     *
+     * @return this writer
+     */
+    public DtfStreamWriter transcoder(RecordTranscoder transcoder) {
+        this.transcoder = transcoder;
+        return this;
+    }
+
+    /**
+     * Send {@code file[position, EOF)} to a channel using transferTo for the
+     * payload of each DTF.
+     *
+     * @return number of data bytes sent
+     */
+    public long transfer(FileChannel file, long position, WritableByteChannel out) throws IOException {
+        if (compressor != null || transcoder != null) {
+            throw new IllegalStateException("Compressed or transcoded DTFs require stream mode");
+        }
+        long size = file.size();
+        long pos = position;
+        while (pos < size) {
+            int chunk = (int) Math.min(maxChunkSize, size - pos);
+            header.clear();
+            putHeader(header, chunk);
+            header.flip();
+            while (header.hasRemaining()) {
+                out.write(header);
+            }
+
+            long sent = 0;
+            while (sent < chunk) {
+                long n = file.transferTo(pos + sent, chunk - sent, out);
+                if (n <= 0 && pos + sent >= file.size()) {
+                    throw new EOFException("File truncated while sending at position " + (pos + sent));
+                }
+                sent += n;
+            }
+            if (digest != null) {
+                digestRegion(file, pos, chunk);
+            }
+
+            pos += chunk;
+            bytesWritten += chunk;
+            fpduCount++;
+        }
+        return pos - position;
+    }
+
+    /**
+     * Send {@code file[position, EOF)} to a stream, batching several DTFs per
+     * write.
+     *
+     * @return number of data bytes sent
+     */
+    public long transfer(FileChannel file, long position, OutputStream out) throws IOException {
+        return transfer((target, pos) -> readFully(file, target, pos), position, out);
+    }
+
+    /**
+     * Send {@code in} up to its end to a stream, batching several DTFs per
+     * write. The source is read sequentially; a restart point must already be
+     * applied to it.
+     *
+     * @return number of data bytes sent
+     */
+    public long transfer(ReadableByteChannel in, OutputStream out) throws IOException {
+        return transfer((target, pos) -> readFully(in, target), 0, out);
+    }
+
+    private long transfer(Source source, long position, OutputStream out) throws IOException {
+        if (transcoder != null && transcoder.readsRecords()) {
+            return transferRecords(source, position, out);
+        }
+        if (compressor != null) {
+            return transferCompressed(source, position, out);
+        }
+        int dtfLength = WIRE_HEADER_LENGTH + maxChunkSize;
+        if (buffer == null) {
+            buffer = new byte[Math.max(STREAM_BATCH_SIZE / dtfLength, 1) * dtfLength];
+        }
+        ByteBuffer view = ByteBuffer.wrap(buffer);
+        long pos = position;
+        boolean eof = false;
+        while (!eof) {
+            int filled = 0;
+            while (filled + dtfLength <= buffer.length) {
+                view.limit(filled + dtfLength).position(filled + WIRE_HEADER_LENGTH);
+                int chunk = source.read(view, pos);
+                if (chunk <= 0) {
+                    eof = true;
+                    break;
+                }
+                if (digest != null) {
+                    digest.update(buffer, filled + WIRE_HEADER_LENGTH, chunk);
+                }
+                if (transcoder != null) {
+                    transcoder.transcode(buffer, filled + WIRE_HEADER_LENGTH, chunk);
+                }
+                view.position(filled);
+                putHeader(view, chunk);
+                filled += WIRE_HEADER_LENGTH + chunk;
+                pos += chunk;
+                bytesWritten += chunk;
+                fpduCount++;
+                if (chunk < maxChunkSize) {
+                    eof = true;
+                    break;
+                }
+            }
+            if (filled > 0) {
+                out.write(buffer, 0, filled);
+            }
+        }
+        return pos - position;
+    }
+
+    private long transferCompressed(Source source, long position, OutputStream out) throws IOException {
+        int articleLength = ArticleCompressor.maxArticleLength(maxChunkSize);
+        int dtfLength = WIRE_HEADER_LENGTH + maxChunkSize;
+        if (buffer == null) {
+            buffer = new byte[Math.max(STREAM_BATCH_SIZE / dtfLength, 1) * dtfLength];
+        }
+        if (article == null) {
+            article = new byte[articleLength];
+        }
+        ByteBuffer articleView = ByteBuffer.wrap(article);
+        ByteBuffer view = ByteBuffer.wrap(buffer);
+        long pos = position;
+        boolean eof = false;
+        while (!eof) {
+            int filled = 0;
+            while (filled + dtfLength <= buffer.length) {
+                articleView.clear();
+                int chunk = source.read(articleView, pos);
+                if (chunk <= 0) {
+                    eof = true;
+                    break;
+                }
+                if (digest != null) {
+                    digest.update(article, 0, chunk);
+                }
+                if (transcoder != null) {
+                    transcoder.transcode(article, 0, chunk);
+                }
+                int compressed = compressor.compress(article, 0, chunk, buffer, filled + WIRE_HEADER_LENGTH);
+                view.limit(buffer.length).position(filled);
+                putHeader(view, compressed);
+                filled += WIRE_HEADER_LENGTH + compressed;
+                pos += chunk;
+                bytesWritten += chunk;
+                fpduCount++;
+                if (chunk < articleLength) {
+                    eof = true;
+                    break;
+                }
+            }
+            if (filled > 0) {
+                out.write(buffer, 0, filled);
+            }
+        }
+        return pos - position;
+    }
+
+    private long transferRecords(Source source, long position, OutputStream out) throws IOException {
+        int dtfLength = WIRE_HEADER_LENGTH + maxChunkSize;
+        if (buffer == null) {
+            buffer = new byte[Math.max(STREAM_BATCH_SIZE / dtfLength, 1) * dtfLength];
+        }
+        if (article == null) {
+            article = new byte[compressor != null ? ArticleCompressor.maxArticleLength(maxChunkSize) : maxChunkSize];
+        }
+        ByteBuffer view = ByteBuffer.wrap(buffer);
+        SourceStream in = new SourceStream(source, position);
+        boolean eof = false;
+        while (!eof) {
+            int filled = 0;
+            while (filled + dtfLength <= buffer.length) {
+                int length = transcoder.readRecord(in, article);
+                if (length < 0) {
+                    eof = true;
+                    break;
+                }
+                int payload = length;
+                if (compressor != null) {
+                    payload = compressor.compress(article, 0, length, buffer, filled + WIRE_HEADER_LENGTH);
+                } else {
+                    System.arraycopy(article, 0, buffer, filled + WIRE_HEADER_LENGTH, length);
+                }
+                view.limit(buffer.length).position(filled);
+                putHeader(view, payload);
+                filled += WIRE_HEADER_LENGTH + payload;
+                bytesWritten += length;
+                fpduCount++;
+            }
+            if (filled > 0) {
+                out.write(buffer, 0, filled);
+            }
+        }
+        return in.position - position;
+    }
+
+    /**
+     * Total data bytes sent by this writer.
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Number of DTF FPDUs sent by this writer.
+     */
+    public int getFpduCount() {
+        return fpduCount;
+    }
+
+    private void putHeader(ByteBuffer target, int chunk) {
+        int fpduLength = FpduFrame.HEADER_LENGTH + chunk;
+        target.putShort((short) fpduLength); // TCP length prefix
+        target.putShort((short) fpduLength); // FPDU length
+        target.put((byte) FpduType.DTF.getPhase());
+        target.put((byte) FpduType.DTF.getType());
+        target.put((byte) idDst);
+        target.put((byte) 0);
+    }
+
+    private void digestRegion(FileChannel file, long position, int length) throws IOException {
+        long end = position + length;
+        while (position < end) {
+            if (digestWindow == null || position < digestWindowStart
+                    || position >= digestWindowStart + digestWindow.capacity()) {
+                digestWindowStart = position;
+                long size = Math.min(DIGEST_WINDOW_SIZE, file.size() - position);
+                if (size <= 0) {
+                    throw new EOFException("File truncated while sending at position " + position);
+                }
+                digestWindow = file.map(FileChannel.MapMode.READ_ONLY, position, size);
+            }
+            int offset = (int) (position - digestWindowStart);
+            int n = (int) Math.min(end - position, digestWindow.capacity() - offset);
+            digest.update(digestWindow.slice(offset, n));
+            position += n;
+        }
+    }
+
+    private static int readFully(ReadableByteChannel in, ByteBuffer target) throws IOException {
+        int total = 0;
+        while (target.hasRemaining()) {
+            int n = in.read(target);
+            if (n < 0) {
+                break;
+            }
+            total += n;
+        }
+        return total;
+    }
+
+    private static int readFully(FileChannel file, ByteBuffer target, long position) throws IOException {
+        int total = 0;
+        while (target.hasRemaining()) {
+            int n = file.read(target, position + total);
+            if (n < 0) {
+                break;
+            }
+            total += n;
+        }
+        return total;
+    }
+
+    /**
+     * Sequential view of a {@link Source}, updating the digest with the
+     * file bytes read
+     */
+    private class SourceStream extends InputStream {
+
+        private final Source source;
+        private long position;
+
+        SourceStream(Source source, long position) {
+            this.source = source;
+            this.position = position;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int offset, int length) throws IOException {
+            int n = source.read(ByteBuffer.wrap(b, offset, length), position);
+            if (n <= 0) {
+                return -1;
+            }
+            if (digest != null) {
+                digest.update(b, offset, n);
+            }
+            position += n;
+            return n;
+        }
+    }
+
+    /**
+     * Fills a buffer with the data at a file position, as far as available
+     */
+    @FunctionalInterface
+    private interface Source {
+        int read(ByteBuffer target, long position) throws IOException;
+    }
+}
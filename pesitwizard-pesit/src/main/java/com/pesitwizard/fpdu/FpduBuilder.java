@@ -66,8 +66,10 @@ public class FpduBuilder {
 
     /**
      * Build a multi-article DTF FPDU for variable-length records.
-     * Format: [total_length][phase][type][idDst][idSrc][len1][art1][len2][art2]...
-     * Each article is prefixed with a 2-byte length.
+     * Format: [total_length][phase][type][idDst][N][len1][art1][len2][art2]...
+     * Each article is prefixed with a 2-byte length; the ID.SRC byte holds
+     * the number of articles N (PeSIT E 4.7.1). A single article gives a
+     * mono-article DTF, without prefix and with ID.SRC = 0.
      * 
      * @param idDest        Destination connection ID
      * @param articles      List of article data (each article is a byte array)
@@ -76,11 +78,15 @@ public class FpduBuilder {
      * @return DTF FPDU bytes, or null if articles don't fit
      */
     public static byte[] buildMultiArticleDtf(int idDest, List<byte[]> articles, int maxEntitySize) {
+        boolean multiArticle = articles.size() > 1;
+        if (articles.size() > FpduFrame.MAX_ARTICLES) {
+            return null; // Count doesn't fit in ID.SRC
+        }
         // Calculate total size: 6 (header) + sum of (2 + article.length) for each
         // article
         int dataSize = 0;
         for (byte[] article : articles) {
-            dataSize += 2 + article.length; // 2-byte length prefix + article data
+            dataSize += (multiArticle ? FpduFrame.ARTICLE_LENGTH_SIZE : 0) + article.length;
         }
         int totalSize = 6 + dataSize;
 
@@ -93,11 +99,13 @@ public class FpduBuilder {
         fpdu.put((byte) FpduType.DTF.getPhase());
         fpdu.put((byte) FpduType.DTF.getType());
         fpdu.put((byte) idDest);
-        fpdu.put((byte) 0); // idSrc = 0 for file-level FPDUs
+        fpdu.put((byte) (multiArticle ? articles.size() : 0)); // Number of articles, 0 for mono-article
 
         // Add each article with 2-byte length prefix
         for (byte[] article : articles) {
-            fpdu.putShort((short) article.length);
+            if (multiArticle) {
+                fpdu.putShort((short) article.length);
+            }
             fpdu.put(article);
         }
 
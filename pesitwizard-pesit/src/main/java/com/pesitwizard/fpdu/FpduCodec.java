@@ -0,0 +1,138 @@
+package com.pesitwizard.fpdu;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Allocation-free FPDU reader.
+ *
+ * Owns a single reusable buffer (heap or direct) and decodes each incoming
+ * FPDU as an {@link FpduFrame} view over it. Reading the next FPDU
+ * invalidates the previous frame and any slice obtained from it.
+ *
+ * One codec per connection; instances are not thread-safe.
+ */
+public class FpduCodec {
+
+    /** Largest FPDU expressible with the 2-byte length prefix */
+    public static final int MAX_FPDU_LENGTH = 0xFFFF;
+
+    private final boolean direct;
+    private final FpduFrame frame = new FpduFrame();
+    private final ByteBuffer prefix = ByteBuffer.allocate(2);
+    private ByteBuffer buffer;
+    private DataInputStream streamChannelSource;
+    private ReadableByteChannel streamChannel;
+
+    /**
+     * Create a codec with a heap buffer sized for the given entity size.
+     */
+    public FpduCodec(int initialCapacity) {
+        this(initialCapacity, false);
+    }
+
+    /**
+     * Create a codec.
+     *
+     * @param initialCapacity initial buffer size; grows on demand up to
+     *                        {@link #MAX_FPDU_LENGTH}
+     * @param direct          use a direct buffer (useful with channel I/O)
+     */
+    public FpduCodec(int initialCapacity, boolean direct) {
+        this.direct = direct;
+        this.buffer = allocate(Math.max(FpduFrame.HEADER_LENGTH, Math.min(initialCapacity, MAX_FPDU_LENGTH)));
+    }
+
+    /**
+     * Read one length-prefixed FPDU from the stream into the reusable buffer.
+     *
+     * @return frame view, valid until the next read
+     * @throws IOException if read fails or connection closed
+     */
+    public FpduFrame read(DataInputStream in) throws IOException {
+        int length = in.readUnsignedShort();
+        if (length <= 0) {
+            throw new IOException("Invalid FPDU length: " + length);
+        }
+        ensureCapacity(length);
+        if (buffer.hasArray()) {
+            in.readFully(buffer.array(), buffer.arrayOffset(), length);
+        } else {
+            // Direct buffers have no backing array - go through a channel view
+            if (streamChannelSource != in) {
+                streamChannel = Channels.newChannel(in);
+                streamChannelSource = in;
+            }
+            buffer.clear().limit(length);
+            readFully(streamChannel, buffer);
+        }
+        return frame.wrap(buffer, 0, length);
+    }
+
+    /**
+     * Read one length-prefixed FPDU from a channel into the reusable buffer.
+     *
+     * @return frame view, valid until the next read
+     * @throws IOException if read fails or channel reaches end of stream
+     */
+    public FpduFrame read(ReadableByteChannel channel) throws IOException {
+        prefix.clear();
+        readFully(channel, prefix);
+        int length = prefix.getShort(0) & 0xFFFF;
+        if (length <= 0) {
+            throw new IOException("Invalid FPDU length: " + length);
+        }
+        ensureCapacity(length);
+        buffer.clear().limit(length);
+        readFully(channel, buffer);
+        return frame.wrap(buffer, 0, length);
+    }
+
+    /**
+     * Decode FPDU bytes that are already in memory, without copying.
+     */
+    public FpduFrame decode(ByteBuffer data, int offset, int length) {
+        return frame.wrap(data, offset, length);
+    }
+
+    /**
+     * Grow the buffer up front for FPDUs of up to {@code capacity} bytes,
+     * e.g. to the entity size (PI 25) negotiated for a transfer.
+     */
+    public void reserve(int capacity) {
+        ensureCapacity(Math.min(capacity, MAX_FPDU_LENGTH));
+    }
+
+    /**
+     * Current capacity of the reusable buffer.
+     */
+    public int capacity() {
+        return buffer.capacity();
+    }
+
+    public boolean isDirect() {
+        return direct;
+    }
+
+    private void ensureCapacity(int length) {
+        if (buffer.capacity() < length) {
+            buffer = allocate(length);
+        }
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    private static void readFully(ReadableByteChannel channel, ByteBuffer target) throws IOException {
+        while (target.hasRemaining()) {
+            if (channel.read(target) < 0) {
+                throw new EOFException("Connection closed while reading FPDU");
+            }
+        }
+    }
+}
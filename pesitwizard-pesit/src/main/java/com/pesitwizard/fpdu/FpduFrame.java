@@ -0,0 +1,300 @@
+package com.pesitwizard.fpdu;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Zero-copy view over a single encoded FPDU.
+ *
+ * The frame does not own its bytes: it points into a {@link ByteBuffer}
+ * (typically the reusable buffer of an {@link FpduCodec}) and exposes the
+ * header fields, PI values and DTF payload as slices of that buffer.
+ * A frame is only valid until the underlying buffer is reused, so callers
+ * that need to keep data must copy it (see {@link #toFpdu()}).
+ *
+ * Layout: [len(2)][phase][type][idDst][idSrc][params or data]
+ * where len is the total FPDU length including the 2-byte length field.
+ */
+public final class FpduFrame {
+
+    /** Size of the FPDU header: len(2) + phase + type + idDst + idSrc */
+    public static final int HEADER_LENGTH = 6;
+
+    /** Length prefix of each article in a multi-article DTF */
+    public static final int ARTICLE_LENGTH_SIZE = 2;
+
+    /** Most articles in a multi-article DTF, whose count is in ID.SRC */
+    public static final int MAX_ARTICLES = 255;
+
+    private ByteBuffer buffer;
+    private int start;
+    private int end;
+
+    /**
+     * Create an unbound frame. Use {@link #wrap(ByteBuffer, int, int)} to point
+     * it at encoded FPDU bytes.
+     */
+    public FpduFrame() {
+    }
+
+    /**
+     * Create a frame over a whole byte array (as returned by
+     * {@link FpduIO#readRawFpdu}).
+     */
+    public static FpduFrame of(byte[] data) {
+        return new FpduFrame().wrap(ByteBuffer.wrap(data), 0, data.length);
+    }
+
+    /**
+     * Point this frame at {@code buffer[start, start + length)}.
+     * The buffer position and limit are not modified.
+     * No validation is done here; see {@link #checkHeader()}.
+     *
+     * @return this frame, for chaining
+     */
+    public FpduFrame wrap(ByteBuffer buffer, int start, int length) {
+        this.buffer = buffer;
+        this.start = start;
+        this.end = start + length;
+        return this;
+    }
+
+    /**
+     * Ensure the frame is long enough to hold the 6-byte header.
+     *
+     * @throws BufferUnderflowException if it is not (same failure as reading a
+     *                                  truncated header with relative gets)
+     */
+    public void checkHeader() {
+        if (length() < HEADER_LENGTH) {
+            throw new BufferUnderflowException();
+        }
+    }
+
+    /**
+     * Total number of bytes covered by this frame.
+     */
+    public int length() {
+        return end - start;
+    }
+
+    /**
+     * FPDU length as declared in the 2-byte header.
+     */
+    public int declaredLength() {
+        return buffer.getShort(start) & 0xFFFF;
+    }
+
+    public int getPhase() {
+        return buffer.get(start + 2) & 0xFF;
+    }
+
+    public int getType() {
+        return buffer.get(start + 3) & 0xFF;
+    }
+
+    public FpduType getFpduType() {
+        return FpduType.from(getPhase(), getType());
+    }
+
+    public int getIdDst() {
+        return buffer.get(start + 4);
+    }
+
+    public int getIdSrc() {
+        return buffer.get(start + 5);
+    }
+
+    /**
+     * Check if this frame is a DTF (phase=0x00, type=0x00, 0x40, 0x41 or 0x42).
+     */
+    public boolean isDtf() {
+        if (length() < 4) {
+            return false;
+        }
+        FpduType type = FpduType.from(getPhase(), getType());
+        return type != null && type.isDataTransfer();
+    }
+
+    /**
+     * Check if this frame is a DTF.END (phase=0xC0, type=0x22).
+     */
+    public boolean isDtfEnd() {
+        return length() >= 4 && getPhase() == 0xC0 && getType() == 0x22;
+    }
+
+    /**
+     * Number of bytes following the 6-byte header.
+     */
+    public int payloadLength() {
+        return Math.max(0, length() - HEADER_LENGTH);
+    }
+
+    /**
+     * Slice of the bytes following the header (raw data for DTF, encoded
+     * parameters otherwise). The returned buffer shares content with the
+     * frame's buffer.
+     */
+    public ByteBuffer payload() {
+        return buffer.slice(start + Math.min(HEADER_LENGTH, length()), payloadLength());
+    }
+
+    /**
+     * Number of articles in this DTF: N for a multi-article FPDU.DTF, whose
+     * ID.SRC holds N > 1, otherwise 1.
+     */
+    public int articleCount() {
+        return articleCount(getFpduType(), getIdSrc());
+    }
+
+    /**
+     * Number of articles in a DTF of the given type and ID.SRC.
+     */
+    public static int articleCount(FpduType type, int idSrc) {
+        int count = idSrc & 0xFF;
+        return count > 1 && type == FpduType.DTF ? count : 1;
+    }
+
+    /**
+     * Visit the articles of a DTF as slices of the frame buffer: the whole
+     * payload, or each article of a multi-article DTF.
+     *
+     * @throws IOException if the article lengths do not match the payload
+     */
+    public void forEachArticle(ArticleVisitor visitor) throws IOException {
+        forEachArticle(payload(), articleCount(), visitor);
+    }
+
+    /**
+     * Visit the {@code count} articles of a DTF payload; with more than one,
+     * each is preceded by its 2-byte length.
+     *
+     * @throws IOException if the article lengths do not match the payload
+     */
+    public static void forEachArticle(ByteBuffer payload, int count, ArticleVisitor visitor) throws IOException {
+        if (count <= 1) {
+            visitor.visit(payload);
+            return;
+        }
+        int pos = payload.position();
+        int limit = payload.limit();
+        for (int i = 1; i <= count; i++) {
+            if (pos + ARTICLE_LENGTH_SIZE > limit) {
+                throw new IOException("Multi-article DTF truncated before article " + i + " of " + count);
+            }
+            int length = payload.getShort(pos) & 0xFFFF;
+            pos += ARTICLE_LENGTH_SIZE;
+            if (pos + length > limit) {
+                throw new IOException("Article " + i + " of " + count + " overruns DTF: length " + length);
+            }
+            visitor.visit(payload.slice(pos, length));
+            pos += length;
+        }
+        if (pos != limit) {
+            throw new IOException((limit - pos) + " bytes after the " + count + " articles of a DTF");
+        }
+    }
+
+    /**
+     * Write the payload to a channel without copying it.
+     *
+     * @return number of bytes written
+     */
+    public int writePayloadTo(WritableByteChannel channel) throws IOException {
+        ByteBuffer payload = payload();
+        int written = 0;
+        while (payload.hasRemaining()) {
+            written += channel.write(payload);
+        }
+        return written;
+    }
+
+    /**
+     * Find the value of a parameter (PI or PGI) in this frame.
+     * PIs nested inside a PGI are found as well.
+     *
+     * @param parameter parameter to look for
+     * @return slice of the parameter value, or null if absent
+     */
+    public ByteBuffer parameter(Parameter parameter) {
+        return findParameter(start + HEADER_LENGTH, end, parameter.getId(), true);
+    }
+
+    /**
+     * Visit every top-level PI/PGI of this frame in wire order.
+     * Values are passed as slices of the frame buffer.
+     */
+    public void forEachParameter(ParameterVisitor visitor) {
+        int pos = start + HEADER_LENGTH;
+        while (pos < end) {
+            int id = buffer.get(pos) & 0xFF;
+            int valueLength = buffer.get(pos + 1) & 0xFF;
+            int valueStart = pos + 2;
+            if (valueLength == 0xFF) {
+                valueLength = buffer.getShort(pos + 2) & 0xFFFF;
+                valueStart = pos + 4;
+            }
+            checkBounds(id, valueStart, valueLength, end);
+            visitor.visit(id, buffer.slice(valueStart, valueLength));
+            pos = valueStart + valueLength;
+        }
+    }
+
+    /**
+     * Decode this frame into a standalone {@link Fpdu}. Parameter values and
+     * DTF data are copied, so the result survives reuse of the buffer.
+     */
+    public Fpdu toFpdu() {
+        return new FpduParser(this).parse();
+    }
+
+    private ByteBuffer findParameter(int from, int to, int id, boolean descend) {
+        int pos = from;
+        while (pos < to) {
+            int paramId = buffer.get(pos) & 0xFF;
+            int valueLength = buffer.get(pos + 1) & 0xFF;
+            int valueStart = pos + 2;
+            if (valueLength == 0xFF) {
+                valueLength = buffer.getShort(pos + 2) & 0xFFFF;
+                valueStart = pos + 4;
+            }
+            checkBounds(paramId, valueStart, valueLength, to);
+            if (paramId == id) {
+                return buffer.slice(valueStart, valueLength);
+            }
+            if (descend && ParameterGroupIdentifier.fromId(paramId) != null) {
+                ByteBuffer nested = findParameter(valueStart, valueStart + valueLength, id, false);
+                if (nested != null) {
+                    return nested;
+                }
+            }
+            pos = valueStart + valueLength;
+        }
+        return null;
+    }
+
+    private void checkBounds(int paramId, int valueStart, int valueLength, int limit) {
+        if (valueStart + valueLength > limit) {
+            throw new IllegalArgumentException("Parameter " + paramId + " overruns FPDU: length "
+                    + valueLength + " at offset " + (valueStart - start));
+        }
+    }
+
+    /**
+     * Callback for {@link #forEachArticle(ArticleVisitor)}.
+     */
+    @FunctionalInterface
+    public interface ArticleVisitor {
+        void visit(ByteBuffer article) throws IOException;
+    }
+
+    /**
+     * Callback for {@link #forEachParameter(ParameterVisitor)}.
+     */
+    @FunctionalInterface
+    public interface ParameterVisitor {
+        void visit(int parameterId, ByteBuffer value);
+    }
+}
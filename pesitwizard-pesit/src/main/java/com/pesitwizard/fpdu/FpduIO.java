@@ -53,10 +53,21 @@ public class FpduIO {
      * @throws IOException if write fails
      */
     public static void writeFpdu(DataOutputStream out, Fpdu fpdu) throws IOException {
-        byte[] data = FpduBuilder.buildFpdu(fpdu);
-        out.writeShort(data.length);
-        out.write(data);
-        out.flush();
+        writeFpdu(out, fpdu, true);
+    }
+
+    /**
+     * Write an FPDU to the output stream, optionally without flushing.
+     * An unflushed FPDU is sent concatenated with the FPDUs that follow it
+     * when {@code out} is buffered.
+     *
+     * @param out   DataOutputStream to write to
+     * @param fpdu  Fpdu to send
+     * @param flush whether to flush after the FPDU
+     * @throws IOException if write fails
+     */
+    public static void writeFpdu(DataOutputStream out, Fpdu fpdu, boolean flush) throws IOException {
+        writeRawFpdu(out, FpduBuilder.buildFpdu(fpdu), flush);
     }
 
     /**
@@ -71,10 +82,7 @@ public class FpduIO {
      */
     public static void writeFpduWithData(DataOutputStream out, FpduType fpduType,
             int idDst, int idSrc, byte[] payload) throws IOException {
-        byte[] data = FpduBuilder.buildFpdu(fpduType, idDst, idSrc, payload);
-        out.writeShort(data.length);
-        out.write(data);
-        out.flush();
+        writeRawFpdu(out, FpduBuilder.buildFpdu(fpduType, idDst, idSrc, payload), true);
     }
 
     /**
@@ -85,9 +93,23 @@ public class FpduIO {
      * @throws IOException if write fails
      */
     public static void writeRawFpdu(DataOutputStream out, byte[] rawData) throws IOException {
+        writeRawFpdu(out, rawData, true);
+    }
+
+    /**
+     * Write raw FPDU bytes to the output stream, optionally without flushing.
+     *
+     * @param out     DataOutputStream to write to
+     * @param rawData Raw FPDU bytes (without length prefix)
+     * @param flush   whether to flush after the FPDU
+     * @throws IOException if write fails
+     */
+    public static void writeRawFpdu(DataOutputStream out, byte[] rawData, boolean flush) throws IOException {
         out.writeShort(rawData.length);
         out.write(rawData);
-        out.flush();
+        if (flush) {
+            out.flush();
+        }
     }
 
     /**
@@ -101,9 +123,8 @@ public class FpduIO {
         if (rawData == null || rawData.length < 4) {
             return false;
         }
-        int phase = rawData[2] & 0xFF;
-        int type = rawData[3] & 0xFF;
-        return phase == 0x00 && (type == 0x00 || type == 0x40 || type == 0x41 || type == 0x42);
+        FpduType type = FpduType.from(rawData[2] & 0xFF, rawData[3] & 0xFF);
+        return type != null && type.isDataTransfer();
     }
 
     /**
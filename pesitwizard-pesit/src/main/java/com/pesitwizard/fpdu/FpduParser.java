@@ -8,77 +8,79 @@ import lombok.extern.slf4j.Slf4j;
  * Parser for a single PeSIT FPDU.
  * Expects FPDU with header: [len(2)][phase][type][idDst][idSrc][params or data]
  * where len is the total FPDU length including the 2-byte length field.
+ *
+ * Convenience layer over {@link FpduFrame}: PI values and DTF data are copied
+ * into a standalone {@link Fpdu}. Hot paths that do not need to keep the
+ * decoded values should work on the frame directly.
  */
 @Slf4j
 public class FpduParser {
-    private final ByteBuffer buffer;
-    private final int fpduLength;
+    private final FpduFrame frame;
 
     public FpduParser(byte[] data) {
-        this.buffer = ByteBuffer.wrap(data);
-        // Read FPDU length from header (first 2 bytes)
-        this.fpduLength = buffer.getShort() & 0xFFFF;
-        if (fpduLength != data.length) {
-            log.warn("FPDU length mismatch: header says {}, actual data is {} bytes", fpduLength, data.length);
+        this.frame = FpduFrame.of(data);
+        if (data.length >= 2 && frame.declaredLength() != data.length) {
+            log.warn("FPDU length mismatch: header says {}, actual data is {} bytes", frame.declaredLength(),
+                    data.length);
         }
     }
 
+    public FpduParser(FpduFrame frame) {
+        this.frame = frame;
+    }
+
     public Fpdu parse() {
+        frame.checkHeader();
         Fpdu fpdu = new Fpdu();
-        int phase = buffer.get() & 0xFF;
-        int type = buffer.get() & 0xFF;
+        int phase = frame.getPhase();
+        int type = frame.getType();
         fpdu.setFpduType(FpduType.from(phase, type));
         log.debug("Parsing FPDU: phase={}, type={} -> {}", phase, type, fpdu.getFpduType());
-        int idDest = buffer.get();
-        int idSrc = buffer.get();
-        fpdu.setIdDst(idDest);
-        fpdu.setIdSrc(idSrc);
+        fpdu.setIdDst(frame.getIdDst());
+        fpdu.setIdSrc(frame.getIdSrc());
 
         // DTF FPDUs contain raw data, not parameters
-        if (fpdu.getFpduType() == FpduType.DTF || fpdu.getFpduType() == FpduType.DTFDA
-                || fpdu.getFpduType() == FpduType.DTFMA || fpdu.getFpduType() == FpduType.DTFFA) {
-            if (buffer.hasRemaining()) {
-                byte[] rawData = new byte[buffer.remaining()];
-                buffer.get(rawData);
+        if (fpdu.getFpduType() != null && fpdu.getFpduType().isDataTransfer()) {
+            if (frame.payloadLength() > 0) {
+                byte[] rawData = copyOf(frame.payload());
                 fpdu.setData(rawData);
-                log.info("{} FPDU contains {} bytes of data", fpdu.getFpduType(), rawData.length);
+                log.debug("{} FPDU contains {} bytes of data", fpdu.getFpduType(), rawData.length);
             }
             return fpdu;
         }
 
-        while (buffer.hasRemaining()) {
-            int paramId = buffer.get();
-            int paramLength = buffer.get();
-            if (paramLength == 0xff) {
-                paramLength = buffer.getShort();
+        frame.forEachParameter((paramId, value) -> {
+            ParameterIdentifier paramIdEnum = ParameterIdentifier.fromId(paramId);
+            if (paramIdEnum != null) {
+                log.debug("PI {} found which is {} and has a size of {} bytes", paramId, paramIdEnum,
+                        value.remaining());
+                fpdu.getParameters().add(new ParameterValue(paramIdEnum, copyOf(value)));
+                return;
             }
-            byte[] paramData = new byte[paramLength];
-            buffer.get(paramData);
-            if (ParameterIdentifier.fromId(paramId) != null) {
-                ParameterIdentifier paramIdEnum = ParameterIdentifier.fromId(paramId);
-                log.info("PI {} found which is {} and has a size of {} bytes", paramId, paramIdEnum, paramLength);
-                ParameterValue paramValue = new ParameterValue(paramIdEnum, paramData);
-                fpdu.getParameters().add(paramValue);
-            } else if (ParameterGroupIdentifier.fromId(paramId) != null) {
-                ParameterGroupIdentifier groupId = ParameterGroupIdentifier.fromId(paramId);
-                log.info("PGI {} found which is {}", paramId, groupId);
-                ParameterValue groupParameterValue = new ParameterValue(groupId, new ParameterValue[0]);
-                fpdu.getParameters().add(groupParameterValue);
-                ByteBuffer groupBuffer = ByteBuffer.wrap(paramData);
-                while (groupBuffer.hasRemaining()) {
-                    int groupParamId = groupBuffer.get();
-                    int groupParamLength = groupBuffer.get();
-                    byte[] groupParamData = new byte[groupParamLength];
-                    groupBuffer.get(groupParamData);
-                    ParameterValue groupParamValue = new ParameterValue(ParameterIdentifier.fromId(groupParamId),
-                            groupParamData);
-                    log.info("PI {} found which is {}", groupParamId, groupParamValue.getParameter());
-                    groupParameterValue.getValues().add(groupParamValue);
-                }
-            } else {
+            ParameterGroupIdentifier groupId = ParameterGroupIdentifier.fromId(paramId);
+            if (groupId == null) {
                 throw new IllegalArgumentException("Unknown parameter ID: " + paramId);
             }
-        }
+            log.debug("PGI {} found which is {}", paramId, groupId);
+            ParameterValue groupParameterValue = new ParameterValue(groupId, new ParameterValue[0]);
+            fpdu.getParameters().add(groupParameterValue);
+            while (value.hasRemaining()) {
+                int groupParamId = value.get();
+                int groupParamLength = value.get() & 0xFF;
+                byte[] groupParamData = new byte[groupParamLength];
+                value.get(groupParamData);
+                ParameterValue groupParamValue = new ParameterValue(ParameterIdentifier.fromId(groupParamId),
+                        groupParamData);
+                log.debug("PI {} found which is {}", groupParamId, groupParamValue.getParameter());
+                groupParameterValue.getValues().add(groupParamValue);
+            }
+        });
         return fpdu;
     }
+
+    private static byte[] copyOf(ByteBuffer slice) {
+        byte[] bytes = new byte[slice.remaining()];
+        slice.get(bytes);
+        return bytes;
+    }
 }
@@ -3,9 +3,6 @@ package com.pesitwizard.fpdu;
 import static com.pesitwizard.fpdu.ParameterGroupIdentifier.*;
 import static com.pesitwizard.fpdu.ParameterIdentifier.*;
 
-import java.util.Map;
-import java.util.TreeMap;
-
 /**
  * PESIT FPDU (File Transfer Protocol Data Unit) Types
  * Based on PESIT E specification (September 1989)
@@ -230,12 +227,29 @@ public enum FpduType {
                         new ParameterRequirement(PI_02_DIAG, false),
                         new ParameterRequirement(PI_19_CODE_FIN_TRANSFERT, false));
 
+        /** Lookup by [phase][type]; rows exist only for phases in use */
+        private static final FpduType[][] BY_PHASE_TYPE = new FpduType[256][];
+
+        static {
+                for (FpduType fpdu : values()) {
+                        FpduType[] row = BY_PHASE_TYPE[fpdu.phase];
+                        if (row == null) {
+                                row = BY_PHASE_TYPE[fpdu.phase] = new FpduType[256];
+                        }
+                        if (row[fpdu.type] == null) {
+                                row[fpdu.type] = fpdu;
+                        }
+                }
+        }
+
         private final int phase;
         private final int type;
         private final String name;
         private final FpduType expectedAck;
         private final ParameterRequirement[] parameterRequirements;
-        private final Map<Integer, Boolean> parameterRequirementMap = new TreeMap<>();
+        /** Indexed by PI/PGI id: supported by this FPDU, and mandatory */
+        private final boolean[] supportedParameters = new boolean[256];
+        private final boolean[] mandatoryParameters = new boolean[256];
 
         FpduType(int phase, int type, String name, ParameterRequirement... parameterRequirements) {
                 this(phase, type, name, null, parameterRequirements);
@@ -249,18 +263,23 @@ public enum FpduType {
                 this.expectedAck = expectedAck;
                 this.parameterRequirements = parameterRequirements != null ? parameterRequirements
                                 : new ParameterRequirement[0];
-                for (ParameterRequirement req : parameterRequirements) {
-                        parameterRequirementMap.put(req.getParameter().getId(), req.isMandatory());
+                for (ParameterRequirement req : this.parameterRequirements) {
+                        putRequirement(req);
                         if (req.getParameter() instanceof ParameterGroupIdentifier) {
                                 for (ParameterRequirement pgiReq : ((ParameterGroupIdentifier) req.getParameter())
                                                 .getContainedPIs()) {
-                                        parameterRequirementMap.put(pgiReq.getParameter().getId(),
-                                                        pgiReq.isMandatory());
+                                        putRequirement(pgiReq);
                                 }
                         }
                 }
         }
 
+        private void putRequirement(ParameterRequirement req) {
+                int id = req.getParameter().getId();
+                supportedParameters[id] = true;
+                mandatoryParameters[id] = req.isMandatory();
+        }
+
         public int getPhase() {
                 return phase;
         }
@@ -274,12 +293,19 @@ public enum FpduType {
         }
 
         public static FpduType from(int phase, int type) {
-                for (FpduType fpdu : values()) {
-                        if (fpdu.phase == phase && fpdu.type == type) {
-                                return fpdu;
-                        }
+                if ((phase | type) >>> 8 != 0) {
+                        return null;
                 }
-                return null;
+                FpduType[] row = BY_PHASE_TYPE[phase];
+                return row != null ? row[type] : null;
+        }
+
+        /**
+         * Check if this FPDU carries file data (DTF, DTFDA, DTFMA, DTFFA)
+         * rather than parameters
+         */
+        public boolean isDataTransfer() {
+                return phase == 0x00;
         }
 
         public boolean isSessionLevel() {
@@ -326,13 +352,15 @@ public enum FpduType {
          * Check if a PI is supported by this FPDU
          */
         public boolean supportsParameter(Parameter p) {
-                return parameterRequirementMap.containsKey(p.getId());
+                int id = p.getId();
+                return id >= 0 && id < 256 && supportedParameters[id];
         }
 
         /**
          * Check if a PI is mandatory for this FPDU
          */
         public boolean requiresParameter(Parameter p) {
-                return parameterRequirementMap.getOrDefault(p.getId(), false);
+                int id = p.getId();
+                return id >= 0 && id < 256 && mandatoryParameters[id];
         }
 }
@@ -30,6 +30,17 @@ public enum ParameterGroupIdentifier implements Parameter {
             new ParameterRequirement(ParameterIdentifier.PI_51_DATE_CREATION, true),
             new ParameterRequirement(ParameterIdentifier.PI_52_DATE_EXTRACTION, false));
 
+    /** Lookup by wire id */
+    private static final ParameterGroupIdentifier[] BY_ID = new ParameterGroupIdentifier[256];
+
+    static {
+        for (ParameterGroupIdentifier pgi : values()) {
+            if (BY_ID[pgi.id] == null) {
+                BY_ID[pgi.id] = pgi;
+            }
+        }
+    }
+
     private final int id;
     private final String name;
     private final ParameterRequirement[] containedPIs;
@@ -62,11 +73,6 @@ public enum ParameterGroupIdentifier implements Parameter {
     }
 
     public static ParameterGroupIdentifier fromId(int id) {
-        for (ParameterGroupIdentifier pgi : values()) {
-            if (pgi.id == id) {
-                return pgi;
-            }
-        }
-        return null;
+        return id >= 0 && id < BY_ID.length ? BY_ID[id] : null;
     }
 }
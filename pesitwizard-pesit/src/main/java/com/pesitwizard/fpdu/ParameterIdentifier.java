@@ -73,6 +73,17 @@ public enum ParameterIdentifier implements Parameter {
     PI_91_MESSAGE(91, ParameterValueType.C, 4096, "Message"),
     PI_99_MESSAGE_LIBRE(99, ParameterValueType.C, 254, "Free Message");
 
+    /** Lookup by wire id */
+    private static final ParameterIdentifier[] BY_ID = new ParameterIdentifier[256];
+
+    static {
+        for (ParameterIdentifier pi : values()) {
+            if (BY_ID[pi.id] == null) {
+                BY_ID[pi.id] = pi;
+            }
+        }
+    }
+
     private final int id;
     private ParameterValueType type;
     private final int length; // -1 = variable length
@@ -86,11 +97,6 @@ public enum ParameterIdentifier implements Parameter {
     }
 
     public static ParameterIdentifier fromId(int id) {
-        for (ParameterIdentifier pi : values()) {
-            if (pi.id == id) {
-                return pi;
-            }
-        }
-        return null;
+        return id >= 0 && id < BY_ID.length ? BY_ID[id] : null;
     }
 }
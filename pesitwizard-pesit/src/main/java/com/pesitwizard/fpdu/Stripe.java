@@ -0,0 +1,136 @@
+package com.pesitwizard.fpdu;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * One byte range of a striped transfer: a pesitwizard extension that sends a
+ * single file over several concurrent sessions, each one a plain
+ * CREATE/WRITE/DTF transfer of its range.
+ *
+ * Everything is carried in PI 99 (free message), so other PeSIT
+ * implementations never see it:
+ * <ul>
+ * <li>CONNECT asks for striping with a {@link Capabilities} message, a
+ * pesitwizard server answers in ACONNECT with the number of stripes it
+ * accepts;</li>
+ * <li>CREATE carries the stripe descriptor ({@link #encode()}), echoed in
+ * ACK(CREATE) when the server joined the stripe to its target file;</li>
+ * <li>the ACK(DESELECT) of the stripe that completes the file carries the
+ * file checksum ({@link #checksum(String)}).</li>
+ * </ul>
+ *
+ * The checksum of a striped file is computed from one SHA-256 per stripe
+ * ({@link #fileChecksum(List)}), so that each side digests the ranges as
+ * they are sent or written and the assembled file is never read back.
+ *
+ * @param setId    identifier shared by the stripes of one file
+ * @param index    stripe number, from 0
+ * @param count    number of stripes of the file
+ * @param offset   position of the range in the file
+ * @param length   length of the range
+ * @param fileSize size of the whole file
+ */
+public record Stripe(String setId, int index, int count, long offset, long length, long fileSize) {
+
+    private static final String STRIPE_PREFIX = "PWZ-STRIPE:";
+    private static final String CHECKSUM_PREFIX = "PWZ-STRIPES-SHA256:";
+    private static final Pattern SET_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    public Stripe {
+        if (setId == null || !SET_ID.matcher(setId).matches()) {
+            throw new IllegalArgumentException("Invalid stripe set id: " + setId);
+        }
+        if (count < 1 || index < 0 || index >= count || offset < 0 || length < 0
+                || offset + length > fileSize) {
+            throw new IllegalArgumentException("Invalid stripe " + index + "/" + count + " ["
+                    + offset + ", +" + length + ") of " + fileSize + " bytes");
+        }
+    }
+
+    /**
+     * Split a file into {@code count} ranges of equal size, the last one
+     * taking the remainder
+     */
+    public static List<Stripe> split(String setId, long fileSize, int count) {
+        long length = fileSize / count;
+        List<Stripe> stripes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long offset = i * length;
+            stripes.add(new Stripe(setId, i, count, offset, i == count - 1 ? fileSize - offset : length, fileSize));
+        }
+        return stripes;
+    }
+
+    /**
+     * PI 99 descriptor of this stripe, sent in CREATE and echoed in
+     * ACK(CREATE)
+     */
+    public String encode() {
+        return STRIPE_PREFIX + setId + ":" + index + ":" + count + ":" + offset + ":" + length + ":" + fileSize;
+    }
+
+    /**
+     * Parse a PI 99 stripe descriptor.
+     *
+     * @return the stripe, or null if the message is not a stripe descriptor
+     * @throws IllegalArgumentException if the descriptor is malformed
+     */
+    public static Stripe parse(String message) {
+        if (message == null || !message.startsWith(STRIPE_PREFIX)) {
+            return null;
+        }
+        String[] fields = message.substring(STRIPE_PREFIX.length()).split(":");
+        if (fields.length != 6) {
+            throw new IllegalArgumentException("Malformed stripe descriptor: " + message);
+        }
+        try {
+            return new Stripe(fields[0], Integer.parseInt(fields[1]), Integer.parseInt(fields[2]),
+                    Long.parseLong(fields[3]), Long.parseLong(fields[4]), Long.parseLong(fields[5]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed stripe descriptor: " + message, e);
+        }
+    }
+
+    /**
+     * Checksum of a striped file: the SHA-256 of the SHA-256 digests of its
+     * stripes, concatenated in stripe order.
+     *
+     * @param stripeChecksums hex SHA-256 of each stripe, in stripe order
+     * @return hex checksum of the file
+     */
+    public static String fileChecksum(List<String> stripeChecksums) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        HexFormat hex = HexFormat.of();
+        for (String stripeChecksum : stripeChecksums) {
+            digest.update(hex.parseHex(stripeChecksum));
+        }
+        return hex.formatHex(digest.digest());
+    }
+
+    /**
+     * PI 99 carrying the {@link #fileChecksum(List) checksum} of the
+     * assembled file
+     */
+    public static String checksum(String fileChecksum) {
+        return CHECKSUM_PREFIX + fileChecksum;
+    }
+
+    /**
+     * File checksum from a PI 99 checksum message, or null
+     */
+    public static String parseChecksum(String message) {
+        return message != null && message.startsWith(CHECKSUM_PREFIX)
+                ? message.substring(CHECKSUM_PREFIX.length())
+                : null;
+    }
+}
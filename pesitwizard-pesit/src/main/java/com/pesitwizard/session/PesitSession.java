@@ -3,6 +3,8 @@ package com.pesitwizard.session;
 import static com.pesitwizard.fpdu.ParameterIdentifier.*;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 import com.pesitwizard.exception.PesitException;
 import com.pesitwizard.fpdu.DiagnosticCode;
@@ -23,6 +25,8 @@ import lombok.extern.slf4j.Slf4j;
 public class PesitSession implements AutoCloseable {
     private TransportChannel channel;
     private boolean strict = false;
+    /** Sync point numbers sent and not yet acknowledged, oldest first */
+    private final Deque<Integer> unacknowledgedSyncPoints = new ArrayDeque<>();
 
     public PesitSession(TransportChannel channel) throws IOException {
         this.channel = channel;
@@ -39,10 +43,7 @@ public class PesitSession implements AutoCloseable {
         this.channel.close();
     }
 
-    private Fpdu checkForAbort(Fpdu context) throws IOException, InterruptedException {
-        // Wait a bit for server to process
-        Thread.sleep(300);
-
+    private Fpdu checkForAbort(Fpdu context) throws IOException {
         byte[] response = channel.receive();
         FpduParser parser = new FpduParser(response);
         Fpdu fpdu = parser.parse();
@@ -130,6 +131,70 @@ public class PesitSession implements AutoCloseable {
         return checkForAbort(fpdu);
     }
 
+    /**
+     * Send a SYN without waiting for its ACK_SYN (pipelined sync points).
+     * Returns immediately unless more than {@code window} sync points would
+     * be unacknowledged, in which case it waits for the oldest ACK_SYNs.
+     * ACK_SYNs that have already arrived are consumed without blocking.
+     *
+     * @param syn    SYN FPDU carrying PI 20
+     * @param window acknowledgment window negotiated in PI 7 (0 = wait for
+     *               every ACK_SYN)
+     */
+    public void sendSyncPoint(Fpdu syn, int window) throws IOException {
+        sendFpdu(syn);
+        ParameterValue pi20 = syn.getParameter(PI_20_NUM_SYNC);
+        unacknowledgedSyncPoints.addLast(pi20 != null ? toInt(pi20.getValue()) : 0);
+
+        while (unacknowledgedSyncPoints.size() > Math.max(window, 0)) {
+            receiveSyncAck(syn);
+        }
+        while (!unacknowledgedSyncPoints.isEmpty() && channel.available() > 0) {
+            receiveSyncAck(syn);
+        }
+    }
+
+    /**
+     * Wait until every sync point sent with
+     * {@link #sendSyncPoint(Fpdu, int)} is acknowledged. Call before DTF.END.
+     */
+    public void awaitSyncPoints() throws IOException {
+        Fpdu syn = new Fpdu(FpduType.SYN);
+        while (!unacknowledgedSyncPoints.isEmpty()) {
+            receiveSyncAck(syn);
+        }
+    }
+
+    /**
+     * Number of sync points sent and not yet acknowledged.
+     */
+    public int getUnacknowledgedSyncPoints() {
+        return unacknowledgedSyncPoints.size();
+    }
+
+    /**
+     * Receive one ACK_SYN. It acknowledges its sync point and all earlier ones.
+     */
+    private void receiveSyncAck(Fpdu syn) throws IOException {
+        Fpdu ack = checkForAbort(syn);
+        ParameterValue pi20 = ack.getParameter(PI_20_NUM_SYNC);
+        int acknowledged = pi20 != null ? toInt(pi20.getValue()) : unacknowledgedSyncPoints.peekFirst();
+        if (!unacknowledgedSyncPoints.contains(acknowledged)) {
+            if (strict) {
+                throw new IOException("ACK_SYN for unknown sync point " + acknowledged
+                        + ", pending " + unacknowledgedSyncPoints);
+            }
+            log.warn("ACK_SYN for unknown sync point {}, pending {}", acknowledged, unacknowledgedSyncPoints);
+            unacknowledgedSyncPoints.pollFirst();
+            return;
+        }
+        while (!unacknowledgedSyncPoints.isEmpty() && unacknowledgedSyncPoints.peekFirst() != acknowledged) {
+            unacknowledgedSyncPoints.pollFirst();
+        }
+        unacknowledgedSyncPoints.pollFirst();
+        log.debug("Sync point {} acknowledged, {} pending", acknowledged, unacknowledgedSyncPoints.size());
+    }
+
     /**
      * Receive a single FPDU from the server
      * Used for receiving DTF data chunks during file reception
@@ -149,6 +214,14 @@ public class PesitSession implements AutoCloseable {
         return channel.receive();
     }
 
+    private static int toInt(byte[] bytes) {
+        int value = 0;
+        for (byte b : bytes) {
+            value = (value << 8) | (b & 0xFF);
+        }
+        return value;
+    }
+
     /**
      * Format diagnostic bytes as hex string for unknown codes
      */
@@ -0,0 +1,104 @@
+package com.pesitwizard.transcoding;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 256-byte translation tables between an EBCDIC code page and ISO-8859-1,
+ * the local single-byte encoding of transcoded files.
+ *
+ * Tables are derived once from the JDK charset and shared: the usual IBM
+ * code pages (037, 297, 500, 1047...) are permutations of Latin-1, so the
+ * round trip is lossless. Characters without a Latin-1 equivalent (e.g. the
+ * euro sign in IBM01147) become SUB (0x1A locally, 0x3F in EBCDIC).
+ */
+public final class CodePage {
+
+    /** Substitute character of ISO-8859-1 / ASCII */
+    static final byte LOCAL_SUB = 0x1A;
+    /** Substitute character of EBCDIC */
+    static final byte REMOTE_SUB = 0x3F;
+
+    private static final Map<String, CodePage> CACHE = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final byte[] toLocal = new byte[256];
+    private final byte[] toRemote = new byte[256];
+
+    private CodePage(String name, Charset charset) {
+        this.name = name;
+        if (!charset.canEncode() || charset.newEncoder().maxBytesPerChar() > 1) {
+            throw new IllegalArgumentException("Code page " + name + " is not a single-byte charset");
+        }
+        Arrays.fill(toRemote, REMOTE_SUB);
+        CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                .replaceWith("\u001A");
+        byte[] all = new byte[256];
+        for (int b = 0; b < 256; b++) {
+            all[b] = (byte) b;
+        }
+        CharBuffer chars;
+        try {
+            chars = decoder.decode(ByteBuffer.wrap(all));
+        } catch (CharacterCodingException e) {
+            throw new IllegalArgumentException("Code page " + name + " is not a single-byte charset", e);
+        }
+        if (chars.length() != 256) {
+            throw new IllegalArgumentException("Code page " + name + " is not a single-byte charset");
+        }
+        boolean[] mapped = new boolean[256];
+        for (int b = 0; b < 256; b++) {
+            char c = chars.get(b);
+            byte local = c <= 0xFF ? (byte) c : LOCAL_SUB;
+            toLocal[b] = local;
+            if (c <= 0xFF && !mapped[c]) {
+                toRemote[c] = (byte) b;
+                mapped[c] = true;
+            }
+        }
+    }
+
+    /**
+     * Translation tables for an EBCDIC charset name, e.g. {@code IBM1047}.
+     *
+     * @throws IllegalArgumentException if the charset is unknown or not
+     *                                  single-byte
+     */
+    public static CodePage of(String name) {
+        return CACHE.computeIfAbsent(name.trim().toUpperCase(Locale.ROOT), key -> {
+            if (!Charset.isSupported(key)) {
+                throw new IllegalArgumentException("Unsupported code page: " + name);
+            }
+            return new CodePage(key, Charset.forName(key));
+        });
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** EBCDIC byte to ISO-8859-1, indexed by the unsigned byte */
+    byte[] toLocal() {
+        return toLocal;
+    }
+
+    /** ISO-8859-1 byte to EBCDIC, indexed by the unsigned byte */
+    byte[] toRemote() {
+        return toRemote;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,22 @@
+package com.pesitwizard.transcoding;
+
+/**
+ * Line terminator written after each record of a transcoded file.
+ */
+public enum LineEnding {
+
+    /** Records are written back to back */
+    NONE(new byte[0]),
+    LF(new byte[] { '\n' }),
+    CRLF(new byte[] { '\r', '\n' });
+
+    private final byte[] bytes;
+
+    LineEnding(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    byte[] bytes() {
+        return bytes;
+    }
+}
@@ -0,0 +1,214 @@
+package com.pesitwizard.transcoding;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Translates DTF payloads between EBCDIC and ISO-8859-1 (PI 16 = EBCDIC)
+ * with a {@link CodePage} table, in place.
+ *
+ * When writing a received file, a line ending can be added after each
+ * record: at the end of each article, and for fixed-length records (PI 31)
+ * every PI 32 bytes, so that several records carried by one DTF still land
+ * on separate lines.
+ *
+ * Conversely, when sending a file with a line ending, {@link #readRecord}
+ * cuts it into records on that line ending, one per article: fixed-length
+ * records are padded with spaces to PI 32 bytes, and lines longer than a
+ * record continue in the next one.
+ *
+ * Not thread-safe; use one instance per transfer.
+ */
+public class RecordTranscoder {
+
+    /** Local bytes read ahead by {@link #readRecord} */
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final byte[] table;
+    private final byte[] lineEnd;
+    private final int recordLength;
+    private final boolean fixed;
+    private final boolean readsRecords;
+    private int recordPosition;
+    private byte[] input;
+    private int inputPosition;
+    private int inputLimit;
+    /** The last record read was cut at its maximum length, inside a line */
+    private boolean lineCut;
+
+    private RecordTranscoder(byte[] table, LineEnding lineEnding, int recordLength, boolean fixed,
+            boolean readsRecords) {
+        this.table = table;
+        this.lineEnd = lineEnding.bytes();
+        this.recordLength = recordLength;
+        this.fixed = fixed;
+        this.readsRecords = readsRecords && lineEnd.length > 0;
+    }
+
+    /**
+     * Transcoder for received data (EBCDIC to local).
+     *
+     * @param recordLength fixed record length (PI 32), 0 for variable records
+     */
+    public static RecordTranscoder toLocal(CodePage codePage, LineEnding lineEnding, int recordLength) {
+        return new RecordTranscoder(codePage.toLocal(), lineEnding, Math.max(recordLength, 0), recordLength > 0,
+                false);
+    }
+
+    /**
+     * Transcoder for sent data (local to EBCDIC), translating the file as is.
+     */
+    public static RecordTranscoder toRemote(CodePage codePage) {
+        return toRemote(codePage, LineEnding.NONE, 0, false);
+    }
+
+    /**
+     * Transcoder for sent data (local to EBCDIC). With a line ending, the
+     * file is cut into records on it by {@link #readRecord}.
+     *
+     * @param recordLength record length (PI 32): length of fixed records,
+     *                     maximum length of variable ones, 0 for no limit
+     *                     but the article size
+     * @param fixed        fixed-length records (PI 31)
+     */
+    public static RecordTranscoder toRemote(CodePage codePage, LineEnding lineEnding, int recordLength,
+            boolean fixed) {
+        return new RecordTranscoder(codePage.toRemote(), lineEnding, Math.max(recordLength, 0),
+                fixed && recordLength > 0, true);
+    }
+
+    /**
+     * True when sent data is read record by record with {@link #readRecord}
+     * rather than translated chunk by chunk.
+     */
+    public boolean readsRecords() {
+        return readsRecords;
+    }
+
+    /**
+     * Read the next record of a local file from {@code in}, up to the line
+     * ending (excluded), and translate it into {@code record}. A line longer
+     * than a record continues in the next one; a fixed-length record is
+     * padded with spaces. Data after the last line ending is a last record.
+     *
+     * @param in     local data, read sequentially; bytes after the record
+     *               are read ahead and kept for the next call
+     * @param record receives the record, at least PI 32 bytes for fixed
+     *               records; for variable records its length bounds theirs
+     * @return record length, -1 at end of data
+     */
+    public int readRecord(InputStream in, byte[] record) throws IOException {
+        int max = recordLength > 0 ? Math.min(recordLength, record.length) : record.length;
+        if (fixed && max < recordLength) {
+            throw new IllegalArgumentException("Record length " + recordLength + " exceeds " + record.length);
+        }
+        if (input == null) {
+            input = new byte[READ_BUFFER_SIZE];
+        }
+        byte last = lineEnd[lineEnd.length - 1];
+        boolean crlf = lineEnd.length == 2;
+        int n = 0;
+        while (true) {
+            if (inputPosition == inputLimit) {
+                inputPosition = 0;
+                inputLimit = Math.max(in.read(input), 0);
+                if (inputLimit == 0) {
+                    lineCut = false;
+                    return n > 0 ? endRecord(record, n) : -1;
+                }
+            }
+            byte b = input[inputPosition];
+            if (b == last) {
+                inputPosition++;
+                if (crlf && n > 0 && record[n - 1] == lineEnd[0]) {
+                    n--;
+                }
+                if (n == 0 && lineCut) {
+                    // The line ending of a line that filled the previous record
+                    lineCut = false;
+                    continue;
+                }
+                lineCut = false;
+                return endRecord(record, n);
+            }
+            if (n == max) {
+                lineCut = true;
+                return endRecord(record, n);
+            }
+            record[n++] = b;
+            inputPosition++;
+        }
+    }
+
+    private int endRecord(byte[] record, int length) {
+        if (fixed) {
+            Arrays.fill(record, length, recordLength, (byte) ' ');
+            length = recordLength;
+        }
+        transcode(record, 0, length);
+        return length;
+    }
+
+    /**
+     * Translate {@code b[offset, offset + length)} in place.
+     */
+    public void transcode(byte[] b, int offset, int length) {
+        byte[] t = table;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            b[i] = t[b[i] & 0xFF];
+        }
+    }
+
+    /**
+     * Translate the remaining bytes of {@code buffer} in place, without
+     * moving its position.
+     */
+    public void transcode(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            transcode(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            return;
+        }
+        byte[] t = table;
+        for (int i = buffer.position(), end = buffer.limit(); i < end; i++) {
+            buffer.put(i, t[buffer.get(i) & 0xFF]);
+        }
+    }
+
+    /**
+     * Translate a piece of an article in place and write it to {@code out},
+     * with a line ending after each complete fixed-length record.
+     */
+    public void write(byte[] b, int offset, int length, OutputStream out) throws IOException {
+        transcode(b, offset, length);
+        if (lineEnd.length == 0 || recordLength == 0) {
+            out.write(b, offset, length);
+            recordPosition += length;
+            return;
+        }
+        while (length > 0) {
+            int n = Math.min(length, recordLength - recordPosition);
+            out.write(b, offset, n);
+            offset += n;
+            length -= n;
+            recordPosition += n;
+            if (recordPosition == recordLength) {
+                out.write(lineEnd);
+                recordPosition = 0;
+            }
+        }
+    }
+
+    /**
+     * Mark the end of an article: a record still open gets its line ending,
+     * as does an empty variable-length record.
+     */
+    public void endArticle(OutputStream out) throws IOException {
+        if ((recordPosition > 0 || !fixed) && lineEnd.length > 0) {
+            out.write(lineEnd);
+        }
+        recordPosition = 0;
+    }
+}
@@ -1,21 +1,44 @@
 package com.pesitwizard.transport;
 
+import java.io.BufferedOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.pesitwizard.fpdu.FpduIO;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Abstract base class for socket-based transport channels.
  * Provides common functionality for TCP and TLS transports.
+ *
+ * DTFs are coalesced on output (PeSIT concatenated FPDUs): they are kept in
+ * a write buffer and go out together with the next FPDU that expects an
+ * answer (SYN, DTF.END...), when the buffer is full, before blocking in
+ * {@link #receive()}, or at the latest after a short linger delay. Every
+ * other FPDU is flushed immediately. Consecutive DTFs thus share TCP segments
+ * and TLS records instead of costing one write each.
  */
 @Slf4j
 public abstract class AbstractSocketTransportChannel implements TransportChannel {
 
     protected static final int DEFAULT_TIMEOUT = 60000; // 60 seconds
+    protected static final int DEFAULT_WRITE_BUFFER_SIZE = 64 * 1024;
+    protected static final int DEFAULT_WRITE_LINGER_MS = 5;
+
+    /** Flushes DTFs left in a write buffer once their linger delay expired */
+    private static final ScheduledExecutorService LINGER_TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "pesit-write-linger");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     protected final String host;
     protected final int port;
@@ -24,6 +47,15 @@ public abstract class AbstractSocketTransportChannel implements TransportChannel
     protected DataOutputStream outputStream;
     protected int receiveTimeout = DEFAULT_TIMEOUT;
 
+    private final Object writeLock = new Object();
+    private int writeBufferSize = DEFAULT_WRITE_BUFFER_SIZE;
+    private int writeLingerMs = DEFAULT_WRITE_LINGER_MS;
+    /** DTFs written but not flushed yet */
+    private boolean writePending;
+    private boolean lingerScheduled;
+    /** Failure of a flush run by the linger timer, reported by the next send */
+    private IOException lingerFailure;
+
     protected AbstractSocketTransportChannel(String host, int port) {
         this.host = host;
         this.port = port;
@@ -49,7 +81,8 @@ public abstract class AbstractSocketTransportChannel implements TransportChannel
         socket.setTcpNoDelay(true);
 
         inputStream = new DataInputStream(socket.getInputStream());
-        outputStream = new DataOutputStream(socket.getOutputStream());
+        OutputStream out = socket.getOutputStream();
+        outputStream = new DataOutputStream(writeBufferSize > 0 ? new BufferedOutputStream(out, writeBufferSize) : out);
 
         log.info("Connected to {}:{}", host, port);
     }
@@ -60,19 +93,78 @@ public abstract class AbstractSocketTransportChannel implements TransportChannel
             throw new IOException("Not connected");
         }
 
-        // Write 2-byte length prefix (PeSIT standard) followed by data
-        outputStream.writeShort(data.length);
-        outputStream.write(data);
-        outputStream.flush();
+        synchronized (writeLock) {
+            if (lingerFailure != null) {
+                IOException failure = lingerFailure;
+                lingerFailure = null;
+                throw failure;
+            }
+            // Write 2-byte length prefix (PeSIT standard) followed by data
+            outputStream.writeShort(data.length);
+            outputStream.write(data);
+
+            if (writeBufferSize > 0 && FpduIO.isDtf(data)) {
+                writePending = true;
+                if (!lingerScheduled && writeLingerMs > 0) {
+                    lingerScheduled = true;
+                    LINGER_TIMER.schedule(this::lingerFlush, writeLingerMs, TimeUnit.MILLISECONDS);
+                }
+            } else {
+                flushLocked();
+            }
+        }
 
         log.debug("Sent {} bytes to {}:{}", data.length, host, port);
     }
 
+    @Override
+    public void flush() throws IOException {
+        synchronized (writeLock) {
+            if (writePending) {
+                flushLocked();
+            }
+        }
+    }
+
+    private void flushLocked() throws IOException {
+        writePending = false;
+        outputStream.flush();
+    }
+
+    private void lingerFlush() {
+        synchronized (writeLock) {
+            lingerScheduled = false;
+            if (!writePending || outputStream == null) {
+                return;
+            }
+            try {
+                flushLocked();
+            } catch (IOException e) {
+                lingerFailure = e;
+            }
+        }
+    }
+
+    /**
+     * Configure DTF coalescing on output.
+     *
+     * @param bufferSize write buffer size in bytes, 0 to send every FPDU on
+     *                   its own (applies from the next connect)
+     * @param lingerMs   longest time a DTF waits in the buffer, 0 to wait
+     *                   for the next flushing FPDU or receive
+     */
+    public void setWriteCoalescing(int bufferSize, int lingerMs) {
+        this.writeBufferSize = Math.max(bufferSize, 0);
+        this.writeLingerMs = Math.max(lingerMs, 0);
+    }
+
     @Override
     public byte[] receive() throws IOException {
         if (!isConnected()) {
             throw new IOException("Not connected");
         }
+        // The peer cannot answer FPDUs still sitting in the write buffer
+        flush();
 
         try {
             // Read 2-byte length prefix (PeSIT standard)
@@ -94,18 +186,55 @@ public abstract class AbstractSocketTransportChannel implements TransportChannel
         }
     }
 
+    @Override
+    public int available() throws IOException {
+        return isConnected() ? inputStream.available() : 0;
+    }
+
     @Override
     public boolean isConnected() {
         return socket != null && socket.isConnected() && !socket.isClosed();
     }
 
+    /**
+     * Probe an idle connection with a 1 ms read: a peer that closed the
+     * connection (or sent an unsolicited FPDU such as ABORT) makes it unusable.
+     */
+    @Override
+    public boolean isAlive() {
+        if (!isConnected() || socket.isInputShutdown() || socket.isOutputShutdown()) {
+            return false;
+        }
+        try {
+            if (inputStream.available() > 0) {
+                return false;
+            }
+            socket.setSoTimeout(1);
+            try {
+                // Data or end of stream: either way the session is not idle any more
+                inputStream.read();
+                return false;
+            } catch (SocketTimeoutException e) {
+                return true;
+            } finally {
+                socket.setSoTimeout(receiveTimeout);
+            }
+        } catch (IOException e) {
+            log.debug("Connection to {}:{} is no longer usable: {}", host, port, e.getMessage());
+            return false;
+        }
+    }
+
     @Override
     public void close() throws IOException {
         log.debug("Closing connection to {}:{}", host, port);
 
         try {
-            if (outputStream != null) {
-                outputStream.close();
+            synchronized (writeLock) {
+                writePending = false;
+                if (outputStream != null) {
+                    outputStream.close();
+                }
             }
             if (inputStream != null) {
                 inputStream.close();
@@ -49,8 +49,26 @@ public class TlsTransportChannel extends AbstractSocketTransportChannel {
     public TlsTransportChannel(String host, int port,
             byte[] truststoreData, String truststorePassword,
             byte[] keystoreData, String keystorePassword) {
+        this(host, port, createSslContext(truststoreData, truststorePassword, keystoreData, keystorePassword));
+    }
+
+    /**
+     * Create TLS channel with a prepared SSL context. Sharing one context
+     * across connections to a partner shares its client session cache, so
+     * later handshakes resume the TLS session (session ID, or TLS 1.3 session
+     * ticket) of an earlier connection.
+     */
+    public TlsTransportChannel(String host, int port, SSLContext sslContext) {
         super(host, port);
+        this.sslContext = sslContext;
+    }
 
+    /**
+     * Build an SSL context from a PKCS12 truststore and an optional PKCS12
+     * keystore for mutual TLS
+     */
+    public static SSLContext createSslContext(byte[] truststoreData, String truststorePassword,
+            byte[] keystoreData, String keystorePassword) {
         try {
             // Load truststore
             KeyStore trustStore = KeyStore.getInstance("PKCS12");
@@ -76,10 +94,11 @@ public class TlsTransportChannel extends AbstractSocketTransportChannel {
                 log.info("Mutual TLS enabled with keystore ({} bytes)", keystoreData.length);
             }
 
-            this.sslContext = SSLContext.getInstance("TLS");
-            this.sslContext.init(keyManagers, tmf.getTrustManagers(), null);
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(keyManagers, tmf.getTrustManagers(), null);
 
             log.info("TLS context initialized with truststore ({} bytes)", truststoreData.length);
+            return sslContext;
 
         } catch (Exception e) {
             throw new RuntimeException("Failed to initialize SSL context: " + e.getMessage(), e);
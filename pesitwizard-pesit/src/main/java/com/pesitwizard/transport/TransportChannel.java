@@ -18,17 +18,39 @@ public interface TransportChannel {
      */
     void send(byte[] data) throws IOException;
     
+    /**
+     * Send the data buffered by {@link #send(byte[])}, if the transport
+     * coalesces writes
+     */
+    default void flush() throws IOException {
+    }
+    
     /**
      * Receive data from the transport
      * @return received data
      */
     byte[] receive() throws IOException;
     
+    /**
+     * Number of bytes that can be received without blocking (0 if unknown)
+     */
+    default int available() throws IOException {
+        return 0;
+    }
+    
     /**
      * Check if transport is connected
      */
     boolean isConnected();
     
+    /**
+     * Check that an idle connection can still be used: connected, nothing
+     * unread and no end of stream from the peer
+     */
+    default boolean isAlive() {
+        return isConnected();
+    }
+    
     /**
      * Close the transport connection
      */
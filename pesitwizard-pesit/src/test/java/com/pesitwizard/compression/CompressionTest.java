@@ -0,0 +1,205 @@
+package com.pesitwizard.compression;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for ArticleCompressor, ArticleDecompressor and CompressionType
+ */
+public class CompressionTest {
+
+    private static final CompressionType[] TYPES = {
+            CompressionType.HORIZONTAL, CompressionType.VERTICAL, CompressionType.BOTH };
+
+    /** Fixed-width records: a changing key, a stable body and blank padding */
+    private static List<byte[]> records(int count) {
+        List<byte[]> records = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String record = String.format("%08d;CUSTOMER-%04d;PARIS;%-40s;EUR", i, i / 10, "");
+            records.add(record.getBytes());
+        }
+        return records;
+    }
+
+    private static byte[] compress(ArticleCompressor compressor, byte[] article) {
+        byte[] out = new byte[ArticleCompressor.maxCompressedLength(article.length)];
+        int n = compressor.compress(article, 0, article.length, out, 0);
+        byte[] result = new byte[n];
+        System.arraycopy(out, 0, result, 0, n);
+        return result;
+    }
+
+    @Test
+    @DisplayName("Articles round-trip and records shrink")
+    void testRoundTrip() throws IOException {
+        for (CompressionType type : TYPES) {
+            assertRoundTrip(type);
+        }
+    }
+
+    private static void assertRoundTrip(CompressionType type) throws IOException {
+        ArticleCompressor compressor = new ArticleCompressor(type);
+        ArticleDecompressor decompressor = new ArticleDecompressor(type);
+
+        for (byte[] record : records(100)) {
+            ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+            decompressor.decode(ByteBuffer.wrap(compress(compressor, record)), decoded);
+            decompressor.endArticle();
+            assertArrayEquals(record, decoded.toByteArray());
+        }
+        assertTrue(compressor.getBytesOut() < compressor.getBytesIn() * 3 / 4,
+                type + " ratio: " + compressor.getBytesOut() + "/" + compressor.getBytesIn());
+        assertEquals(compressor.getBytesOut(), decompressor.getBytesIn());
+        assertEquals(compressor.getBytesIn(), decompressor.getBytesOut());
+    }
+
+    @Test
+    @DisplayName("Articles split at every byte decode like whole ones")
+    void testSplitArticle() throws IOException {
+        CompressionType type = CompressionType.BOTH;
+        ArticleCompressor compressor = new ArticleCompressor(type);
+        ArticleDecompressor decompressor = new ArticleDecompressor(type);
+
+        for (byte[] record : records(5)) {
+            byte[] compressed = compress(compressor, record);
+            ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+            for (byte b : compressed) {
+                decompressor.decode(ByteBuffer.wrap(new byte[] { b }), decoded);
+            }
+            decompressor.endArticle();
+            assertArrayEquals(record, decoded.toByteArray());
+        }
+    }
+
+    @Test
+    @DisplayName("Incompressible data stays within the worst-case bound")
+    void testWorstCase() throws IOException {
+        byte[] article = new byte[ArticleCompressor.maxArticleLength(4096)];
+        new Random(42).nextBytes(article);
+        assertTrue(ArticleCompressor.maxCompressedLength(article.length) <= 4096);
+
+        for (CompressionType type : TYPES) {
+            byte[] compressed = compress(new ArticleCompressor(type), article);
+
+            assertTrue(compressed.length <= 4096);
+            ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+            new ArticleDecompressor(type).decode(ByteBuffer.wrap(compressed), decoded);
+            assertArrayEquals(article, decoded.toByteArray());
+        }
+    }
+
+    @Test
+    @DisplayName("Long runs span several strings")
+    void testLongRun() throws IOException {
+        byte[] article = new byte[1000];
+        ArticleCompressor compressor = new ArticleCompressor(CompressionType.HORIZONTAL);
+
+        byte[] compressed = compress(compressor, article);
+
+        assertEquals(2 * ((1000 + 62) / 63), compressed.length);
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        new ArticleDecompressor(CompressionType.HORIZONTAL).decode(ByteBuffer.wrap(compressed), decoded);
+        assertArrayEquals(article, decoded.toByteArray());
+    }
+
+    @Test
+    @DisplayName("Truncated or invalid data is rejected")
+    void testInvalidData() {
+        ArticleDecompressor horizontal = new ArticleDecompressor(CompressionType.HORIZONTAL);
+        assertThrows(IOException.class, () -> {
+            horizontal.decode(ByteBuffer.wrap(new byte[] { 0x05, 'a', 'b' }), new ByteArrayOutputStream());
+            horizontal.endArticle();
+        });
+        assertThrows(IOException.class,
+                () -> horizontal.decode(ByteBuffer.wrap(new byte[] { (byte) 0xC3 }), new ByteArrayOutputStream()));
+        assertThrows(IOException.class,
+                () -> horizontal.decode(ByteBuffer.wrap(new byte[] { 0x40 }), new ByteArrayOutputStream()));
+
+        ArticleDecompressor vertical = new ArticleDecompressor(CompressionType.VERTICAL);
+        assertThrows(IOException.class,
+                () -> vertical.decode(ByteBuffer.wrap(new byte[] { (byte) 0x82 }), new ByteArrayOutputStream()));
+        assertThrows(IOException.class,
+                () -> vertical.decode(ByteBuffer.wrap(new byte[] { (byte) 0xC2 }), new ByteArrayOutputStream()));
+    }
+
+    @Test
+    @DisplayName("Vertical compression matches the PeSIT E Annexe A example")
+    void testSpecVerticalExample() throws IOException {
+        assertSpecExample(CompressionType.VERTICAL,
+                new byte[] { 1, 2, 3, 2, 3, 5, 6, 7 }, new byte[] { 8, 1, 2, 3, 2, 3, 5, 6, 7 },
+                new byte[] { 5, 6, 3, 2, 3, 5, 8, 9 }, new byte[] { 2, 5, 6, (byte) 0xC4, 2, 8, 9 });
+    }
+
+    @Test
+    @DisplayName("Combined compression matches the PeSIT E Annexe A example")
+    void testSpecCombinedExample() throws IOException {
+        assertSpecExample(CompressionType.BOTH,
+                new byte[] { 1, 1, 1, 1, 2, 3 }, new byte[] { (byte) 0x84, 1, 2, 2, 3 },
+                new byte[] { 1, 1, 1, 1, 2, 4 }, new byte[] { (byte) 0xC5, 1, 4 });
+    }
+
+    private static void assertSpecExample(CompressionType type, byte[] first, byte[] firstCompressed,
+            byte[] second, byte[] secondCompressed) throws IOException {
+        ArticleCompressor compressor = new ArticleCompressor(type);
+        assertArrayEquals(firstCompressed, compress(compressor, first));
+        assertArrayEquals(secondCompressed, compress(compressor, second));
+
+        ArticleDecompressor decompressor = new ArticleDecompressor(type);
+        for (byte[][] article : new byte[][][] { { firstCompressed, first }, { secondCompressed, second } }) {
+            ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+            decompressor.decode(ByteBuffer.wrap(article[0]), decoded);
+            decompressor.endArticle();
+            assertArrayEquals(article[1], decoded.toByteArray());
+        }
+    }
+
+    @Test
+    @DisplayName("A shorter previous article is padded with 0x40")
+    void testVerticalPadding() throws IOException {
+        ArticleCompressor compressor = new ArticleCompressor(CompressionType.VERTICAL);
+        compress(compressor, new byte[] { 'A', 'B' });
+        byte[] compressed = compress(compressor, new byte[] { 'A', 'B', 0x40, 0x40 });
+        assertArrayEquals(new byte[] { (byte) 0xC4 }, compressed);
+
+        ArticleDecompressor decompressor = new ArticleDecompressor(CompressionType.VERTICAL);
+        decompressor.decode(ByteBuffer.wrap(new byte[] { 2, 'A', 'B' }), new ByteArrayOutputStream());
+        decompressor.endArticle();
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        decompressor.decode(ByteBuffer.wrap(compressed), decoded);
+        assertArrayEquals(new byte[] { 'A', 'B', 0x40, 0x40 }, decoded.toByteArray());
+    }
+
+    @Test
+    @DisplayName("The first article after a reset is not compressed vertically")
+    void testNoVerticalAfterReset() {
+        ArticleCompressor compressor = new ArticleCompressor(CompressionType.VERTICAL);
+        byte[] article = { 1, 2, 3, 4 };
+        compress(compressor, article);
+        assertArrayEquals(new byte[] { (byte) 0xC4 }, compress(compressor, article));
+
+        compressor.reset();
+        assertArrayEquals(new byte[] { 4, 1, 2, 3, 4 }, compress(compressor, article));
+    }
+
+    @Test
+    @DisplayName("PI 21 values encode, decode and negotiate")
+    void testPi21() {
+        assertArrayEquals(new byte[] { 1, 2 }, CompressionType.VERTICAL.toPi21());
+        assertArrayEquals(new byte[] { 0, 0 }, CompressionType.NONE.toPi21());
+        assertEquals(CompressionType.BOTH, CompressionType.fromPi21(new byte[] { 1, 3 }));
+        assertEquals(CompressionType.NONE, CompressionType.fromPi21(new byte[] { 0, 3 }));
+        assertEquals(CompressionType.HORIZONTAL, CompressionType.fromPi21(new byte[] { 1 }));
+        assertEquals(CompressionType.NONE, CompressionType.fromPi21(null));
+        assertEquals(CompressionType.VERTICAL, CompressionType.BOTH.negotiate(CompressionType.VERTICAL));
+        assertEquals(CompressionType.NONE, CompressionType.HORIZONTAL.negotiate(CompressionType.VERTICAL));
+    }
+}
@@ -0,0 +1,26 @@
+package com.pesitwizard.fpdu;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Capabilities Tests")
+class CapabilitiesTest {
+
+    @Test
+    @DisplayName("capability messages should round-trip")
+    void capabilitiesShouldRoundTrip() {
+        assertEquals(new Capabilities(8), Capabilities.parse(new Capabilities(8).encode()));
+        assertEquals(new Capabilities(4), Capabilities.parse("PWZ-CAPS:STRIPES=4,FUTURE"));
+        assertTrue(new Capabilities(1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("other free messages should announce nothing")
+    void otherMessagesShouldAnnounceNothing() {
+        assertSame(Capabilities.NONE, Capabilities.parse(null));
+        assertSame(Capabilities.NONE, Capabilities.parse("Hello from a partner"));
+        assertEquals(0, Capabilities.parse("PWZ-CAPS:STRIPES=x").stripes());
+    }
+}
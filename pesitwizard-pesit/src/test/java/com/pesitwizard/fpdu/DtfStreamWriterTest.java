@@ -0,0 +1,259 @@
+package com.pesitwizard.fpdu;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.pesitwizard.compression.ArticleCompressor;
+import com.pesitwizard.compression.ArticleDecompressor;
+import com.pesitwizard.compression.CompressionType;
+import com.pesitwizard.transcoding.CodePage;
+import com.pesitwizard.transcoding.LineEnding;
+import com.pesitwizard.transcoding.RecordTranscoder;
+
+/**
+ * Unit tests for DtfStreamWriter
+ */
+public class DtfStreamWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path createFile(int size) throws IOException {
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) (i % 251);
+        }
+        Path file = tempDir.resolve("data.bin");
+        Files.write(file, content);
+        return file;
+    }
+
+    /** Same bytes as the per-chunk FpduIO.writeFpduWithData loop */
+    private static byte[] expectedStream(byte[] content, int from, int chunkSize, int idDst) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (int pos = from; pos < content.length; pos += chunkSize) {
+            byte[] chunk = Arrays.copyOfRange(content, pos, Math.min(content.length, pos + chunkSize));
+            FpduIO.writeFpduWithData(out, FpduType.DTF, idDst, 0, chunk);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    @DisplayName("Channel mode produces the same wire bytes as per-chunk writes")
+    void testChannelMode() throws IOException {
+        Path file = createFile(10_000);
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        DtfStreamWriter writer = new DtfStreamWriter(4096, 7);
+
+        try (FileChannel channel = FileChannel.open(file)) {
+            assertEquals(10_000, writer.transfer(channel, 0, Channels.newChannel(sink)));
+        }
+
+        assertArrayEquals(expectedStream(Files.readAllBytes(file), 0, 4096, 7), sink.toByteArray());
+        assertEquals(3, writer.getFpduCount());
+        assertEquals(10_000, writer.getBytesWritten());
+    }
+
+    @Test
+    @DisplayName("Stream mode produces the same wire bytes as per-chunk writes")
+    void testStreamMode() throws IOException {
+        Path file = createFile(10_000);
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        DtfStreamWriter writer = new DtfStreamWriter(4096, 7);
+
+        try (FileChannel channel = FileChannel.open(file)) {
+            assertEquals(10_000, writer.transfer(channel, 0, sink));
+        }
+
+        assertArrayEquals(expectedStream(Files.readAllBytes(file), 0, 4096, 7), sink.toByteArray());
+        assertEquals(3, writer.getFpduCount());
+    }
+
+    @Test
+    @DisplayName("Stream mode spans several write batches")
+    void testStreamModeSeveralBatches() throws IOException {
+        Path file = createFile(3 * DtfStreamWriter.STREAM_BATCH_SIZE + 123);
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+
+        try (FileChannel channel = FileChannel.open(file)) {
+            new DtfStreamWriter(4096, 2).transfer(channel, 0, sink);
+        }
+
+        assertArrayEquals(expectedStream(Files.readAllBytes(file), 0, 4096, 2), sink.toByteArray());
+    }
+
+    @Test
+    @DisplayName("Sequential source produces the same wire bytes as a file")
+    void testSequentialSource() throws IOException {
+        Path file = createFile(2 * DtfStreamWriter.STREAM_BATCH_SIZE + 777);
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        DtfStreamWriter writer = new DtfStreamWriter(4096, 3);
+
+        try (var in = Channels.newChannel(Files.newInputStream(file))) {
+            assertEquals(Files.size(file), writer.transfer(in, sink));
+        }
+
+        assertArrayEquals(expectedStream(Files.readAllBytes(file), 0, 4096, 3), sink.toByteArray());
+    }
+
+    @Test
+    @DisplayName("Restart position is honoured without reading the skipped bytes")
+    void testRestartPosition() throws IOException {
+        Path file = createFile(5_000);
+        ByteArrayOutputStream channelSink = new ByteArrayOutputStream();
+        ByteArrayOutputStream streamSink = new ByteArrayOutputStream();
+
+        try (FileChannel channel = FileChannel.open(file)) {
+            assertEquals(1_000, new DtfStreamWriter(512, 1).transfer(channel, 4_000, Channels.newChannel(channelSink)));
+            assertEquals(1_000, new DtfStreamWriter(512, 1).transfer(channel, 4_000, streamSink));
+        }
+
+        byte[] expected = expectedStream(Files.readAllBytes(file), 4_000, 512, 1);
+        assertArrayEquals(expected, channelSink.toByteArray());
+        assertArrayEquals(expected, streamSink.toByteArray());
+    }
+
+    @Test
+    @DisplayName("Sent DTFs are readable by FpduCodec")
+    void testReadBack() throws IOException {
+        Path file = createFile(3_000);
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        try (FileChannel channel = FileChannel.open(file)) {
+            new DtfStreamWriter(1024, 3).transfer(channel, 0, sink);
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(sink.toByteArray()));
+        FpduCodec codec = new FpduCodec(2048);
+        int total = 0;
+        for (int i = 0; i < 3; i++) {
+            FpduFrame frame = codec.read(in);
+            assertTrue(frame.isDtf());
+            assertEquals(3, frame.getIdDst());
+            total += frame.payloadLength();
+        }
+        assertEquals(3_000, total);
+        assertEquals(0, in.available());
+    }
+
+    @Test
+    @DisplayName("Digest covers the data sent in both modes")
+    void testDigest() throws IOException, NoSuchAlgorithmException {
+        Path file = createFile(50_000);
+        byte[] content = Files.readAllBytes(file);
+        byte[] expected = MessageDigest.getInstance("SHA-256").digest(Arrays.copyOfRange(content, 1_000, 50_000));
+
+        MessageDigest channelDigest = MessageDigest.getInstance("SHA-256");
+        MessageDigest streamDigest = MessageDigest.getInstance("SHA-256");
+        try (FileChannel channel = FileChannel.open(file)) {
+            new DtfStreamWriter(4096, 1).digest(channelDigest)
+                    .transfer(channel, 1_000, Channels.newChannel(new ByteArrayOutputStream()));
+            new DtfStreamWriter(4096, 1).digest(streamDigest)
+                    .transfer(channel, 1_000, new ByteArrayOutputStream());
+        }
+
+        assertArrayEquals(expected, channelDigest.digest());
+        assertArrayEquals(expected, streamDigest.digest());
+    }
+
+    @Test
+    @DisplayName("Compressed DTFs fit the chunk size and decode to the file")
+    void testCompressedStreamMode() throws IOException, NoSuchAlgorithmException {
+        byte[] content = new byte[20_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i % 500 < 400 ? ' ' : i % 251);
+        }
+        Path file = tempDir.resolve("records.txt");
+        Files.write(file, content);
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        ArticleCompressor compressor = new ArticleCompressor(CompressionType.HORIZONTAL);
+        DtfStreamWriter writer = new DtfStreamWriter(1024, 3).compressor(compressor).digest(digest);
+
+        try (FileChannel channel = FileChannel.open(file)) {
+            assertEquals(20_000, writer.transfer(channel, 0, sink));
+            assertThrows(IllegalStateException.class,
+                    () -> writer.transfer(channel, 0, Channels.newChannel(new ByteArrayOutputStream())));
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(sink.toByteArray()));
+        FpduCodec codec = new FpduCodec(2048);
+        ArticleDecompressor decompressor = new ArticleDecompressor(CompressionType.HORIZONTAL);
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        for (int i = 0; i < writer.getFpduCount(); i++) {
+            FpduFrame frame = codec.read(in);
+            assertTrue(frame.payloadLength() <= 1024);
+            decompressor.decode(frame.payload(), decoded);
+            decompressor.endArticle();
+        }
+        assertEquals(0, in.available());
+        assertArrayEquals(content, decoded.toByteArray());
+        assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(content), digest.digest());
+        assertTrue(compressor.getBytesOut() < content.length / 2);
+    }
+
+    @Test
+    @DisplayName("Transcoded lines are sent one record per DTF")
+    void testRecordStreamMode() throws IOException, NoSuchAlgorithmException {
+        byte[] content = "LINE 1\nLINE 2 IS LONGER\n\nLAST".getBytes(StandardCharsets.ISO_8859_1);
+        Path file = tempDir.resolve("lines.txt");
+        Files.write(file, content);
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        DtfStreamWriter writer = new DtfStreamWriter(1024, 3).digest(digest)
+                .transcoder(RecordTranscoder.toRemote(CodePage.of("IBM1047"), LineEnding.LF, 10, false));
+
+        try (FileChannel channel = FileChannel.open(file)) {
+            assertEquals(content.length, writer.transfer(channel, 0, sink));
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(sink.toByteArray()));
+        FpduCodec codec = new FpduCodec(2048);
+        String[] expected = { "LINE 1", "LINE 2 IS ", "LONGER", "", "LAST" };
+        assertEquals(expected.length, writer.getFpduCount());
+        for (String record : expected) {
+            FpduFrame frame = codec.read(in);
+            byte[] payload = new byte[frame.payloadLength()];
+            frame.payload().get(payload);
+            assertEquals(record, new String(payload, Charset.forName("IBM1047")));
+        }
+        assertEquals(0, in.available());
+        assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(content), digest.digest());
+    }
+
+    @Test
+    @DisplayName("Empty region sends nothing")
+    void testEmptyRegion() throws IOException {
+        Path file = createFile(100);
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        try (FileChannel channel = FileChannel.open(file)) {
+            assertEquals(0, new DtfStreamWriter(64, 1).transfer(channel, 100, Channels.newChannel(sink)));
+        }
+        assertEquals(0, sink.size());
+    }
+
+    @Test
+    @DisplayName("Chunk size must fit in an FPDU")
+    void testInvalidChunkSize() {
+        assertThrows(IllegalArgumentException.class, () -> new DtfStreamWriter(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new DtfStreamWriter(FpduCodec.MAX_FPDU_LENGTH, 1));
+    }
+}
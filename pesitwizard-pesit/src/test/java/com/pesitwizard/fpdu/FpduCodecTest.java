@@ -0,0 +1,152 @@
+package com.pesitwizard.fpdu;
+
+import static com.pesitwizard.fpdu.ParameterIdentifier.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for FpduCodec / FpduFrame zero-copy decoding
+ */
+public class FpduCodecTest {
+
+    private static byte[] frameStream(byte[]... fpdus) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (byte[] fpdu : fpdus) {
+            FpduIO.writeRawFpdu(out, fpdu);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    @DisplayName("DTF payload is exposed as a slice of the reusable buffer")
+    void testDtfPayloadSlice() throws IOException {
+        byte[] dtf = FpduBuilder.buildFpdu(FpduType.DTF, 5, 0, "hello world".getBytes());
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(frameStream(dtf, dtf)));
+        FpduCodec codec = new FpduCodec(4096);
+
+        FpduFrame frame = codec.read(in);
+        assertTrue(frame.isDtf());
+        assertEquals(FpduType.DTF, frame.getFpduType());
+        assertEquals(5, frame.getIdDst());
+        assertEquals(11, frame.payloadLength());
+
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        assertEquals(11, frame.writePayloadTo(Channels.newChannel(sink)));
+        assertEquals("hello world", sink.toString());
+
+        int capacity = codec.capacity();
+        FpduFrame second = codec.read(in);
+        assertSame(frame, second, "frame view should be reused across reads");
+        assertEquals(capacity, codec.capacity(), "buffer should not be reallocated");
+    }
+
+    @Test
+    @DisplayName("PI values are found as slices, including inside PGIs")
+    void testParameterLookup() throws IOException {
+        Fpdu create = new CreateMessageBuilder().filename("FILE.DAT").maxEntitySize(4096).build(1);
+        FpduFrame frame = FpduFrame.of(FpduBuilder.buildFpdu(create));
+
+        ByteBuffer filename = frame.parameter(PI_12_NOM_FICHIER);
+        assertNotNull(filename);
+        byte[] name = new byte[filename.remaining()];
+        filename.get(name);
+        assertEquals("FILE.DAT", new String(name));
+
+        ByteBuffer maxEntity = frame.parameter(PI_25_TAILLE_MAX_ENTITE);
+        assertEquals(4096, maxEntity.getShort() & 0xFFFF);
+        assertNull(frame.parameter(PI_99_MESSAGE_LIBRE));
+    }
+
+    @Test
+    @DisplayName("Long PI values (length > 254) round-trip through the parser")
+    void testLongParameterValue() {
+        byte[] message = new byte[300];
+        java.util.Arrays.fill(message, (byte) 'x');
+        Fpdu msg = new Fpdu(FpduType.ACK_MSG)
+                .withParameter(new ParameterValue(PI_02_DIAG, new byte[] { 0, 0, 0 }))
+                .withParameter(new ParameterValue(PI_91_MESSAGE, message));
+
+        Fpdu parsed = new FpduParser(FpduBuilder.buildFpdu(msg)).parse();
+        assertEquals(300, parsed.getParameter(PI_91_MESSAGE).getValue().length);
+    }
+
+    @Test
+    @DisplayName("Direct buffer codec decodes from a channel and converts to Fpdu")
+    void testDirectBufferFromChannel() throws IOException {
+        byte[] aconnect = new byte[] { 0x00, 11, 0x40, 0x21, 0x01, 0x02, 99, 0x03, 0x01, 0x02, 0x03 };
+        FpduCodec codec = new FpduCodec(8, true);
+
+        FpduFrame frame = codec.read(Channels.newChannel(new ByteArrayInputStream(frameStream(aconnect))));
+        assertTrue(codec.isDirect());
+        Fpdu fpdu = frame.toFpdu();
+        assertEquals(FpduType.ACONNECT, fpdu.getFpduType());
+        assertEquals(1, fpdu.getIdDst());
+        assertEquals(2, fpdu.getIdSrc());
+        assertArrayEquals(new byte[] { 1, 2, 3 }, fpdu.getParameter(PI_99_MESSAGE_LIBRE).getValue());
+    }
+
+    @Test
+    @DisplayName("Multi-article DTF carries its article count in ID.SRC")
+    void testMultiArticleDtf() throws IOException {
+        byte[] dtf = FpduBuilder.buildMultiArticleDtf(5,
+                List.of("one".getBytes(), "three".getBytes(), new byte[0]), 4096);
+        FpduFrame frame = FpduFrame.of(dtf);
+        assertEquals(3, frame.getIdSrc());
+        assertEquals(3, frame.articleCount());
+
+        List<String> articles = new ArrayList<>();
+        frame.forEachArticle(article -> {
+            byte[] bytes = new byte[article.remaining()];
+            article.get(bytes);
+            articles.add(new String(bytes));
+        });
+        assertEquals(List.of("one", "three", ""), articles);
+    }
+
+    @Test
+    @DisplayName("Mono-article DTF is visited as one article")
+    void testMonoArticleDtf() throws IOException {
+        byte[] dtf = FpduBuilder.buildMultiArticleDtf(5, List.of("single".getBytes()), 4096);
+        FpduFrame frame = FpduFrame.of(dtf);
+        assertEquals(0, frame.getIdSrc());
+        assertEquals(1, frame.articleCount());
+
+        List<Integer> lengths = new ArrayList<>();
+        frame.forEachArticle(article -> lengths.add(article.remaining()));
+        assertEquals(List.of(6), lengths);
+    }
+
+    @Test
+    @DisplayName("Malformed multi-article DTF raises IOException")
+    void testMalformedMultiArticleDtf() {
+        ByteBuffer overrun = ByteBuffer.wrap(new byte[] { 0x00, 0x05, 'a', 'b' });
+        assertThrows(IOException.class, () -> FpduFrame.forEachArticle(overrun, 2, article -> {
+        }));
+        ByteBuffer trailing = ByteBuffer.wrap(new byte[] { 0x00, 0x01, 'a', 0x00, 0x01, 'b', 'c' });
+        assertThrows(IOException.class, () -> FpduFrame.forEachArticle(trailing, 2, article -> {
+        }));
+    }
+
+    @Test
+    @DisplayName("Truncated stream raises EOFException")
+    void testTruncatedStream() {
+        byte[] truncated = new byte[] { 0x00, 0x10, 0x00, 0x10, 0x40 };
+        FpduCodec codec = new FpduCodec(64);
+        assertThrows(EOFException.class,
+                () -> codec.read(new DataInputStream(new ByteArrayInputStream(truncated))));
+    }
+}
@@ -0,0 +1,83 @@
+package com.pesitwizard.fpdu;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the FpduType, PI/PGI and diagnostic lookup tables
+ */
+public class FpduLookupTest {
+
+    @Test
+    @DisplayName("FpduType.from resolves every phase/type to the first declared constant")
+    void testFpduTypeFrom() {
+        for (FpduType type : FpduType.values()) {
+            FpduType expected = null;
+            for (FpduType candidate : FpduType.values()) {
+                if (candidate.getPhase() == type.getPhase() && candidate.getType() == type.getType()) {
+                    expected = candidate;
+                    break;
+                }
+            }
+            assertSame(expected, FpduType.from(type.getPhase(), type.getType()), type.name());
+        }
+        assertNull(FpduType.from(0x00, 0x01));
+        assertNull(FpduType.from(0x01, 0x00));
+        assertNull(FpduType.from(-1, 0x00));
+        assertNull(FpduType.from(0x00, 256));
+    }
+
+    @Test
+    @DisplayName("Only DTF, DTFDA, DTFMA and DTFFA are data transfer FPDUs")
+    void testIsDataTransfer() {
+        for (FpduType type : FpduType.values()) {
+            boolean dtf = type == FpduType.DTF || type == FpduType.DTFDA
+                    || type == FpduType.DTFMA || type == FpduType.DTFFA;
+            assertEquals(dtf, type.isDataTransfer(), type.name());
+            byte[] header = { 0, 6, (byte) type.getPhase(), (byte) type.getType(), 0, 0 };
+            assertEquals(dtf, FpduIO.isDtf(header), type.name());
+            assertEquals(dtf, FpduFrame.of(header).isDtf(), type.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Parameter requirements cover PIs nested in PGIs")
+    void testParameterRequirements() {
+        assertTrue(FpduType.CREATE.supportsParameter(ParameterGroupIdentifier.PGI_09_ID_FICHIER));
+        assertTrue(FpduType.CREATE.supportsParameter(ParameterIdentifier.PI_12_NOM_FICHIER));
+        assertTrue(FpduType.CREATE.requiresParameter(ParameterIdentifier.PI_12_NOM_FICHIER));
+        assertFalse(FpduType.DTF.supportsParameter(ParameterIdentifier.PI_12_NOM_FICHIER));
+        assertFalse(FpduType.DTF.requiresParameter(ParameterIdentifier.PI_12_NOM_FICHIER));
+    }
+
+    @Test
+    @DisplayName("PI and PGI ids resolve to their constant, unknown ids to null")
+    void testParameterFromId() {
+        for (ParameterIdentifier pi : ParameterIdentifier.values()) {
+            assertEquals(pi.getId(), ParameterIdentifier.fromId(pi.getId()).getId(), pi.name());
+        }
+        for (ParameterGroupIdentifier pgi : ParameterGroupIdentifier.values()) {
+            assertSame(pgi, ParameterGroupIdentifier.fromId(pgi.getId()), pgi.name());
+        }
+        assertNull(ParameterIdentifier.fromId(-1));
+        assertNull(ParameterIdentifier.fromId(256));
+        assertNull(ParameterGroupIdentifier.fromId(12));
+        assertNull(ParameterGroupIdentifier.fromId(-30));
+    }
+
+    @Test
+    @DisplayName("Diagnostic codes round-trip through PI 2")
+    void testDiagnosticCodeFromParameterValue() {
+        for (DiagnosticCode code : DiagnosticCode.values()) {
+            DiagnosticCode decoded = DiagnosticCode.fromParameterValue(
+                    new ParameterValue(ParameterIdentifier.PI_02_DIAG, code.toBytes()));
+            assertEquals(code.getCode(), decoded.getCode(), code.name());
+            assertEquals(code.getReason(), decoded.getReason(), code.name());
+        }
+        assertNull(DiagnosticCode.fromCode(2, 999));
+        assertNull(DiagnosticCode.fromCode(9, 0));
+        assertNull(DiagnosticCode.fromCode(-1, 0));
+    }
+}
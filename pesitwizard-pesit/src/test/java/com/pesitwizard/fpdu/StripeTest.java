@@ -0,0 +1,73 @@
+package com.pesitwizard.fpdu;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Stripe Tests")
+class StripeTest {
+
+    @Test
+    @DisplayName("split should cover the file with contiguous ranges")
+    void splitShouldCoverFile() {
+        List<Stripe> stripes = Stripe.split("set-1", 10_000_003, 4);
+
+        assertEquals(4, stripes.size());
+        long position = 0;
+        for (Stripe stripe : stripes) {
+            assertEquals(position, stripe.offset());
+            assertEquals(4, stripe.count());
+            position += stripe.length();
+        }
+        assertEquals(10_000_003, position);
+        assertEquals(2_500_003, stripes.get(3).length());
+    }
+
+    @Test
+    @DisplayName("descriptor should round-trip through PI 99 of CREATE")
+    void descriptorShouldRoundTrip() throws IOException {
+        Stripe stripe = Stripe.split("set-1", 1 << 30, 8).get(5);
+
+        Fpdu create = new FpduParser(FpduBuilder.buildFpdu(new CreateMessageBuilder()
+                .filename("BIG")
+                .message(stripe.encode())
+                .build(1))).parse();
+        ParameterValue pi99 = create.getParameter(ParameterIdentifier.PI_99_MESSAGE_LIBRE);
+
+        assertEquals(stripe, Stripe.parse(new String(pi99.getValue(), StandardCharsets.ISO_8859_1)));
+    }
+
+    @Test
+    @DisplayName("parse should ignore other messages and reject malformed descriptors")
+    void parseShouldRejectMalformedDescriptors() {
+        assertNull(Stripe.parse("HELLO"));
+        assertNull(Stripe.parse(null));
+        assertThrows(IllegalArgumentException.class, () -> Stripe.parse("PWZ-STRIPE:set:1:2"));
+        assertThrows(IllegalArgumentException.class, () -> Stripe.parse("PWZ-STRIPE:set:2:2:0:10:10"));
+        assertThrows(IllegalArgumentException.class, () -> Stripe.parse("PWZ-STRIPE:../x:0:2:0:10:10"));
+        assertThrows(IllegalArgumentException.class, () -> Stripe.parse("PWZ-STRIPE:set:1:2:5:10:10"));
+    }
+
+    @Test
+    @DisplayName("checksum messages should round-trip")
+    void checksumShouldRoundTrip() {
+        assertEquals("abcd", Stripe.parseChecksum(Stripe.checksum("abcd")));
+        assertNull(Stripe.parseChecksum("abcd"));
+    }
+
+    @Test
+    @DisplayName("file checksum should depend on every stripe and its order")
+    void fileChecksumShouldDependOnStripeOrder() {
+        String a = "00".repeat(32);
+        String b = "ff".repeat(32);
+        assertEquals(64, Stripe.fileChecksum(List.of(a, b)).length());
+        assertEquals(Stripe.fileChecksum(List.of(a, b)), Stripe.fileChecksum(List.of(a, b)));
+        assertNotEquals(Stripe.fileChecksum(List.of(a, b)), Stripe.fileChecksum(List.of(b, a)));
+        assertNotEquals(Stripe.fileChecksum(List.of(a, b)), Stripe.fileChecksum(List.of(a)));
+    }
+}
@@ -0,0 +1,187 @@
+package com.pesitwizard.session;
+
+import static com.pesitwizard.fpdu.ParameterIdentifier.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.pesitwizard.exception.PesitException;
+import com.pesitwizard.fpdu.DiagnosticCode;
+import com.pesitwizard.fpdu.Fpdu;
+import com.pesitwizard.fpdu.FpduBuilder;
+import com.pesitwizard.fpdu.FpduType;
+import com.pesitwizard.fpdu.ParameterValue;
+import com.pesitwizard.transport.TransportChannel;
+import com.pesitwizard.transport.TransportType;
+
+/**
+ * Unit tests for PesitSession sync point pipelining
+ */
+public class PesitSessionTest {
+
+    /** In-memory transport: responses are "on the wire" once the client sent enough FPDUs */
+    private static class ScriptedChannel implements TransportChannel {
+        final List<byte[]> sent = new ArrayList<>();
+        final Deque<byte[]> arrived = new ArrayDeque<>();
+
+        void arrive(Fpdu fpdu) {
+            arrived.add(FpduBuilder.buildFpdu(fpdu));
+        }
+
+        @Override
+        public void connect() {
+        }
+
+        @Override
+        public void send(byte[] data) {
+            sent.add(data);
+        }
+
+        @Override
+        public byte[] receive() throws IOException {
+            if (arrived.isEmpty()) {
+                throw new SocketTimeoutException("nothing to receive");
+            }
+            return arrived.poll();
+        }
+
+        @Override
+        public int available() {
+            return arrived.isEmpty() ? 0 : arrived.peek().length;
+        }
+
+        @Override
+        public boolean isConnected() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String getRemoteAddress() {
+            return "test";
+        }
+
+        @Override
+        public String getLocalAddress() {
+            return "test";
+        }
+
+        @Override
+        public boolean isSecure() {
+            return false;
+        }
+
+        @Override
+        public void setReceiveTimeout(int timeoutMs) {
+        }
+
+        @Override
+        public TransportType getTransportType() {
+            return TransportType.TCP;
+        }
+    }
+
+    private static Fpdu syn(int number) {
+        return new Fpdu(FpduType.SYN).withIdDst(1).withParameter(new ParameterValue(PI_20_NUM_SYNC, number));
+    }
+
+    private static Fpdu ackSyn(int number) {
+        return new Fpdu(FpduType.ACK_SYN).withIdDst(1).withParameter(new ParameterValue(PI_20_NUM_SYNC, number));
+    }
+
+    @Test
+    @DisplayName("SYNs within the window are sent without waiting for ACK_SYN")
+    void testSyncPointsWithinWindow() throws IOException {
+        ScriptedChannel channel = new ScriptedChannel();
+        try (PesitSession session = new PesitSession(channel)) {
+            session.sendSyncPoint(syn(1), 2);
+            session.sendSyncPoint(syn(2), 2);
+
+            assertEquals(2, channel.sent.size());
+            assertEquals(2, session.getUnacknowledgedSyncPoints());
+
+            channel.arrive(ackSyn(1));
+            channel.arrive(ackSyn(2));
+            session.awaitSyncPoints();
+            assertEquals(0, session.getUnacknowledgedSyncPoints());
+        }
+    }
+
+    @Test
+    @DisplayName("Exceeding the window waits for the oldest ACK_SYN")
+    void testWindowFull() throws IOException {
+        ScriptedChannel channel = new ScriptedChannel();
+        try (PesitSession session = new PesitSession(channel)) {
+            session.sendSyncPoint(syn(1), 1);
+            // Third SYN would leave 2 pending: must consume ACK(1) first
+            channel.arrive(ackSyn(1));
+            session.sendSyncPoint(syn(2), 1);
+            assertEquals(1, session.getUnacknowledgedSyncPoints());
+
+            // No ACK available and window full -> blocking receive
+            assertThrows(SocketTimeoutException.class, () -> session.sendSyncPoint(syn(3), 1));
+        }
+    }
+
+    @Test
+    @DisplayName("Window 0 waits for every ACK_SYN")
+    void testSynchronousWindow() throws IOException {
+        ScriptedChannel channel = new ScriptedChannel();
+        try (PesitSession session = new PesitSession(channel)) {
+            channel.arrive(ackSyn(1));
+            session.sendSyncPoint(syn(1), 0);
+            assertEquals(0, session.getUnacknowledgedSyncPoints());
+        }
+    }
+
+    @Test
+    @DisplayName("ACK_SYNs already received are consumed without blocking")
+    void testOpportunisticDrain() throws IOException {
+        ScriptedChannel channel = new ScriptedChannel();
+        try (PesitSession session = new PesitSession(channel)) {
+            session.sendSyncPoint(syn(1), 4);
+            channel.arrive(ackSyn(1));
+            session.sendSyncPoint(syn(2), 4);
+            assertEquals(1, session.getUnacknowledgedSyncPoints());
+        }
+    }
+
+    @Test
+    @DisplayName("An ACK_SYN acknowledges earlier sync points too")
+    void testCumulativeAck() throws IOException {
+        ScriptedChannel channel = new ScriptedChannel();
+        try (PesitSession session = new PesitSession(channel)) {
+            session.sendSyncPoint(syn(1), 4);
+            session.sendSyncPoint(syn(2), 4);
+            session.sendSyncPoint(syn(3), 4);
+            channel.arrive(ackSyn(2));
+            channel.arrive(ackSyn(3));
+            session.awaitSyncPoints();
+            assertEquals(0, session.getUnacknowledgedSyncPoints());
+        }
+    }
+
+    @Test
+    @DisplayName("ABORT while sync points are pending is reported")
+    void testAbortWhilePending() throws IOException {
+        ScriptedChannel channel = new ScriptedChannel();
+        try (PesitSession session = new PesitSession(channel)) {
+            session.sendSyncPoint(syn(1), 4);
+            channel.arrive(new Fpdu(FpduType.ABORT)
+                    .withParameter(new ParameterValue(PI_02_DIAG, DiagnosticCode.D2_213.toBytes())));
+
+            assertThrows(PesitException.class, session::awaitSyncPoints);
+        }
+    }
+}
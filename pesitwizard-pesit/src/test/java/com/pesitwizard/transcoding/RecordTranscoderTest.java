@@ -0,0 +1,154 @@
+package com.pesitwizard.transcoding;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for CodePage and RecordTranscoder
+ */
+public class RecordTranscoderTest {
+
+    private static final Charset IBM1047 = Charset.forName("IBM1047");
+
+    @Test
+    @DisplayName("Tables match the JDK charset and round-trip Latin-1")
+    void testTables() {
+        CodePage codePage = CodePage.of("ibm1047");
+        assertSame(codePage, CodePage.of("IBM1047"));
+
+        String text = "Relevé n°42 : 100,00 EUR àéèç";
+        byte[] data = text.getBytes(IBM1047);
+        RecordTranscoder.toLocal(codePage, LineEnding.NONE, 0).transcode(data, 0, data.length);
+        assertEquals(text, new String(data, StandardCharsets.ISO_8859_1));
+
+        byte[] all = new byte[256];
+        for (int i = 0; i < 256; i++) {
+            all[i] = (byte) i;
+        }
+        byte[] copy = all.clone();
+        RecordTranscoder.toRemote(codePage).transcode(copy, 0, 256);
+        RecordTranscoder.toLocal(codePage, LineEnding.NONE, 0).transcode(copy, 0, 256);
+        assertArrayEquals(all, copy);
+    }
+
+    @Test
+    @DisplayName("Unknown code pages are rejected")
+    void testUnknownCodePage() {
+        assertThrows(IllegalArgumentException.class, () -> CodePage.of("NOT-A-CHARSET"));
+        assertThrows(IllegalArgumentException.class, () -> CodePage.of("UTF-8"));
+    }
+
+    @Test
+    @DisplayName("Heap and direct buffers are translated in place")
+    void testBuffers() {
+        RecordTranscoder transcoder = RecordTranscoder.toLocal(CodePage.of("IBM037"), LineEnding.NONE, 0);
+        byte[] ebcdic = "HELLO".getBytes(Charset.forName("IBM037"));
+
+        ByteBuffer heap = ByteBuffer.allocate(7).put((byte) 0).put(ebcdic).flip().position(1);
+        transcoder.transcode(heap);
+        assertEquals(1, heap.position());
+        assertEquals("HELLO", StandardCharsets.ISO_8859_1.decode(heap).toString().trim());
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(5).put(ebcdic).flip();
+        transcoder.transcode(direct);
+        assertEquals("HELLO", StandardCharsets.ISO_8859_1.decode(direct).toString());
+    }
+
+    @Test
+    @DisplayName("Variable records get a line ending per article")
+    void testVariableRecords() throws IOException {
+        RecordTranscoder transcoder = RecordTranscoder.toLocal(CodePage.of("IBM1047"), LineEnding.CRLF, 0);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        byte[] first = "FIRST".getBytes(IBM1047);
+        transcoder.write(first, 0, 2, out);
+        transcoder.write(first, 2, 3, out);
+        transcoder.endArticle(out);
+        byte[] second = "SECOND RECORD".getBytes(IBM1047);
+        transcoder.write(second, 0, second.length, out);
+        transcoder.endArticle(out);
+
+        assertEquals("FIRST\r\nSECOND RECORD\r\n", out.toString(StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    @DisplayName("Fixed records carried by one DTF are split on PI 32")
+    void testFixedRecords() throws IOException {
+        RecordTranscoder transcoder = RecordTranscoder.toLocal(CodePage.of("IBM1047"), LineEnding.LF, 4);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        byte[] data = "AAAABBBBCC".getBytes(IBM1047);
+        transcoder.write(data, 0, 6, out);
+        transcoder.write(data, 6, 4, out);
+        transcoder.endArticle(out);
+        transcoder.endArticle(out);
+
+        assertEquals("AAAA\nBBBB\nCC\n", out.toString(StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    @DisplayName("Sent lines are cut into records")
+    void testReadRecords() throws IOException {
+        RecordTranscoder transcoder = RecordTranscoder.toRemote(CodePage.of("IBM1047"), LineEnding.CRLF, 6, false);
+        ByteArrayInputStream in = new ByteArrayInputStream(
+                "FIRST\r\n\r\nTOO LONG\r\nSIXSIX\r\nLAST".getBytes(StandardCharsets.ISO_8859_1));
+
+        assertEquals(List.of("FIRST", "", "TOO LO", "NG", "SIXSIX", "LAST"), readAll(transcoder, in, 64));
+    }
+
+    @Test
+    @DisplayName("Sent fixed records are padded to PI 32")
+    void testReadFixedRecords() throws IOException {
+        RecordTranscoder transcoder = RecordTranscoder.toRemote(CodePage.of("IBM1047"), LineEnding.LF, 4, true);
+        ByteArrayInputStream in = new ByteArrayInputStream("AAAA\nBB\nCCCCC\n".getBytes(StandardCharsets.ISO_8859_1));
+
+        assertEquals(List.of("AAAA", "BB  ", "CCCC", "C   "), readAll(transcoder, in, 64));
+        assertThrows(IllegalArgumentException.class, () -> RecordTranscoder
+                .toRemote(CodePage.of("IBM1047"), LineEnding.LF, 80, true).readRecord(in, new byte[64]));
+    }
+
+    @Test
+    @DisplayName("Records sent and received round-trip the local file")
+    void testRecordRoundTrip() throws IOException {
+        CodePage codePage = CodePage.of("IBM037");
+        String text = "Relevé n°42\n\nTotal : 100,00 EUR\n" + "X".repeat(200) + "\n";
+        for (LineEnding lineEnding : new LineEnding[] { LineEnding.LF, LineEnding.CRLF }) {
+            String local = lineEnding == LineEnding.LF ? text : text.replace("\n", "\r\n");
+            RecordTranscoder sender = RecordTranscoder.toRemote(codePage, lineEnding, 0, false);
+            RecordTranscoder receiver = RecordTranscoder.toLocal(codePage, lineEnding, 0);
+            ByteArrayInputStream in = new ByteArrayInputStream(local.getBytes(StandardCharsets.ISO_8859_1));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            byte[] record = new byte[256];
+            int records = 0;
+            for (int n; (n = sender.readRecord(in, record)) >= 0; records++) {
+                receiver.write(record, 0, n, out);
+                receiver.endArticle(out);
+            }
+
+            assertEquals(4, records);
+            assertEquals(local, out.toString(StandardCharsets.ISO_8859_1));
+        }
+    }
+
+    private static List<String> readAll(RecordTranscoder transcoder, ByteArrayInputStream in, int size)
+            throws IOException {
+        List<String> records = new ArrayList<>();
+        byte[] record = new byte[size];
+        for (int n; (n = transcoder.readRecord(in, record)) >= 0;) {
+            records.add(new String(record, 0, n, IBM1047));
+        }
+        return records;
+    }
+}
@@ -7,6 +7,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.net.ServerSocket;
 import java.net.Socket;
 
 import org.junit.jupiter.api.DisplayName;
@@ -16,6 +17,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.pesitwizard.fpdu.Fpdu;
+import com.pesitwizard.fpdu.FpduBuilder;
+import com.pesitwizard.fpdu.FpduIO;
+import com.pesitwizard.fpdu.FpduType;
+import com.pesitwizard.fpdu.ParameterIdentifier;
+import com.pesitwizard.fpdu.ParameterValue;
+
 /**
  * Unit tests for AbstractSocketTransportChannel and TcpTransportChannel.
  */
@@ -178,6 +186,80 @@ class AbstractSocketTransportChannelTest {
             TcpTransportChannel channel = new TcpTransportChannel("localhost", 5000);
             assertThat(channel.getLocalAddress()).isEqualTo("not connected");
         }
+
+        @Test
+        @DisplayName("isAlive should detect a connection closed by the peer")
+        void isAliveShouldDetectPeerClose() throws Exception {
+            try (ServerSocket server = new ServerSocket(0)) {
+                TcpTransportChannel channel = new TcpTransportChannel("localhost", server.getLocalPort());
+                assertThat(channel.isAlive()).isFalse();
+
+                channel.connect();
+                try (Socket peer = server.accept()) {
+                    assertThat(channel.isAlive()).isTrue();
+                }
+                Thread.sleep(50);
+                assertThat(channel.isAlive()).isFalse();
+                channel.close();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Write Coalescing")
+    class WriteCoalescingTests {
+
+        private final byte[] dtf = FpduBuilder.buildFpdu(FpduType.DTF, 1, 0, new byte[100]);
+        private final byte[] syn = FpduBuilder.buildFpdu(new Fpdu(FpduType.SYN).withIdDst(1)
+                .withParameter(new ParameterValue(ParameterIdentifier.PI_20_NUM_SYNC, 1)));
+
+        @Test
+        @DisplayName("should hold DTFs until an FPDU expecting an answer is sent")
+        void shouldSendDtfsWithNextSyn() throws Exception {
+            try (ServerSocket server = new ServerSocket(0)) {
+                TcpTransportChannel channel = new TcpTransportChannel("localhost", server.getLocalPort());
+                channel.setWriteCoalescing(64 * 1024, 0);
+                channel.connect();
+                try (Socket peer = server.accept()) {
+                    for (int i = 0; i < 3; i++) {
+                        channel.send(dtf);
+                    }
+                    Thread.sleep(100);
+                    assertThat(peer.getInputStream().available()).isZero();
+
+                    channel.send(syn);
+                    DataInputStream in = new DataInputStream(peer.getInputStream());
+                    for (int i = 0; i < 3; i++) {
+                        assertThat(FpduIO.readRawFpdu(in)).isEqualTo(dtf);
+                    }
+                    assertThat(FpduIO.readRawFpdu(in)).isEqualTo(syn);
+                }
+                channel.close();
+            }
+        }
+
+        @Test
+        @DisplayName("should flush buffered DTFs after the linger delay or before receiving")
+        void shouldFlushOnLingerAndReceive() throws Exception {
+            try (ServerSocket server = new ServerSocket(0)) {
+                TcpTransportChannel channel = new TcpTransportChannel("localhost", server.getLocalPort());
+                channel.setWriteCoalescing(64 * 1024, 5);
+                channel.connect();
+                try (Socket peer = server.accept()) {
+                    peer.setSoTimeout(5000);
+                    DataInputStream in = new DataInputStream(peer.getInputStream());
+                    channel.send(dtf);
+                    assertThat(FpduIO.readRawFpdu(in)).isEqualTo(dtf);
+
+                    channel.setWriteCoalescing(64 * 1024, 0);
+                    channel.send(dtf);
+                    FpduIO.writeRawFpdu(new DataOutputStream(peer.getOutputStream()), syn);
+                    assertThat(channel.receive()).isEqualTo(syn);
+                    assertThat(FpduIO.readRawFpdu(in)).isEqualTo(dtf);
+                }
+                channel.close();
+            }
+        }
     }
 
     @Nested
@@ -19,10 +19,23 @@ public class ClusterMessage implements Serializable {
     public enum Type {
         SERVER_ACQUIRED,
         SERVER_RELEASED,
-        SERVER_STATE_CHANGED
+        SERVER_STATE_CHANGED,
+        /** Partners or virtual files were changed through the API */
+        CONFIG_CHANGED,
+        /** Periodic load of a server on the node running it */
+        LOAD_REPORT,
+        /** The leader placed a server on a node */
+        SERVER_ASSIGNED
     }
 
     private Type type;
     private String serverId;
     private String nodeId;
+
+    /** Load score, for LOAD_REPORT messages */
+    private double load;
+
+    public ClusterMessage(Type type, String serverId, String nodeId) {
+        this(type, serverId, nodeId, 0);
+    }
 }
@@ -96,6 +96,38 @@ public interface ClusterProvider {
      */
     Map<String, String> getAllServerOwnership();
 
+    /**
+     * Publish the current load of a server running on this node, used by the
+     * leader to place servers.
+     * 
+     * @param serverId the server identifier
+     * @param load     load score (active connections plus normalized throughput)
+     */
+    void reportServerLoad(String serverId, double load);
+
+    /**
+     * Get the last reported load of every server.
+     * 
+     * @return map of serverId to load score
+     */
+    Map<String, Double> getServerLoads();
+
+    /**
+     * Place a server on a node (leader only). Listeners on every node,
+     * including this one, receive a SERVER_ASSIGNED event.
+     * 
+     * @param serverId the server identifier
+     * @param nodeId   the node that should run the server
+     */
+    void assignServer(String serverId, String nodeId);
+
+    /**
+     * Get the placement decided by the leader.
+     * 
+     * @return map of serverId to assigned node
+     */
+    Map<String, String> getServerAssignments();
+
     /**
      * Broadcast a message to all cluster members.
      * In standalone mode, this is a no-op.
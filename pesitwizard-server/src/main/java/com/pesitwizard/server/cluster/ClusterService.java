@@ -65,6 +65,10 @@ public class ClusterService implements ClusterProvider, Receiver, Closeable {
     // Shared cluster state: serverId -> node that owns it
     private final Map<String, String> serverOwnership = new ConcurrentHashMap<>();
 
+    // Placement state: serverId -> node chosen by the leader, serverId -> last reported load
+    private final Map<String, String> serverAssignments = new ConcurrentHashMap<>();
+    private final Map<String, Double> serverLoads = new ConcurrentHashMap<>();
+
     @PostConstruct
     public void init() {
         if (!clusterEnabled) {
@@ -149,6 +153,8 @@ public class ClusterService implements ClusterProvider, Receiver, Closeable {
             }
             return false;
         });
+        serverAssignments.values().removeIf(node -> !currentMembers.contains(node));
+        serverLoads.keySet().retainAll(serverOwnership.keySet());
 
         notifyListeners(ClusterEvent.viewChanged(nodeName, newView.size(), leader));
         logClusterView();
@@ -257,6 +263,37 @@ public class ClusterService implements ClusterProvider, Receiver, Closeable {
         return Map.copyOf(serverOwnership);
     }
 
+    /**
+     * Publish the load of a server running on this node
+     */
+    public void reportServerLoad(String serverId, double load) {
+        serverLoads.put(serverId, load);
+        broadcast(new ClusterMessage(ClusterMessage.Type.LOAD_REPORT, serverId, nodeName, load));
+    }
+
+    /**
+     * Get the last reported load of every server
+     */
+    public Map<String, Double> getServerLoads() {
+        return Map.copyOf(serverLoads);
+    }
+
+    /**
+     * Place a server on a node and notify every node, this one included
+     */
+    public void assignServer(String serverId, String nodeId) {
+        serverAssignments.put(serverId, nodeId);
+        broadcast(new ClusterMessage(ClusterMessage.Type.SERVER_ASSIGNED, serverId, nodeId));
+        notifyListeners(ClusterEvent.serverAssigned(serverId, nodeId));
+    }
+
+    /**
+     * Get the placement decided by the leader
+     */
+    public Map<String, String> getServerAssignments() {
+        return Map.copyOf(serverAssignments);
+    }
+
     /**
      * Get cluster members
      */
@@ -353,6 +390,16 @@ public class ClusterService implements ClusterProvider, Receiver, Closeable {
             case SERVER_STATE_CHANGED -> {
                 notifyListeners(ClusterEvent.serverStateChanged(msg.getServerId(), msg.getNodeId()));
             }
+            case CONFIG_CHANGED -> {
+                notifyListeners(ClusterEvent.configChanged(msg.getNodeId()));
+            }
+            case LOAD_REPORT -> {
+                serverLoads.put(msg.getServerId(), msg.getLoad());
+            }
+            case SERVER_ASSIGNED -> {
+                serverAssignments.put(msg.getServerId(), msg.getNodeId());
+                notifyListeners(ClusterEvent.serverAssigned(msg.getServerId(), msg.getNodeId()));
+            }
         }
     }
 
@@ -0,0 +1,106 @@
+package com.pesitwizard.server.cluster;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Load-based placement of server instances on cluster nodes.
+ *
+ * Each server weighs 1 plus its last reported load, so idle servers are
+ * spread by count. Servers keep their node while it is a member; servers
+ * without a live node go to the least loaded one, then servers move from the
+ * most to the least loaded node as long as each move reduces the spread by
+ * at least the tolerance.
+ */
+public final class ServerPlacement {
+
+    private ServerPlacement() {
+    }
+
+    /**
+     * Compute the node of every server.
+     *
+     * @param serverIds   servers to place
+     * @param members     current cluster members
+     * @param current     current placement (serverId to node), may contain
+     *                    departed nodes
+     * @param serverLoads last reported load of each server
+     * @param tolerance   minimum spread reduction for a move
+     * @return serverId to node, for every server
+     */
+    public static Map<String, String> plan(Collection<String> serverIds, List<String> members,
+            Map<String, String> current, Map<String, Double> serverLoads, double tolerance) {
+        Map<String, String> placement = new TreeMap<>();
+        if (members.isEmpty()) {
+            return placement;
+        }
+
+        Map<String, Double> nodeLoads = new TreeMap<>();
+        members.forEach(member -> nodeLoads.put(member, 0.0));
+        Map<String, Double> weights = new HashMap<>();
+        for (String serverId : serverIds) {
+            weights.put(serverId, 1.0 + Math.max(0.0, serverLoads.getOrDefault(serverId, 0.0)));
+        }
+
+        // Keep servers on live nodes, then place the others
+        serverIds.stream().sorted().forEach(serverId -> {
+            String node = current.get(serverId);
+            if (node != null && nodeLoads.containsKey(node)) {
+                place(placement, nodeLoads, weights, serverId, node);
+            }
+        });
+        serverIds.stream()
+                .filter(serverId -> !placement.containsKey(serverId))
+                .sorted(Comparator.comparing((String serverId) -> -weights.get(serverId))
+                        .thenComparing(Comparator.naturalOrder()))
+                .forEach(serverId -> place(placement, nodeLoads, weights, serverId, leastLoaded(nodeLoads)));
+
+        // Move servers from the most to the least loaded node
+        for (int i = 0; i < serverIds.size(); i++) {
+            String most = mostLoaded(nodeLoads);
+            String least = leastLoaded(nodeLoads);
+            double spread = nodeLoads.get(most) - nodeLoads.get(least);
+            String best = null;
+            double bestGain = tolerance;
+            for (Map.Entry<String, String> entry : placement.entrySet()) {
+                if (!entry.getValue().equals(most)) {
+                    continue;
+                }
+                double gain = spread - Math.abs(spread - 2 * weights.get(entry.getKey()));
+                if (gain > 0 && gain >= bestGain) {
+                    best = entry.getKey();
+                    bestGain = gain;
+                }
+            }
+            if (best == null) {
+                break;
+            }
+            double weight = weights.get(best);
+            nodeLoads.merge(most, -weight, Double::sum);
+            place(placement, nodeLoads, weights, best, least);
+        }
+        return placement;
+    }
+
+    private static void place(Map<String, String> placement, Map<String, Double> nodeLoads,
+            Map<String, Double> weights, String serverId, String node) {
+        placement.put(serverId, node);
+        nodeLoads.merge(node, weights.get(serverId), Double::sum);
+    }
+
+    private static String leastLoaded(Map<String, Double> nodeLoads) {
+        return nodeLoads.entrySet().stream()
+                .min(Map.Entry.comparingByValue())
+                .orElseThrow().getKey();
+    }
+
+    private static String mostLoaded(Map<String, Double> nodeLoads) {
+        return nodeLoads.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .orElseThrow().getKey();
+    }
+}
@@ -25,6 +25,7 @@ public class StandaloneClusterProvider implements ClusterProvider {
     private String nodeName;
 
     private final Map<String, String> serverOwnership = new ConcurrentHashMap<>();
+    private final Map<String, Double> serverLoads = new ConcurrentHashMap<>();
 
     @PostConstruct
     public void init() {
@@ -99,6 +100,26 @@ public class StandaloneClusterProvider implements ClusterProvider {
         return Map.copyOf(serverOwnership);
     }
 
+    @Override
+    public void reportServerLoad(String serverId, double load) {
+        serverLoads.put(serverId, load);
+    }
+
+    @Override
+    public Map<String, Double> getServerLoads() {
+        return Map.copyOf(serverLoads);
+    }
+
+    @Override
+    public void assignServer(String serverId, String nodeId) {
+        // No-op in standalone mode - every server runs on this node
+    }
+
+    @Override
+    public Map<String, String> getServerAssignments() {
+        return Map.of();
+    }
+
     @Override
     public void broadcast(ClusterMessage message) {
         // No-op in standalone mode - no other nodes to broadcast to
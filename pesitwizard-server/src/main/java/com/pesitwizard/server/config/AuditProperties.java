@@ -0,0 +1,69 @@
+package com.pesitwizard.server.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * Configuration properties for audit event persistence.
+ *
+ * Audit events are queued in a bounded buffer and inserted in JDBC batches
+ * by a single writer thread, so that callers (PeSIT connections, API
+ * requests) never wait on the database.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "pesit.audit")
+public class AuditProperties {
+
+    /**
+     * Enable the write-behind queue. When disabled every audit event is saved
+     * synchronously by the caller.
+     */
+    private boolean writeBehind = true;
+
+    /**
+     * Maximum number of audit events waiting to be written
+     */
+    private int queueCapacity = 10000;
+
+    /**
+     * Maximum number of events per JDBC batch insert
+     */
+    private int batchSize = 500;
+
+    /**
+     * Maximum time an event waits for its batch to fill (milliseconds)
+     */
+    private long flushIntervalMs = 500;
+
+    /**
+     * What happens to an event when the queue is full
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.SPILL;
+
+    /**
+     * Maximum wait for queue space with the BLOCK policy (milliseconds);
+     * the event is dropped after that
+     */
+    private long blockTimeoutMs = 1000;
+
+    /**
+     * File receiving events that overflow the queue with the SPILL policy, as
+     * JSON lines. Spilled events are inserted once the queue is idle again.
+     */
+    private String spillFile = "./data/audit-spill.jsonl";
+
+    /**
+     * Behaviour when the audit queue is full
+     */
+    public enum OverflowPolicy {
+        /** The caller waits for queue space, up to block-timeout-ms */
+        BLOCK,
+        /** The event is dropped and counted */
+        DROP,
+        /** The event is appended to the spill file */
+        SPILL
+    }
+}
@@ -0,0 +1,60 @@
+package com.pesitwizard.server.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * Configuration properties for placing PeSIT server instances on cluster
+ * nodes. Only used when cluster mode is enabled.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "pesitwizard.cluster.placement")
+public class ClusterPlacementProperties {
+
+    /**
+     * How server instances are spread over the cluster
+     */
+    private PlacementMode mode = PlacementMode.LEADER;
+
+    /**
+     * Interval between two load reports of a node (milliseconds)
+     */
+    private long loadReportIntervalMs = 5000;
+
+    /**
+     * Throughput that weighs as much as one active connection in the load
+     * score (bytes per second)
+     */
+    private long bytesPerSecondPerConnection = 10 * 1024 * 1024;
+
+    /**
+     * Minimum load spread reduction for the leader to move a server to
+     * another node when rebalancing
+     */
+    private double rebalanceTolerance = 1.0;
+
+    /**
+     * How long the sessions of a server moved to another node may take to
+     * end before they are interrupted (milliseconds)
+     */
+    private long handoverDrainTimeoutMs = 600_000;
+
+    public enum PlacementMode {
+        /** The leader runs every server, the other nodes are standby */
+        LEADER,
+        /**
+         * The leader assigns each server to one node by load, and rebalances
+         * when nodes join or leave
+         */
+        DISTRIBUTED,
+        /**
+         * Every node listens on every server port (behind a load balancer);
+         * the leader only assigns ownership, which decides the node that
+         * persists the server status
+         */
+        SHARED_PORT
+    }
+}
@@ -24,11 +24,22 @@ public class ClusterSchemaConfig {
     @Value("${pesit.cluster.id:}")
     private String clusterId;
 
+    private volatile String schemaName;
+
     /**
      * Get the schema name for this cluster.
      * Format: cluster_{sanitized_id}
      */
     public String getSchemaName() {
+        // Called for every SQL statement by ClusterSchemaInterceptor
+        String name = schemaName;
+        if (name == null) {
+            name = schemaName = resolveSchemaName();
+        }
+        return name;
+    }
+
+    private String resolveSchemaName() {
         if (clusterId == null || clusterId.isEmpty()) {
             return "public"; // Default schema if no cluster ID
         }
@@ -1,5 +1,10 @@
 package com.pesitwizard.server.config;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 import org.hibernate.resource.jdbc.spi.StatementInspector;
 import org.springframework.stereotype.Component;
 
@@ -8,16 +13,37 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * Hibernate StatementInspector that rewrites SQL to use the cluster schema.
- * Replaces references to 'partners' and 'virtual_files' tables with
- * schema-qualified names.
+ * Replaces references to the pesit-server tables (partners, virtual_files...)
+ * with schema-qualified names.
+ *
+ * The table names are matched in a single pass by one precompiled pattern,
+ * and rewritten statements are kept in a bounded LRU cache: Hibernate issues
+ * the same few statements over and over (e.g. transfer tracking updates), so
+ * most calls are a map lookup.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class ClusterSchemaInterceptor implements StatementInspector {
 
+    /** All pesit-server tables that should be in the cluster schema */
+    private static final Pattern CLUSTER_TABLES = Pattern.compile(
+            "\\b(partners|virtual_files|certificates|certificate_stores|transfer_records|audit_events"
+                    + "|pesit_server_config|api_keys|secret_entries|file_checksums"
+                    + "|transfer_stats_rollups)\\b");
+
+    /** Distinct statements kept rewritten */
+    static final int CACHE_SIZE = 1024;
+
     private final ClusterSchemaConfig schemaConfig;
 
+    private final Map<String, String> rewritten = new LinkedHashMap<>(CACHE_SIZE * 4 / 3 + 1, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
     @Override
     public String inspect(String sql) {
         String schema = schemaConfig.getSchemaName();
@@ -27,24 +53,32 @@ public class ClusterSchemaInterceptor implements StatementInspector {
             return sql;
         }
 
-        // Rewrite table references to use cluster schema
-        // All pesit-server tables that should be in the cluster schema
-        String rewritten = sql
-                .replaceAll("\\bpartners\\b", schema + ".partners")
-                .replaceAll("\\bvirtual_files\\b", schema + ".virtual_files")
-                .replaceAll("\\bcertificates\\b", schema + ".certificates")
-                .replaceAll("\\bcertificate_stores\\b", schema + ".certificate_stores")
-                .replaceAll("\\btransfer_records\\b", schema + ".transfer_records")
-                .replaceAll("\\baudit_events\\b", schema + ".audit_events")
-                .replaceAll("\\bpesit_server_config\\b", schema + ".pesit_server_config")
-                .replaceAll("\\bapi_keys\\b", schema + ".api_keys")
-                .replaceAll("\\bsecret_entries\\b", schema + ".secret_entries")
-                .replaceAll("\\bfile_checksums\\b", schema + ".file_checksums");
-
-        if (!rewritten.equals(sql)) {
-            log.trace("Rewritten SQL for schema {}: {}", schema, rewritten);
+        synchronized (rewritten) {
+            String cached = rewritten.get(sql);
+            if (cached != null) {
+                return cached;
+            }
         }
+        String result = rewrite(sql, schema);
+        synchronized (rewritten) {
+            rewritten.put(sql, result);
+        }
+        return result;
+    }
 
-        return rewritten;
+    private static String rewrite(String sql, String schema) {
+        Matcher matcher = CLUSTER_TABLES.matcher(sql);
+        if (!matcher.find()) {
+            return sql;
+        }
+        StringBuilder sb = new StringBuilder(sql.length() + 4 * (schema.length() + 1));
+        int last = 0;
+        do {
+            sb.append(sql, last, matcher.start()).append(schema).append('.').append(matcher.group(1));
+            last = matcher.end();
+        } while (matcher.find());
+        String result = sb.append(sql, last, sql.length()).toString();
+        log.trace("Rewritten SQL for schema {}: {}", schema, result);
+        return result;
     }
 }
@@ -1,5 +1,10 @@
 package com.pesitwizard.server.config;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.pesitwizard.transcoding.LineEnding;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -55,6 +60,20 @@ public class LogicalFileConfig {
     @Builder.Default
     private int fileType = 0;
 
+    /** EBCDIC code page of the data when PI 16 announces EBCDIC (null = no transcoding) */
+    private String codePage;
+
+    /** Line ending after each record of a transcoded file: written on receive, split on send */
+    @Builder.Default
+    private LineEnding lineEnding = LineEnding.NONE;
+
+    /** Storage connector holding the files (null = local file system) */
+    private String connectorType;
+
+    /** Configuration of the storage connector */
+    @Builder.Default
+    private Map<String, String> connectorConfig = new LinkedHashMap<>();
+
     public enum Direction {
         RECEIVE, // Only for CREATE (receiving files)
         SEND, // Only for SELECT (sending files)
@@ -75,6 +94,13 @@ public class LogicalFileConfig {
         return direction == Direction.SEND || direction == Direction.BOTH;
     }
 
+    /**
+     * Check if the files of this logical file are held by a storage connector
+     */
+    public boolean usesConnector() {
+        return connectorType != null && !connectorType.isBlank();
+    }
+
     /**
      * Generate the local filename for a received file
      */
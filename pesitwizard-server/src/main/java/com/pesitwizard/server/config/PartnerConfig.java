@@ -26,6 +26,9 @@ public class PartnerConfig {
     /** Maximum concurrent connections from this partner */
     private int maxConnections = 10;
 
+    /** Largest entity size (PI 25) negotiated with this partner (0 = server maximum) */
+    private int maxEntitySize = 0;
+
     /** List of logical files this partner can access (empty = all) */
     private String[] allowedFiles = {};
 
@@ -31,6 +31,15 @@ public class PesitServerProperties {
     /** Maximum connections allowed */
     private int maxConnections = 100;
 
+    /** How connection handlers are scheduled (see {@link ConnectionMode}) */
+    private ConnectionMode connectionMode = ConnectionMode.VIRTUAL;
+
+    /**
+     * Listen backlog. When maxConnections is reached, new partners wait here
+     * until a slot frees up instead of being rejected.
+     */
+    private int acceptBacklog = 1024;
+
     /** Connection timeout in milliseconds */
     private int connectionTimeout = 30000;
 
@@ -46,6 +55,18 @@ public class PesitServerProperties {
     /** Maximum entity size (PI 25) */
     private int maxEntitySize = 4096;
 
+    /**
+     * Concurrent sessions a pesitwizard client may stripe one received file
+     * over (0 or 1 = striped transfers refused)
+     */
+    private int maxStripes = 8;
+
+    /**
+     * Directory scanned for storage connector JARs, in addition to the
+     * built-in connectors of the classpath
+     */
+    private String connectorsDirectory = "connectors";
+
     /** Enable sync points by default */
     private boolean syncPointsEnabled = true;
 
@@ -70,6 +91,16 @@ public class PesitServerProperties {
     /** Configured logical files (key = logical file ID / filename pattern) */
     private Map<String, LogicalFileConfig> files = new HashMap<>();
 
+    /**
+     * Scheduling of PeSIT connection handlers.
+     */
+    public enum ConnectionMode {
+        /** One platform thread per connection from a fixed pool of maxConnections */
+        PLATFORM,
+        /** One virtual thread per connection - idle sessions do not hold an OS thread */
+        VIRTUAL
+    }
+
     /**
      * Get partner configuration by ID
      * 
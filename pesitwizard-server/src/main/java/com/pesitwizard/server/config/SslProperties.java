@@ -78,4 +78,14 @@ public class SslProperties {
      * Enabled cipher suites (empty = use defaults)
      */
     private List<String> cipherSuites = new ArrayList<>();
+
+    /**
+     * TLS sessions kept for resumption per SSL context (0 = no limit)
+     */
+    private int sessionCacheSize = 10000;
+
+    /**
+     * Time a TLS session (or TLS 1.3 session ticket) can be resumed, in seconds
+     */
+    private int sessionTimeout = 3600;
 }
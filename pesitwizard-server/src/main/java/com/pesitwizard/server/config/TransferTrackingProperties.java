@@ -0,0 +1,95 @@
+package com.pesitwizard.server.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * Configuration properties for transfer tracking persistence.
+ *
+ * Tracking updates can be written synchronously on the connection thread or
+ * handed to a write-behind queue that coalesces them per transfer and flushes
+ * them in batches.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "pesit.tracking")
+public class TransferTrackingProperties {
+
+    /**
+     * Enable the write-behind queue. When disabled every tracking update is
+     * written synchronously, whatever the per-event durability.
+     */
+    private boolean writeBehind = true;
+
+    /**
+     * Maximum number of pending tracking updates. When the queue is full the
+     * caller drains it itself (backpressure, nothing is dropped).
+     */
+    private int queueCapacity = 10000;
+
+    /**
+     * Maximum number of queued updates applied per database transaction
+     */
+    private int batchSize = 200;
+
+    /**
+     * Delay between two background flushes (milliseconds)
+     */
+    private long flushIntervalMs = 250;
+
+    /**
+     * Durability of each tracking event type
+     */
+    private DurabilityConfig durability = new DurabilityConfig();
+
+    /**
+     * Durability of a tracking event
+     */
+    public enum Durability {
+        /** Written before the tracking call returns */
+        SYNC,
+        /** Queued and written by the background flush */
+        ASYNC
+    }
+
+    @Data
+    public static class DurabilityConfig {
+        /**
+         * Transfer creation (CREATE/SELECT)
+         */
+        private Durability start = Durability.SYNC;
+
+        /**
+         * Byte count updates during DTF
+         */
+        private Durability progress = Durability.ASYNC;
+
+        /**
+         * Sync point acknowledgments. An unflushed sync point only makes a
+         * restart resume from an earlier point.
+         */
+        private Durability syncPoint = Durability.ASYNC;
+
+        /**
+         * Successful completion
+         */
+        private Durability completion = Durability.SYNC;
+
+        /**
+         * Transfer failure
+         */
+        private Durability failure = Durability.SYNC;
+
+        /**
+         * Transfer cancellation
+         */
+        private Durability cancellation = Durability.SYNC;
+
+        /**
+         * Transfer interruption
+         */
+        private Durability interruption = Durability.SYNC;
+    }
+}
@@ -0,0 +1,131 @@
+package com.pesitwizard.server.connector;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+
+import com.pesitwizard.connector.ConnectorException;
+import com.pesitwizard.connector.ConnectorFactory;
+import com.pesitwizard.connector.StorageConnector;
+import com.pesitwizard.server.config.LogicalFileConfig;
+import com.pesitwizard.server.config.PesitServerProperties;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Storage connectors available to virtual files: the built-in connectors of
+ * the classpath and the JARs of the connectors directory, discovered with
+ * {@link ServiceLoader}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConnectorRegistry {
+
+    private final PesitServerProperties properties;
+
+    private final Map<String, ConnectorFactory> factories = new ConcurrentHashMap<>();
+    private volatile URLClassLoader pluginClassLoader;
+
+    @PostConstruct
+    public void init() {
+        for (ConnectorFactory factory : ServiceLoader.load(ConnectorFactory.class)) {
+            registerFactory(factory);
+        }
+        loadExternalConnectors();
+        log.info("Connector registry initialized with {} type(s): {}", factories.size(), factories.keySet());
+    }
+
+    /**
+     * Load the connector JARs of the connectors directory
+     */
+    private void loadExternalConnectors() {
+        String directory = properties.getConnectorsDirectory();
+        if (directory == null || directory.isBlank() || !Files.isDirectory(Path.of(directory))) {
+            log.debug("Connectors directory not found: {}", directory);
+            return;
+        }
+        try (Stream<Path> jars = Files.list(Path.of(directory)).filter(p -> p.toString().endsWith(".jar"))) {
+            URL[] urls = jars.map(this::toUrl).filter(u -> u != null).toArray(URL[]::new);
+            if (urls.length == 0) {
+                return;
+            }
+            log.info("Loading {} connector JAR(s) from {}", urls.length, directory);
+            pluginClassLoader = new URLClassLoader(urls, getClass().getClassLoader());
+            for (ConnectorFactory factory : ServiceLoader.load(ConnectorFactory.class, pluginClassLoader)) {
+                registerFactory(factory);
+            }
+        } catch (Exception e) {
+            log.error("Failed to load external connectors: {}", e.getMessage(), e);
+        }
+    }
+
+    private URL toUrl(Path path) {
+        try {
+            return path.toUri().toURL();
+        } catch (Exception e) {
+            log.warn("Invalid connector path: {}", path);
+            return null;
+        }
+    }
+
+    /**
+     * Register a connector factory
+     */
+    public void registerFactory(ConnectorFactory factory) {
+        factories.put(factory.getType(), factory);
+        log.info("Registered connector: {} v{} ({})", factory.getName(), factory.getVersion(), factory.getType());
+    }
+
+    /**
+     * Get all available connector types
+     */
+    public Collection<String> getAvailableTypes() {
+        return factories.keySet();
+    }
+
+    /**
+     * Create a connector instance
+     */
+    public StorageConnector createConnector(String type, Map<String, String> config) throws ConnectorException {
+        ConnectorFactory factory = factories.get(type);
+        if (factory == null) {
+            throw new ConnectorException(ConnectorException.ErrorCode.INVALID_CONFIG,
+                    "Unknown connector type: " + type + ". Available: " + factories.keySet());
+        }
+        StorageConnector connector = factory.create();
+        connector.initialize(config != null ? config : Map.of());
+        return connector;
+    }
+
+    /**
+     * Open the storage connector of a logical file, for one transfer. The
+     * caller closes it when the transfer ends.
+     */
+    public StorageConnector open(LogicalFileConfig fileConfig) throws ConnectorException {
+        return createConnector(fileConfig.getConnectorType(), fileConfig.getConnectorConfig());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pluginClassLoader != null) {
+            try {
+                pluginClassLoader.close();
+            } catch (Exception e) {
+                log.debug("Error closing plugin classloader: {}", e.getMessage());
+            }
+            pluginClassLoader = null;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.pesitwizard.server.controller;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -257,6 +258,15 @@ public class TransferController {
         return ResponseEntity.ok(transferService.getDailyStatistics(days));
     }
 
+    /**
+     * Recompute the statistics rollups from the transfer records (backfill)
+     */
+    @PostMapping("/stats/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildStatistics() {
+        log.info("Transfer statistics rebuild triggered via API");
+        return ResponseEntity.ok(Map.of("transfers", transferService.rebuildStatistics()));
+    }
+
     // ========== Admin ==========
 
     /**
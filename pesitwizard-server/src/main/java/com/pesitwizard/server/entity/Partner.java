@@ -63,6 +63,13 @@ public class Partner {
     @Builder.Default
     private int maxConnections = 10;
 
+    /**
+     * Largest entity size (PI 25) negotiated with this partner, e.g. 4096 for
+     * CX or 4050 for SIT implementations (0 = server maximum)
+     */
+    @Builder.Default
+    private int maxEntitySize = 0;
+
     /**
      * Comma-separated list of allowed file patterns (empty = all)
      */
@@ -2,6 +2,8 @@ package com.pesitwizard.server.entity;
 
 import java.time.Instant;
 
+import com.pesitwizard.server.config.PesitServerProperties.ConnectionMode;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -51,6 +53,16 @@ public class PesitServerConfig {
     @Builder.Default
     private int maxConnections = 100;
 
+    @Column
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    private ConnectionMode connectionMode = ConnectionMode.VIRTUAL;
+
+    // Boxed: rows created before this column existed read back as null
+    @Column
+    @Builder.Default
+    private Integer acceptBacklog = 1024;
+
     @Column
     @Builder.Default
     private int connectionTimeout = 30000;
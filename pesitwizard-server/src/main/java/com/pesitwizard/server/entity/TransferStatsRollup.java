@@ -0,0 +1,102 @@
+package com.pesitwizard.server.entity;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import com.pesitwizard.server.entity.TransferRecord.TransferDirection;
+import com.pesitwizard.server.entity.TransferRecord.TransferStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number and volume of the transfers that ended in one time bucket, for one
+ * partner, server, direction and final status.
+ * Maintained as transfers end so that statistics never scan transfer_records.
+ * On PostgreSQL the table is created by
+ * {@code db/postgresql/transfer_stats_rollups.sql}.
+ */
+@Entity
+@Table(name = "transfer_stats_rollups", uniqueConstraints = @UniqueConstraint(name = "uk_rollup_bucket", columnNames = {
+        "granularity", "bucketStart", "partnerId", "serverId", "direction", "status" }), indexes = {
+                @Index(name = "idx_rollup_granularity_bucket", columnList = "granularity, bucketStart"),
+                @Index(name = "idx_rollup_partner", columnList = "partnerId")
+        })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferStatsRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Granularity granularity;
+
+    /**
+     * Start of the time bucket (UTC)
+     */
+    @Column(nullable = false)
+    private Instant bucketStart;
+
+    @Column(nullable = false, length = 64)
+    private String partnerId;
+
+    @Column(nullable = false, length = 64)
+    private String serverId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private TransferDirection direction;
+
+    /**
+     * Final status of the transfers (COMPLETED, FAILED, CANCELLED or
+     * RETRY_PENDING)
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TransferStatus status;
+
+    @Builder.Default
+    private long transferCount = 0;
+
+    @Builder.Default
+    private long bytesTransferred = 0;
+
+    /**
+     * Size of a rollup time bucket
+     */
+    public enum Granularity {
+        MINUTE(ChronoUnit.MINUTES),
+        HOUR(ChronoUnit.HOURS),
+        DAY(ChronoUnit.DAYS);
+
+        private final ChronoUnit unit;
+
+        Granularity(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        /**
+         * Start of the bucket containing an instant
+         */
+        public Instant bucketOf(Instant instant) {
+            return instant.truncatedTo(unit);
+        }
+    }
+}
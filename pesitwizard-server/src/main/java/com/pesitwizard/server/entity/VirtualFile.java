@@ -1,8 +1,13 @@
 package com.pesitwizard.server.entity;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.pesitwizard.transcoding.LineEnding;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -88,6 +93,36 @@ public class VirtualFile {
     @Builder.Default
     private int fileType = 0;
 
+    /**
+     * EBCDIC code page (e.g. IBM1047) used to transcode the data when PI 16
+     * announces EBCDIC - null = no transcoding
+     */
+    @Column(length = 32)
+    private String codePage;
+
+    /**
+     * Line ending after each record of a transcoded file: written when
+     * receiving, split on when sending
+     */
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    private LineEnding lineEnding = LineEnding.NONE;
+
+    /**
+     * Storage connector holding the files (e.g. s3, sftp) - null = local file
+     * system. Directories are then paths within the connector.
+     */
+    @Column(length = 32)
+    private String connectorType;
+
+    /**
+     * Configuration of the storage connector (bucket, host, credentials...)
+     */
+    @Convert(converter = ConnectorConfigConverter.class)
+    @Column(columnDefinition = "TEXT")
+    @Builder.Default
+    private Map<String, String> connectorConfig = new LinkedHashMap<>();
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -105,6 +105,7 @@ public class ConnectionValidator {
         config.setEnabled(partner.isEnabled());
         config.setAccessType(PartnerConfig.AccessType.valueOf(partner.getAccessType().name()));
         config.setMaxConnections(partner.getMaxConnections());
+        config.setMaxEntitySize(partner.getMaxEntitySize());
         if (partner.getAllowedFiles() != null && !partner.getAllowedFiles().isEmpty()) {
             config.setAllowedFiles(partner.getAllowedFiles().split(","));
         }
@@ -2,22 +2,35 @@ package com.pesitwizard.server.handler;
 
 import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.net.StandardSocketOptions;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SocketChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Arrays;
+import java.nio.file.StandardOpenOption;
 
 import org.springframework.stereotype.Component;
 
+import com.pesitwizard.compression.ArticleCompressor;
+import com.pesitwizard.compression.CompressionType;
+import com.pesitwizard.connector.ChannelConnector;
+import com.pesitwizard.connector.ConnectorException;
+import com.pesitwizard.connector.FileChannelConnector;
 import com.pesitwizard.fpdu.DiagnosticCode;
+import com.pesitwizard.fpdu.DtfStreamWriter;
 import com.pesitwizard.fpdu.Fpdu;
+import com.pesitwizard.fpdu.FpduCodec;
+import com.pesitwizard.fpdu.FpduFrame;
 import com.pesitwizard.fpdu.FpduIO;
 import com.pesitwizard.fpdu.FpduType;
 import com.pesitwizard.fpdu.ParameterIdentifier;
 import com.pesitwizard.fpdu.ParameterValue;
+import com.pesitwizard.fpdu.Stripe;
 import com.pesitwizard.server.config.PesitServerProperties;
 import com.pesitwizard.server.model.SessionContext;
 import com.pesitwizard.server.model.TransferContext;
+import com.pesitwizard.server.observability.PesitMetrics;
 import com.pesitwizard.server.service.FpduResponseBuilder;
 import com.pesitwizard.server.service.FpduValidator;
 import com.pesitwizard.server.service.TransferTracker;
@@ -37,6 +50,7 @@ public class DataTransferHandler {
     private final PesitServerProperties properties;
     private final TransferTracker transferTracker;
     private final FpduValidator fpduValidator;
+    private final PesitMetrics metrics;
 
     /**
      * Handle WRITE FPDU
@@ -53,13 +67,13 @@ public class DataTransferHandler {
     public Fpdu handleRead(SessionContext ctx, Fpdu fpdu, DataOutputStream out) throws IOException {
         TransferContext transfer = ctx.getCurrentTransfer();
 
-        if (transfer == null || transfer.getLocalPath() == null) {
+        if (transfer == null || transfer.location() == null) {
             log.error("[{}] READ: no file selected for transfer", ctx.getSessionId());
             return FpduResponseBuilder.buildAbort(ctx, DiagnosticCode.D2_205, "No file selected");
         }
 
         Path filePath = transfer.getLocalPath();
-        if (!Files.exists(filePath)) {
+        if (transfer.getConnector() == null && !Files.exists(filePath)) {
             log.error("[{}] READ: file not found: {}", ctx.getSessionId(), filePath);
             return FpduResponseBuilder.buildAbort(ctx, DiagnosticCode.D2_205, "File not found");
         }
@@ -68,13 +82,14 @@ public class DataTransferHandler {
         long restartPoint = extractRestartPoint(fpdu);
         if (restartPoint > 0) {
             transfer.setRestartPoint((int) restartPoint);
-            log.info("[{}] READ: resuming from position {} for {}", ctx.getSessionId(), restartPoint, filePath);
+            log.info("[{}] READ: resuming from position {} for {}", ctx.getSessionId(), restartPoint,
+                    transfer.location());
         } else {
-            log.info("[{}] READ: starting data transmission for {}", ctx.getSessionId(), filePath);
+            log.info("[{}] READ: starting data transmission for {}", ctx.getSessionId(), transfer.location());
         }
 
-        // 1. Send ACK(READ)
-        FpduIO.writeFpdu(out, FpduResponseBuilder.buildAckRead(ctx));
+        // 1. Send ACK(READ), not flushed on its own: it leaves with the first DTFs
+        FpduIO.writeFpdu(out, FpduResponseBuilder.buildAckRead(ctx), false);
         log.info("[{}] Sent ACK(READ)", ctx.getSessionId());
 
         // 2. Stream file data as DTF chunks
@@ -92,47 +107,107 @@ public class DataTransferHandler {
     }
 
     /**
-     * Stream file data to client
+     * Stream file data to client.
+     * On plain TCP the payload goes from the page cache to the socket with
+     * transferTo; on TLS it is read into one reusable buffer. The restart
+     * point is a read position, nothing is skipped.
+     * A whole-file send also computes the transfer checksum on the way.
+     * With PI 21 compression or EBCDIC transcoding every DTF is rewritten in
+     * the JVM, so the stream path is used even on plain TCP.
+     * A file held by a storage connector offering {@link FileChannelConnector}
+     * takes the same paths as a local file; on other connectors it is read
+     * sequentially, from the restart point, through the stream path.
      */
     private long streamFileData(SessionContext ctx, Path filePath, long startPosition, DataOutputStream out)
             throws IOException {
-        int maxChunkSize = properties.getMaxEntitySize();
-        long totalBytes = 0;
-        int recordCount = 0;
-        byte[] buffer = new byte[maxChunkSize];
+        TransferContext transfer = ctx.getCurrentTransfer();
+        // Each DTF, header included, fits the entity size negotiated in SELECT
+        int entitySize = transfer != null && transfer.getMaxEntitySize() > 0 ? transfer.getMaxEntitySize()
+                : properties.getMaxEntitySize();
+        int maxChunkSize = Math.min(entitySize, FpduCodec.MAX_FPDU_LENGTH) - FpduFrame.HEADER_LENGTH;
+        DtfStreamWriter writer = new DtfStreamWriter(maxChunkSize, ctx.getClientConnectionId());
+        SocketChannel channel = ctx.getDataChannel();
+        if (transfer != null && startPosition == 0) {
+            transfer.startDigest();
+            writer.digest(transfer.getDigest());
+        }
+        ArticleCompressor compressor = null;
+        if (transfer != null && transfer.getCompression() != 0) {
+            compressor = new ArticleCompressor(CompressionType.fromCode(transfer.getCompression()));
+            writer.compressor(compressor);
+        }
+        boolean transcoding = transfer != null && transfer.getTranscoder() != null;
+        if (transcoding) {
+            writer.transcoder(transfer.getTranscoder());
+        }
 
-        try (InputStream fileIn = Files.newInputStream(filePath)) {
-            // Skip to restart point if resuming transfer
-            if (startPosition > 0) {
-                long skipped = fileIn.skip(startPosition);
-                log.info("[{}] READ: skipped {} bytes to resume position", ctx.getSessionId(), skipped);
+        FileChannelConnector files = transfer != null && transfer.getConnector() != null
+                ? transfer.getConnector().capability(FileChannelConnector.class).orElse(null)
+                : null;
+        if (transfer != null && transfer.getConnector() != null && files == null) {
+            try (ReadableByteChannel in = openConnectorChannel(transfer, startPosition)) {
+                writer.transfer(in, out);
             }
-
-            int bytesRead;
-            while ((bytesRead = fileIn.read(buffer)) != -1) {
-                byte[] chunk = (bytesRead == buffer.length) ? buffer : Arrays.copyOf(buffer, bytesRead);
-                FpduIO.writeFpduWithData(out, FpduType.DTF, ctx.getClientConnectionId(), 0, chunk);
-
-                totalBytes += bytesRead;
-                recordCount++;
-
-                log.debug("[{}] DTF: sent {} bytes, total: {} bytes",
-                        ctx.getSessionId(), bytesRead, totalBytes);
+        } else {
+            try (FileChannel file = files != null ? openConnectorChannel(transfer, files)
+                    : FileChannel.open(filePath, StandardOpenOption.READ)) {
+                if (startPosition > 0) {
+                    log.info("[{}] READ: resuming at byte {} of {}", ctx.getSessionId(), startPosition, file.size());
+                }
+
+                if (channel != null && compressor == null && !transcoding) {
+                    out.flush();
+                    // Let the kernel coalesce each DTF header with its payload;
+                    // restoring TCP_NODELAY pushes out the tail
+                    boolean noDelay = channel.getOption(StandardSocketOptions.TCP_NODELAY);
+                    channel.setOption(StandardSocketOptions.TCP_NODELAY, false);
+                    try {
+                        writer.transfer(file, startPosition, channel);
+                    } finally {
+                        channel.setOption(StandardSocketOptions.TCP_NODELAY, noDelay);
+                    }
+                } else {
+                    // Flushed together with DTF.END
+                    writer.transfer(file, startPosition, out);
+                }
             }
         }
 
+        long totalBytes = writer.getBytesWritten();
+        int recordCount = writer.getFpduCount();
         log.info("[{}] READ: sent {} bytes in {} DTF chunk(s)", ctx.getSessionId(), totalBytes, recordCount);
 
         // Store transfer stats
-        TransferContext transfer = ctx.getCurrentTransfer();
         if (transfer != null) {
             transfer.setBytesTransferred(totalBytes);
             transfer.setRecordsTransferred(recordCount);
+            if (compressor != null) {
+                transfer.setCompressedBytes(compressor.getBytesOut());
+            }
         }
 
         return totalBytes;
     }
 
+    private ReadableByteChannel openConnectorChannel(TransferContext transfer, long startPosition)
+            throws IOException {
+        try {
+            return ChannelConnector.of(transfer.getConnector()).openReadable(transfer.getConnectorPath(),
+                    startPosition);
+        } catch (ConnectorException e) {
+            throw new IOException("Cannot read " + transfer.location() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private FileChannel openConnectorChannel(TransferContext transfer, FileChannelConnector files)
+            throws IOException {
+        try {
+            return files.openReadChannel(transfer.getConnectorPath());
+        } catch (ConnectorException e) {
+            throw new IOException("Cannot read " + transfer.location() + ": " + e.getMessage(), e);
+        }
+    }
+
     /**
      * TDE02B - RECEIVING DATA: Processing DTF, DTF.END, SYN, IDT
      */
@@ -181,11 +256,27 @@ public class DataTransferHandler {
             recordCount = transfer.getRecordsTransferred();
 
             // With streaming, data is already on disk via appendData() calls
-            // Just ensure the output stream is closed and flushed
-            transfer.closeOutputStream();
+            // Closing flushes it, and publishes the file on a connector
+            try {
+                transfer.closeOutputStream();
+            } catch (IOException e) {
+                log.error("[{}] TRANS.END: failed to store {}: {}", ctx.getSessionId(), transfer.location(),
+                        e.getMessage());
+                transferTracker.trackTransferFailed(ctx, DiagnosticCode.D2_213.name(),
+                        "File write error: " + e.getMessage());
+                return FpduResponseBuilder.buildAbort(ctx, DiagnosticCode.D2_213,
+                        "File write error: " + e.getMessage());
+            }
+
+            if (transfer.getStripedFile() != null) {
+                Fpdu error = completeStripe(ctx, transfer);
+                if (error != null) {
+                    return error;
+                }
+            }
 
             log.info("[{}] TRANS.END: streaming transfer complete, {} bytes written to {}",
-                    ctx.getSessionId(), byteCount, transfer.getLocalPath());
+                    ctx.getSessionId(), byteCount, transfer.location());
         }
 
         log.info("[{}] TRANS.END: transfer complete, {} bytes, {} records",
@@ -193,12 +284,37 @@ public class DataTransferHandler {
 
         // Track transfer completion
         transferTracker.trackTransferComplete(ctx);
+        recordCompression(transfer, "RECEIVE");
 
         ctx.transitionTo(ServerState.OF02_TRANSFER_READY);
 
         return FpduResponseBuilder.buildAckTransEnd(ctx, byteCount, recordCount);
     }
 
+    /**
+     * Record the range of a striped transfer as written, with the digest of
+     * its bytes. The stripe that completes the file gets the file checksum.
+     *
+     * @return an ABORT if the range is incomplete, null otherwise
+     */
+    private Fpdu completeStripe(SessionContext ctx, TransferContext transfer) {
+        Stripe stripe = transfer.getStripe();
+        if (transfer.getBytesTransferred() != stripe.length()) {
+            log.warn("[{}] TRANS.END: stripe {}/{} has {} bytes, expected {}", ctx.getSessionId(),
+                    stripe.index() + 1, stripe.count(), transfer.getBytesTransferred(), stripe.length());
+            return FpduResponseBuilder.buildAbort(ctx, DiagnosticCode.D2_223,
+                    "Stripe " + stripe.index() + " has " + transfer.getBytesTransferred() + " bytes, expected "
+                            + stripe.length());
+        }
+        String checksum = transfer.getStripedFile().complete(stripe, transfer.finishDigest());
+        if (checksum != null) {
+            transfer.setChecksum(checksum);
+            log.info("[{}] TRANS.END: striped file {} complete, checksum {}", ctx.getSessionId(),
+                    transfer.getLocalPath(), checksum);
+        }
+        return null;
+    }
+
     /**
      * Write received data to file
      */
@@ -236,9 +352,11 @@ public class DataTransferHandler {
             return FpduResponseBuilder.buildAbort(ctx, DiagnosticCode.D3_311);
         }
 
-        // Get data payload from FPDU
+        // Get data payload from FPDU, less the article lengths of a multi-article DTF
         byte[] data = fpdu.getData();
-        int dataLength = data != null ? data.length : 0;
+        int articles = FpduFrame.articleCount(fpdu.getFpduType(), fpdu.getIdSrc());
+        int dataLength = data == null ? 0
+                : articles > 1 ? data.length - articles * FpduFrame.ARTICLE_LENGTH_SIZE : data.length;
 
         // D2-220: Validate article length against announced record length
         FpduValidator.ValidationResult validation = fpduValidator.validateDtf(fpdu, transfer, data);
@@ -269,7 +387,7 @@ public class DataTransferHandler {
         }
 
         log.debug("[{}] DTF: received {} bytes", ctx.getSessionId(), dataLength);
-        transfer.setRecordsTransferred(transfer.getRecordsTransferred() + 1);
+        transfer.setRecordsTransferred(transfer.getRecordsTransferred() + articles);
         return null; // No response for DTF
     }
 
@@ -297,6 +415,7 @@ public class DataTransferHandler {
             transfer.setCurrentSyncPoint(syncPoint);
             // Reset bytes since last sync for D2-222 tracking
             transfer.setBytesSinceLastSync(0);
+            transfer.syncPointReceived();
             long bytesAtCheckpoint = transfer.getBytesTransferred();
             transferTracker.trackSyncPoint(ctx, bytesAtCheckpoint);
             log.info("[{}] SYN: checkpoint {} at {} bytes",
@@ -320,9 +439,10 @@ public class DataTransferHandler {
         log.info("[{}] IDT: transfer interrupted at {} bytes, sync point {}",
                 ctx.getSessionId(), bytesAtInterrupt, syncPointAtInterrupt);
 
-        // Close output stream to flush data written so far
+        // Give up the output stream: data written so far stays for a restart,
+        // but a connector does not publish the partial file
         if (transfer != null) {
-            transfer.closeOutputStream();
+            transfer.abortOutputStream();
         }
 
         // Track interruption in database - transfer can be resumed
@@ -347,6 +467,7 @@ public class DataTransferHandler {
 
         // Track transfer completion for SEND transfers
         transferTracker.trackTransferComplete(ctx);
+        recordCompression(transfer, "SEND");
 
         // Transition back to file open state (ready for CLOSE)
         ctx.transitionTo(ServerState.OF02_TRANSFER_READY);
@@ -354,6 +475,18 @@ public class DataTransferHandler {
         return FpduResponseBuilder.buildAckTransEnd(ctx, byteCount, recordCount);
     }
 
+    /**
+     * Record the compression ratio of a completed compressed transfer
+     */
+    private void recordCompression(TransferContext transfer, String direction) {
+        if (transfer == null || transfer.getCompressedBytes() == 0) {
+            return;
+        }
+        metrics.transferCompressed(direction, transfer.getBytesTransferred(), transfer.getCompressedBytes());
+        log.info("Compression ratio {}: {} bytes as {} bytes", CompressionType.fromCode(transfer.getCompression()),
+                transfer.getBytesTransferred(), transfer.getCompressedBytes());
+    }
+
     /**
      * Extract restart point from FPDU
      */
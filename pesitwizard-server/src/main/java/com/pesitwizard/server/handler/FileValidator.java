@@ -138,6 +138,10 @@ public class FileValidator {
                     .overwrite(vf.isOverwrite())
                     .maxFileSize(vf.getMaxFileSize())
                     .fileType(vf.getFileType())
+                    .codePage(vf.getCodePage())
+                    .lineEnding(vf.getLineEnding())
+                    .connectorType(vf.getConnectorType())
+                    .connectorConfig(vf.getConnectorConfig())
                     .build();
         }
 
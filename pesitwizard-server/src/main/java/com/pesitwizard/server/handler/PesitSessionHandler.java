@@ -7,11 +7,11 @@ import java.util.UUID;
 
 import org.springframework.stereotype.Component;
 
+import com.pesitwizard.fpdu.Capabilities;
 import com.pesitwizard.fpdu.DiagnosticCode;
 import com.pesitwizard.fpdu.Fpdu;
 import com.pesitwizard.fpdu.FpduBuilder;
-import com.pesitwizard.fpdu.FpduIO;
-import com.pesitwizard.fpdu.FpduParser;
+import com.pesitwizard.fpdu.FpduFrame;
 import com.pesitwizard.fpdu.FpduType;
 import com.pesitwizard.fpdu.ParameterIdentifier;
 import com.pesitwizard.fpdu.ParameterValue;
@@ -74,26 +74,40 @@ public class PesitSessionHandler {
      */
     public byte[] processIncomingFpdu(SessionContext ctx, byte[] rawData, DataOutputStream out)
             throws IOException {
+        return processIncomingFrame(ctx, FpduFrame.of(rawData), out);
+    }
+
+    /**
+     * Process an incoming FPDU decoded as a view over the connection buffer.
+     * DTF payloads are written straight from the frame to the transfer output
+     * without intermediate copies; other FPDUs are parsed into an {@link Fpdu}.
+     */
+    public byte[] processIncomingFrame(SessionContext ctx, FpduFrame frame, DataOutputStream out)
+            throws IOException {
         ctx.touch();
 
         // Log raw data for debugging
-        int[] phaseType = FpduIO.getPhaseAndType(rawData);
-        if (phaseType != null) {
+        if (log.isDebugEnabled() && frame.length() >= 4) {
             log.debug("[{}] Raw FPDU: length={}, phase=0x{}, type=0x{}",
-                    ctx.getSessionId(), rawData.length,
-                    String.format("%02X", phaseType[0]), String.format("%02X", phaseType[1]));
+                    ctx.getSessionId(), frame.length(),
+                    String.format("%02X", frame.getPhase()), String.format("%02X", frame.getType()));
         }
 
         // Check for DTF - needs special handling before parsing
-        if (FpduIO.isDtf(rawData) && ctx.getState() == ServerState.TDE02B_RECEIVING_DATA) {
-            byte[] data = FpduIO.extractDtfData(rawData);
-            if (data.length > 0) {
+        if (frame.isDtf() && ctx.getState() == ServerState.TDE02B_RECEIVING_DATA) {
+            int dataLength = frame.payloadLength();
+            if (dataLength > 0) {
                 TransferContext transfer = ctx.getCurrentTransfer();
                 if (transfer != null) {
                     try {
-                        transfer.appendData(data);
+                        FpduType type = frame.getFpduType();
+                        if (frame.articleCount() > 1) {
+                            frame.forEachArticle(article -> transfer.appendData(article, true));
+                        } else {
+                            transfer.appendData(frame.payload(), type != FpduType.DTFDA && type != FpduType.DTFMA);
+                        }
                         log.info("[{}] DTF: received {} bytes, total: {} bytes",
-                                ctx.getSessionId(), data.length, transfer.getBytesTransferred());
+                                ctx.getSessionId(), dataLength, transfer.getBytesTransferred());
                     } catch (java.io.IOException e) {
                         log.error("[{}] DTF: error writing data: {}", ctx.getSessionId(), e.getMessage());
                         throw new RuntimeException("Failed to write transfer data", e);
@@ -104,8 +118,7 @@ public class PesitSessionHandler {
         }
 
         // Parse FPDU
-        FpduParser parser = new FpduParser(rawData);
-        Fpdu fpdu = parser.parse();
+        Fpdu fpdu = frame.toFpdu();
 
         log.info("[{}] Received {} in state {}", ctx.getSessionId(), fpdu.getFpduType(), ctx.getState());
 
@@ -211,12 +224,20 @@ public class PesitSessionHandler {
         // Transition to CONNECTED state
         ctx.transitionTo(ServerState.CN03_CONNECTED);
 
-        return FpduResponseBuilder.buildAconnect(ctx,
+        Fpdu aconnect = FpduResponseBuilder.buildAconnect(ctx,
                 properties.getProtocolVersion(),
                 properties.isSyncPointsEnabled() && ctx.isSyncPointsEnabled(),
                 properties.isResyncEnabled() && ctx.isResyncEnabled(),
-                properties.getMaxEntitySize(),
+                ctx.maxEntitySize(properties.getMaxEntitySize()),
                 properties.getSyncIntervalKb());
+
+        // pesitwizard extensions: only answered to pesitwizard clients that asked for them
+        Capabilities peer = ctx.getPeerCapabilities();
+        Capabilities accepted = new Capabilities(Math.min(peer.stripes(), properties.getMaxStripes()));
+        if (!accepted.isEmpty()) {
+            aconnect.withParameter(new ParameterValue(ParameterIdentifier.PI_99_MESSAGE_LIBRE, accepted.encode()));
+        }
+        return aconnect;
     }
 
     /**
@@ -272,6 +293,12 @@ public class PesitSessionHandler {
 
         // PI 1 (CRC)
         ctx.setCrcEnabled(fpdu.hasParameter(ParameterIdentifier.PI_01_CRC));
+
+        // PI 99 (free message) - extensions announced by a pesitwizard client
+        ParameterValue pi99 = fpdu.getParameter(ParameterIdentifier.PI_99_MESSAGE_LIBRE);
+        ctx.setPeerCapabilities(pi99 != null && pi99.getValue() != null
+                ? Capabilities.parse(new String(pi99.getValue(), StandardCharsets.ISO_8859_1))
+                : Capabilities.NONE);
     }
 
     /**
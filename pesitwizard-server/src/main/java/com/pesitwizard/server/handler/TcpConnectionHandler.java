@@ -1,5 +1,6 @@
 package com.pesitwizard.server.handler;
 
+import java.io.BufferedOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
@@ -10,9 +11,12 @@ import java.net.SocketTimeoutException;
 
 import javax.net.ssl.SSLSocket;
 
+import com.pesitwizard.fpdu.FpduCodec;
+import com.pesitwizard.fpdu.FpduFrame;
 import com.pesitwizard.fpdu.FpduIO;
 import com.pesitwizard.server.config.PesitServerProperties;
 import com.pesitwizard.server.model.SessionContext;
+import com.pesitwizard.server.model.TransferContext;
 import com.pesitwizard.server.state.ServerState;
 
 import lombok.extern.slf4j.Slf4j;
@@ -23,6 +27,9 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class TcpConnectionHandler implements Runnable {
 
+    private static final int WRITE_BUFFER_SIZE = 8 * 1024;
+    private static final int INITIAL_RECEIVE_BUFFER_SIZE = 1024;
+
     private final Socket socket;
     private final PesitSessionHandler sessionHandler;
     private final PesitServerProperties properties;
@@ -61,37 +68,54 @@ public class TcpConnectionHandler implements Runnable {
             }
 
             sessionContext = sessionHandler.createSession(remoteAddress, serverId);
+            if (!(socket instanceof SSLSocket)) {
+                // Null unless the server socket was opened from a channel
+                sessionContext.setDataChannel(socket.getChannel());
+            }
 
             DataInputStream in = new DataInputStream(socket.getInputStream());
-            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            // Buffered so that each FPDU (length prefix and body) leaves in one
+            // write; FPDUs written without flush go out concatenated
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(socket.getOutputStream(), WRITE_BUFFER_SIZE));
+
+            // One reusable receive buffer per connection; each FPDU is a view over it.
+            // Sized for the connection phase, then for the entity size of each transfer
+            FpduCodec codec = new FpduCodec(INITIAL_RECEIVE_BUFFER_SIZE);
 
             // Main protocol loop - continue until session ends or socket closes
             boolean sessionActive = true;
             while (!socket.isClosed() && sessionActive) {
 
                 try {
-                    // Read FPDU using library helper
-                    byte[] fpduData = FpduIO.readRawFpdu(in);
+                    // Read FPDU into the connection buffer (no per-FPDU allocation)
+                    FpduFrame frame = codec.read(in);
 
                     // Log raw bytes for debugging
-                    int[] phaseType = FpduIO.getPhaseAndType(fpduData);
-                    if (phaseType != null) {
-                        log.debug("[{}] Received {} bytes, phase=0x{}, type=0x{}",
-                                sessionContext.getSessionId(), fpduData.length,
-                                String.format("%02X", phaseType[0]), String.format("%02X", phaseType[1]));
-                    } else {
-                        log.debug("[{}] Received {} bytes", sessionContext.getSessionId(), fpduData.length);
+                    if (log.isDebugEnabled()) {
+                        if (frame.length() >= 4) {
+                            log.debug("[{}] Received {} bytes, phase=0x{}, type=0x{}",
+                                    sessionContext.getSessionId(), frame.length(),
+                                    String.format("%02X", frame.getPhase()), String.format("%02X", frame.getType()));
+                        } else {
+                            log.debug("[{}] Received {} bytes", sessionContext.getSessionId(), frame.length());
+                        }
                     }
 
                     // Process the FPDU (may stream data directly to output for READ)
                     byte[] response = null;
                     try {
-                        response = sessionHandler.processIncomingFpdu(sessionContext, fpduData, out);
+                        response = sessionHandler.processIncomingFrame(sessionContext, frame, out);
                     } catch (Exception e) {
                         log.error("[{}] Error processing FPDU: {}", sessionContext.getSessionId(), e.getMessage(), e);
                         continue;
                     }
 
+                    TransferContext transfer = sessionContext.getCurrentTransfer();
+                    if (transfer != null && transfer.getMaxEntitySize() > codec.capacity()) {
+                        codec.reserve(transfer.getMaxEntitySize());
+                    }
+
                     // Send response if any (READ streams directly, so response may be null)
                     if (response != null) {
                         FpduIO.writeRawFpdu(out, response);
@@ -127,6 +151,10 @@ public class TcpConnectionHandler implements Runnable {
     }
 
     private void closeConnection() {
+        if (sessionContext != null) {
+            // Releases the storage connector of a transfer cut short
+            sessionContext.endTransfer();
+        }
         try {
             if (!socket.isClosed()) {
                 socket.close();
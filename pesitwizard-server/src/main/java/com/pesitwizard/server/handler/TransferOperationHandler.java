@@ -8,22 +8,32 @@ import java.nio.file.Paths;
 
 import org.springframework.stereotype.Component;
 
+import com.pesitwizard.compression.CompressionType;
+import com.pesitwizard.connector.ConnectorException;
+import com.pesitwizard.connector.StorageConnector;
 import com.pesitwizard.fpdu.DiagnosticCode;
 import com.pesitwizard.fpdu.Fpdu;
 import com.pesitwizard.fpdu.ParameterGroupIdentifier;
 import com.pesitwizard.fpdu.ParameterIdentifier;
 import com.pesitwizard.fpdu.ParameterValue;
+import com.pesitwizard.fpdu.Stripe;
 import com.pesitwizard.server.config.LogicalFileConfig;
 import com.pesitwizard.server.config.PesitServerProperties;
+import com.pesitwizard.server.connector.ConnectorRegistry;
 import com.pesitwizard.server.entity.TransferRecord.TransferDirection;
 import com.pesitwizard.server.model.SessionContext;
+import com.pesitwizard.server.model.StripedFile;
 import com.pesitwizard.server.model.TransferContext;
 import com.pesitwizard.server.model.ValidationResult;
 import com.pesitwizard.server.service.FileSystemService;
 import com.pesitwizard.server.service.FpduResponseBuilder;
 import com.pesitwizard.server.service.PathPlaceholderService;
+import com.pesitwizard.server.service.StripedTransferRegistry;
 import com.pesitwizard.server.service.TransferTracker;
 import com.pesitwizard.server.state.ServerState;
+import com.pesitwizard.transcoding.CodePage;
+import com.pesitwizard.transcoding.LineEnding;
+import com.pesitwizard.transcoding.RecordTranscoder;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -36,11 +46,16 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class TransferOperationHandler {
 
+    /** PI 16 value for EBCDIC data */
+    private static final int DATA_CODE_EBCDIC = 1;
+
     private final PesitServerProperties properties;
     private final FileValidator fileValidator;
     private final TransferTracker transferTracker;
     private final PathPlaceholderService placeholderService;
     private final FileSystemService fileSystemService;
+    private final StripedTransferRegistry stripedTransfers;
+    private final ConnectorRegistry connectorRegistry;
 
     /**
      * Handle CREATE FPDU
@@ -54,6 +69,7 @@ public class TransferOperationHandler {
         extractFileIdentification(fpdu, transfer);
         extractTransferAttributes(fpdu, transfer);
         extractLogicalAttributes(fpdu, transfer);
+        extractPhysicalAttributes(fpdu, transfer);
 
         // Validate logical file for CREATE (receive)
         ValidationResult fileValidation = fileValidator.validateForCreate(ctx, transfer);
@@ -65,29 +81,98 @@ public class TransferOperationHandler {
                     fileValidation.getMessage());
         }
 
-        // Prepare local file path
-        Path localPath = prepareReceivePath(ctx, transfer);
-        if (localPath == null) {
+        // Prepare local file path: the stripes of a striped file share one target
+        LogicalFileConfig fileConfig = ctx.getLogicalFileConfig();
+        boolean onConnector = fileConfig != null && fileConfig.usesConnector();
+        Stripe stripe;
+        Path localPath = null;
+        try {
+            stripe = extractStripe(fpdu);
+            if (onConnector && stripe != null) {
+                // Stripes are written at fixed offsets, which a connector stream cannot do
+                throw new IllegalArgumentException("file stored on a " + fileConfig.getConnectorType() + " connector");
+            }
+            if (!onConnector) {
+                localPath = stripe != null ? joinStripe(ctx, transfer, stripe) : prepareReceivePath(ctx, transfer);
+            }
+        } catch (IllegalArgumentException e) {
+            log.warn("[{}] Striped transfer refused: {}", ctx.getSessionId(), e.getMessage());
+            ctx.endTransfer();
+            return FpduResponseBuilder.buildAbort(ctx, DiagnosticCode.D2_226,
+                    "Striped transfer refused: " + e.getMessage());
+        } catch (IOException e) {
+            log.error("[{}] Cannot allocate striped file: {}", ctx.getSessionId(), e.getMessage());
+            ctx.endTransfer();
+            return FpduResponseBuilder.buildAbort(ctx, DiagnosticCode.D2_211,
+                    "Cannot allocate striped file: " + e.getMessage());
+        }
+        if (onConnector) {
+            try {
+                openReceiveConnector(ctx, transfer, fileConfig);
+            } catch (ConnectorException e) {
+                log.error("[{}] Cannot open {} connector: {}", ctx.getSessionId(), fileConfig.getConnectorType(),
+                        e.getMessage());
+                ctx.endTransfer();
+                return FpduResponseBuilder.buildAbort(ctx, DiagnosticCode.D2_211,
+                        "Cannot open storage connector: " + e.getMessage());
+            }
+        } else if (localPath == null) {
             return FpduResponseBuilder.buildAbort(ctx, DiagnosticCode.D2_211,
                     "Cannot prepare receive directory");
+        } else {
+            transfer.setLocalPath(localPath);
         }
-        transfer.setLocalPath(localPath);
 
-        log.info("[{}] CREATE: file='{}', transferId={}, priority={}, localPath={}",
+        log.info("[{}] CREATE: file='{}', transferId={}, priority={}, location={}",
                 ctx.getSessionId(), transfer.getFilename(), transfer.getTransferId(),
-                transfer.getPriority(), transfer.getLocalPath());
+                transfer.getPriority(), transfer.location());
 
         // Track transfer start
         transferTracker.trackTransferStart(ctx, properties.getServerId(), null,
-                TransferDirection.RECEIVE, transfer.getFilename(), null,
-                transfer.getLocalPath() != null ? transfer.getLocalPath().toString() : null);
+                TransferDirection.RECEIVE, transfer.getFilename(), null, transfer.location());
 
         ctx.transitionTo(ServerState.SF03_FILE_SELECTED);
 
-        int maxSize = Math.min(properties.getMaxEntitySize(),
-                transfer.getMaxEntitySize() > 0 ? transfer.getMaxEntitySize() : properties.getMaxEntitySize());
+        int maxSize = negotiateEntitySize(ctx, transfer);
         log.debug("[{}] handleCreate: building ACK(CREATE) with maxEntitySize={}", ctx.getSessionId(), maxSize);
-        return FpduResponseBuilder.buildAckCreate(ctx, maxSize);
+        Fpdu ackCreate = FpduResponseBuilder.buildAckCreate(ctx, maxSize);
+        if (stripe != null) {
+            // Echo the descriptor: the client only stripes when the server joined the stripe
+            ackCreate.withParameter(new ParameterValue(ParameterIdentifier.PI_99_MESSAGE_LIBRE, stripe.encode()));
+        }
+        return ackCreate;
+    }
+
+    /**
+     * Stripe descriptor of a striped transfer (PI 99), null for a plain CREATE
+     */
+    private Stripe extractStripe(Fpdu fpdu) {
+        ParameterValue pi99 = fpdu.getParameter(ParameterIdentifier.PI_99_MESSAGE_LIBRE);
+        if (pi99 == null || pi99.getValue() == null) {
+            return null;
+        }
+        return Stripe.parse(new String(pi99.getValue(), StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Join the target file of a stripe set, created by its first stripe
+     *
+     * @return the target path, or null if the receive directory is unusable
+     */
+    private Path joinStripe(SessionContext ctx, TransferContext transfer, Stripe stripe) throws IOException {
+        if (stripe.count() > properties.getMaxStripes()) {
+            throw new IllegalArgumentException(stripe.count() + " stripes, at most " + properties.getMaxStripes());
+        }
+        StripedFile stripedFile = stripedTransfers.join(ctx.getClientIdentifier(), stripe,
+                () -> prepareReceivePath(ctx, transfer));
+        if (stripedFile == null) {
+            return null;
+        }
+        transfer.setStripe(stripe);
+        transfer.setStripedFile(stripedFile);
+        log.info("[{}] CREATE: stripe {}/{} of set {}, {} bytes at {}", ctx.getSessionId(), stripe.index() + 1,
+                stripe.count(), stripe.setId(), stripe.length(), stripe.offset());
+        return stripedFile.getPath();
     }
 
     /**
@@ -115,6 +200,11 @@ public class TransferOperationHandler {
                     fileValidation.getMessage());
         }
 
+        LogicalFileConfig fileConfig = ctx.getLogicalFileConfig();
+        if (fileConfig != null && fileConfig.usesConnector()) {
+            return selectOnConnector(ctx, transfer, fileConfig);
+        }
+
         // Determine file path
         Path filePath = prepareSendPath(ctx, transfer);
 
@@ -152,25 +242,78 @@ public class TransferOperationHandler {
 
         ctx.transitionTo(ServerState.SF03_FILE_SELECTED);
 
-        return FpduResponseBuilder.buildAckSelect(ctx, properties.getMaxEntitySize());
+        return FpduResponseBuilder.buildAckSelect(ctx, negotiateEntitySize(ctx, transfer));
+    }
+
+    /**
+     * SELECT of a file held by a storage connector: READ streams it from there
+     */
+    private Fpdu selectOnConnector(SessionContext ctx, TransferContext transfer, LogicalFileConfig fileConfig) {
+        String path = connectorPath(fileConfig.getSendDirectory(), transfer.getFilename());
+        try {
+            StorageConnector connector = connectorRegistry.open(fileConfig);
+            transfer.setConnector(connector);
+            transfer.setConnectorPath(path);
+            if (!connector.exists(path)) {
+                log.warn("[{}] SELECT: file '{}' not found at {}", ctx.getSessionId(), transfer.getFilename(),
+                        transfer.location());
+                ctx.endTransfer();
+                return FpduResponseBuilder.buildAbort(ctx, DiagnosticCode.D2_205,
+                        "File '" + transfer.getFilename() + "' not found");
+            }
+            transfer.setConnectorFile(connector.getMetadata(path));
+        } catch (ConnectorException e) {
+            log.error("[{}] SELECT: cannot access '{}' on {} connector: {}", ctx.getSessionId(),
+                    transfer.getFilename(), fileConfig.getConnectorType(), e.getMessage());
+            ctx.endTransfer();
+            return FpduResponseBuilder.buildAbort(ctx, DiagnosticCode.D2_211,
+                    "Access denied to file: " + transfer.getFilename());
+        }
+
+        log.info("[{}] SELECT: file='{}', transferId={}, location={}",
+                ctx.getSessionId(), transfer.getFilename(), transfer.getTransferId(), transfer.location());
+        transferTracker.trackTransferStart(ctx, properties.getServerId(), null, TransferDirection.SEND,
+                transfer.getFilename(), transfer.getConnectorFile().getSize(), transfer.location());
+
+        ctx.transitionTo(ServerState.SF03_FILE_SELECTED);
+
+        return FpduResponseBuilder.buildAckSelect(ctx, negotiateEntitySize(ctx, transfer));
+    }
+
+    /**
+     * Entity size (PI 25) of the transfer: the size proposed in CREATE/SELECT,
+     * bounded by the server and partner maximum. DTFs are sized to it both
+     * ways.
+     */
+    private int negotiateEntitySize(SessionContext ctx, TransferContext transfer) {
+        int limit = ctx.maxEntitySize(properties.getMaxEntitySize());
+        int negotiated = transfer.getMaxEntitySize() > 0 ? Math.min(limit, transfer.getMaxEntitySize()) : limit;
+        transfer.setMaxEntitySize(negotiated);
+        return negotiated;
     }
 
     /**
      * Handle OPEN (ORF) FPDU
      */
     public Fpdu handleOpen(SessionContext ctx, Fpdu fpdu) throws IOException {
-        // Extract PI 21 (Compression)
+        // Extract PI 21 (Compression): accept the requested types we implement
         ParameterValue pi21 = fpdu.getParameter(ParameterIdentifier.PI_21_COMPRESSION);
-        if (pi21 != null && pi21.getValue() != null && pi21.getValue().length > 0
-                && ctx.getCurrentTransfer() != null) {
-            ctx.getCurrentTransfer().setCompression(pi21.getValue()[0] & 0xFF);
+        if (pi21 != null && ctx.getCurrentTransfer() != null) {
+            CompressionType compression = CompressionType.fromPi21(pi21.getValue())
+                    .negotiate(CompressionType.BOTH);
+            ctx.getCurrentTransfer().setCompression(compression.getCode());
+            log.info("[{}] OPEN: compression {}", ctx.getSessionId(), compression);
         }
 
         // Open output stream for streaming writes (write mode only)
         TransferContext transfer = ctx.getCurrentTransfer();
-        if (transfer != null && transfer.isWriteMode() && transfer.getLocalPath() != null) {
+        // Stripes are written at fixed offsets: their data is stored as received
+        if (transfer != null && transfer.getStripe() == null) {
+            configureTranscoding(ctx, transfer);
+        }
+        if (transfer != null && transfer.isWriteMode() && transfer.location() != null) {
             transfer.openOutputStream();
-            log.info("[{}] OPEN: streaming output opened to {}", ctx.getSessionId(), transfer.getLocalPath());
+            log.info("[{}] OPEN: streaming output opened to {}", ctx.getSessionId(), transfer.location());
         } else {
             log.info("[{}] OPEN: file opened for transfer", ctx.getSessionId());
         }
@@ -180,14 +323,46 @@ public class TransferOperationHandler {
         return FpduResponseBuilder.buildAckOpen(ctx);
     }
 
+    /**
+     * Set up EBCDIC transcoding when PI 16 announces EBCDIC data and the
+     * logical file declares its code page
+     */
+    private void configureTranscoding(SessionContext ctx, TransferContext transfer) {
+        LogicalFileConfig fileConfig = ctx.getLogicalFileConfig();
+        if (transfer.getDataCode() != DATA_CODE_EBCDIC || fileConfig == null
+                || fileConfig.getCodePage() == null || fileConfig.getCodePage().isBlank()) {
+            return;
+        }
+        try {
+            CodePage codePage = CodePage.of(fileConfig.getCodePage());
+            // PI 31 bit 0x80 = variable records; fixed records are cut every PI 32 bytes
+            boolean fixed = (transfer.getRecordFormat() & 0x80) == 0 && transfer.getRecordLength() > 0;
+            LineEnding lineEnding = fileConfig.getLineEnding() != null ? fileConfig.getLineEnding()
+                    : LineEnding.NONE;
+            if (transfer.isWriteMode()) {
+                transfer.setTranscoder(RecordTranscoder.toLocal(codePage, lineEnding,
+                        fixed ? transfer.getRecordLength() : 0));
+            } else {
+                // Each line of the local file is sent as one record
+                transfer.setTranscoder(RecordTranscoder.toRemote(codePage, lineEnding,
+                        transfer.getRecordLength(), fixed));
+            }
+            log.info("[{}] OPEN: transcoding with code page {}", ctx.getSessionId(), codePage);
+        } catch (IllegalArgumentException e) {
+            log.warn("[{}] OPEN: transcoding disabled for '{}': {}", ctx.getSessionId(),
+                    fileConfig.getId(), e.getMessage());
+        }
+    }
+
     /**
      * Handle CLOSE (CRF) FPDU
      */
     public Fpdu handleClose(SessionContext ctx, Fpdu fpdu) {
-        // Close the output stream to flush data to disk
+        // The output stream is closed by TRANS.END: one still open here is an
+        // unfinished write, aborted so that it is not published
         TransferContext transfer = ctx.getCurrentTransfer();
         if (transfer != null) {
-            transfer.closeOutputStream();
+            transfer.abortOutputStream();
             log.info("[{}] CLOSE: file closed, {} bytes written", ctx.getSessionId(), transfer.getBytesTransferred());
         } else {
             log.info("[{}] CLOSE: file closed", ctx.getSessionId());
@@ -201,9 +376,17 @@ public class TransferOperationHandler {
      */
     public Fpdu handleDeselect(SessionContext ctx, Fpdu fpdu) {
         log.info("[{}] DESELECT: file deselected", ctx.getSessionId());
+        TransferContext transfer = ctx.getCurrentTransfer();
+        // The stripe that completed a striped file reports its checksum
+        String checksum = transfer != null && transfer.getStripe() != null ? transfer.getChecksum() : null;
         ctx.endTransfer();
         ctx.transitionTo(ServerState.CN03_CONNECTED);
-        return FpduResponseBuilder.buildAckDeselect(ctx);
+        Fpdu ackDeselect = FpduResponseBuilder.buildAckDeselect(ctx);
+        if (checksum != null) {
+            ackDeselect.withParameter(new ParameterValue(ParameterIdentifier.PI_99_MESSAGE_LIBRE,
+                    Stripe.checksum(checksum)));
+        }
+        return ackDeselect;
     }
 
     /**
@@ -247,6 +430,12 @@ public class TransferOperationHandler {
             transfer.setMaxEntitySize(parseNumeric(pi25.getValue()));
         }
 
+        // PI 16 (Data Code)
+        ParameterValue pi16 = fpdu.getParameter(ParameterIdentifier.PI_16_CODE_DONNEES);
+        if (pi16 != null && pi16.getValue() != null && pi16.getValue().length > 0) {
+            transfer.setDataCode(pi16.getValue()[0] & 0xFF);
+        }
+
         // PI 15 (Transfer Restart)
         ParameterValue pi15 = fpdu.getParameter(ParameterIdentifier.PI_15_TRANSFERT_RELANCE);
         if (pi15 != null && pi15.getValue() != null && pi15.getValue().length > 0) {
@@ -278,6 +467,62 @@ public class TransferOperationHandler {
         }
     }
 
+    /**
+     * Extract physical attributes from FPDU: the announced size (PI 42),
+     * counted in KB when PI 41 is absent or 0
+     */
+    private void extractPhysicalAttributes(Fpdu fpdu, TransferContext transfer) {
+        ParameterValue pgi40 = fpdu.getParameter(ParameterGroupIdentifier.PGI_40_ATTR_PHYSIQUES);
+        if (pgi40 != null) {
+            ParameterValue pi41 = pgi40.getParameter(ParameterIdentifier.PI_41_UNITE_RESERVATION);
+            boolean kilobytes = pi41 == null || pi41.getValue() == null || pi41.getValue().length == 0
+                    || pi41.getValue()[0] == 0;
+            ParameterValue pi42 = pgi40.getParameter(ParameterIdentifier.PI_42_MAX_RESERVATION);
+            if (kilobytes && pi42 != null && pi42.getValue() != null) {
+                transfer.setAnnouncedSize((parseNumeric(pi42.getValue()) & 0xFFFFFFFFL) * 1024);
+            }
+        }
+    }
+
+    /**
+     * Open the storage connector of a received file and resolve its path in
+     * the receive directory, created on the connector if needed
+     */
+    private void openReceiveConnector(SessionContext ctx, TransferContext transfer, LogicalFileConfig fileConfig)
+            throws ConnectorException {
+        StorageConnector connector = connectorRegistry.open(fileConfig);
+        transfer.setConnector(connector);
+        String directory = fileConfig.getReceiveDirectory();
+        if (directory != null && !directory.isBlank()) {
+            connector.mkdir(directory);
+        }
+        transfer.setConnectorPath(connectorPath(directory, receiveFilename(ctx, transfer, fileConfig)));
+    }
+
+    /**
+     * Path of a file in a connector directory (null or blank = connector root)
+     */
+    private String connectorPath(String directory, String filename) {
+        if (directory == null || directory.isBlank()) {
+            return filename;
+        }
+        return directory.endsWith("/") ? directory + filename : directory + "/" + filename;
+    }
+
+    /**
+     * Name of a received file, from the filename pattern of its logical file
+     */
+    private String receiveFilename(SessionContext ctx, TransferContext transfer, LogicalFileConfig fileConfig) {
+        return placeholderService.resolvePath(
+                fileConfig.getReceiveFilenamePattern(),
+                PathPlaceholderService.PlaceholderContext.builder()
+                        .partnerId(ctx.getClientIdentifier())
+                        .virtualFile(transfer.getFilename())
+                        .transferId((long) transfer.getTransferId())
+                        .direction("RECEIVE")
+                        .build());
+    }
+
     /**
      * Prepare receive path for incoming file
      */
@@ -288,14 +533,7 @@ public class TransferOperationHandler {
         LogicalFileConfig fileConfig = ctx.getLogicalFileConfig();
         if (fileConfig != null && fileConfig.getReceiveDirectory() != null) {
             receiveDir = fileSystemService.normalizePath(fileConfig.getReceiveDirectory());
-            localFilename = placeholderService.resolvePath(
-                    fileConfig.getReceiveFilenamePattern(),
-                    PathPlaceholderService.PlaceholderContext.builder()
-                            .partnerId(ctx.getClientIdentifier())
-                            .virtualFile(transfer.getFilename())
-                            .transferId((long) transfer.getTransferId())
-                            .direction("RECEIVE")
-                            .build());
+            localFilename = receiveFilename(ctx, transfer, fileConfig);
         } else {
             receiveDir = fileSystemService.normalizePath(properties.getReceiveDirectory());
             localFilename = (transfer.getFilename() != null ? transfer.getFilename()
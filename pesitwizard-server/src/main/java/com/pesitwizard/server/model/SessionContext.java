@@ -1,7 +1,9 @@
 package com.pesitwizard.server.model;
 
+import java.nio.channels.SocketChannel;
 import java.time.Instant;
 
+import com.pesitwizard.fpdu.Capabilities;
 import com.pesitwizard.server.config.LogicalFileConfig;
 import com.pesitwizard.server.config.PartnerConfig;
 import com.pesitwizard.server.state.ServerState;
@@ -54,6 +56,9 @@ public class SessionContext {
     /** Resynchronization option negotiated (PI 23) */
     private boolean resyncEnabled;
 
+    /** pesitwizard extensions the client announced in CONNECT (PI 99) */
+    private Capabilities peerCapabilities = Capabilities.NONE;
+
     /** CRC enabled (PI 1) */
     private boolean crcEnabled;
 
@@ -87,6 +92,12 @@ public class SessionContext {
     /** Message filename for segmented message reception */
     private String messageFilename;
 
+    /**
+     * Channel of the plain TCP connection, used to stream READ data with
+     * transferTo (null for TLS connections)
+     */
+    private SocketChannel dataChannel;
+
     /**
      * Create a new session context
      */
@@ -123,15 +134,27 @@ public class SessionContext {
     }
 
     /**
-     * End the current transfer
+     * End the current transfer. A write still open at this point never got
+     * its TRANS.END, so it is aborted rather than published.
      */
     public void endTransfer() {
         if (this.currentTransfer != null) {
             this.currentTransfer.setEndTime(Instant.now());
+            this.currentTransfer.abortOutputStream();
+            this.currentTransfer.closeConnector();
         }
         this.currentTransfer = null;
     }
 
+    /**
+     * Largest entity size (PI 25) for this session: the server maximum,
+     * lowered by the partner's profile (e.g. for SIT/CX implementations)
+     */
+    public int maxEntitySize(int serverMaxEntitySize) {
+        int partnerMax = partnerConfig != null ? partnerConfig.getMaxEntitySize() : 0;
+        return partnerMax > 0 ? Math.min(partnerMax, serverMaxEntitySize) : serverMaxEntitySize;
+    }
+
     /**
      * Check if a transfer is in progress
      */
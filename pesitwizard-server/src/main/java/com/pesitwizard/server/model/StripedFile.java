@@ -0,0 +1,160 @@
+package com.pesitwizard.server.model;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.pesitwizard.fpdu.Stripe;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Target file of a striped transfer, written by several sessions at once.
+ *
+ * The file is pre-allocated to its full size when the first stripe joins;
+ * each stripe then writes its range through its own positioned channel. Each
+ * stripe completes with the {@value TransferContext#CHECKSUM_ALGORITHM} of
+ * its range, digested while it was written, and the file checksum is
+ * computed from those ({@link Stripe#fileChecksum}) when the last one is in:
+ * the file is never read back.
+ */
+@Slf4j
+@Getter
+public class StripedFile {
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final String setId;
+    private final Path path;
+    private final int count;
+    private final long fileSize;
+    private final BitSet completed;
+    private final String[] stripeChecksums;
+    private final AtomicInteger openRanges = new AtomicInteger();
+    private volatile Instant lastActivity = Instant.now();
+
+    public StripedFile(Stripe first, Path path) throws IOException {
+        this.setId = first.setId();
+        this.path = path;
+        this.count = first.count();
+        this.fileSize = first.fileSize();
+        this.completed = new BitSet(count);
+        this.stripeChecksums = new String[count];
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(fileSize);
+        }
+        log.info("Striped file {} pre-allocated to {} bytes for {} stripes", path, fileSize, count);
+    }
+
+    /**
+     * Whether a stripe belongs to this file
+     */
+    public boolean accepts(Stripe stripe) {
+        return stripe.count() == count && stripe.fileSize() == fileSize;
+    }
+
+    /**
+     * Output stream writing the range of a stripe, from its first byte. The
+     * file is not {@link #isStale stale} while the stream is open.
+     */
+    public OutputStream openRange(Stripe stripe) throws IOException {
+        lastActivity = Instant.now();
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE);
+        channel.position(stripe.offset());
+        openRanges.incrementAndGet();
+        return new BufferedOutputStream(new RangeOutputStream(Channels.newOutputStream(channel)),
+                WRITE_BUFFER_SIZE);
+    }
+
+    /**
+     * Record a stripe as fully written.
+     *
+     * @param stripeChecksum hex {@value TransferContext#CHECKSUM_ALGORITHM} of
+     *                       the range, null if it was not computed
+     * @return the file checksum when this was the last stripe and every
+     *         stripe had its checksum, null otherwise
+     */
+    public String complete(Stripe stripe, String stripeChecksum) {
+        synchronized (completed) {
+            lastActivity = Instant.now();
+            completed.set(stripe.index());
+            stripeChecksums[stripe.index()] = stripeChecksum;
+            if (completed.cardinality() < count) {
+                log.info("Stripe {}/{} of {} complete", stripe.index() + 1, count, path);
+                return null;
+            }
+            if (Arrays.asList(stripeChecksums).contains(null)) {
+                log.warn("All {} stripes of {} complete, without checksum", count, path);
+                return null;
+            }
+            log.info("All {} stripes of {} complete", count, path);
+            return Stripe.fileChecksum(Arrays.asList(stripeChecksums));
+        }
+    }
+
+    /**
+     * Whether every stripe has been written
+     */
+    public boolean isComplete() {
+        synchronized (completed) {
+            return completed.cardinality() == count;
+        }
+    }
+
+    /**
+     * Whether the file is incomplete and had no stripe written or completed
+     * since {@code staleBefore}
+     */
+    public boolean isStale(Instant staleBefore) {
+        return openRanges.get() == 0 && lastActivity.isBefore(staleBefore) && !isComplete();
+    }
+
+    /**
+     * Delete the partial file of an abandoned stripe set
+     */
+    public void deletePartial() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    /**
+     * Range stream recording its end as activity on the file
+     */
+    private class RangeOutputStream extends FilterOutputStream {
+
+        private boolean closed;
+
+        RangeOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (!closed) {
+                    closed = true;
+                    lastActivity = Instant.now();
+                    openRanges.decrementAndGet();
+                }
+            }
+        }
+    }
+}
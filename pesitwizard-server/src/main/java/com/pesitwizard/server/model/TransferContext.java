@@ -4,9 +4,26 @@ import java.io.BufferedOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import com.pesitwizard.compression.ArticleDecompressor;
+import com.pesitwizard.connector.Abortable;
+import com.pesitwizard.connector.ConnectorException;
+import com.pesitwizard.connector.FileChannelConnector;
+import com.pesitwizard.connector.FileMetadata;
+import com.pesitwizard.connector.StorageConnector;
+import com.pesitwizard.compression.CompressionType;
+import com.pesitwizard.fpdu.Stripe;
+import com.pesitwizard.transcoding.RecordTranscoder;
 
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
@@ -14,12 +31,16 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * Context for a file transfer operation.
  * Supports streaming writes directly to disk to avoid memory issues with large
- * files.
+ * files. When the virtual file targets a {@link StorageConnector}, data is
+ * streamed to and from the connector instead, through the same bounded buffer.
  */
 @Data
 @Slf4j
 public class TransferContext {
 
+    /** Algorithm of the checksum computed while data is streamed */
+    public static final String CHECKSUM_ALGORITHM = "SHA-256";
+
     /** Transfer identifier (PI 13) */
     private int transferId;
 
@@ -32,6 +53,15 @@ public class TransferContext {
     /** Local file path where data is stored */
     private Path localPath;
 
+    /** Storage connector holding the file, null for the local file system */
+    private StorageConnector connector;
+
+    /** Path of the file within the connector */
+    private String connectorPath;
+
+    /** Metadata of the file selected on the connector (SELECT) */
+    private FileMetadata connectorFile;
+
     /** Transfer priority (PI 17) */
     private int priority;
 
@@ -47,12 +77,33 @@ public class TransferContext {
     /** File organization (PI 33) */
     private int fileOrganization;
 
+    /** Announced file size in bytes (PI 42), 0 if unknown */
+    private long announcedSize;
+
     /** Maximum entity size (PI 25) */
     private int maxEntitySize;
 
-    /** Compression mode (PI 21) */
+    /** Compression mode (PI 21), a {@link CompressionType} code */
     private int compression;
 
+    /** Compressed bytes sent or received on the wire, 0 without compression */
+    private long compressedBytes;
+
+    /** Decoder of compressed DTF payloads, created on the first one */
+    private ArticleDecompressor decompressor;
+
+    /** EBCDIC translation (PI 16) configured for the virtual file, null when none */
+    private RecordTranscoder transcoder;
+
+    /** Output stream view that writes processed data like appendData() */
+    private OutputStream dataSink;
+
+    /** Output stream view that transcodes a copy of decoded data into dataSink */
+    private OutputStream transcodingSink;
+
+    /** Reusable copy of data that cannot be transcoded where it lies */
+    private byte[] scratch;
+
     /** Is this a write (receive) or read (send) operation */
     private boolean writeMode;
 
@@ -77,6 +128,24 @@ public class TransferContext {
     /** Output stream for streaming writes directly to disk */
     private OutputStream fileOutputStream;
 
+    /** Channel view of fileOutputStream, created on first direct-buffer write */
+    private WritableByteChannel outputChannel;
+
+    /** Connector stream under fileOutputStream, to discard an unfinished write */
+    private OutputStream connectorOutputStream;
+
+    /** Running checksum of the data written or sent, null when not computed */
+    private MessageDigest digest;
+
+    /** Checksum known without a running digest, e.g. of a completed striped file */
+    private String checksum;
+
+    /** Range received by this transfer when the file is striped (PI 99), null otherwise */
+    private Stripe stripe;
+
+    /** Target shared by the stripes of the file, null when not striped */
+    private StripedFile stripedFile;
+
     /** Transfer start time */
     private Instant startTime;
 
@@ -93,18 +162,27 @@ public class TransferContext {
      * Reset the transfer context for a new transfer
      */
     public void reset() {
-        closeOutputStream();
+        abortOutputStream();
+        closeConnector();
         this.transferId = 0;
         this.fileType = 0;
         this.filename = null;
         this.localPath = null;
+        this.connectorPath = null;
+        this.connectorFile = null;
         this.priority = 0;
         this.dataCode = 0;
         this.recordFormat = 0;
         this.recordLength = 0;
         this.fileOrganization = 0;
+        this.announcedSize = 0;
         this.maxEntitySize = 0;
         this.compression = 0;
+        this.compressedBytes = 0;
+        this.decompressor = null;
+        this.transcoder = null;
+        this.dataSink = null;
+        this.transcodingSink = null;
         this.writeMode = false;
         this.restart = false;
         this.restartPoint = 0;
@@ -113,6 +191,10 @@ public class TransferContext {
         this.bytesTransferred = 0;
         this.recordsTransferred = 0;
         this.fileOutputStream = null;
+        this.digest = null;
+        this.checksum = null;
+        this.stripe = null;
+        this.stripedFile = null;
         this.startTime = null;
         this.endTime = null;
         this.clientId = null;
@@ -124,16 +206,67 @@ public class TransferContext {
      * Must be called after localPath is set.
      */
     public void openOutputStream() throws IOException {
+        if (connector != null) {
+            // No local copy: only the write buffer is held between the DTFs and the backend
+            try {
+                Optional<FileChannelConnector> files = connector.capability(FileChannelConnector.class);
+                OutputStream out = files.isPresent() ? files.get().write(connectorPath, announcedSize)
+                        : connector.write(connectorPath);
+                this.connectorOutputStream = out;
+                this.fileOutputStream = new BufferedOutputStream(out, 64 * 1024);
+            } catch (ConnectorException e) {
+                throw new IOException("Cannot write " + location() + ": " + e.getMessage(), e);
+            }
+            startDigest();
+            log.debug("Opened streaming output to {}", location());
+            return;
+        }
         if (localPath == null) {
             throw new IllegalStateException("localPath must be set before opening output stream");
         }
+        if (stripedFile != null) {
+            // Positioned in the pre-allocated file; the digest of the range goes into the file checksum
+            this.fileOutputStream = stripedFile.openRange(stripe);
+            startDigest();
+            log.debug("Opened stripe {}/{} output to {} at {}", stripe.index() + 1, stripe.count(), localPath,
+                    stripe.offset());
+            return;
+        }
         // Ensure parent directory exists
         Files.createDirectories(localPath.getParent());
         // Use buffered output stream with 64KB buffer for better performance
         this.fileOutputStream = new BufferedOutputStream(new FileOutputStream(localPath.toFile()), 64 * 1024);
+        startDigest();
         log.debug("Opened streaming output to {}", localPath);
     }
 
+    /**
+     * Start a {@value #CHECKSUM_ALGORITHM} checksum of the data that follows,
+     * so that it is ready at TRANS.END without reading the file back.
+     */
+    public void startDigest() {
+        try {
+            this.digest = MessageDigest.getInstance(CHECKSUM_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            log.warn("{} not available, transfer checksum disabled", CHECKSUM_ALGORITHM);
+            this.digest = null;
+        }
+    }
+
+    /**
+     * Complete the running checksum.
+     *
+     * @return the hex checksum, or {@link #getChecksum()} if none was started
+     */
+    public String finishDigest() {
+        if (digest == null) {
+            return checksum;
+        }
+        String checksum = HexFormat.of().formatHex(digest.digest());
+        digest = null;
+        return checksum;
+    }
+
     /**
      * Append data directly to file (streaming - no memory buffering).
      */
@@ -141,25 +274,218 @@ public class TransferContext {
         if (fileOutputStream == null) {
             throw new IllegalStateException("Output stream not opened. Call openOutputStream() first.");
         }
+        if (compression != 0 || transcoder != null) {
+            appendProcessed(ByteBuffer.wrap(data), true);
+            return;
+        }
         fileOutputStream.write(data);
+        if (digest != null) {
+            digest.update(data);
+        }
         bytesTransferred += data.length;
         recordsTransferred++;
     }
 
     /**
-     * Close the output stream and flush data to disk.
+     * Append a slice of a received DTF (e.g. {@code FpduFrame.payload()})
+     * without copying it into an intermediate array. Heap buffers are written
+     * from their backing array, direct buffers through a channel view of the
+     * output stream. The buffer is fully consumed.
+     */
+    public void appendData(ByteBuffer data) throws IOException {
+        appendData(data, true);
+    }
+
+    /**
+     * Append a received DTF payload that may be one piece of a segmented
+     * article (DTFDA, DTFMA); {@code endOfArticle} is false for those. When
+     * compression was negotiated the payload is decoded first; with a
+     * transcoder it is then translated (in place for heap buffers). The
+     * counters and checksum cover the data as written to the file.
      */
-    public void closeOutputStream() {
+    public void appendData(ByteBuffer data, boolean endOfArticle) throws IOException {
+        if (fileOutputStream == null) {
+            throw new IllegalStateException("Output stream not opened. Call openOutputStream() first.");
+        }
+        if (compression != 0 || transcoder != null) {
+            appendProcessed(data, endOfArticle);
+            return;
+        }
+        int length = data.remaining();
+        if (digest != null) {
+            digest.update(data.duplicate());
+        }
+        if (data.hasArray()) {
+            fileOutputStream.write(data.array(), data.arrayOffset() + data.position(), length);
+            data.position(data.limit());
+        } else {
+            if (outputChannel == null) {
+                outputChannel = Channels.newChannel(fileOutputStream);
+            }
+            while (data.hasRemaining()) {
+                outputChannel.write(data);
+            }
+        }
+        bytesTransferred += length;
+        recordsTransferred++;
+    }
+
+    /**
+     * A sync point was received: the next article is not compressed
+     * vertically (PeSIT E Annexe A).
+     */
+    public void syncPointReceived() {
+        if (decompressor != null) {
+            decompressor.reset();
+        }
+    }
+
+    private void appendProcessed(ByteBuffer data, boolean endOfArticle) throws IOException {
+        if (dataSink == null) {
+            dataSink = new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    write(new byte[] { (byte) b }, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    fileOutputStream.write(b, off, len);
+                    if (digest != null) {
+                        digest.update(b, off, len);
+                    }
+                    bytesTransferred += len;
+                }
+            };
+            // Decoded bytes may still be referenced by the decoder (vertical
+            // compression): transcode a copy
+            transcodingSink = new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    write(new byte[] { (byte) b }, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    while (len > 0) {
+                        int n = Math.min(len, scratch().length);
+                        System.arraycopy(b, off, scratch, 0, n);
+                        transcoder.write(scratch, 0, n, dataSink);
+                        off += n;
+                        len -= n;
+                    }
+                }
+            };
+        }
+        if (compression != 0) {
+            if (decompressor == null) {
+                decompressor = new ArticleDecompressor(CompressionType.fromCode(compression));
+            }
+            compressedBytes += data.remaining();
+            decompressor.decode(data, transcoder == null ? dataSink : transcodingSink);
+            if (endOfArticle) {
+                decompressor.endArticle();
+            }
+        } else if (data.hasArray()) {
+            transcoder.write(data.array(), data.arrayOffset() + data.position(), data.remaining(), dataSink);
+            data.position(data.limit());
+        } else {
+            transcodeCopy(data);
+        }
+        if (endOfArticle) {
+            if (transcoder != null) {
+                transcoder.endArticle(dataSink);
+            }
+            recordsTransferred++;
+        }
+    }
+
+    private void transcodeCopy(ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            int n = Math.min(data.remaining(), scratch().length);
+            data.get(scratch, 0, n);
+            transcoder.write(scratch, 0, n, dataSink);
+        }
+    }
+
+    private byte[] scratch() {
+        if (scratch == null) {
+            scratch = new byte[8192];
+        }
+        return scratch;
+    }
+
+    /**
+     * Close the output stream and flush data to disk. For a connector, this
+     * publishes the file, e.g. completes an S3 upload.
+     *
+     * @throws IOException if the data could not be stored: the file is
+     *                     incomplete and the transfer must fail
+     */
+    public void closeOutputStream() throws IOException {
         if (fileOutputStream != null) {
             try {
                 fileOutputStream.flush();
                 fileOutputStream.close();
                 log.debug("Closed streaming output, total bytes: {}", bytesTransferred);
-            } catch (IOException e) {
-                log.error("Error closing output stream: {}", e.getMessage());
+            } finally {
+                fileOutputStream = null;
+                outputChannel = null;
+                connectorOutputStream = null;
+            }
+        }
+    }
+
+    /**
+     * Give up the output stream of a write that did not reach TRANS.END
+     * (interruption, lost connection). A connector stream that supports it
+     * is aborted, so no truncated file is published; other files keep the
+     * data written so far for a restart.
+     */
+    public void abortOutputStream() {
+        if (fileOutputStream == null) {
+            return;
+        }
+        try {
+            if (connectorOutputStream instanceof Abortable abortable) {
+                abortable.abort();
+                log.info("Aborted write of {} after {} bytes", location(), bytesTransferred);
+            } else {
+                fileOutputStream.flush();
+                fileOutputStream.close();
+                log.debug("Closed interrupted output, total bytes: {}", bytesTransferred);
             }
+        } catch (IOException e) {
+            log.warn("Error giving up output of {}: {}", location(), e.getMessage());
+        } finally {
             fileOutputStream = null;
+            outputChannel = null;
+            connectorOutputStream = null;
+        }
+    }
+
+    /**
+     * Close the storage connector of the transfer, if any.
+     */
+    public void closeConnector() {
+        if (connector != null) {
+            try {
+                connector.close();
+            } catch (Exception e) {
+                log.warn("Error closing {} connector: {}", connector.getType(), e.getMessage());
+            }
+            connector = null;
+        }
+    }
+
+    /**
+     * Where the data of the transfer is stored, for logs and tracking
+     */
+    public String location() {
+        if (connector != null) {
+            return connector.getType() + ":" + connectorPath;
         }
+        return localPath != null ? localPath.toString() : null;
     }
 
     /**
@@ -1,5 +1,6 @@
 package com.pesitwizard.server.observability;
 
+import java.util.Collection;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -34,6 +35,7 @@ public class PesitMetrics {
     private final Counter transfersFailed;
     private final DistributionSummary transferBytes;
     private final Timer transferDuration;
+    private final Counter compressedSavedBytes;
 
     // Protocol metrics
     private final Counter fpduReceived;
@@ -43,6 +45,20 @@ public class PesitMetrics {
     // Server metrics
     private final AtomicInteger runningServers = new AtomicInteger(0);
 
+    // Transfer tracking metrics
+    private final Timer trackingFlushDuration;
+    private final DistributionSummary trackingFlushSize;
+    private final Counter trackingOverflows;
+    private final Counter trackingErrors;
+
+    // Audit write-behind metrics
+    private final Timer auditFlushDuration;
+    private final DistributionSummary auditFlushSize;
+    private final Counter auditBlocked;
+    private final Counter auditDropped;
+    private final Counter auditSpilled;
+    private final Counter auditErrors;
+
     public PesitMetrics(MeterRegistry registry) {
         this.registry = registry;
 
@@ -90,6 +106,11 @@ public class PesitMetrics {
                 .publishPercentiles(0.5, 0.75, 0.95, 0.99)
                 .register(registry);
 
+        compressedSavedBytes = Counter.builder("pesit.transfers.compression.saved")
+                .description("Bytes saved on the wire by PI 21 compression")
+                .baseUnit("bytes")
+                .register(registry);
+
         // Protocol counters
         fpduReceived = Counter.builder("pesit.fpdu.received")
                 .description("Total FPDUs received")
@@ -103,6 +124,50 @@ public class PesitMetrics {
                 .description("Total protocol errors")
                 .register(registry);
 
+        // Transfer tracking write-behind
+        trackingFlushDuration = Timer.builder("pesit.tracking.flush.duration")
+                .description("Time to write a batch of tracking updates")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+
+        trackingFlushSize = DistributionSummary.builder("pesit.tracking.flush.size")
+                .description("Number of tracking updates per flushed batch")
+                .register(registry);
+
+        trackingOverflows = Counter.builder("pesit.tracking.overflows")
+                .description("Tracking updates that found the queue full and were flushed by the caller")
+                .register(registry);
+
+        trackingErrors = Counter.builder("pesit.tracking.errors")
+                .description("Tracking updates that could not be written")
+                .register(registry);
+
+        // Audit write-behind
+        auditFlushDuration = Timer.builder("pesit.audit.flush.duration")
+                .description("Time to insert a batch of audit events")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+
+        auditFlushSize = DistributionSummary.builder("pesit.audit.flush.size")
+                .description("Number of audit events per inserted batch")
+                .register(registry);
+
+        auditBlocked = Counter.builder("pesit.audit.blocked")
+                .description("Audit events whose caller waited for queue space")
+                .register(registry);
+
+        auditDropped = Counter.builder("pesit.audit.dropped")
+                .description("Audit events dropped because the queue was full")
+                .register(registry);
+
+        auditSpilled = Counter.builder("pesit.audit.spilled")
+                .description("Audit events written to the spill file")
+                .register(registry);
+
+        auditErrors = Counter.builder("pesit.audit.errors")
+                .description("Audit events whose batch insert failed")
+                .register(registry);
+
         log.info("PeSIT metrics initialized");
     }
 
@@ -154,6 +219,29 @@ public class PesitMetrics {
                 .record(bytes);
     }
 
+    /**
+     * Total bytes of completed transfers since startup, for load reporting
+     */
+    public double getTransferredBytes() {
+        return transferBytes.totalAmount();
+    }
+
+    /**
+     * Record the compression ratio (data size / wire size) of a compressed
+     * transfer
+     */
+    public void transferCompressed(String direction, long bytes, long compressedBytes) {
+        if (compressedBytes <= 0) {
+            return;
+        }
+        DistributionSummary.builder("pesit.transfers.compression.ratio")
+                .description("Data size divided by compressed size, per compressed transfer")
+                .tag("direction", direction)
+                .register(registry)
+                .record((double) bytes / compressedBytes);
+        compressedSavedBytes.increment(Math.max(bytes - compressedBytes, 0));
+    }
+
     public void transferFailed(String partnerId, String direction, String errorCode) {
         transfersFailed.increment();
 
@@ -209,6 +297,56 @@ public class PesitMetrics {
         return runningServers.get();
     }
 
+    // ========== Transfer Tracking Metrics ==========
+
+    public void registerTrackingQueue(Collection<?> queue) {
+        Gauge.builder("pesit.tracking.queue.depth", queue, Collection::size)
+                .description("Number of tracking updates waiting to be written")
+                .register(registry);
+    }
+
+    public void trackingFlushed(int updates, long durationNanos) {
+        trackingFlushSize.record(updates);
+        trackingFlushDuration.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void trackingOverflow() {
+        trackingOverflows.increment();
+    }
+
+    public void trackingError() {
+        trackingErrors.increment();
+    }
+
+    // ========== Audit Metrics ==========
+
+    public void registerAuditQueue(Collection<?> queue) {
+        Gauge.builder("pesit.audit.queue.depth", queue, Collection::size)
+                .description("Number of audit events waiting to be written")
+                .register(registry);
+    }
+
+    public void auditFlushed(int events, long durationNanos) {
+        auditFlushSize.record(events);
+        auditFlushDuration.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void auditBlocked() {
+        auditBlocked.increment();
+    }
+
+    public void auditDropped() {
+        auditDropped.increment();
+    }
+
+    public void auditSpilled(int events) {
+        auditSpilled.increment(events);
+    }
+
+    public void auditError(int events) {
+        auditErrors.increment(events);
+    }
+
     // ========== Custom Timer for Operations ==========
 
     public Timer.Sample startTimer() {
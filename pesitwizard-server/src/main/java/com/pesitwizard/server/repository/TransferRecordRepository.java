@@ -1,6 +1,7 @@
 package com.pesitwizard.server.repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,6 +29,11 @@ public interface TransferRecordRepository extends JpaRepository<TransferRecord,
      */
     Optional<TransferRecord> findByTransferId(String transferId);
 
+    /**
+     * Find several transfers by transfer ID (batched tracking updates)
+     */
+    List<TransferRecord> findByTransferIdIn(Collection<String> transferIds);
+
     /**
      * Find all transfers for a session
      */
@@ -100,22 +106,6 @@ public interface TransferRecordRepository extends JpaRepository<TransferRecord,
      */
     long countByStatus(TransferStatus status);
 
-    /**
-     * Count transfers by partner
-     */
-    long countByPartnerId(String partnerId);
-
-    /**
-     * Count transfers by direction
-     */
-    long countByDirection(TransferDirection direction);
-
-    /**
-     * Count active transfers
-     */
-    @Query("SELECT COUNT(t) FROM TransferRecord t WHERE t.status IN ('INITIATED', 'IN_PROGRESS', 'PAUSED')")
-    long countActiveTransfers();
-
     /**
      * Count active transfers for a server
      */
@@ -123,36 +113,38 @@ public interface TransferRecordRepository extends JpaRepository<TransferRecord,
     long countActiveTransfersByServerId(@Param("serverId") String serverId);
 
     /**
-     * Get total bytes transferred
+     * Get transfer statistics by partner
      */
-    @Query("SELECT COALESCE(SUM(t.bytesTransferred), 0) FROM TransferRecord t WHERE t.status = 'COMPLETED'")
-    long getTotalBytesTransferred();
+    @Query("SELECT t.partnerId, COUNT(t), SUM(t.bytesTransferred) FROM TransferRecord t WHERE t.status = 'COMPLETED' GROUP BY t.partnerId ORDER BY COUNT(t) DESC")
+    List<Object[]> getTransferStatsByPartner();
 
     /**
-     * Get total bytes transferred for a partner
+     * Count transfers in the given statuses by status and direction (only the
+     * few transfers not yet ended: statistics of ended transfers come from
+     * the rollups)
      */
-    @Query("SELECT COALESCE(SUM(t.bytesTransferred), 0) FROM TransferRecord t WHERE t.partnerId = :partnerId AND t.status = 'COMPLETED'")
-    long getTotalBytesTransferredByPartner(@Param("partnerId") String partnerId);
+    @Query("SELECT t.status, t.direction, COUNT(t) FROM TransferRecord t WHERE t.status IN :statuses GROUP BY t.status, t.direction")
+    List<Object[]> countByStatusInGroupByStatusAndDirection(@Param("statuses") Collection<TransferStatus> statuses);
 
     /**
-     * Get transfer statistics by status
+     * Count the transfers of a partner in the given statuses
      */
-    @Query("SELECT t.status, COUNT(t) FROM TransferRecord t GROUP BY t.status")
-    List<Object[]> getTransferCountByStatus();
+    long countByPartnerIdAndStatusIn(String partnerId, Collection<TransferStatus> statuses);
 
     /**
-     * Get transfer statistics by partner
+     * Rollup dimensions of the next transfers in the given statuses, by
+     * increasing id (rollup backfill): id, partnerId, serverId, direction,
+     * status, completedAt, updatedAt, bytesTransferred
      */
-    @Query("SELECT t.partnerId, COUNT(t), SUM(t.bytesTransferred) FROM TransferRecord t WHERE t.status = 'COMPLETED' GROUP BY t.partnerId ORDER BY COUNT(t) DESC")
-    List<Object[]> getTransferStatsByPartner();
+    @Query("SELECT t.id, t.partnerId, t.serverId, t.direction, t.status, t.completedAt, t.updatedAt, t.bytesTransferred " +
+            "FROM TransferRecord t WHERE t.id > :after AND t.status IN :statuses ORDER BY t.id")
+    List<Object[]> findRollupRowsAfter(@Param("after") long after, @Param("statuses") Collection<TransferStatus> statuses,
+            Pageable pageable);
 
     /**
-     * Get daily transfer statistics
+     * Check whether any transfer is in the given statuses
      */
-    @Query(value = "SELECT DATE(started_at) as day, COUNT(*) as count, SUM(bytes_transferred) as bytes " +
-            "FROM transfer_records WHERE status = 'COMPLETED' AND started_at >= :since " +
-            "GROUP BY DATE(started_at) ORDER BY day DESC", nativeQuery = true)
-    List<Object[]> getDailyTransferStats(@Param("since") Instant since);
+    boolean existsByStatusIn(Collection<TransferStatus> statuses);
 
     /**
      * Find interrupted transfers for a node (for recovery after restart)
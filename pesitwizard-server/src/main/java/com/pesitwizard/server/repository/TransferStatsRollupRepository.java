@@ -0,0 +1,87 @@
+package com.pesitwizard.server.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.pesitwizard.server.entity.TransferRecord.TransferDirection;
+import com.pesitwizard.server.entity.TransferRecord.TransferStatus;
+import com.pesitwizard.server.entity.TransferStatsRollup;
+import com.pesitwizard.server.entity.TransferStatsRollup.Granularity;
+
+/**
+ * Repository for transfer statistics rollups.
+ */
+@Repository
+public interface TransferStatsRollupRepository extends JpaRepository<TransferStatsRollup, Long> {
+
+    /**
+     * Check whether the row of a rollup bucket exists
+     */
+    boolean existsByGranularityAndBucketStartAndPartnerIdAndServerIdAndDirectionAndStatus(
+            Granularity granularity, Instant bucketStart, String partnerId, String serverId,
+            TransferDirection direction, TransferStatus status);
+
+    /**
+     * Create the empty row of a rollup bucket unless it exists (PostgreSQL).
+     * A row created meanwhile by another transaction is skipped instead of
+     * failing the caller's transaction.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO transfer_stats_rollups (granularity, bucket_start, partner_id, server_id, " +
+            "direction, status, transfer_count, bytes_transferred) " +
+            "VALUES (:granularity, :bucketStart, :partnerId, :serverId, :direction, :status, 0, 0) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("granularity") String granularity, @Param("bucketStart") Instant bucketStart,
+            @Param("partnerId") String partnerId, @Param("serverId") String serverId,
+            @Param("direction") String direction, @Param("status") String status);
+
+    /**
+     * Add transfers to an existing rollup bucket
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE TransferStatsRollup r SET r.transferCount = r.transferCount + :count, " +
+            "r.bytesTransferred = r.bytesTransferred + :bytes " +
+            "WHERE r.granularity = :granularity AND r.bucketStart = :bucketStart AND r.partnerId = :partnerId " +
+            "AND r.serverId = :serverId AND r.direction = :direction AND r.status = :status")
+    int increment(@Param("granularity") Granularity granularity, @Param("bucketStart") Instant bucketStart,
+            @Param("partnerId") String partnerId, @Param("serverId") String serverId,
+            @Param("direction") TransferDirection direction, @Param("status") TransferStatus status,
+            @Param("count") long count, @Param("bytes") long bytes);
+
+    /**
+     * Transfer count and bytes by status and direction
+     */
+    @Query("SELECT r.status, r.direction, SUM(r.transferCount), SUM(r.bytesTransferred) " +
+            "FROM TransferStatsRollup r WHERE r.granularity = :granularity GROUP BY r.status, r.direction")
+    List<Object[]> sumByStatusAndDirection(@Param("granularity") Granularity granularity);
+
+    /**
+     * Transfer count and bytes of a partner by status
+     */
+    @Query("SELECT r.status, SUM(r.transferCount), SUM(r.bytesTransferred) FROM TransferStatsRollup r " +
+            "WHERE r.granularity = :granularity AND r.partnerId = :partnerId GROUP BY r.status")
+    List<Object[]> sumByStatusForPartner(@Param("granularity") Granularity granularity,
+            @Param("partnerId") String partnerId);
+
+    /**
+     * Transfer count and bytes per bucket for one status, latest first
+     */
+    @Query("SELECT r.bucketStart, SUM(r.transferCount), SUM(r.bytesTransferred) FROM TransferStatsRollup r " +
+            "WHERE r.granularity = :granularity AND r.status = :status AND r.bucketStart >= :since " +
+            "GROUP BY r.bucketStart ORDER BY r.bucketStart DESC")
+    List<Object[]> sumByBucket(@Param("granularity") Granularity granularity,
+            @Param("status") TransferStatus status, @Param("since") Instant since);
+
+    /**
+     * Delete the buckets of a granularity older than a date (retention)
+     */
+    @Modifying
+    @Query("DELETE FROM TransferStatsRollup r WHERE r.granularity = :granularity AND r.bucketStart < :before")
+    int deleteOlderThan(@Param("granularity") Granularity granularity, @Param("before") Instant before);
+}
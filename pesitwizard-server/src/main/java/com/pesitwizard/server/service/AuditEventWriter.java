@@ -0,0 +1,342 @@
+package com.pesitwizard.server.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pesitwizard.server.config.AuditProperties;
+import com.pesitwizard.server.config.AuditProperties.OverflowPolicy;
+import com.pesitwizard.server.config.ClusterSchemaConfig;
+import com.pesitwizard.server.entity.AuditEvent;
+import com.pesitwizard.server.observability.PesitMetrics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind pipeline for audit events.
+ *
+ * Events go into a bounded queue drained by a single writer thread, which
+ * inserts them with JDBC batches of up to batch-size events, at most
+ * flush-interval-ms after the first event of the batch was queued. When the
+ * queue is full the overflow policy applies: wait (BLOCK), count and drop
+ * (DROP) or append to a local spill file (SPILL) that the writer inserts
+ * later, once the queue is idle.
+ */
+@Slf4j
+@Component
+public class AuditEventWriter {
+
+    private static final String COLUMNS = "timestamp, category, event_type, outcome, username, auth_method, "
+            + "client_ip, session_id, resource_type, resource_id, action, server_id, partner_id, transfer_id, "
+            + "filename, bytes_transferred, duration_ms, error_code, error_message, details, user_agent, "
+            + "request_uri, http_method, http_status";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditProperties properties;
+    private final PesitMetrics metrics;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<AuditEvent> queue;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock spillLock = new ReentrantLock();
+    private final String insertSql;
+    private final Path spillFile;
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public AuditEventWriter(JdbcTemplate jdbcTemplate, AuditProperties properties, PesitMetrics metrics,
+            ObjectMapper objectMapper, ClusterSchemaConfig schemaConfig) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.metrics = metrics;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        // Same schema rewrite as ClusterSchemaInterceptor, which only sees Hibernate SQL
+        String schema = schemaConfig.getSchemaName();
+        String table = "public".equals(schema) ? "audit_events" : schema + ".audit_events";
+        this.insertSql = "INSERT INTO " + table + " (" + COLUMNS + ") VALUES ("
+                + "?, ".repeat(23) + "?)";
+        this.spillFile = Path.of(properties.getSpillFile());
+        metrics.registerAuditQueue(queue);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isWriteBehind()) {
+            return;
+        }
+        running = true;
+        writerThread = Thread.ofPlatform().name("audit-writer").daemon().start(this::run);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (writerThread != null) {
+            writerThread.interrupt();
+            try {
+                writerThread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Check whether audit events are queued rather than saved by the caller.
+     */
+    public boolean isEnabled() {
+        return properties.isWriteBehind();
+    }
+
+    /**
+     * Queue an event. Never touches the database; with the BLOCK policy it may
+     * wait for queue space up to block-timeout-ms.
+     *
+     * @return false if the event was dropped
+     */
+    public boolean submit(AuditEvent event) {
+        if (queue.offer(event)) {
+            return true;
+        }
+        return switch (properties.getOverflowPolicy()) {
+            case BLOCK -> block(event);
+            case DROP -> drop(event);
+            case SPILL -> spill(List.of(event));
+        };
+    }
+
+    /**
+     * Number of events waiting to be written.
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Write all queued events on the calling thread, after the batch the
+     * writer thread may be filling.
+     */
+    public void flush() {
+        writeLock.lock();
+        try {
+            List<AuditEvent> batch = new ArrayList<>(batchSize());
+            while (queue.drainTo(batch, batchSize()) > 0) {
+                write(batch);
+                batch.clear();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void run() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize());
+        while (running) {
+            try {
+                AuditEvent first = queue.poll(properties.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    replaySpill();
+                    continue;
+                }
+                // Held while the batch fills so that flush() waits for it
+                writeLock.lock();
+                try {
+                    batch.add(first);
+                    fillBatch(batch);
+                } finally {
+                    if (!batch.isEmpty()) {
+                        write(batch);
+                        batch.clear();
+                    }
+                    writeLock.unlock();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Audit writer error: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Add queued events until the batch is full or flush-interval-ms has
+     * elapsed.
+     */
+    private void fillBatch(List<AuditEvent> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMs());
+        while (batch.size() < batchSize()) {
+            queue.drainTo(batch, batchSize() - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize() || remaining <= 0) {
+                return;
+            }
+            AuditEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void write(List<AuditEvent> batch) {
+        long start = System.nanoTime();
+        try {
+            jdbcTemplate.batchUpdate(insertSql, batch, batch.size(), this::bind);
+            metrics.auditFlushed(batch.size(), System.nanoTime() - start);
+        } catch (Exception e) {
+            metrics.auditError(batch.size());
+            log.warn("Failed to write {} audit events: {}", batch.size(), e.getMessage());
+            if (properties.getOverflowPolicy() == OverflowPolicy.SPILL) {
+                spill(batch);
+            }
+        }
+    }
+
+    private void bind(PreparedStatement ps, AuditEvent event) throws SQLException {
+        int i = 1;
+        ps.setTimestamp(i++, Timestamp.from(event.getTimestamp()));
+        ps.setString(i++, event.getCategory().name());
+        ps.setString(i++, event.getEventType().name());
+        ps.setString(i++, event.getOutcome().name());
+        ps.setString(i++, event.getUsername());
+        ps.setString(i++, event.getAuthMethod());
+        ps.setString(i++, event.getClientIp());
+        ps.setString(i++, event.getSessionId());
+        ps.setString(i++, event.getResourceType());
+        ps.setString(i++, event.getResourceId());
+        ps.setString(i++, event.getAction());
+        ps.setString(i++, event.getServerId());
+        ps.setString(i++, event.getPartnerId());
+        ps.setString(i++, event.getTransferId());
+        ps.setString(i++, event.getFilename());
+        ps.setObject(i++, event.getBytesTransferred(), Types.BIGINT);
+        ps.setObject(i++, event.getDurationMs(), Types.BIGINT);
+        ps.setString(i++, event.getErrorCode());
+        ps.setString(i++, event.getErrorMessage());
+        ps.setString(i++, event.getDetails());
+        ps.setString(i++, event.getUserAgent());
+        ps.setString(i++, event.getRequestUri());
+        ps.setString(i++, event.getHttpMethod());
+        ps.setObject(i, event.getHttpStatus(), Types.INTEGER);
+    }
+
+    private boolean block(AuditEvent event) {
+        metrics.auditBlocked();
+        try {
+            if (queue.offer(event, properties.getBlockTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return drop(event);
+    }
+
+    private boolean drop(AuditEvent event) {
+        metrics.auditDropped();
+        log.debug("Audit queue full, dropped {} event", event.getEventType());
+        return false;
+    }
+
+    /**
+     * Append events to the spill file as JSON lines.
+     */
+    private boolean spill(List<AuditEvent> events) {
+        spillLock.lock();
+        try {
+            if (spillFile.getParent() != null) {
+                Files.createDirectories(spillFile.getParent());
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (AuditEvent event : events) {
+                    writer.write(objectMapper.writeValueAsString(event));
+                    writer.newLine();
+                }
+            }
+            metrics.auditSpilled(events.size());
+            return true;
+        } catch (IOException e) {
+            log.error("Failed to spill {} audit events to {}: {}", events.size(), spillFile, e.getMessage());
+            events.forEach(this::drop);
+            return false;
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    /**
+     * Insert spilled events once the queue is idle. The file is renamed
+     * first so that new overflow goes to a fresh file.
+     */
+    private void replaySpill() {
+        if (!Files.exists(spillFile) || !queue.isEmpty()) {
+            return;
+        }
+        Path replay = spillFile.resolveSibling(spillFile.getFileName() + ".replay");
+        spillLock.lock();
+        try {
+            if (!Files.exists(replay)) {
+                Files.move(spillFile, replay, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            log.warn("Cannot replay audit spill file {}: {}", spillFile, e.getMessage());
+            return;
+        } finally {
+            spillLock.unlock();
+        }
+
+        int replayed = 0;
+        List<AuditEvent> batch = new ArrayList<>(batchSize());
+        try (BufferedReader reader = Files.newBufferedReader(replay, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                batch.add(objectMapper.readValue(line, AuditEvent.class));
+                if (batch.size() >= batchSize()) {
+                    jdbcTemplate.batchUpdate(insertSql, batch, batch.size(), this::bind);
+                    replayed += batch.size();
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(insertSql, batch, batch.size(), this::bind);
+                replayed += batch.size();
+            }
+            Files.delete(replay);
+            log.info("Replayed {} spilled audit events", replayed);
+        } catch (Exception e) {
+            // Kept for the next idle period; events already inserted may be inserted again
+            log.warn("Failed to replay audit spill file after {} events: {}", replayed, e.getMessage());
+        }
+    }
+
+    private int batchSize() {
+        return Math.max(1, properties.getBatchSize());
+    }
+}
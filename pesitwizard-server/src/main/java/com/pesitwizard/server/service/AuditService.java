@@ -8,7 +8,6 @@ import java.util.Map;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -35,6 +34,7 @@ public class AuditService {
 
     private final AuditEventRepository auditRepository;
     private final ObjectMapper objectMapper;
+    private final AuditEventWriter auditWriter;
 
     @Value("${pesit.audit.retention-days:365}")
     private int retentionDays;
@@ -45,25 +45,28 @@ public class AuditService {
     // ========== Audit Event Creation ==========
 
     /**
-     * Log an audit event asynchronously
+     * Log an audit event asynchronously (same as {@link #log}, which no longer
+     * waits on the database when write-behind is enabled)
      */
-    @Async
-    @Transactional
     public void logAsync(AuditEvent.AuditEventBuilder builder) {
         log(builder);
     }
 
     /**
-     * Log an audit event synchronously
+     * Log an audit event. With write-behind enabled the event is queued for a
+     * batch insert and returned without an ID; the caller never waits on the
+     * database.
      */
-    @Transactional
     public AuditEvent log(AuditEvent.AuditEventBuilder builder) {
         AuditEvent event = builder
                 .timestamp(Instant.now())
                 .build();
 
-        // Save to database
-        event = auditRepository.save(event);
+        if (auditWriter.isEnabled()) {
+            auditWriter.submit(event);
+        } else {
+            event = auditRepository.save(event);
+        }
 
         // Log to console in structured format
         if (logToConsole) {
@@ -168,6 +168,7 @@ public class CertificateService {
         store.setUpdatedBy(updatedBy);
 
         store = certificateRepository.save(store);
+        sslContextFactory.invalidate(store.getName());
         log.info("Updated certificate store: {}", store.getName());
 
         return store;
@@ -182,6 +183,7 @@ public class CertificateService {
                 .orElseThrow(() -> new IllegalArgumentException("Certificate store not found: " + id));
 
         certificateRepository.delete(store);
+        sslContextFactory.invalidate(store.getName());
         log.info("Deleted certificate store: {}", store.getName());
     }
 
@@ -239,7 +241,9 @@ public class CertificateService {
         store.setIsDefault(true);
         store.setUpdatedAt(Instant.now());
 
-        return certificateRepository.save(store);
+        store = certificateRepository.save(store);
+        sslContextFactory.invalidate(store.getName());
+        return store;
     }
 
     /**
@@ -253,7 +257,9 @@ public class CertificateService {
         store.setActive(true);
         store.setUpdatedAt(Instant.now());
 
-        return certificateRepository.save(store);
+        store = certificateRepository.save(store);
+        sslContextFactory.invalidate(store.getName());
+        return store;
     }
 
     /**
@@ -267,7 +273,9 @@ public class CertificateService {
         store.setActive(false);
         store.setUpdatedAt(Instant.now());
 
-        return certificateRepository.save(store);
+        store = certificateRepository.save(store);
+        sslContextFactory.invalidate(store.getName());
+        return store;
     }
 
     // ========== Certificate Info ==========
@@ -504,6 +512,7 @@ public class CertificateService {
             }
 
             store = certificateRepository.save(store);
+            sslContextFactory.invalidate(store.getName());
             log.info("Added certificate '{}' to truststore '{}'", alias, store.getName());
             return store;
 
@@ -554,6 +563,7 @@ public class CertificateService {
             }
 
             store = certificateRepository.save(store);
+            sslContextFactory.invalidate(store.getName());
             log.info("Added key pair '{}' to keystore '{}'", alias, store.getName());
             return store;
 
@@ -588,6 +598,7 @@ public class CertificateService {
             store.setUpdatedAt(java.time.Instant.now());
 
             store = certificateRepository.save(store);
+            sslContextFactory.invalidate(store.getName());
             log.info("Removed entry '{}' from store '{}'", alias, store.getName());
             return store;
 
@@ -1,12 +1,24 @@
 package com.pesitwizard.server.service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.pesitwizard.security.SecretsService;
+import com.pesitwizard.server.cluster.ClusterEvent;
+import com.pesitwizard.server.cluster.ClusterEventListener;
+import com.pesitwizard.server.cluster.ClusterMessage;
+import com.pesitwizard.server.cluster.ClusterProvider;
 import com.pesitwizard.server.config.PesitServerProperties;
 import com.pesitwizard.server.entity.Partner;
 import com.pesitwizard.server.entity.VirtualFile;
@@ -20,17 +32,27 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * Service for managing partners and virtual files configuration.
  * Combines database storage with YAML-based defaults.
+ *
+ * Partner and virtual file resolution for CONNECT, CREATE and SELECT is
+ * served from an in-memory snapshot, rebuilt after every change made through
+ * this service and on CONFIG_CHANGED cluster events from other nodes.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 @SuppressWarnings("null")
-public class ConfigService {
+public class ConfigService implements ClusterEventListener {
 
     private final PartnerRepository partnerRepository;
     private final VirtualFileRepository virtualFileRepository;
     private final PesitServerProperties serverProperties;
     private final SecretsService secretsService;
+    private final ClusterProvider clusterProvider;
+
+    // Bumped on every invalidation so that a snapshot loaded concurrently is not kept
+    private final Object lookupLock = new Object();
+    private long lookupVersion;
+    private volatile LookupSnapshot lookupSnapshot;
 
     /**
      * Initialize database with YAML-configured partners and files if empty
@@ -49,6 +71,7 @@ public class ConfigService {
                         .enabled(config.isEnabled())
                         .accessType(Partner.AccessType.valueOf(config.getAccessType().name()))
                         .maxConnections(config.getMaxConnections())
+                        .maxEntitySize(config.getMaxEntitySize())
                         .allowedFiles(
                                 config.getAllowedFiles() != null ? String.join(",", config.getAllowedFiles()) : null)
                         .build();
@@ -72,11 +95,26 @@ public class ConfigService {
                         .overwrite(config.isOverwrite())
                         .maxFileSize(config.getMaxFileSize())
                         .fileType(config.getFileType())
+                        .codePage(config.getCodePage())
+                        .lineEnding(config.getLineEnding())
+                        .connectorType(config.getConnectorType())
+                        .connectorConfig(config.getConnectorConfig())
                         .build();
                 virtualFileRepository.save(file);
                 log.debug("Imported virtual file: {}", file.getId());
             });
         }
+
+        clusterProvider.addListener(this);
+        lookups();
+    }
+
+    @Override
+    public void onClusterEvent(ClusterEvent event) {
+        if (event.getType() == ClusterEvent.Type.CONFIG_CHANGED) {
+            log.debug("Configuration changed on node {}, reloading partners and virtual files", event.getNodeId());
+            invalidateLookups();
+        }
     }
 
     // ==================== Partner Management ====================
@@ -94,21 +132,21 @@ public class ConfigService {
     }
 
     /**
-     * Find partner by ID (case-insensitive)
+     * Find partner by ID (case-insensitive), from the lookup snapshot
      */
     public Optional<Partner> findPartner(String partnerId) {
         if (partnerId == null)
             return Optional.empty();
 
+        LookupSnapshot snapshot = lookups();
+
         // Try exact match first
-        Optional<Partner> partner = partnerRepository.findById(partnerId);
-        if (partner.isPresent())
-            return partner;
+        Partner partner = snapshot.partners().get(partnerId);
+        if (partner != null)
+            return Optional.of(partner);
 
         // Try case-insensitive match
-        return partnerRepository.findAll().stream()
-                .filter(p -> p.getId().equalsIgnoreCase(partnerId))
-                .findFirst();
+        return Optional.ofNullable(snapshot.partnersIgnoreCase().get(partnerId.toLowerCase(Locale.ROOT)));
     }
 
     @Transactional
@@ -123,13 +161,16 @@ public class ConfigService {
             log.debug("Partner password encrypted for storage");
         }
 
-        return partnerRepository.save(partner);
+        Partner saved = partnerRepository.save(partner);
+        configChanged();
+        return saved;
     }
 
     @Transactional
     public void deletePartner(String id) {
         log.info("Deleting partner: {}", id);
         partnerRepository.deleteById(id);
+        configChanged();
     }
 
     public boolean partnerExists(String id) {
@@ -151,36 +192,130 @@ public class ConfigService {
     }
 
     /**
-     * Find virtual file by filename (supports pattern matching)
+     * Find virtual file by filename (supports pattern matching), from the
+     * lookup snapshot
      */
     public Optional<VirtualFile> findVirtualFile(String filename) {
         if (filename == null)
             return Optional.empty();
 
+        LookupSnapshot snapshot = lookups();
+
         // Try exact match first
-        Optional<VirtualFile> file = virtualFileRepository.findById(filename);
-        if (file.isPresent())
-            return file;
+        VirtualFile file = snapshot.files().get(filename);
+        if (file != null)
+            return Optional.of(file);
 
         // Try pattern match
-        return virtualFileRepository.findByEnabled(true).stream()
-                .filter(f -> f.matches(filename))
+        return snapshot.filePatterns().stream()
+                .filter(p -> p.pattern().matcher(filename).matches())
+                .map(FilePattern::file)
                 .findFirst();
     }
 
     @Transactional
     public VirtualFile saveVirtualFile(VirtualFile file) {
         log.info("Saving virtual file: {}", file.getId());
-        return virtualFileRepository.save(file);
+        VirtualFile saved = virtualFileRepository.save(file);
+        configChanged();
+        return saved;
     }
 
     @Transactional
     public void deleteVirtualFile(String id) {
         log.info("Deleting virtual file: {}", id);
         virtualFileRepository.deleteById(id);
+        configChanged();
     }
 
     public boolean virtualFileExists(String id) {
         return virtualFileRepository.existsById(id);
     }
+
+    // ==================== Lookup Snapshot ====================
+
+    /**
+     * Drop the lookup snapshot; the next lookup reloads it from the database.
+     */
+    public void invalidateLookups() {
+        synchronized (lookupLock) {
+            lookupVersion++;
+            lookupSnapshot = null;
+        }
+    }
+
+    /**
+     * Invalidate the local snapshot and the other nodes' ones once the
+     * current transaction, if any, has committed.
+     */
+    private void configChanged() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publishConfigChange();
+                }
+            });
+        } else {
+            publishConfigChange();
+        }
+    }
+
+    private void publishConfigChange() {
+        invalidateLookups();
+        clusterProvider.broadcast(new ClusterMessage(ClusterMessage.Type.CONFIG_CHANGED, null,
+                clusterProvider.getNodeName()));
+    }
+
+    private LookupSnapshot lookups() {
+        LookupSnapshot snapshot = lookupSnapshot;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        long version;
+        synchronized (lookupLock) {
+            version = lookupVersion;
+        }
+        snapshot = loadLookups();
+        synchronized (lookupLock) {
+            if (lookupVersion == version) {
+                lookupSnapshot = snapshot;
+            }
+        }
+        return snapshot;
+    }
+
+    private LookupSnapshot loadLookups() {
+        Map<String, Partner> partners = new HashMap<>();
+        Map<String, Partner> partnersIgnoreCase = new HashMap<>();
+        for (Partner partner : partnerRepository.findAll()) {
+            partners.put(partner.getId(), partner);
+            partnersIgnoreCase.putIfAbsent(partner.getId().toLowerCase(Locale.ROOT), partner);
+        }
+
+        Map<String, VirtualFile> files = new HashMap<>();
+        List<FilePattern> filePatterns = new ArrayList<>();
+        for (VirtualFile file : virtualFileRepository.findAll()) {
+            files.put(file.getId(), file);
+            if (file.isEnabled()) {
+                try {
+                    // Same wildcard translation as VirtualFile.matches
+                    filePatterns.add(new FilePattern(file, Pattern.compile(file.getId().replace("*", ".*"))));
+                } catch (PatternSyntaxException e) {
+                    log.warn("Virtual file {} only matches by exact name: {}", file.getId(), e.getDescription());
+                }
+            }
+        }
+
+        log.debug("Loaded {} partners and {} virtual files for lookups", partners.size(), files.size());
+        return new LookupSnapshot(Map.copyOf(partners), Map.copyOf(partnersIgnoreCase), Map.copyOf(files),
+                List.copyOf(filePatterns));
+    }
+
+    private record LookupSnapshot(Map<String, Partner> partners, Map<String, Partner> partnersIgnoreCase,
+            Map<String, VirtualFile> files, List<FilePattern> filePatterns) {
+    }
+
+    private record FilePattern(VirtualFile file, Pattern pattern) {
+    }
 }
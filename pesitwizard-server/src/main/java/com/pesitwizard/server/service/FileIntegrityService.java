@@ -1,9 +1,13 @@
 package com.pesitwizard.server.service;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
@@ -11,6 +15,10 @@ import java.time.temporal.ChronoUnit;
 import java.util.HexFormat;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
@@ -31,6 +39,11 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * Service for file integrity verification.
  * Computes and verifies SHA-256 checksums, detects duplicates.
+ *
+ * Files are hashed through a FileChannel: large files from read-only
+ * mappings, smaller ones with one large buffer. Batch verification runs on a
+ * bounded pool, and its reads can be throttled so that nightly re-verification
+ * does not starve transfers of disk bandwidth.
  */
 @SuppressWarnings("null") // Spring Data JPA methods never return null for save/findById
 @Slf4j
@@ -46,9 +59,27 @@ public class FileIntegrityService {
     @Value("${pesit.integrity.verification-interval-days:7}")
     private int verificationIntervalDays;
 
-    @Value("${pesit.integrity.buffer-size:8192}")
+    @Value("${pesit.integrity.buffer-size:1048576}")
     private int bufferSize;
 
+    /** Files of at least this size are hashed from memory mappings (0 = never) */
+    @Value("${pesit.integrity.mmap-threshold:67108864}")
+    private long mmapThreshold;
+
+    /** Number of files verified concurrently by batch verification */
+    @Value("${pesit.integrity.verification-parallelism:4}")
+    private int verificationParallelism;
+
+    /** Read rate limit for batch verification, all threads together (0 = unlimited) */
+    @Value("${pesit.integrity.verification-max-bytes-per-second:0}")
+    private long verificationMaxBytesPerSecond;
+
+    /** Size of each memory mapping when hashing large files */
+    private static final long MAPPING_SIZE = 256L * 1024 * 1024;
+
+    private final Object throttleLock = new Object();
+    private long throttleNextNanos;
+
     // ========== Checksum Computation ==========
 
     /**
@@ -62,18 +93,52 @@ public class FileIntegrityService {
      * Compute checksum for a file with specified algorithm
      */
     public String computeChecksum(Path filePath, HashAlgorithm algorithm) throws IOException {
-        try {
-            MessageDigest digest = MessageDigest.getInstance(algorithmToJavaName(algorithm));
+        return hashFile(filePath, algorithm, false);
+    }
 
-            try (InputStream is = Files.newInputStream(filePath)) {
-                byte[] buffer = new byte[bufferSize];
+    /**
+     * Hash a file, from memory mappings above the mmap threshold and with one
+     * large buffer below it. Throttled reads count against the verification
+     * rate limit.
+     */
+    private String hashFile(Path filePath, HashAlgorithm algorithm, boolean throttled) throws IOException {
+        MessageDigest digest = newDigest(algorithm);
+        int chunkSize = Math.max(bufferSize, 8192);
+
+        try (FileChannel file = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            long size = file.size();
+            if (mmapThreshold > 0 && size >= mmapThreshold) {
+                for (long position = 0; position < size; position += MAPPING_SIZE) {
+                    MappedByteBuffer mapping = file.map(FileChannel.MapMode.READ_ONLY, position,
+                            Math.min(MAPPING_SIZE, size - position));
+                    while (mapping.hasRemaining()) {
+                        int n = Math.min(chunkSize, mapping.remaining());
+                        if (throttled) {
+                            throttle(n);
+                        }
+                        digest.update(mapping.slice(mapping.position(), n));
+                        mapping.position(mapping.position() + n);
+                    }
+                }
+            } else {
+                ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(chunkSize, Math.max(size, 1)));
                 int bytesRead;
-                while ((bytesRead = is.read(buffer)) != -1) {
-                    digest.update(buffer, 0, bytesRead);
+                while ((bytesRead = file.read(buffer)) != -1) {
+                    if (throttled) {
+                        throttle(bytesRead);
+                    }
+                    digest.update(buffer.array(), 0, bytesRead);
+                    buffer.clear();
                 }
             }
+        }
 
-            return HexFormat.of().formatHex(digest.digest());
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private MessageDigest newDigest(HashAlgorithm algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithmToJavaName(algorithm));
         } catch (NoSuchAlgorithmException e) {
             throw new RuntimeException("Unsupported algorithm: " + algorithm, e);
         }
@@ -90,12 +155,7 @@ public class FileIntegrityService {
      * Compute checksum for byte array with specified algorithm
      */
     public String computeChecksum(byte[] data, HashAlgorithm algorithm) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance(algorithmToJavaName(algorithm));
-            return HexFormat.of().formatHex(digest.digest(data));
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Unsupported algorithm: " + algorithm, e);
-        }
+        return HexFormat.of().formatHex(newDigest(algorithm).digest(data));
     }
 
     // ========== Checksum Storage ==========
@@ -191,7 +251,7 @@ public class FileIntegrityService {
         }
 
         try {
-            String currentHash = computeChecksum(filePath, checksum.getAlgorithm());
+            String currentHash = hashFile(filePath, checksum.getAlgorithm(), true);
 
             if (currentHash.equalsIgnoreCase(checksum.getChecksumHash())) {
                 checksum.setStatus(VerificationStatus.VERIFIED);
@@ -217,17 +277,9 @@ public class FileIntegrityService {
     /**
      * Verify all pending files
      */
-    @Transactional
     public int verifyPendingFiles() {
         List<FileChecksum> pending = checksumRepository.findByStatusOrderByCreatedAtAsc(VerificationStatus.PENDING);
-        int verified = 0;
-
-        for (FileChecksum checksum : pending) {
-            VerificationResult result = verifyFile(checksum);
-            if (result.isSuccess()) {
-                verified++;
-            }
-        }
+        int verified = verifyAll(pending);
 
         log.info("Verified {} of {} pending files", verified, pending.size());
         return verified;
@@ -237,25 +289,87 @@ public class FileIntegrityService {
      * Re-verify files that haven't been checked recently
      */
     @Scheduled(cron = "0 0 2 * * ?") // Run at 2 AM daily
-    @Transactional
     public void reVerifyOldFiles() {
         Instant cutoff = Instant.now().minus(verificationIntervalDays, ChronoUnit.DAYS);
         List<FileChecksum> oldFiles = checksumRepository.findByVerifiedAtBeforeAndStatusOrderByVerifiedAtAsc(
                 cutoff, VerificationStatus.VERIFIED);
 
-        int reVerified = 0;
-        for (FileChecksum checksum : oldFiles) {
-            VerificationResult result = verifyFile(checksum);
-            if (result.isSuccess()) {
-                reVerified++;
-            }
-        }
+        int reVerified = verifyAll(oldFiles);
 
         if (!oldFiles.isEmpty()) {
             log.info("Re-verified {} of {} old files", reVerified, oldFiles.size());
         }
     }
 
+    /**
+     * Verify files on up to verification-parallelism threads; each result is
+     * saved on its own.
+     *
+     * @return number of files verified successfully
+     */
+    private int verifyAll(List<FileChecksum> checksums) {
+        int threads = Math.min(verificationParallelism, checksums.size());
+        if (threads <= 1) {
+            int verified = 0;
+            for (FileChecksum checksum : checksums) {
+                if (verifyFile(checksum).isSuccess()) {
+                    verified++;
+                }
+            }
+            return verified;
+        }
+
+        AtomicInteger verified = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads,
+                Thread.ofPlatform().name("integrity-verify-", 0).daemon().factory());
+        try {
+            for (FileChecksum checksum : checksums) {
+                executor.execute(() -> {
+                    try {
+                        if (verifyFile(checksum).isSuccess()) {
+                            verified.incrementAndGet();
+                        }
+                    } catch (RuntimeException e) {
+                        log.error("Error verifying file {}: {}", checksum.getFilename(), e.getMessage());
+                    }
+                });
+            }
+            executor.shutdown();
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.debug("Verification in progress: {} of {} files verified", verified.get(), checksums.size());
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        return verified.get();
+    }
+
+    /**
+     * Wait until {@code bytes} more may be read under the verification rate
+     * limit. Reservations are shared by all verification threads.
+     */
+    private void throttle(long bytes) throws InterruptedIOException {
+        if (verificationMaxBytesPerSecond <= 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (throttleLock) {
+            long now = System.nanoTime();
+            long start = Math.max(now, throttleNextNanos);
+            throttleNextNanos = start + bytes * 1_000_000_000L / verificationMaxBytesPerSecond;
+            waitNanos = start - now;
+        }
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Verification interrupted");
+            }
+        }
+    }
+
     // ========== Duplicate Detection ==========
 
     /**
@@ -7,6 +7,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 
+import com.pesitwizard.compression.CompressionType;
 import com.pesitwizard.fpdu.DiagnosticCode;
 import com.pesitwizard.fpdu.Fpdu;
 import com.pesitwizard.fpdu.FpduType;
@@ -158,6 +159,11 @@ public class FpduResponseBuilder {
             } catch (Exception e) {
                 log.warn("Could not get file attributes for {}: {}", filePath, e.getMessage());
             }
+        } else if (transfer != null && transfer.getConnectorFile() != null) {
+            fileSize = transfer.getConnectorFile().getSize();
+            if (transfer.getConnectorFile().getLastModified() != null) {
+                creationDate = transfer.getConnectorFile().getLastModified().toString();
+            }
         }
 
         // PGI 9: File Identification (PI_11 file type, PI_12 filename)
@@ -190,13 +196,20 @@ public class FpduResponseBuilder {
     }
 
     /**
-     * Build ACK(ORF) - ACK Open response
+     * Build ACK(ORF) - ACK Open response, with PI 21 when compression was
+     * accepted
      */
     public static Fpdu buildAckOpen(SessionContext ctx) {
-        return new Fpdu(FpduType.ACK_OPEN)
+        Fpdu ack = new Fpdu(FpduType.ACK_OPEN)
                 .withIdDst(ctx.getClientConnectionId())
                 .withIdSrc(0)
                 .withParameter(new ParameterValue(PI_02_DIAG, DIAG_OK));
+        TransferContext transfer = ctx.getCurrentTransfer();
+        if (transfer != null && transfer.getCompression() != 0) {
+            ack.withParameter(new ParameterValue(PI_21_COMPRESSION,
+                    CompressionType.fromCode(transfer.getCompression()).toPi21()));
+        }
+        return ack;
     }
 
     /**
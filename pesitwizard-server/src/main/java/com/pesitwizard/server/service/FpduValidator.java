@@ -1,11 +1,14 @@
 package com.pesitwizard.server.service;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Optional;
 
 import org.springframework.stereotype.Service;
 
 import com.pesitwizard.fpdu.DiagnosticCode;
 import com.pesitwizard.fpdu.Fpdu;
+import com.pesitwizard.fpdu.FpduFrame;
 import com.pesitwizard.fpdu.ParameterIdentifier;
 import com.pesitwizard.fpdu.ParameterValue;
 import com.pesitwizard.server.model.TransferContext;
@@ -40,20 +43,31 @@ public class FpduValidator {
     /**
      * Validate DTF (Data Transfer) FPDU.
      * Rules:
-     * - D2-220: Article length must not exceed announced record length (PI 32)
+     * - D2-220: Article length must not exceed announced record length (PI 32),
+     * for each article of a multi-article DTF
      * - D2-222: Data without sync point must not exceed configured limit
      */
     public ValidationResult validateDtf(Fpdu fpdu, TransferContext transfer, byte[] data) {
         if (transfer == null) {
             return ValidationResult.error(DiagnosticCode.D3_311, "No active transfer context");
         }
+        if (data == null) {
+            return ValidationResult.ok();
+        }
 
         // D2-220: Validate article/record length
         int recordLength = transfer.getRecordLength();
-        if (recordLength > 0 && data != null && data.length > recordLength) {
-            log.warn("Article length {} exceeds announced record length {}", data.length, recordLength);
+        int[] longest = new int[1];
+        try {
+            FpduFrame.forEachArticle(ByteBuffer.wrap(data), FpduFrame.articleCount(fpdu.getFpduType(), fpdu.getIdSrc()),
+                    article -> longest[0] = Math.max(longest[0], article.remaining()));
+        } catch (IOException e) {
+            return ValidationResult.error(DiagnosticCode.D2_220, e.getMessage());
+        }
+        if (recordLength > 0 && longest[0] > recordLength) {
+            log.warn("Article length {} exceeds announced record length {}", longest[0], recordLength);
             return ValidationResult.error(DiagnosticCode.D2_220,
-                    String.format("Article length %d exceeds announced record length %d", data.length, recordLength));
+                    String.format("Article length %d exceeds announced record length %d", longest[0], recordLength));
         }
 
         // D2-222: Check for too much data without sync point
@@ -1,11 +1,17 @@
 package com.pesitwizard.server.service;
 
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketException;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+import java.time.Duration;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -14,6 +20,7 @@ import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLServerSocket;
 
 import com.pesitwizard.server.config.PesitServerProperties;
+import com.pesitwizard.server.config.PesitServerProperties.ConnectionMode;
 import com.pesitwizard.server.config.SslProperties;
 import com.pesitwizard.server.entity.PesitServerConfig;
 import com.pesitwizard.server.handler.PesitSessionHandler;
@@ -40,6 +47,7 @@ public class PesitServerInstance {
 
     private ServerSocket serverSocket;
     private ExecutorService executorService;
+    private Semaphore connectionSlots;
     private Thread acceptThread;
     private final AtomicBoolean running = new AtomicBoolean(false);
     private final AtomicInteger activeConnections = new AtomicInteger(0);
@@ -63,7 +71,8 @@ public class PesitServerInstance {
         }
 
         serverSocket = createServerSocket();
-        executorService = Executors.newFixedThreadPool(properties.getMaxConnections());
+        executorService = createExecutor();
+        connectionSlots = new Semaphore(properties.getMaxConnections());
         running.set(true);
 
         acceptThread = new Thread(this::acceptConnections, "pesit-" + config.getServerId() + "-accept");
@@ -71,8 +80,22 @@ public class PesitServerInstance {
 
         String protocol = sslProperties.isEnabled() ? "TLS" : "TCP/IP";
         String authMode = sslProperties.isEnabled() ? " (mTLS: " + sslProperties.getClientAuth() + ")" : "";
-        log.info("[{}] PeSIT Server started on port {} (Hors-SIT profile, {}){}",
-                config.getServerId(), properties.getPort(), protocol, authMode);
+        log.info("[{}] PeSIT Server started on port {} (Hors-SIT profile, {}){}, {} connection threads",
+                config.getServerId(), properties.getPort(), protocol, authMode, properties.getConnectionMode());
+    }
+
+    /**
+     * Create the executor running connection handlers.
+     * VIRTUAL uses one virtual thread per connection so that thousands of
+     * mostly idle sessions do not each pin an OS thread while blocked in read.
+     */
+    private ExecutorService createExecutor() {
+        String prefix = "pesit-" + config.getServerId() + "-conn-";
+        if (properties.getConnectionMode() == ConnectionMode.PLATFORM) {
+            return Executors.newFixedThreadPool(properties.getMaxConnections(),
+                    Thread.ofPlatform().name(prefix, 0).factory());
+        }
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, 0).factory());
     }
 
     /**
@@ -80,7 +103,17 @@ public class PesitServerInstance {
      */
     private ServerSocket createServerSocket() throws IOException {
         if (!sslProperties.isEnabled()) {
-            return new ServerSocket(properties.getPort());
+            // Channel-backed so accepted sockets expose a SocketChannel for
+            // zero-copy READ streaming
+            ServerSocketChannel channel = ServerSocketChannel.open();
+            try {
+                channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+                channel.bind(new InetSocketAddress(properties.getPort()), properties.getAcceptBacklog());
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+            return channel.socket();
         }
 
         try {
@@ -90,7 +123,7 @@ public class PesitServerInstance {
 
             SSLServerSocket sslServerSocket = (SSLServerSocket) sslContext
                     .getServerSocketFactory()
-                    .createServerSocket(properties.getPort());
+                    .createServerSocket(properties.getPort(), properties.getAcceptBacklog());
 
             // Configure client authentication (mTLS)
             switch (sslProperties.getClientAuth()) {
@@ -124,14 +157,26 @@ public class PesitServerInstance {
     }
 
     /**
-     * Stop the server instance
+     * Stop the server instance, giving running sessions 30 seconds to end
      */
     public void stop() {
+        stop(Duration.ofSeconds(30));
+    }
+
+    /**
+     * Stop the server instance: new connections are refused at once, running
+     * sessions are left to drain and interrupted only once the timeout has
+     * elapsed. Blocks until then.
+     *
+     * @param drainTimeout how long running sessions may take to end
+     */
+    public void stop(Duration drainTimeout) {
         if (!running.get()) {
             return;
         }
 
-        log.info("[{}] Stopping PeSIT server...", config.getServerId());
+        log.info("[{}] Stopping PeSIT server, waiting up to {}s for {} session(s)...", config.getServerId(),
+                drainTimeout.toSeconds(), activeConnections.get());
         running.set(false);
 
         try {
@@ -145,7 +190,9 @@ public class PesitServerInstance {
         if (executorService != null) {
             executorService.shutdown();
             try {
-                if (!executorService.awaitTermination(30, TimeUnit.SECONDS)) {
+                if (!executorService.awaitTermination(drainTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    log.warn("[{}] Interrupting {} session(s) still running", config.getServerId(),
+                            activeConnections.get());
                     executorService.shutdownNow();
                 }
             } catch (InterruptedException e) {
@@ -175,18 +222,35 @@ public class PesitServerInstance {
         return activeConnections.get();
     }
 
+    /**
+     * Accept loop. A connection slot is reserved before calling accept(), so
+     * when maxConnections is reached new partners are not dropped: they stay
+     * queued in the listen backlog until a running session ends.
+     */
     private void acceptConnections() {
+        boolean saturated = false;
         while (running.get()) {
             try {
-                Socket clientSocket = serverSocket.accept();
-
-                if (activeConnections.get() >= properties.getMaxConnections()) {
-                    log.warn("[{}] Max connections reached ({}), rejecting connection from {}",
-                            config.getServerId(), properties.getMaxConnections(),
-                            clientSocket.getRemoteSocketAddress());
-                    clientSocket.close();
+                if (!connectionSlots.tryAcquire(1, TimeUnit.SECONDS)) {
+                    if (!saturated) {
+                        log.warn("[{}] Max connections reached ({}), queueing new connections in backlog",
+                                config.getServerId(), properties.getMaxConnections());
+                        saturated = true;
+                    }
                     continue;
                 }
+                if (saturated) {
+                    log.info("[{}] Connection slot available, resuming accept", config.getServerId());
+                    saturated = false;
+                }
+
+                Socket clientSocket;
+                try {
+                    clientSocket = serverSocket.accept();
+                } catch (IOException e) {
+                    connectionSlots.release();
+                    throw e;
+                }
 
                 activeConnections.incrementAndGet();
                 log.info("[{}] Accepted connection from {} (active: {})",
@@ -196,16 +260,27 @@ public class PesitServerInstance {
                 TcpConnectionHandler handler = new TcpConnectionHandler(
                         clientSocket, sessionHandler, properties, config.getServerId());
 
-                executorService.submit(() -> {
-                    try {
-                        handler.run();
-                    } finally {
-                        activeConnections.decrementAndGet();
-                        log.debug("[{}] Connection handler finished (active: {})",
-                                config.getServerId(), activeConnections.get());
-                    }
-                });
+                try {
+                    executorService.submit(() -> {
+                        try {
+                            handler.run();
+                        } finally {
+                            activeConnections.decrementAndGet();
+                            connectionSlots.release();
+                            log.debug("[{}] Connection handler finished (active: {})",
+                                    config.getServerId(), activeConnections.get());
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // Executor shut down between accept and submit
+                    activeConnections.decrementAndGet();
+                    connectionSlots.release();
+                    clientSocket.close();
+                }
 
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
             } catch (SocketException e) {
                 if (running.get()) {
                     log.error("[{}] Socket error: {}", config.getServerId(), e.getMessage());
@@ -1,10 +1,13 @@
 package com.pesitwizard.server.service;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,6 +15,8 @@ import org.springframework.transaction.annotation.Transactional;
 import com.pesitwizard.server.cluster.ClusterEvent;
 import com.pesitwizard.server.cluster.ClusterEventListener;
 import com.pesitwizard.server.cluster.ClusterProvider;
+import com.pesitwizard.server.config.ClusterPlacementProperties;
+import com.pesitwizard.server.config.ClusterPlacementProperties.PlacementMode;
 import com.pesitwizard.server.config.PesitServerProperties;
 import com.pesitwizard.server.config.SslProperties;
 import com.pesitwizard.server.entity.PesitServerConfig;
@@ -29,9 +34,13 @@ import lombok.extern.slf4j.Slf4j;
  * Service for managing multiple PeSIT server instances.
  * Handles creation, starting, stopping, and configuration of server instances.
  * 
- * Listens for cluster events to handle leader election:
- * - When this node becomes leader, auto-start servers
- * - When this node loses leadership, stop servers (another node will take over)
+ * Listens for cluster events according to the placement mode:
+ * - LEADER: auto-start servers when this node becomes leader, stop them when
+ * it loses leadership (another node will take over)
+ * - DISTRIBUTED: run the servers the leader assigns to this node, hand the
+ * others over
+ * - SHARED_PORT: run every server on every node; assignments only move
+ * ownership, and only the owner persists the server status
  */
 @SuppressWarnings("null") // Spring Data JPA methods never return null for save/findById
 @Slf4j
@@ -45,10 +54,15 @@ public class PesitServerManager implements ClusterEventListener {
     private final FileSystemService fileSystemService;
     private final SslProperties sslProperties;
     private final SslContextFactory sslContextFactory;
+    private final ClusterPlacementProperties placementProperties;
 
     // Map of running server instances: serverId -> PesitServerInstance
     private final Map<String, PesitServerInstance> runningServers = new ConcurrentHashMap<>();
 
+    // Drains handed-over servers off the cluster event thread
+    private final ExecutorService handoverExecutor = Executors
+            .newThreadPerTaskExecutor(Thread.ofVirtual().name("server-handover-", 0).factory());
+
     @PostConstruct
     public void init() {
         // Register as cluster event listener to handle leader changes
@@ -60,6 +74,13 @@ public class PesitServerManager implements ClusterEventListener {
         if (!clusterProvider.isClusterEnabled()) {
             log.info("Standalone mode - auto-starting servers");
             autoStartServers();
+        } else if (mode() == PlacementMode.DISTRIBUTED) {
+            // Assignments received before this listener was registered
+            log.info("Distributed placement - starting servers assigned to this node");
+            clusterProvider.getServerAssignments().forEach(this::onServerAssigned);
+        } else if (mode() == PlacementMode.SHARED_PORT) {
+            log.info("Shared-port placement - auto-starting servers on this node");
+            autoStartServers();
         } else if (clusterProvider.isLeader()) {
             // Already leader at init time (we missed the event)
             log.info("Already cluster leader at init time - auto-starting servers");
@@ -73,12 +94,24 @@ public class PesitServerManager implements ClusterEventListener {
     public void onClusterEvent(ClusterEvent event) {
         switch (event.getType()) {
             case BECAME_LEADER -> {
-                log.info("This node became the cluster leader - auto-starting servers");
-                autoStartServers();
+                if (mode() == PlacementMode.LEADER) {
+                    log.info("This node became the cluster leader - auto-starting servers");
+                    autoStartServers();
+                }
             }
             case LOST_LEADERSHIP -> {
-                log.info("This node lost cluster leadership - stopping servers");
-                stopAllServers();
+                if (mode() == PlacementMode.LEADER) {
+                    log.info("This node lost cluster leadership - stopping servers");
+                    stopAllServers();
+                }
+            }
+            case SERVER_ASSIGNED -> onServerAssigned(event.getServerId(), event.getNodeId());
+            case SERVER_RELEASED -> {
+                // The previous node let go: retry a server assigned to this node
+                String assignee = clusterProvider.getServerAssignments().get(event.getServerId());
+                if (assignee != null && assignee.equals(clusterProvider.getNodeName())) {
+                    onServerAssigned(event.getServerId(), assignee);
+                }
             }
             default -> {
                 // Ignore other events
@@ -86,6 +119,89 @@ public class PesitServerManager implements ClusterEventListener {
         }
     }
 
+    private PlacementMode mode() {
+        return placementProperties.getMode();
+    }
+
+    /**
+     * Apply a placement decision of the leader on this node.
+     */
+    private void onServerAssigned(String serverId, String nodeId) {
+        if (mode() == PlacementMode.LEADER) {
+            return;
+        }
+        boolean mine = nodeId.equals(clusterProvider.getNodeName());
+        try {
+            if (mine) {
+                claimServer(serverId);
+            } else {
+                handOverServer(serverId, nodeId);
+            }
+        } catch (Exception e) {
+            log.error("Failed to apply placement of server {} on {}: {}", serverId, nodeId, e.getMessage());
+        }
+    }
+
+    private void claimServer(String serverId) {
+        if (mode() == PlacementMode.DISTRIBUTED) {
+            if (runningServers.containsKey(serverId)) {
+                return;
+            }
+            String owner = clusterProvider.getServerOwner(serverId);
+            if (owner != null && !owner.equals(clusterProvider.getNodeName())) {
+                // Started once the current owner releases it
+                log.info("Server {} assigned to this node, waiting for node {} to release it", serverId, owner);
+                return;
+            }
+            startServer(serverId);
+            log.info("Started server {} assigned to this node", serverId);
+        } else if (clusterProvider.acquireServerOwnership(serverId) && runningServers.containsKey(serverId)) {
+            configRepository.findByServerId(serverId).ifPresent(config -> {
+                config.setStatus(ServerStatus.RUNNING);
+                configRepository.save(config);
+            });
+        }
+    }
+
+    /**
+     * Stop a server moved to another node (DISTRIBUTED only) and release its
+     * ownership. The status is left to the new owner.
+     *
+     * The server stops accepting connections at once, but its running
+     * sessions are left to drain in the background: the cluster event thread
+     * is not blocked, and the new node starts the server once it is released.
+     */
+    private void handOverServer(String serverId, String nodeId) {
+        PesitServerInstance instance = mode() == PlacementMode.DISTRIBUTED ? runningServers.remove(serverId) : null;
+        if (instance == null) {
+            releaseOwnership(serverId);
+            return;
+        }
+        log.info("Handing server {} over to node {}", serverId, nodeId);
+        handoverExecutor.execute(() -> {
+            instance.stop(Duration.ofMillis(placementProperties.getHandoverDrainTimeoutMs()));
+            // Assigned back to this node while draining: keep it
+            if (!runningServers.containsKey(serverId)) {
+                releaseOwnership(serverId);
+            }
+            log.info("Server {} handed over to node {}", serverId, nodeId);
+        });
+    }
+
+    private void releaseOwnership(String serverId) {
+        if (clusterProvider.ownsServer(serverId)) {
+            clusterProvider.releaseServerOwnership(serverId);
+        }
+    }
+
+    /**
+     * With SHARED_PORT placement every node runs the server but only the
+     * owner writes its status.
+     */
+    private boolean persistsStatus(String serverId) {
+        return mode() != PlacementMode.SHARED_PORT || clusterProvider.ownsServer(serverId);
+    }
+
     private void autoStartServers() {
         List<PesitServerConfig> autoStartServers = configRepository.findByAutoStartTrue();
         for (PesitServerConfig config : autoStartServers) {
@@ -112,6 +228,8 @@ public class PesitServerManager implements ClusterEventListener {
     @PreDestroy
     public void shutdown() {
         log.info("Shutting down all PeSIT servers...");
+        // Servers still draining after a handover are stopped at once
+        handoverExecutor.shutdownNow();
         for (String serverId : runningServers.keySet()) {
             try {
                 stopServer(serverId);
@@ -162,6 +280,8 @@ public class PesitServerManager implements ClusterEventListener {
         existing.setBindAddress(updates.getBindAddress());
         existing.setProtocolVersion(updates.getProtocolVersion());
         existing.setMaxConnections(updates.getMaxConnections());
+        existing.setConnectionMode(updates.getConnectionMode());
+        existing.setAcceptBacklog(updates.getAcceptBacklog());
         existing.setConnectionTimeout(updates.getConnectionTimeout());
         existing.setReadTimeout(updates.getReadTimeout());
         existing.setReceiveDirectory(updates.getReceiveDirectory());
@@ -205,15 +325,18 @@ public class PesitServerManager implements ClusterEventListener {
             throw new IllegalStateException("Server already running on this node: " + serverId);
         }
 
-        // In cluster mode, try to acquire ownership
-        if (!clusterProvider.acquireServerOwnership(serverId)) {
+        // In cluster mode, try to acquire ownership (placed by the leader with SHARED_PORT)
+        if (mode() != PlacementMode.SHARED_PORT && !clusterProvider.acquireServerOwnership(serverId)) {
             String owner = clusterProvider.getServerOwner(serverId);
             throw new IllegalStateException("Server '" + serverId + "' is already running on node '" + owner + "'");
         }
 
+        boolean persistStatus = persistsStatus(serverId);
         try {
-            config.setStatus(ServerStatus.STARTING);
-            configRepository.save(config);
+            if (persistStatus) {
+                config.setStatus(ServerStatus.STARTING);
+                configRepository.save(config);
+            }
 
             // Create properties from config
             PesitServerProperties properties = createPropertiesFromConfig(config);
@@ -229,15 +352,19 @@ public class PesitServerManager implements ClusterEventListener {
 
             runningServers.put(serverId, instance);
 
-            config.setStatus(ServerStatus.RUNNING);
-            config.setLastStartedAt(Instant.now());
-            configRepository.save(config);
+            if (persistStatus) {
+                config.setStatus(ServerStatus.RUNNING);
+                config.setLastStartedAt(Instant.now());
+                configRepository.save(config);
+            }
 
             log.info("Started server {} on port {}", serverId, config.getPort());
 
         } catch (Exception e) {
-            config.setStatus(ServerStatus.ERROR);
-            configRepository.save(config);
+            if (persistStatus) {
+                config.setStatus(ServerStatus.ERROR);
+                configRepository.save(config);
+            }
             throw new RuntimeException("Failed to start server: " + e.getMessage(), e);
         }
     }
@@ -255,25 +382,34 @@ public class PesitServerManager implements ClusterEventListener {
             throw new IllegalStateException("Server not running: " + serverId);
         }
 
+        boolean persistStatus = persistsStatus(serverId);
         try {
-            config.setStatus(ServerStatus.STOPPING);
-            configRepository.save(config);
+            if (persistStatus) {
+                config.setStatus(ServerStatus.STOPPING);
+                configRepository.save(config);
+            }
 
             instance.stop();
             runningServers.remove(serverId);
 
-            // Release cluster ownership
-            clusterProvider.releaseServerOwnership(serverId);
+            // Release cluster ownership (kept with SHARED_PORT, other nodes may still listen)
+            if (mode() != PlacementMode.SHARED_PORT) {
+                clusterProvider.releaseServerOwnership(serverId);
+            }
 
-            config.setStatus(ServerStatus.STOPPED);
-            config.setLastStoppedAt(Instant.now());
-            configRepository.save(config);
+            if (persistStatus) {
+                config.setStatus(ServerStatus.STOPPED);
+                config.setLastStoppedAt(Instant.now());
+                configRepository.save(config);
+            }
 
             log.info("Stopped server {}", serverId);
 
         } catch (Exception e) {
-            config.setStatus(ServerStatus.ERROR);
-            configRepository.save(config);
+            if (persistStatus) {
+                config.setStatus(ServerStatus.ERROR);
+                configRepository.save(config);
+            }
             throw new RuntimeException("Failed to stop server: " + e.getMessage(), e);
         }
     }
@@ -378,6 +514,12 @@ public class PesitServerManager implements ClusterEventListener {
         props.setPort(config.getPort());
         props.setProtocolVersion(config.getProtocolVersion());
         props.setMaxConnections(config.getMaxConnections());
+        if (config.getConnectionMode() != null) {
+            props.setConnectionMode(config.getConnectionMode());
+        }
+        if (config.getAcceptBacklog() != null && config.getAcceptBacklog() > 0) {
+            props.setAcceptBacklog(config.getAcceptBacklog());
+        }
         props.setConnectionTimeout(config.getConnectionTimeout());
         props.setReadTimeout(config.getReadTimeout());
         props.setReceiveDirectory(config.getReceiveDirectory());
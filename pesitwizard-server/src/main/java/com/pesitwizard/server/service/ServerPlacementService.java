@@ -0,0 +1,133 @@
+package com.pesitwizard.server.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.pesitwizard.server.cluster.ClusterEvent;
+import com.pesitwizard.server.cluster.ClusterEventListener;
+import com.pesitwizard.server.cluster.ClusterProvider;
+import com.pesitwizard.server.cluster.ServerPlacement;
+import com.pesitwizard.server.config.ClusterPlacementProperties;
+import com.pesitwizard.server.config.ClusterPlacementProperties.PlacementMode;
+import com.pesitwizard.server.entity.PesitServerConfig;
+import com.pesitwizard.server.observability.PesitMetrics;
+import com.pesitwizard.server.repository.PesitServerConfigRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Spreads PeSIT server instances over the cluster nodes (DISTRIBUTED and
+ * SHARED_PORT placement modes).
+ *
+ * Every node periodically reports the load of the servers it owns; the
+ * leader places the auto-start servers with {@link ServerPlacement} when it
+ * is elected and whenever a node joins or leaves. PesitServerManager applies
+ * the assignments on each node.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ServerPlacementService implements ClusterEventListener {
+
+    private final ClusterProvider clusterProvider;
+    private final ClusterPlacementProperties properties;
+    private final PesitServerConfigRepository configRepository;
+    private final PesitServerManager serverManager;
+    private final PesitMetrics metrics;
+
+    private double lastTransferredBytes;
+    private long lastReportNanos;
+
+    @PostConstruct
+    public void init() {
+        if (!isActive()) {
+            return;
+        }
+        clusterProvider.addListener(this);
+        if (clusterProvider.isLeader()) {
+            rebalance();
+        }
+    }
+
+    /**
+     * Check whether servers are placed by load rather than all run by the
+     * leader.
+     */
+    public boolean isActive() {
+        return clusterProvider.isClusterEnabled() && properties.getMode() != PlacementMode.LEADER;
+    }
+
+    @Override
+    public void onClusterEvent(ClusterEvent event) {
+        if (event.getType() == ClusterEvent.Type.VIEW_CHANGED && event.isLeader()) {
+            rebalance();
+        }
+    }
+
+    /**
+     * Publish the load of the servers owned by this node: active connections
+     * plus the node throughput, shared by connection count and normalized by
+     * bytes-per-second-per-connection.
+     */
+    @Scheduled(fixedDelayString = "${pesitwizard.cluster.placement.load-report-interval-ms:5000}")
+    public synchronized void reportLoad() {
+        if (!isActive()) {
+            return;
+        }
+        long now = System.nanoTime();
+        double bytes = metrics.getTransferredBytes();
+        double seconds = lastReportNanos == 0 ? 0 : (now - lastReportNanos) / 1e9;
+        double bytesPerSecond = seconds > 0 ? (bytes - lastTransferredBytes) / seconds : 0;
+        lastReportNanos = now;
+        lastTransferredBytes = bytes;
+
+        List<PesitServerInstance> running = serverManager.getRunningServers();
+        int totalConnections = serverManager.getActiveConnectionCount();
+        for (PesitServerInstance instance : running) {
+            String serverId = instance.getConfig().getServerId();
+            if (!clusterProvider.ownsServer(serverId)) {
+                continue;
+            }
+            int connections = instance.getActiveConnections();
+            double share = totalConnections > 0 ? (double) connections / totalConnections : 1.0 / running.size();
+            double load = connections + bytesPerSecond * share / properties.getBytesPerSecondPerConnection();
+            clusterProvider.reportServerLoad(serverId, load);
+        }
+    }
+
+    /**
+     * Recompute the placement of the auto-start servers and publish the
+     * changes (leader only).
+     */
+    public synchronized void rebalance() {
+        if (!isActive() || !clusterProvider.isLeader()) {
+            return;
+        }
+        List<String> serverIds = configRepository.findByAutoStartTrue().stream()
+                .map(PesitServerConfig::getServerId)
+                .toList();
+        Map<String, String> assignments = clusterProvider.getServerAssignments();
+        Map<String, String> current = new HashMap<>(clusterProvider.getAllServerOwnership());
+        current.putAll(assignments);
+
+        Map<String, String> placement = ServerPlacement.plan(serverIds, clusterProvider.getClusterMembers(),
+                current, clusterProvider.getServerLoads(), properties.getRebalanceTolerance());
+
+        int moved = 0;
+        for (Map.Entry<String, String> entry : placement.entrySet()) {
+            if (!entry.getValue().equals(assignments.get(entry.getKey()))) {
+                log.info("Placing server {} on node {}", entry.getKey(), entry.getValue());
+                clusterProvider.assignServer(entry.getKey(), entry.getValue());
+                moved++;
+            }
+        }
+        log.info("Server placement: {} servers on {} nodes, {} assignment(s) changed",
+                placement.size(), clusterProvider.getClusterSize(), moved);
+    }
+}
@@ -0,0 +1,100 @@
+package com.pesitwizard.server.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.pesitwizard.fpdu.Stripe;
+import com.pesitwizard.server.model.StripedFile;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Striped transfers in progress, keyed by partner and stripe set: the
+ * sessions carrying the stripes of one file find its target here.
+ */
+@Slf4j
+@Component
+public class StripedTransferRegistry {
+
+    /** Incomplete stripe sets without activity for longer are dropped, with their partial file */
+    static final Duration STALE_AFTER = Duration.ofHours(1);
+
+    private final Map<String, StripedFile> files = new HashMap<>();
+
+    /**
+     * Join a stripe to the target file of its set. The first stripe of a set
+     * creates the target at the path given by {@code target}, pre-allocated
+     * to the file size.
+     *
+     * @return the target file, or null if {@code target} gave no path
+     * @throws IllegalArgumentException if the stripe does not match its set
+     */
+    public synchronized StripedFile join(String partnerId, Stripe stripe, Supplier<Path> target)
+            throws IOException {
+        evictComplete();
+        String key = partnerId + "/" + stripe.setId();
+        StripedFile file = files.get(key);
+        if (file == null) {
+            Path path = target.get();
+            if (path == null) {
+                return null;
+            }
+            file = new StripedFile(stripe, path);
+            files.put(key, file);
+        } else if (!file.accepts(stripe)) {
+            throw new IllegalArgumentException("Stripe " + stripe.encode() + " does not match set of "
+                    + file.getCount() + " stripes, " + file.getFileSize() + " bytes");
+        }
+        return file;
+    }
+
+    /**
+     * Number of stripe sets in progress
+     */
+    public synchronized int size() {
+        evictComplete();
+        return files.size();
+    }
+
+    /**
+     * Drop the stripe sets abandoned for {@link #STALE_AFTER}, e.g. after a
+     * client crash, and delete their partial files
+     */
+    @Scheduled(fixedDelay = 10, timeUnit = TimeUnit.MINUTES)
+    public void purgeStale() {
+        purgeStale(Instant.now().minus(STALE_AFTER));
+    }
+
+    void purgeStale(Instant staleBefore) {
+        List<StripedFile> stale = new ArrayList<>();
+        synchronized (this) {
+            evictComplete();
+            files.values().removeIf(file -> file.isStale(staleBefore) && stale.add(file));
+            // A retried transfer may already write the same target under a new set
+            stale.removeIf(file -> files.values().stream().anyMatch(f -> f.getPath().equals(file.getPath())));
+        }
+        for (StripedFile file : stale) {
+            log.warn("Dropping incomplete striped transfer {}, deleting {}", file.getSetId(), file.getPath());
+            try {
+                file.deletePartial();
+            } catch (IOException e) {
+                log.warn("Cannot delete partial striped file {}: {}", file.getPath(), e.getMessage());
+            }
+        }
+    }
+
+    private void evictComplete() {
+        files.values().removeIf(StripedFile::isComplete);
+    }
+}
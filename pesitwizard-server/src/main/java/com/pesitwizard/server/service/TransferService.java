@@ -2,6 +2,7 @@ package com.pesitwizard.server.service;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +35,7 @@ import lombok.extern.slf4j.Slf4j;
 public class TransferService {
 
     private final TransferRecordRepository transferRepository;
+    private final TransferStatsService statsService;
 
     // ========== Transfer Lifecycle ==========
 
@@ -43,9 +45,19 @@ public class TransferService {
     @Transactional
     public TransferRecord createTransfer(String sessionId, String serverId, String nodeId,
             String partnerId, String filename, TransferDirection direction, String remoteAddress) {
+        return createTransfer(UUID.randomUUID().toString(), sessionId, serverId, nodeId,
+                partnerId, filename, direction, remoteAddress);
+    }
+
+    /**
+     * Create a new transfer record with a caller-assigned transfer ID
+     */
+    @Transactional
+    public TransferRecord createTransfer(String transferId, String sessionId, String serverId, String nodeId,
+            String partnerId, String filename, TransferDirection direction, String remoteAddress) {
 
         TransferRecord transfer = TransferRecord.builder()
-                .transferId(UUID.randomUUID().toString())
+                .transferId(transferId)
                 .sessionId(sessionId)
                 .serverId(serverId)
                 .nodeId(nodeId)
@@ -118,6 +130,43 @@ public class TransferService {
         return transfer;
     }
 
+    /**
+     * Apply coalesced progress and sync point updates for several transfers
+     * in a single transaction.
+     *
+     * @return number of transfer records updated
+     */
+    @Transactional
+    public int applyProgressUpdates(Collection<ProgressUpdate> updates) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        Map<String, ProgressUpdate> byTransferId = new HashMap<>();
+        for (ProgressUpdate update : updates) {
+            byTransferId.put(update.getTransferId(), update);
+        }
+
+        List<TransferRecord> transfers = transferRepository.findByTransferIdIn(byTransferId.keySet());
+        for (TransferRecord transfer : transfers) {
+            ProgressUpdate update = byTransferId.get(transfer.getTransferId());
+            if (update.getBytesTransferred() != null) {
+                transfer.updateProgress(update.getBytesTransferred());
+            }
+            if (update.getSyncPoints() > 0) {
+                transfer.setLastSyncPoint(update.getLastSyncPoint());
+                transfer.setSyncPointCount(transfer.getSyncPointCount() + update.getSyncPoints());
+                transfer.setUpdatedAt(Instant.now());
+            }
+        }
+        transferRepository.saveAll(transfers);
+
+        if (transfers.size() < byTransferId.size()) {
+            log.debug("Progress batch: {} of {} transfers not found", byTransferId.size() - transfers.size(),
+                    byTransferId.size());
+        }
+        return transfers.size();
+    }
+
     /**
      * Pause a transfer
      */
@@ -165,12 +214,14 @@ public class TransferService {
     @Transactional
     public TransferRecord completeTransfer(String transferId, String checksum) {
         TransferRecord transfer = getTransferOrThrow(transferId);
+        TransferStatus previousStatus = transfer.getStatus();
 
         transfer.markCompleted();
         if (checksum != null) {
             transfer.setChecksum(checksum);
         }
         transfer = transferRepository.save(transfer);
+        statsService.recordEnded(previousStatus, transfer);
 
         log.info("[{}] Transfer completed: {} bytes in {}ms, speed: {} bytes/sec",
                 transferId, transfer.getBytesTransferred(),
@@ -186,9 +237,11 @@ public class TransferService {
     @Transactional
     public TransferRecord failTransfer(String transferId, String errorCode, String errorMessage) {
         TransferRecord transfer = getTransferOrThrow(transferId);
+        TransferStatus previousStatus = transfer.getStatus();
 
         transfer.markFailed(errorCode, errorMessage);
         transfer = transferRepository.save(transfer);
+        statsService.recordEnded(previousStatus, transfer);
 
         log.warn("[{}] Transfer failed: {} - {}", transferId, errorCode, errorMessage);
 
@@ -201,12 +254,14 @@ public class TransferService {
     @Transactional
     public TransferRecord cancelTransfer(String transferId, String reason) {
         TransferRecord transfer = getTransferOrThrow(transferId);
+        TransferStatus previousStatus = transfer.getStatus();
 
         transfer.setStatus(TransferStatus.CANCELLED);
         transfer.setCompletedAt(Instant.now());
         transfer.setUpdatedAt(Instant.now());
         transfer.setErrorMessage(reason);
         transfer = transferRepository.save(transfer);
+        statsService.recordEnded(previousStatus, transfer);
 
         log.info("[{}] Transfer cancelled: {}", transferId, reason);
 
@@ -245,10 +300,12 @@ public class TransferService {
         }
 
         // Increment retry count on original
+        TransferStatus previousStatus = original.getStatus();
         original.setRetryCount(original.getRetryCount() + 1);
         original.setStatus(TransferStatus.RETRY_PENDING);
         original.setUpdatedAt(Instant.now());
         transferRepository.save(original);
+        statsService.recordEnded(previousStatus, original);
 
         // Create new transfer as child
         TransferRecord retry = TransferRecord.builder()
@@ -365,37 +422,17 @@ public class TransferService {
     // ========== Statistics ==========
 
     /**
-     * Get transfer statistics
+     * Get transfer statistics (from the rollups, see {@link TransferStatsService})
      */
     public TransferStatistics getStatistics() {
-        TransferStatistics stats = new TransferStatistics();
-
-        stats.setTotalTransfers(transferRepository.count());
-        stats.setActiveTransfers(transferRepository.countActiveTransfers());
-        stats.setCompletedTransfers(transferRepository.countByStatus(TransferStatus.COMPLETED));
-        stats.setFailedTransfers(transferRepository.countByStatus(TransferStatus.FAILED));
-        stats.setTotalBytesTransferred(transferRepository.getTotalBytesTransferred());
-        stats.setSendTransfers(transferRepository.countByDirection(TransferDirection.SEND));
-        stats.setReceiveTransfers(transferRepository.countByDirection(TransferDirection.RECEIVE));
-
-        // Status breakdown
-        Map<String, Long> statusCounts = new HashMap<>();
-        for (Object[] row : transferRepository.getTransferCountByStatus()) {
-            statusCounts.put(row[0].toString(), (Long) row[1]);
-        }
-        stats.setStatusBreakdown(statusCounts);
-
-        return stats;
+        return statsService.getStatistics();
     }
 
     /**
      * Get statistics for a partner
      */
     public PartnerTransferStatistics getPartnerStatistics(String partnerId) {
-        PartnerTransferStatistics stats = new PartnerTransferStatistics();
-        stats.setPartnerId(partnerId);
-        stats.setTotalTransfers(transferRepository.countByPartnerId(partnerId));
-        stats.setTotalBytesTransferred(transferRepository.getTotalBytesTransferredByPartner(partnerId));
+        PartnerTransferStatistics stats = statsService.getPartnerStatistics(partnerId);
 
         // Get recent transfers
         Page<TransferRecord> recent = transferRepository.findByPartnerIdOrderByStartedAtDesc(
@@ -409,15 +446,16 @@ public class TransferService {
      * Get daily statistics
      */
     public List<DailyTransferStats> getDailyStatistics(int days) {
-        Instant since = Instant.now().minus(days, ChronoUnit.DAYS);
-        List<Object[]> results = transferRepository.getDailyTransferStats(since);
+        return statsService.getDailyStatistics(days);
+    }
 
-        return results.stream()
-                .map(row -> new DailyTransferStats(
-                        row[0].toString(),
-                        ((Number) row[1]).longValue(),
-                        ((Number) row[2]).longValue()))
-                .toList();
+    /**
+     * Recompute the statistics rollups from the transfer records (backfill)
+     *
+     * @return number of transfers rolled up
+     */
+    public int rebuildStatistics() {
+        return statsService.rebuild();
     }
 
     // ========== Cleanup ==========
@@ -470,6 +508,20 @@ public class TransferService {
         private List<TransferRecord> recentTransfers;
     }
 
+    /**
+     * Progress and sync points accumulated for one transfer since the last
+     * flush. A null bytesTransferred leaves the byte count unchanged.
+     */
+    @lombok.Data
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class ProgressUpdate {
+        private String transferId;
+        private Long bytesTransferred;
+        private Long lastSyncPoint;
+        private int syncPoints;
+    }
+
     @lombok.Data
     @lombok.AllArgsConstructor
     public static class DailyTransferStats {
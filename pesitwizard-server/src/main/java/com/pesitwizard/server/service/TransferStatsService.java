@@ -0,0 +1,344 @@
+package com.pesitwizard.server.service;
+
+import java.sql.DatabaseMetaData;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.pesitwizard.server.entity.TransferRecord;
+import com.pesitwizard.server.entity.TransferRecord.TransferDirection;
+import com.pesitwizard.server.entity.TransferRecord.TransferStatus;
+import com.pesitwizard.server.entity.TransferStatsRollup;
+import com.pesitwizard.server.entity.TransferStatsRollup.Granularity;
+import com.pesitwizard.server.repository.TransferRecordRepository;
+import com.pesitwizard.server.repository.TransferStatsRollupRepository;
+import com.pesitwizard.server.service.TransferService.DailyTransferStats;
+import com.pesitwizard.server.service.TransferService.PartnerTransferStatistics;
+import com.pesitwizard.server.service.TransferService.TransferStatistics;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Transfer statistics read from per minute, hour and day rollups.
+ *
+ * Each transfer that ends (completed, failed, cancelled or handed over to
+ * a retry) is added to its rollup buckets in the transaction that ends it,
+ * so statistics never aggregate transfer_records: only the few transfers not
+ * ended yet are counted live. A failed transfer that is retried moves from
+ * its FAILED bucket to a RETRY_PENDING one.
+ *
+ * Buckets are incremented in place; concurrent increments of one bucket
+ * simply queue on its row lock. A missing bucket row is created in the same
+ * transaction, with an INSERT ... ON CONFLICT DO NOTHING on PostgreSQL so
+ * that a concurrent creation neither fails the transfer update nor needs a
+ * second connection. The table is created by Hibernate on H2, and by
+ * {@code db/postgresql/transfer_stats_rollups.sql} on PostgreSQL.
+ *
+ * {@link #rebuild()} recomputes the rollups from transfer_records, for
+ * backfill only: it runs at startup when there are no rollups yet.
+ */
+@Slf4j
+@Service
+public class TransferStatsService {
+
+    /** Statuses a transfer ends in, counted in the rollups */
+    static final Set<TransferStatus> ENDED = EnumSet.of(TransferStatus.COMPLETED, TransferStatus.FAILED,
+            TransferStatus.CANCELLED, TransferStatus.RETRY_PENDING);
+
+    /** Statuses of transfers not ended yet, counted live */
+    static final Set<TransferStatus> OPEN = EnumSet.of(TransferStatus.INITIATED, TransferStatus.IN_PROGRESS,
+            TransferStatus.PAUSED, TransferStatus.INTERRUPTED);
+
+    private static final Set<TransferStatus> ACTIVE = EnumSet.of(TransferStatus.INITIATED,
+            TransferStatus.IN_PROGRESS, TransferStatus.PAUSED);
+
+    /** Minute rollups kept */
+    static final Duration MINUTE_RETENTION = Duration.ofDays(2);
+
+    /** Hour rollups kept (day rollups are kept forever) */
+    static final Duration HOUR_RETENTION = Duration.ofDays(90);
+
+    private static final int BACKFILL_PAGE_SIZE = 10_000;
+
+    private final TransferStatsRollupRepository rollupRepository;
+    private final TransferRecordRepository transferRepository;
+    private final DataSource dataSource;
+    private final TransactionTemplate newTransaction;
+    /** Whether the database supports INSERT ... ON CONFLICT, resolved on first use */
+    private volatile Boolean upsert;
+
+    public TransferStatsService(TransferStatsRollupRepository rollupRepository,
+            TransferRecordRepository transferRepository, DataSource dataSource,
+            PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.transferRepository = transferRepository;
+        this.dataSource = dataSource;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // ========== Maintenance ==========
+
+    /**
+     * Add a transfer to its rollup buckets if it just ended, i.e. it is in
+     * an ended status and was not before. A transfer going from one ended
+     * status to another (a failed transfer retried) is moved between
+     * buckets. Runs in the caller's transaction.
+     */
+    @Transactional
+    public void recordEnded(TransferStatus previousStatus, TransferRecord transfer) {
+        TransferStatus status = transfer.getStatus();
+        if (!ENDED.contains(status) || status == previousStatus) {
+            return;
+        }
+        Instant endedAt = transfer.getCompletedAt() != null ? transfer.getCompletedAt() : Instant.now();
+        long bytes = transfer.getBytesTransferred() != null ? transfer.getBytesTransferred() : 0;
+        for (Granularity granularity : Granularity.values()) {
+            BucketKey key = new BucketKey(granularity, granularity.bucketOf(endedAt), transfer.getPartnerId(),
+                    transfer.getServerId(), transfer.getDirection(), status);
+            if (ENDED.contains(previousStatus)) {
+                // Nothing to take back if the previous bucket was purged
+                increment(key.withStatus(previousStatus), -1, -bytes);
+            }
+            if (increment(key, 1, bytes) == 0) {
+                createBucket(key);
+                increment(key, 1, bytes);
+            }
+        }
+    }
+
+    /**
+     * Recompute all rollups from transfer_records. Transfers older than the
+     * retention of a granularity are only added to the coarser ones; ended
+     * transfers already purged from transfer_records are lost.
+     *
+     * @return number of transfers rolled up
+     */
+    @Transactional
+    public int rebuild() {
+        Instant now = Instant.now();
+        rollupRepository.deleteAllInBatch();
+
+        Map<BucketKey, long[]> sums = new HashMap<>();
+        int transfers = 0;
+        long lastId = 0;
+        List<Object[]> page;
+        do {
+            page = transferRepository.findRollupRowsAfter(lastId, ENDED, PageRequest.of(0, BACKFILL_PAGE_SIZE));
+            for (Object[] row : page) {
+                lastId = (Long) row[0];
+                Instant endedAt = row[5] != null ? (Instant) row[5] : (Instant) row[6];
+                long bytes = row[7] != null ? (Long) row[7] : 0;
+                for (Granularity granularity : Granularity.values()) {
+                    if (!isRetained(granularity, endedAt, now)) {
+                        continue;
+                    }
+                    BucketKey key = new BucketKey(granularity, granularity.bucketOf(endedAt), (String) row[1],
+                            (String) row[2], (TransferDirection) row[3], (TransferStatus) row[4]);
+                    long[] sum = sums.computeIfAbsent(key, k -> new long[2]);
+                    sum[0]++;
+                    sum[1] += bytes;
+                }
+            }
+            transfers += page.size();
+        } while (page.size() == BACKFILL_PAGE_SIZE);
+
+        rollupRepository.saveAll(sums.entrySet().stream()
+                .map(entry -> entry.getKey().toRollup(entry.getValue()[0], entry.getValue()[1]))
+                .toList());
+        log.info("Rebuilt {} transfer statistics rollups from {} transfers", sums.size(), transfers);
+        return transfers;
+    }
+
+    /**
+     * Backfill the rollups on first start after an upgrade
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (rollupRepository.count() == 0 && transferRepository.existsByStatusIn(ENDED)) {
+                log.info("No transfer statistics rollups yet, backfilling from transfer records");
+                newTransaction.execute(status -> rebuild());
+            }
+        } catch (RuntimeException e) {
+            log.error("Transfer statistics backfill failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Delete minute and hour rollups past their retention
+     */
+    @Transactional
+    @Scheduled(cron = "0 30 2 * * ?") // Run at 2:30 AM daily
+    public void purgeExpiredRollups() {
+        Instant now = Instant.now();
+        int deleted = rollupRepository.deleteOlderThan(Granularity.MINUTE, now.minus(MINUTE_RETENTION))
+                + rollupRepository.deleteOlderThan(Granularity.HOUR, now.minus(HOUR_RETENTION));
+        if (deleted > 0) {
+            log.info("Purged {} expired transfer statistics rollups", deleted);
+        }
+    }
+
+    // ========== Queries ==========
+
+    /**
+     * Overall statistics: day rollups plus the transfers not ended yet
+     */
+    public TransferStatistics getStatistics() {
+        TransferStatistics stats = new TransferStatistics();
+        Map<String, Long> statusCounts = new HashMap<>();
+        for (Object[] row : rollupRepository.sumByStatusAndDirection(Granularity.DAY)) {
+            TransferStatus status = (TransferStatus) row[0];
+            add(stats, statusCounts, status, (TransferDirection) row[1], ((Number) row[2]).longValue());
+            if (status == TransferStatus.COMPLETED) {
+                stats.setTotalBytesTransferred(stats.getTotalBytesTransferred() + ((Number) row[3]).longValue());
+            }
+        }
+        for (Object[] row : transferRepository.countByStatusInGroupByStatusAndDirection(OPEN)) {
+            add(stats, statusCounts, (TransferStatus) row[0], (TransferDirection) row[1],
+                    ((Number) row[2]).longValue());
+        }
+        stats.setStatusBreakdown(statusCounts);
+        return stats;
+    }
+
+    /**
+     * Transfer count and completed bytes of a partner (recent transfers are
+     * left to the caller)
+     */
+    public PartnerTransferStatistics getPartnerStatistics(String partnerId) {
+        PartnerTransferStatistics stats = new PartnerTransferStatistics();
+        stats.setPartnerId(partnerId);
+        long total = transferRepository.countByPartnerIdAndStatusIn(partnerId, OPEN);
+        for (Object[] row : rollupRepository.sumByStatusForPartner(Granularity.DAY, partnerId)) {
+            total += ((Number) row[1]).longValue();
+            if (row[0] == TransferStatus.COMPLETED) {
+                stats.setTotalBytesTransferred(((Number) row[2]).longValue());
+            }
+        }
+        stats.setTotalTransfers(total);
+        return stats;
+    }
+
+    /**
+     * Completed transfers per day (UTC) over the last days, latest first
+     */
+    public List<DailyTransferStats> getDailyStatistics(int days) {
+        Instant since = Granularity.DAY.bucketOf(Instant.now().minus(days, ChronoUnit.DAYS));
+        return rollupRepository.sumByBucket(Granularity.DAY, TransferStatus.COMPLETED, since).stream()
+                .map(row -> new DailyTransferStats(
+                        LocalDate.ofInstant((Instant) row[0], ZoneOffset.UTC).toString(),
+                        ((Number) row[1]).longValue(),
+                        ((Number) row[2]).longValue()))
+                .toList();
+    }
+
+    // ========== Helpers ==========
+
+    private static void add(TransferStatistics stats, Map<String, Long> statusCounts, TransferStatus status,
+            TransferDirection direction, long count) {
+        stats.setTotalTransfers(stats.getTotalTransfers() + count);
+        statusCounts.merge(status.name(), count, Long::sum);
+        switch (status) {
+            case COMPLETED -> stats.setCompletedTransfers(stats.getCompletedTransfers() + count);
+            case FAILED -> stats.setFailedTransfers(stats.getFailedTransfers() + count);
+            default -> {
+                if (ACTIVE.contains(status)) {
+                    stats.setActiveTransfers(stats.getActiveTransfers() + count);
+                }
+            }
+        }
+        if (direction == TransferDirection.SEND) {
+            stats.setSendTransfers(stats.getSendTransfers() + count);
+        } else {
+            stats.setReceiveTransfers(stats.getReceiveTransfers() + count);
+        }
+    }
+
+    private static boolean isRetained(Granularity granularity, Instant endedAt, Instant now) {
+        return switch (granularity) {
+            case MINUTE -> endedAt.isAfter(now.minus(MINUTE_RETENTION));
+            case HOUR -> endedAt.isAfter(now.minus(HOUR_RETENTION));
+            case DAY -> true;
+        };
+    }
+
+    private int increment(BucketKey key, long count, long bytes) {
+        return rollupRepository.increment(key.granularity(), key.bucketStart(), key.partnerId(), key.serverId(),
+                key.direction(), key.status(), count, bytes);
+    }
+
+    /**
+     * Create the empty row of a bucket in the caller's transaction. Without
+     * ON CONFLICT (H2, single node) the row is checked first.
+     */
+    private void createBucket(BucketKey key) {
+        if (supportsUpsert()) {
+            rollupRepository.insertIfAbsent(key.granularity().name(), key.bucketStart(), key.partnerId(),
+                    key.serverId(), key.direction().name(), key.status().name());
+        } else if (!rollupRepository.existsByGranularityAndBucketStartAndPartnerIdAndServerIdAndDirectionAndStatus(
+                key.granularity(), key.bucketStart(), key.partnerId(), key.serverId(), key.direction(),
+                key.status())) {
+            rollupRepository.save(key.toRollup(0, 0));
+        }
+    }
+
+    private boolean supportsUpsert() {
+        Boolean supported = upsert;
+        if (supported == null) {
+            try {
+                String product = JdbcUtils.extractDatabaseMetaData(dataSource,
+                        DatabaseMetaData::getDatabaseProductName);
+                supported = "PostgreSQL".equals(product);
+            } catch (MetaDataAccessException e) {
+                log.warn("Cannot identify the database, creating rollup buckets without upsert: {}",
+                        e.getMessage());
+                supported = false;
+            }
+            upsert = supported;
+        }
+        return supported;
+    }
+
+    private record BucketKey(Granularity granularity, Instant bucketStart, String partnerId, String serverId,
+            TransferDirection direction, TransferStatus status) {
+
+        BucketKey withStatus(TransferStatus other) {
+            return new BucketKey(granularity, bucketStart, partnerId, serverId, direction, other);
+        }
+
+        TransferStatsRollup toRollup(long transferCount, long bytesTransferred) {
+            return TransferStatsRollup.builder()
+                    .granularity(granularity)
+                    .bucketStart(bucketStart)
+                    .partnerId(partnerId)
+                    .serverId(serverId)
+                    .direction(direction)
+                    .status(status)
+                    .transferCount(transferCount)
+                    .bytesTransferred(bytesTransferred)
+                    .build();
+        }
+    }
+}
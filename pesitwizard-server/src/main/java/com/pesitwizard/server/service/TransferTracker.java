@@ -2,9 +2,13 @@ package com.pesitwizard.server.service;
 
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.UUID;
 
 import org.springframework.stereotype.Component;
 
+import com.pesitwizard.server.config.TransferTrackingProperties;
+import com.pesitwizard.server.config.TransferTrackingProperties.Durability;
+import com.pesitwizard.server.config.TransferTrackingProperties.DurabilityConfig;
 import com.pesitwizard.server.entity.TransferRecord;
 import com.pesitwizard.server.entity.TransferRecord.TransferDirection;
 import com.pesitwizard.server.model.SessionContext;
@@ -16,6 +20,9 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * Component for tracking transfers in the database.
  * Integrates with PesitSessionHandler to persist transfer records.
+ *
+ * Each event type is written synchronously or through the
+ * {@link TransferTrackingWriter} queue depending on its configured durability.
  */
 @Slf4j
 @Component
@@ -23,6 +30,8 @@ import lombok.extern.slf4j.Slf4j;
 public class TransferTracker {
 
     private final TransferService transferService;
+    private final TransferTrackingWriter trackingWriter;
+    private final TransferTrackingProperties trackingProperties;
 
     /**
      * Track the start of a new transfer (CREATE/ACREATE)
@@ -31,6 +40,22 @@ public class TransferTracker {
             TransferDirection direction, String filename, Long fileSize, String localPath) {
 
         try {
+            if (trackingWriter.isDeferred(durability().getStart())) {
+                // Assign the ID now so later events can reference the queued record
+                String transferId = UUID.randomUUID().toString();
+                String sessionId = ctx.getSessionId();
+                String partnerId = ctx.getClientIdentifier();
+                String remoteAddress = ctx.getRemoteAddress();
+                trackingWriter.submit(transferId, () -> {
+                    transferService.createTransfer(transferId, sessionId, serverId, nodeId,
+                            partnerId, filename, direction, remoteAddress);
+                    transferService.startTransfer(transferId, fileSize, localPath);
+                });
+                ctx.setTransferRecordId(transferId);
+                log.debug("[{}] Transfer tracking start queued: {}", sessionId, transferId);
+                return;
+            }
+
             TransferRecord record = transferService.createTransfer(
                     ctx.getSessionId(),
                     serverId,
@@ -64,7 +89,12 @@ public class TransferTracker {
         }
 
         try {
-            transferService.updateProgress(transferId, bytesTransferred);
+            if (trackingWriter.isDeferred(durability().getProgress())) {
+                trackingWriter.progress(transferId, bytesTransferred);
+            } else {
+                trackingWriter.flush();
+                transferService.updateProgress(transferId, bytesTransferred);
+            }
         } catch (Exception e) {
             log.debug("[{}] Failed to track progress: {}", ctx.getSessionId(), e.getMessage());
         }
@@ -80,7 +110,12 @@ public class TransferTracker {
         }
 
         try {
-            transferService.recordSyncPoint(transferId, position);
+            if (trackingWriter.isDeferred(durability().getSyncPoint())) {
+                trackingWriter.syncPoint(transferId, position);
+            } else {
+                trackingWriter.flush();
+                transferService.recordSyncPoint(transferId, position);
+            }
         } catch (Exception e) {
             log.debug("[{}] Failed to track sync point: {}", ctx.getSessionId(), e.getMessage());
         }
@@ -97,25 +132,24 @@ public class TransferTracker {
 
         try {
             // Get bytes transferred from transfer context
-            // Note: With streaming, data is written directly to disk, so we don't load it
-            // into memory
             String checksum = null;
             long bytesTransferred = 0;
             TransferContext transfer = ctx.getCurrentTransfer();
             if (transfer != null) {
                 bytesTransferred = transfer.getBytesTransferred();
-                // For streaming transfers, checksum would need to be calculated during transfer
-                // or by reading the file in chunks. For now, we skip checksum for large
-                // transfers.
-                // TODO: Implement streaming checksum calculation if needed
-            }
-
-            // Update final bytes transferred before completing
-            if (bytesTransferred > 0) {
-                transferService.updateProgress(transferId, bytesTransferred);
+                // Digest updated as the data was streamed (null for restarted transfers)
+                checksum = transfer.finishDigest();
             }
 
-            transferService.completeTransfer(transferId, checksum);
+            long finalBytes = bytesTransferred;
+            String finalChecksum = checksum;
+            write(durability().getCompletion(), transferId, () -> {
+                // Update final bytes transferred before completing
+                if (finalBytes > 0) {
+                    transferService.updateProgress(transferId, finalBytes);
+                }
+                transferService.completeTransfer(transferId, finalChecksum);
+            });
             ctx.setTransferRecordId(null);
 
             log.debug("[{}] Transfer tracking completed: {} ({} bytes)",
@@ -136,7 +170,8 @@ public class TransferTracker {
         }
 
         try {
-            transferService.failTransfer(transferId, errorCode, errorMessage);
+            write(durability().getFailure(), transferId,
+                    () -> transferService.failTransfer(transferId, errorCode, errorMessage));
             ctx.setTransferRecordId(null);
 
             log.debug("[{}] Transfer tracking failed: {} - {}", ctx.getSessionId(), errorCode, errorMessage);
@@ -156,7 +191,8 @@ public class TransferTracker {
         }
 
         try {
-            transferService.cancelTransfer(transferId, reason);
+            write(durability().getCancellation(), transferId,
+                    () -> transferService.cancelTransfer(transferId, reason));
             ctx.setTransferRecordId(null);
 
             log.debug("[{}] Transfer tracking cancelled: {}", ctx.getSessionId(), reason);
@@ -176,7 +212,8 @@ public class TransferTracker {
         }
 
         try {
-            transferService.interruptTransfer(transferId, reason);
+            write(durability().getInterruption(), transferId,
+                    () -> transferService.interruptTransfer(transferId, reason));
             // Don't clear transferRecordId - it can be used for resume
 
             log.debug("[{}] Transfer tracking interrupted: {}", ctx.getSessionId(), reason);
@@ -186,6 +223,22 @@ public class TransferTracker {
         }
     }
 
+    private DurabilityConfig durability() {
+        return trackingProperties.getDurability();
+    }
+
+    /**
+     * Queue the write or run it now, after any queued updates
+     */
+    private void write(Durability durability, String transferId, Runnable write) {
+        if (trackingWriter.isDeferred(durability)) {
+            trackingWriter.submit(transferId, write);
+        } else {
+            trackingWriter.flush();
+            write.run();
+        }
+    }
+
     /**
      * Calculate SHA-256 checksum of data
      */
@@ -212,6 +265,7 @@ public class TransferTracker {
      * Mark all in-progress transfers for a node as interrupted (called on shutdown)
      */
     public int markInterruptedTransfers(String nodeId) {
+        trackingWriter.flush();
         return transferService.markInterruptedTransfers(nodeId);
     }
 
@@ -0,0 +1,176 @@
+package com.pesitwizard.server.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.pesitwizard.server.config.TransferTrackingProperties;
+import com.pesitwizard.server.config.TransferTrackingProperties.Durability;
+import com.pesitwizard.server.observability.PesitMetrics;
+import com.pesitwizard.server.service.TransferService.ProgressUpdate;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind queue for transfer tracking updates.
+ *
+ * Progress and sync point updates are coalesced per transfer and written in
+ * one transaction per batch. Other updates (start, completion, ...) are kept
+ * as ordered barriers: updates queued before them are written first.
+ * A synchronous write must call {@link #flush()} before touching the
+ * database so it never overtakes queued updates for the same transfer.
+ */
+@Slf4j
+@Component
+public class TransferTrackingWriter {
+
+    private final TransferService transferService;
+    private final TransferTrackingProperties properties;
+    private final PesitMetrics metrics;
+    private final BlockingQueue<TrackingUpdate> queue;
+    private final ReentrantLock drainLock = new ReentrantLock();
+
+    public TransferTrackingWriter(TransferService transferService, TransferTrackingProperties properties,
+            PesitMetrics metrics) {
+        this.transferService = transferService;
+        this.properties = properties;
+        this.metrics = metrics;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        metrics.registerTrackingQueue(queue);
+    }
+
+    /**
+     * Check whether an event with the given durability is queued rather than
+     * written synchronously.
+     */
+    public boolean isDeferred(Durability durability) {
+        return properties.isWriteBehind() && durability == Durability.ASYNC;
+    }
+
+    /**
+     * Queue a byte count update. Only the latest value per transfer is written.
+     */
+    public void progress(String transferId, long bytesTransferred) {
+        enqueue(new TrackingUpdate(transferId, TrackingUpdate.Kind.PROGRESS, bytesTransferred, null));
+    }
+
+    /**
+     * Queue a sync point. Only the latest position per transfer is written but
+     * every sync point is counted.
+     */
+    public void syncPoint(String transferId, long position) {
+        enqueue(new TrackingUpdate(transferId, TrackingUpdate.Kind.SYNC_POINT, position, null));
+    }
+
+    /**
+     * Queue an arbitrary tracking write, run after all updates queued before it.
+     */
+    public void submit(String transferId, Runnable write) {
+        enqueue(new TrackingUpdate(transferId, TrackingUpdate.Kind.BARRIER, 0, write));
+    }
+
+    /**
+     * Number of updates waiting to be written.
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Write all queued updates on the calling thread.
+     */
+    public void flush() {
+        if (queue.isEmpty() && !drainLock.isLocked()) {
+            return;
+        }
+        drainLock.lock();
+        try {
+            List<TrackingUpdate> batch = new ArrayList<>(Math.max(1, properties.getBatchSize()));
+            while (queue.drainTo(batch, Math.max(1, properties.getBatchSize())) > 0) {
+                long start = System.nanoTime();
+                write(batch);
+                metrics.trackingFlushed(batch.size(), System.nanoTime() - start);
+                batch.clear();
+            }
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${pesit.tracking.flush-interval-ms:250}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void enqueue(TrackingUpdate update) {
+        while (!queue.offer(update)) {
+            // Queue full: the caller pays for the flush instead of losing updates
+            metrics.trackingOverflow();
+            flush();
+        }
+    }
+
+    private void write(List<TrackingUpdate> batch) {
+        Map<String, ProgressUpdate> pending = new LinkedHashMap<>();
+        for (TrackingUpdate update : batch) {
+            switch (update.kind()) {
+                case PROGRESS -> pending(pending, update.transferId()).setBytesTransferred(update.position());
+                case SYNC_POINT -> {
+                    ProgressUpdate progress = pending(pending, update.transferId());
+                    progress.setLastSyncPoint(update.position());
+                    progress.setSyncPoints(progress.getSyncPoints() + 1);
+                }
+                case BARRIER -> {
+                    writeProgress(pending);
+                    runWrite(update);
+                }
+            }
+        }
+        writeProgress(pending);
+    }
+
+    private static ProgressUpdate pending(Map<String, ProgressUpdate> pending, String transferId) {
+        return pending.computeIfAbsent(transferId, id -> new ProgressUpdate(id, null, null, 0));
+    }
+
+    private void writeProgress(Map<String, ProgressUpdate> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            transferService.applyProgressUpdates(new ArrayList<>(pending.values()));
+        } catch (Exception e) {
+            metrics.trackingError();
+            log.warn("Failed to write {} progress updates: {}", pending.size(), e.getMessage());
+        }
+        pending.clear();
+    }
+
+    private void runWrite(TrackingUpdate update) {
+        try {
+            update.write().run();
+        } catch (Exception e) {
+            metrics.trackingError();
+            log.warn("[{}] Failed to write tracking update: {}", update.transferId(), e.getMessage());
+        }
+    }
+
+    private record TrackingUpdate(String transferId, Kind kind, long position, Runnable write) {
+        enum Kind {
+            PROGRESS, SYNC_POINT, BARRIER
+        }
+    }
+}
@@ -10,10 +10,13 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.net.ssl.KeyManagerFactory;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLServerSocketFactory;
+import javax.net.ssl.SSLSessionContext;
 import javax.net.ssl.SSLSocketFactory;
 import javax.net.ssl.TrustManagerFactory;
 
@@ -32,6 +35,12 @@ import lombok.extern.slf4j.Slf4j;
  * Supports JKS, PKCS12, and PEM formats.
  * Also supports loading certificates from environment variables for Kubernetes
  * deployments.
+ *
+ * Contexts are cached by the stores they are built from (name and last
+ * update): a reused context keeps its TLS session cache, so repeat partners
+ * resume their sessions (session IDs, or TLS 1.3 session tickets) instead
+ * of paying for a full handshake. {@link #invalidate(String)} drops the
+ * contexts of a store when it changes.
  */
 @Slf4j
 @Component
@@ -44,6 +53,16 @@ public class SslContextFactory {
     private static final String TLS_PROTOCOL = "TLSv1.3";
     private static final String FALLBACK_PROTOCOL = "TLSv1.2";
 
+    /** Key of the context built from environment variables */
+    private static final ContextKey ENV_CONTEXT = new ContextKey("env", null, null, null);
+
+    private final Map<ContextKey, SSLContext> contextCache = new ConcurrentHashMap<>();
+
+    /** Stores an SSL context was built from */
+    private record ContextKey(String keystore, Instant keystoreUpdatedAt, String truststore,
+            Instant truststoreUpdatedAt) {
+    }
+
     /**
      * Create an SSL context using the default keystore and truststore
      */
@@ -100,6 +119,10 @@ public class SslContextFactory {
      * Used in Kubernetes deployments where certificates are passed via ConfigMap.
      */
     public SSLContext createSslContextFromEnvVars() throws SslConfigurationException {
+        SSLContext cached = contextCache.get(ENV_CONTEXT);
+        if (cached != null) {
+            return cached;
+        }
         try {
             String keystoreData = sslProperties.getKeystoreData();
             String keystorePassword = sslProperties.getKeystorePassword();
@@ -151,8 +174,10 @@ public class SslContextFactory {
             }
 
             sslContext.init(kmf.getKeyManagers(), tmf != null ? tmf.getTrustManagers() : null, null);
+            configureSessions(sslContext);
             log.info("SSL context created successfully from environment variables");
 
+            contextCache.put(ENV_CONTEXT, sslContext);
             return sslContext;
 
         } catch (SslConfigurationException e) {
@@ -189,10 +214,55 @@ public class SslContextFactory {
     }
 
     /**
-     * Create an SSL context from certificate store entities
+     * Get the SSL context for certificate store entities, built once per
+     * version of the stores
      */
     public SSLContext createSslContext(CertificateStore keystore, CertificateStore truststore)
             throws SslConfigurationException {
+        ContextKey key = new ContextKey(keystore.getName(), keystore.getUpdatedAt(),
+                truststore != null ? truststore.getName() : null,
+                truststore != null ? truststore.getUpdatedAt() : null);
+        SSLContext cached = contextCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        // Concurrent first calls may both build a context; the last one is kept
+        SSLContext sslContext = buildSslContext(keystore, truststore);
+        contextCache.put(key, sslContext);
+        return sslContext;
+    }
+
+    /**
+     * Drop the cached SSL contexts built from a store, after it changed
+     */
+    public void invalidate(String storeName) {
+        if (contextCache.keySet().removeIf(key -> storeName.equals(key.keystore())
+                || storeName.equals(key.truststore()))) {
+            log.info("SSL contexts using store '{}' invalidated", storeName);
+        }
+    }
+
+    /**
+     * Drop every cached SSL context
+     */
+    public void invalidateAll() {
+        contextCache.clear();
+    }
+
+    /**
+     * Session cache settings shared by the server and client sides of a
+     * context: sessions stay resumable for {@code pesit.ssl.session-timeout}
+     */
+    private void configureSessions(SSLContext sslContext) {
+        for (SSLSessionContext sessions : new SSLSessionContext[] {
+                sslContext.getServerSessionContext(), sslContext.getClientSessionContext() }) {
+            sessions.setSessionCacheSize(sslProperties.getSessionCacheSize());
+            sessions.setSessionTimeout(sslProperties.getSessionTimeout());
+        }
+    }
+
+    private SSLContext buildSslContext(CertificateStore keystore, CertificateStore truststore)
+            throws SslConfigurationException {
         try {
             // Load keystore
             KeyStore ks = loadKeyStore(keystore);
@@ -225,6 +295,7 @@ public class SslContextFactory {
                     kmf.getKeyManagers(),
                     tmf != null ? tmf.getTrustManagers() : null,
                     null);
+            configureSessions(sslContext);
 
             log.info("SSL context created with keystore '{}' and truststore '{}'",
                     keystore.getName(), truststore != null ? truststore.getName() : "default");
@@ -0,0 +1,24 @@
+-- Transfer statistics rollups (TransferStatsRollup), PostgreSQL.
+--
+-- With the postgres profile Hibernate does not create tables (ddl-auto: none):
+-- run this script in each cluster schema, next to transfer_records, e.g.
+--   psql -d pesitwizard -c 'SET search_path TO cluster_<id>' -f transfer_stats_rollups.sql
+-- The unique constraint is required: buckets are created with
+-- INSERT ... ON CONFLICT DO NOTHING.
+-- Existing transfers are rolled up by the server on its next start.
+
+CREATE TABLE IF NOT EXISTS transfer_stats_rollups (
+    id                bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    granularity       varchar(10)                 NOT NULL,
+    bucket_start      timestamp(6) with time zone NOT NULL,
+    partner_id        varchar(64)                 NOT NULL,
+    server_id         varchar(64)                 NOT NULL,
+    direction         varchar(10)                 NOT NULL,
+    status            varchar(20)                 NOT NULL,
+    transfer_count    bigint                      NOT NULL DEFAULT 0,
+    bytes_transferred bigint                      NOT NULL DEFAULT 0,
+    CONSTRAINT uk_rollup_bucket UNIQUE (granularity, bucket_start, partner_id, server_id, direction, status)
+);
+
+CREATE INDEX IF NOT EXISTS idx_rollup_granularity_bucket ON transfer_stats_rollups (granularity, bucket_start);
+CREATE INDEX IF NOT EXISTS idx_rollup_partner ON transfer_stats_rollups (partner_id);
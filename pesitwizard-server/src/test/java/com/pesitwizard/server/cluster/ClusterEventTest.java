@@ -73,12 +73,24 @@ class ClusterEventTest {
     @Test
     @DisplayName("should have all event types")
     void shouldHaveAllEventTypes() {
-        assertEquals(6, ClusterEvent.Type.values().length);
+        assertEquals(8, ClusterEvent.Type.values().length);
         assertNotNull(ClusterEvent.Type.VIEW_CHANGED);
         assertNotNull(ClusterEvent.Type.BECAME_LEADER);
         assertNotNull(ClusterEvent.Type.LOST_LEADERSHIP);
         assertNotNull(ClusterEvent.Type.SERVER_ACQUIRED);
         assertNotNull(ClusterEvent.Type.SERVER_RELEASED);
         assertNotNull(ClusterEvent.Type.SERVER_STATE_CHANGED);
+        assertNotNull(ClusterEvent.Type.CONFIG_CHANGED);
+        assertNotNull(ClusterEvent.Type.SERVER_ASSIGNED);
+    }
+
+    @Test
+    @DisplayName("should create config changed event")
+    void shouldCreateConfigChangedEvent() {
+        ClusterEvent event = ClusterEvent.configChanged("node1");
+
+        assertEquals(ClusterEvent.Type.CONFIG_CHANGED, event.getType());
+        assertEquals("node1", event.getNodeId());
+        assertNull(event.getServerId());
     }
 }
@@ -35,10 +35,13 @@ class ClusterMessageTest {
     @Test
     @DisplayName("should have all message types")
     void shouldHaveAllMessageTypes() {
-        assertEquals(3, ClusterMessage.Type.values().length);
+        assertEquals(6, ClusterMessage.Type.values().length);
         assertNotNull(ClusterMessage.Type.SERVER_ACQUIRED);
         assertNotNull(ClusterMessage.Type.SERVER_RELEASED);
         assertNotNull(ClusterMessage.Type.SERVER_STATE_CHANGED);
+        assertNotNull(ClusterMessage.Type.CONFIG_CHANGED);
+        assertNotNull(ClusterMessage.Type.LOAD_REPORT);
+        assertNotNull(ClusterMessage.Type.SERVER_ASSIGNED);
     }
 
     @Test
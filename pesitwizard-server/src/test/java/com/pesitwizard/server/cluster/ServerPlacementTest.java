@@ -0,0 +1,78 @@
+package com.pesitwizard.server.cluster;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ServerPlacement Tests")
+class ServerPlacementTest {
+
+    private static long countOn(Map<String, String> placement, String node) {
+        return placement.values().stream().filter(node::equals).count();
+    }
+
+    @Test
+    @DisplayName("should spread idle servers evenly")
+    void shouldSpreadIdleServers() {
+        Map<String, String> placement = ServerPlacement.plan(List.of("s1", "s2", "s3", "s4", "s5", "s6"),
+                List.of("node-1", "node-2", "node-3"), Map.of(), Map.of(), 1.0);
+
+        assertEquals(6, placement.size());
+        assertEquals(2, countOn(placement, "node-1"));
+        assertEquals(2, countOn(placement, "node-2"));
+        assertEquals(2, countOn(placement, "node-3"));
+    }
+
+    @Test
+    @DisplayName("should move servers to a joining node and keep the others in place")
+    void shouldRebalanceOnJoin() {
+        Map<String, String> current = Map.of("s1", "node-1", "s2", "node-1", "s3", "node-2", "s4", "node-2");
+
+        Map<String, String> placement = ServerPlacement.plan(List.of("s1", "s2", "s3", "s4"),
+                List.of("node-1", "node-2", "node-3"), current, Map.of(), 1.0);
+
+        assertEquals(1, countOn(placement, "node-3"));
+        long unchanged = current.entrySet().stream()
+                .filter(e -> e.getValue().equals(placement.get(e.getKey())))
+                .count();
+        assertEquals(3, unchanged);
+    }
+
+    @Test
+    @DisplayName("should reassign servers of a departed node")
+    void shouldReassignOnLeave() {
+        Map<String, String> current = Map.of("s1", "node-1", "s2", "node-2", "s3", "node-3");
+
+        Map<String, String> placement = ServerPlacement.plan(List.of("s1", "s2", "s3"),
+                List.of("node-1", "node-2"), current, Map.of(), 1.0);
+
+        assertEquals("node-1", placement.get("s1"));
+        assertEquals("node-2", placement.get("s2"));
+        assertTrue(List.of("node-1", "node-2").contains(placement.get("s3")));
+    }
+
+    @Test
+    @DisplayName("should isolate a loaded server from idle ones")
+    void shouldBalanceByLoad() {
+        Map<String, String> placement = ServerPlacement.plan(List.of("busy", "s1", "s2", "s3"),
+                List.of("node-1", "node-2"), Map.of(), Map.of("busy", 10.0), 1.0);
+
+        String busyNode = placement.get("busy");
+        assertEquals(1, countOn(placement, busyNode));
+    }
+
+    @Test
+    @DisplayName("should not move servers for a gain below the tolerance")
+    void shouldRespectTolerance() {
+        Map<String, String> current = Map.of("s1", "node-1", "s2", "node-1", "s3", "node-2");
+
+        Map<String, String> placement = ServerPlacement.plan(List.of("s1", "s2", "s3"),
+                List.of("node-1", "node-2"), current, Map.of("s1", 0.2), 1.0);
+
+        assertEquals(current, placement);
+    }
+}
@@ -0,0 +1,64 @@
+package com.pesitwizard.server.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@DisplayName("ClusterSchemaInterceptor Tests")
+class ClusterSchemaInterceptorTest {
+
+    private static ClusterSchemaInterceptor interceptor(String clusterId) {
+        ClusterSchemaConfig config = new ClusterSchemaConfig();
+        ReflectionTestUtils.setField(config, "clusterId", clusterId);
+        return new ClusterSchemaInterceptor(config);
+    }
+
+    @Test
+    @DisplayName("should leave SQL untouched on the public schema")
+    void shouldNotRewriteForPublicSchema() {
+        String sql = "select * from partners p where p.id=?";
+        assertSame(sql, interceptor("").inspect(sql));
+    }
+
+    @Test
+    @DisplayName("should qualify every cluster table in one statement")
+    void shouldQualifyClusterTables() {
+        ClusterSchemaInterceptor interceptor = interceptor("Prod-1");
+
+        assertEquals("select c.id from cluster_prod_1.certificates c join cluster_prod_1.certificate_stores s "
+                + "on c.store_id=s.id where s.name=?",
+                interceptor.inspect("select c.id from certificates c join certificate_stores s "
+                        + "on c.store_id=s.id where s.name=?"));
+        assertEquals("update cluster_prod_1.transfer_records set bytes_transferred=? where id=?",
+                interceptor.inspect("update transfer_records set bytes_transferred=? where id=?"));
+    }
+
+    @Test
+    @DisplayName("should not rewrite columns or tables that only contain a table name")
+    void shouldMatchWholeWordsOnly() {
+        ClusterSchemaInterceptor interceptor = interceptor("prod");
+
+        String sql = "select partners_count, my_api_keys from transfer_statistics";
+        assertSame(sql, interceptor.inspect(sql));
+    }
+
+    @Test
+    @DisplayName("should return the cached rewrite for a repeated statement")
+    void shouldCacheRewrittenStatements() {
+        ClusterSchemaInterceptor interceptor = interceptor("prod");
+        String sql = "select * from virtual_files where name=?";
+
+        String first = interceptor.inspect(sql);
+        assertEquals("select * from cluster_prod.virtual_files where name=?", first);
+        assertSame(first, interceptor.inspect(new String(sql)));
+
+        for (int i = 0; i < ClusterSchemaInterceptor.CACHE_SIZE; i++) {
+            interceptor.inspect("select * from partners where id=" + i);
+        }
+        String evicted = interceptor.inspect(sql);
+        assertEquals(first, evicted);
+        assertNotSame(first, evicted);
+    }
+}
@@ -24,6 +24,8 @@ class PesitServerPropertiesTest {
         assertEquals("PESIT_SERVER", properties.getServerId());
         assertEquals(2, properties.getProtocolVersion());
         assertEquals(100, properties.getMaxConnections());
+        assertEquals(PesitServerProperties.ConnectionMode.VIRTUAL, properties.getConnectionMode());
+        assertEquals(1024, properties.getAcceptBacklog());
         assertEquals(30000, properties.getConnectionTimeout());
         assertEquals(60000, properties.getReadTimeout());
         assertEquals("/data/received", properties.getReceiveDirectory());
@@ -273,6 +273,16 @@ class TransferControllerTest {
             mockMvc.perform(get("/api/v1/transfers/stats/daily"))
                     .andExpect(status().isOk());
         }
+
+        @Test
+        @DisplayName("should rebuild statistics rollups")
+        void shouldRebuildStatistics() throws Exception {
+            when(transferService.rebuildStatistics()).thenReturn(42);
+
+            mockMvc.perform(post("/api/v1/transfers/stats/rebuild"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.transfers").value(42));
+        }
     }
 
     @Nested
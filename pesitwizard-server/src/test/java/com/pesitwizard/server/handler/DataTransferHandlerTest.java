@@ -11,6 +11,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.pesitwizard.fpdu.DiagnosticCode;
 import com.pesitwizard.fpdu.Fpdu;
 import com.pesitwizard.fpdu.FpduType;
 import com.pesitwizard.fpdu.ParameterIdentifier;
@@ -18,6 +19,7 @@ import com.pesitwizard.fpdu.ParameterValue;
 import com.pesitwizard.server.config.PesitServerProperties;
 import com.pesitwizard.server.model.SessionContext;
 import com.pesitwizard.server.model.TransferContext;
+import com.pesitwizard.server.observability.PesitMetrics;
 import com.pesitwizard.server.service.FpduValidator;
 import com.pesitwizard.server.service.FpduValidator.ValidationResult;
 import com.pesitwizard.server.service.TransferTracker;
@@ -36,11 +38,14 @@ class DataTransferHandlerTest {
     @Mock
     private FpduValidator fpduValidator;
 
+    @Mock
+    private PesitMetrics metrics;
+
     private DataTransferHandler handler;
 
     @BeforeEach
     void setUp() {
-        handler = new DataTransferHandler(properties, transferTracker, fpduValidator);
+        handler = new DataTransferHandler(properties, transferTracker, fpduValidator, metrics);
 
         // Default stubs for validator - return OK for all validations
         lenient().when(fpduValidator.validateDtf(any(), any(), any())).thenReturn(ValidationResult.ok());
@@ -418,6 +423,130 @@ class DataTransferHandlerTest {
         }
     }
 
+    @Test
+    @DisplayName("handleRead should stream a file held by a storage connector from the restart point")
+    void handleReadShouldStreamFromConnector() throws Exception {
+        byte[] content = new byte[10_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        java.nio.file.Path baseDir = java.nio.file.Files.createTempDirectory("connector");
+        java.nio.file.Files.write(baseDir.resolve("REPORT"), content);
+
+        try {
+            com.pesitwizard.connector.local.LocalFileConnector connector = new com.pesitwizard.connector.local.LocalFileConnector();
+            connector.initialize(java.util.Map.of("basePath", baseDir.toString()));
+            SessionContext ctx = new SessionContext("test-session");
+            ctx.transitionTo(ServerState.OF02_TRANSFER_READY);
+            TransferContext transfer = ctx.startTransfer();
+            transfer.setConnector(connector);
+            transfer.setConnectorPath("REPORT");
+
+            when(properties.getMaxEntitySize()).thenReturn(4096);
+
+            Fpdu fpdu = new Fpdu(FpduType.READ);
+            fpdu.withParameter(new ParameterValue(ParameterIdentifier.PI_18_POINT_RELANCE, 1000));
+            java.io.ByteArrayOutputStream baos = new java.io.ByteArrayOutputStream();
+
+            assertNull(handler.handleRead(ctx, fpdu, new java.io.DataOutputStream(baos)));
+            assertEquals(9_000, transfer.getBytesTransferred());
+
+            java.io.DataInputStream in = new java.io.DataInputStream(
+                    new java.io.ByteArrayInputStream(baos.toByteArray()));
+            assertEquals(FpduType.ACK_READ, com.pesitwizard.fpdu.FpduIO.readFpdu(in).getFpduType());
+            java.io.ByteArrayOutputStream received = new java.io.ByteArrayOutputStream();
+            for (int i = 0; i < 3; i++) {
+                received.write(com.pesitwizard.fpdu.FpduIO.readFpdu(in).getData());
+            }
+            assertEquals(FpduType.DTF_END, com.pesitwizard.fpdu.FpduIO.readFpdu(in).getFpduType());
+            assertArrayEquals(java.util.Arrays.copyOfRange(content, 1000, content.length), received.toByteArray());
+        } finally {
+            java.nio.file.Files.deleteIfExists(baseDir.resolve("REPORT"));
+            java.nio.file.Files.deleteIfExists(baseDir);
+        }
+    }
+
+    @Test
+    @DisplayName("handleRead should stream from a stream-only connector from the restart point")
+    void handleReadShouldStreamFromStreamOnlyConnector() throws Exception {
+        byte[] content = new byte[10_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        com.pesitwizard.connector.StorageConnector connector = mock(com.pesitwizard.connector.StorageConnector.class);
+        when(connector.capability(any())).thenReturn(java.util.Optional.empty());
+        when(connector.read("REPORT", 1000))
+                .thenReturn(new java.io.ByteArrayInputStream(content, 1000, content.length - 1000));
+        SessionContext ctx = new SessionContext("test-session");
+        ctx.transitionTo(ServerState.OF02_TRANSFER_READY);
+        TransferContext transfer = ctx.startTransfer();
+        transfer.setConnector(connector);
+        transfer.setConnectorPath("REPORT");
+
+        when(properties.getMaxEntitySize()).thenReturn(4096);
+
+        Fpdu fpdu = new Fpdu(FpduType.READ);
+        fpdu.withParameter(new ParameterValue(ParameterIdentifier.PI_18_POINT_RELANCE, 1000));
+        java.io.ByteArrayOutputStream baos = new java.io.ByteArrayOutputStream();
+
+        assertNull(handler.handleRead(ctx, fpdu, new java.io.DataOutputStream(baos)));
+        assertEquals(9_000, transfer.getBytesTransferred());
+        verify(connector).read("REPORT", 1000);
+    }
+
+    @Test
+    @DisplayName("handleRead should stream from the restart point over a socket channel")
+    void handleReadShouldStreamOverSocketChannel() throws Exception {
+        byte[] content = new byte[10_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        java.nio.file.Path tempFile = java.nio.file.Files.createTempFile("test", ".dat");
+        java.nio.file.Files.write(tempFile, content);
+
+        try (java.nio.channels.ServerSocketChannel server = java.nio.channels.ServerSocketChannel.open()
+                .bind(new java.net.InetSocketAddress("localhost", 0));
+                java.nio.channels.SocketChannel client = java.nio.channels.SocketChannel
+                        .open(server.getLocalAddress());
+                java.nio.channels.SocketChannel accepted = server.accept()) {
+            SessionContext ctx = new SessionContext("test-session");
+            ctx.transitionTo(ServerState.OF02_TRANSFER_READY);
+            ctx.setClientConnectionId(5);
+            ctx.setDataChannel(accepted);
+            accepted.setOption(java.net.StandardSocketOptions.TCP_NODELAY, true);
+            TransferContext transfer = ctx.startTransfer();
+            transfer.setLocalPath(tempFile);
+
+            when(properties.getMaxEntitySize()).thenReturn(4096);
+
+            Fpdu fpdu = new Fpdu(FpduType.READ);
+            fpdu.withParameter(new ParameterValue(ParameterIdentifier.PI_18_POINT_RELANCE, 1000));
+
+            Fpdu response = handler.handleRead(ctx, fpdu,
+                    new java.io.DataOutputStream(accepted.socket().getOutputStream()));
+
+            assertNull(response);
+            assertEquals(9_000, transfer.getBytesTransferred());
+            assertEquals(3, transfer.getRecordsTransferred());
+            assertTrue(accepted.getOption(java.net.StandardSocketOptions.TCP_NODELAY), "TCP_NODELAY restored");
+
+            // ACK(READ), 3 DTFs carrying bytes [1000, 10000), DTF.END
+            java.io.DataInputStream in = new java.io.DataInputStream(client.socket().getInputStream());
+            assertEquals(FpduType.ACK_READ, com.pesitwizard.fpdu.FpduIO.readFpdu(in).getFpduType());
+            java.io.ByteArrayOutputStream received = new java.io.ByteArrayOutputStream();
+            for (int i = 0; i < 3; i++) {
+                Fpdu dtf = com.pesitwizard.fpdu.FpduIO.readFpdu(in);
+                assertEquals(FpduType.DTF, dtf.getFpduType());
+                assertEquals(5, dtf.getIdDst());
+                received.write(dtf.getData());
+            }
+            assertEquals(FpduType.DTF_END, com.pesitwizard.fpdu.FpduIO.readFpdu(in).getFpduType());
+            assertArrayEquals(java.util.Arrays.copyOfRange(content, 1000, content.length), received.toByteArray());
+        } finally {
+            java.nio.file.Files.deleteIfExists(tempFile);
+        }
+    }
+
     @Test
     @DisplayName("handleTDE07 should write data to file and track completion")
     void handleTDE07ShouldWriteDataAndTrackCompletion() throws Exception {
@@ -447,6 +576,34 @@ class DataTransferHandlerTest {
         }
     }
 
+    @Test
+    @DisplayName("handleTDE07 should return ABORT D2_213 when the file cannot be stored")
+    void handleTDE07ShouldAbortWhenFileCannotBeStored() throws Exception {
+        com.pesitwizard.connector.StorageConnector connector = mock(com.pesitwizard.connector.StorageConnector.class);
+        when(connector.capability(any())).thenReturn(java.util.Optional.empty());
+        when(connector.write("OUT.DAT")).thenReturn(new java.io.ByteArrayOutputStream() {
+            @Override
+            public void close() throws java.io.IOException {
+                throw new java.io.IOException("CompleteMultipartUpload failed");
+            }
+        });
+        SessionContext ctx = new SessionContext("test-session");
+        ctx.transitionTo(ServerState.TDE07_WRITE_END);
+        TransferContext transfer = ctx.startTransfer();
+        transfer.setConnector(connector);
+        transfer.setConnectorPath("OUT.DAT");
+        transfer.openOutputStream();
+        transfer.appendData("Test data".getBytes());
+
+        Fpdu response = handler.handleTDE07(ctx, new Fpdu(FpduType.TRANS_END));
+
+        assertEquals(FpduType.ABORT, response.getFpduType());
+        assertArrayEquals(DiagnosticCode.D2_213.toBytes(),
+                response.getParameter(ParameterIdentifier.PI_02_DIAG).getValue());
+        verify(transferTracker).trackTransferFailed(eq(ctx), eq("D2_213"), anyString());
+        verify(transferTracker, never()).trackTransferComplete(ctx);
+    }
+
     @Test
     @DisplayName("handleTDE07 should return ABORT for unexpected FPDU type")
     void handleTDE07ShouldReturnAbortForUnexpectedFpdu() throws Exception {
@@ -19,14 +19,20 @@ import com.pesitwizard.fpdu.FpduType;
 import com.pesitwizard.fpdu.ParameterGroupIdentifier;
 import com.pesitwizard.fpdu.ParameterIdentifier;
 import com.pesitwizard.fpdu.ParameterValue;
+import com.pesitwizard.fpdu.Stripe;
+import com.pesitwizard.server.config.LogicalFileConfig;
+import com.pesitwizard.server.config.PartnerConfig;
 import com.pesitwizard.server.config.PesitServerProperties;
+import com.pesitwizard.server.connector.ConnectorRegistry;
 import com.pesitwizard.server.model.SessionContext;
 import com.pesitwizard.server.model.TransferContext;
 import com.pesitwizard.server.model.ValidationResult;
 import com.pesitwizard.server.service.FileSystemService;
 import com.pesitwizard.server.service.PathPlaceholderService;
+import com.pesitwizard.server.service.StripedTransferRegistry;
 import com.pesitwizard.server.service.TransferTracker;
 import com.pesitwizard.server.state.ServerState;
+import com.pesitwizard.transcoding.LineEnding;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("TransferOperationHandler Tests")
@@ -47,6 +53,8 @@ class TransferOperationHandlerTest {
     @Mock
     private FileSystemService fileSystemService;
 
+    private final StripedTransferRegistry stripedTransfers = new StripedTransferRegistry();
+
     private TransferOperationHandler handler;
 
     @TempDir
@@ -54,8 +62,10 @@ class TransferOperationHandlerTest {
 
     @BeforeEach
     void setUp() {
+        ConnectorRegistry connectorRegistry = new ConnectorRegistry(properties);
+        connectorRegistry.init();
         handler = new TransferOperationHandler(properties, fileValidator, transferTracker,
-                placeholderService, fileSystemService);
+                placeholderService, fileSystemService, stripedTransfers, connectorRegistry);
     }
 
     @Test
@@ -88,6 +98,54 @@ class TransferOperationHandlerTest {
 
         assertNotNull(response);
         assertEquals(1, transfer.getCompression());
+        assertNotNull(response.getParameter(ParameterIdentifier.PI_21_COMPRESSION));
+    }
+
+    @Test
+    @DisplayName("handleOpen should accept standard PI_21 from a peer without pesitwizard extensions")
+    void handleOpenShouldAcceptCompressionFromForeignPeer() throws java.io.IOException {
+        SessionContext ctx = new SessionContext("test-session");
+        ctx.transitionTo(ServerState.SF03_FILE_SELECTED);
+        TransferContext transfer = ctx.startTransfer();
+
+        Fpdu fpdu = new Fpdu(FpduType.OPEN);
+        fpdu.withParameter(new ParameterValue(ParameterIdentifier.PI_21_COMPRESSION, new byte[] { 1, 3 }));
+
+        Fpdu response = handler.handleOpen(ctx, fpdu);
+
+        assertEquals(FpduType.ACK_OPEN, response.getFpduType());
+        assertEquals(3, transfer.getCompression());
+        assertArrayEquals(new byte[] { 1, 3 },
+                response.getParameter(ParameterIdentifier.PI_21_COMPRESSION).getValue());
+    }
+
+    @Test
+    @DisplayName("handleOpen should set up transcoding for EBCDIC data with a code page")
+    void handleOpenShouldSetUpTranscoding() throws java.io.IOException {
+        SessionContext ctx = new SessionContext("test-session");
+        ctx.transitionTo(ServerState.SF03_FILE_SELECTED);
+        ctx.setLogicalFileConfig(LogicalFileConfig.builder().id("EBCDIC").codePage("IBM1047").build());
+        TransferContext transfer = ctx.startTransfer();
+        transfer.setDataCode(1);
+
+        handler.handleOpen(ctx, new Fpdu(FpduType.OPEN));
+        assertNotNull(transfer.getTranscoder());
+
+        transfer.setTranscoder(null);
+        transfer.setDataCode(2);
+        handler.handleOpen(ctx, new Fpdu(FpduType.OPEN));
+        assertNull(transfer.getTranscoder());
+
+        transfer.setDataCode(1);
+        ctx.setLogicalFileConfig(LogicalFileConfig.builder().id("EBCDIC").codePage("UTF-8").build());
+        handler.handleOpen(ctx, new Fpdu(FpduType.OPEN));
+        assertNull(transfer.getTranscoder());
+
+        // A sent file with a line ending is cut into records
+        ctx.setLogicalFileConfig(LogicalFileConfig.builder().id("EBCDIC").codePage("IBM1047")
+                .lineEnding(LineEnding.LF).build());
+        handler.handleOpen(ctx, new Fpdu(FpduType.OPEN));
+        assertTrue(transfer.getTranscoder().readsRecords());
     }
 
     @Test
@@ -440,6 +498,139 @@ class TransferOperationHandlerTest {
         verify(transferTracker).trackTransferStart(any(), any(), any(), any(), any(), any(), any());
     }
 
+    @Test
+    @DisplayName("handleCreate should join the stripes of a set to one pre-allocated file")
+    void handleCreateShouldJoinStripesToOneFile() throws Exception {
+        when(fileValidator.validateForCreate(any(), any())).thenReturn(ValidationResult.ok());
+        when(properties.getReceiveDirectory()).thenReturn(tempDir.toString());
+        when(properties.getMaxEntitySize()).thenReturn(4096);
+        when(properties.getMaxStripes()).thenReturn(8);
+        when(fileSystemService.normalizePath(anyString())).thenReturn(tempDir);
+        when(fileSystemService.createDirectories(any())).thenReturn(
+                com.pesitwizard.server.service.FileSystemService.FileOperationResult.success(tempDir));
+
+        java.util.List<Path> paths = new java.util.ArrayList<>();
+        for (Stripe stripe : Stripe.split("set-1", 10_000, 2)) {
+            SessionContext ctx = new SessionContext("session-" + stripe.index());
+            ctx.setClientIdentifier("CLIENT");
+            ctx.transitionTo(ServerState.CN03_CONNECTED);
+            Fpdu fpdu = new Fpdu(FpduType.CREATE)
+                    .withParameter(new ParameterValue(ParameterGroupIdentifier.PGI_09_ID_FICHIER,
+                            new ParameterValue(ParameterIdentifier.PI_12_NOM_FICHIER, "BIGFILE")))
+                    .withParameter(new ParameterValue(ParameterIdentifier.PI_99_MESSAGE_LIBRE, stripe.encode()));
+
+            Fpdu response = handler.handleCreate(ctx, fpdu);
+
+            assertEquals(FpduType.ACK_CREATE, response.getFpduType());
+            assertEquals(stripe.encode(), new String(
+                    response.getParameter(ParameterIdentifier.PI_99_MESSAGE_LIBRE).getValue()));
+            assertEquals(stripe, ctx.getCurrentTransfer().getStripe());
+            paths.add(ctx.getCurrentTransfer().getLocalPath());
+        }
+
+        assertEquals(paths.get(0), paths.get(1));
+        assertEquals(10_000, java.nio.file.Files.size(paths.get(0)));
+        assertEquals(1, stripedTransfers.size());
+    }
+
+    @Test
+    @DisplayName("handleCreate should stream a received file into the connector of its logical file")
+    void handleCreateShouldStreamIntoConnector() throws Exception {
+        SessionContext ctx = new SessionContext("test-session");
+        ctx.transitionTo(ServerState.CN03_CONNECTED);
+        ctx.setLogicalFileConfig(LogicalFileConfig.builder()
+                .id("ARCHIVE")
+                .receiveDirectory("incoming")
+                .connectorType("local")
+                .connectorConfig(java.util.Map.of("basePath", tempDir.toString()))
+                .build());
+        Fpdu fpdu = new Fpdu(FpduType.CREATE)
+                .withParameter(new ParameterValue(ParameterGroupIdentifier.PGI_09_ID_FICHIER,
+                        new ParameterValue(ParameterIdentifier.PI_12_NOM_FICHIER, "ARCHIVE")))
+                .withParameter(new ParameterValue(ParameterGroupIdentifier.PGI_40_ATTR_PHYSIQUES,
+                        new ParameterValue(ParameterIdentifier.PI_41_UNITE_RESERVATION, 0),
+                        new ParameterValue(ParameterIdentifier.PI_42_MAX_RESERVATION, 8)));
+
+        when(fileValidator.validateForCreate(any(), any())).thenReturn(ValidationResult.ok());
+        when(placeholderService.resolvePath(any(), any())).thenReturn("ARCHIVE.dat");
+        when(properties.getMaxEntitySize()).thenReturn(4096);
+
+        assertEquals(FpduType.ACK_CREATE, handler.handleCreate(ctx, fpdu).getFpduType());
+        TransferContext transfer = ctx.getCurrentTransfer();
+        assertEquals(8192, transfer.getAnnouncedSize());
+        assertEquals("incoming/ARCHIVE.dat", transfer.getConnectorPath());
+        assertEquals("local:incoming/ARCHIVE.dat", transfer.location());
+        assertNull(transfer.getLocalPath());
+
+        handler.handleOpen(ctx, new Fpdu(FpduType.OPEN));
+        transfer.appendData("streamed to the connector".getBytes());
+        handler.handleClose(ctx, new Fpdu(FpduType.CLOSE));
+        handler.handleDeselect(ctx, new Fpdu(FpduType.DESELECT));
+
+        // Sized from PI 42, then cut to the bytes received
+        assertEquals("streamed to the connector",
+                java.nio.file.Files.readString(tempDir.resolve("incoming/ARCHIVE.dat")));
+        assertNull(transfer.getConnector(), "connector closed with the transfer");
+    }
+
+    @Test
+    @DisplayName("handleSelect should select a file held by a storage connector")
+    void handleSelectShouldSelectFromConnector() throws Exception {
+        java.nio.file.Files.createDirectories(tempDir.resolve("outgoing"));
+        java.nio.file.Files.writeString(tempDir.resolve("outgoing/REPORT"), "report content");
+        LogicalFileConfig fileConfig = LogicalFileConfig.builder()
+                .id("REPORT*")
+                .sendDirectory("outgoing")
+                .connectorType("local")
+                .connectorConfig(java.util.Map.of("basePath", tempDir.toString()))
+                .build();
+
+        when(fileValidator.validateForSelect(any(), any())).thenReturn(ValidationResult.ok());
+        when(properties.getMaxEntitySize()).thenReturn(4096);
+
+        SessionContext ctx = new SessionContext("test-session");
+        ctx.transitionTo(ServerState.CN03_CONNECTED);
+        ctx.setLogicalFileConfig(fileConfig);
+        Fpdu response = handler.handleSelect(ctx, new Fpdu(FpduType.SELECT)
+                .withParameter(new ParameterValue(ParameterGroupIdentifier.PGI_09_ID_FICHIER,
+                        new ParameterValue(ParameterIdentifier.PI_12_NOM_FICHIER, "REPORT"))));
+
+        assertEquals(FpduType.ACK_SELECT, response.getFpduType());
+        assertEquals("outgoing/REPORT", ctx.getCurrentTransfer().getConnectorPath());
+        assertEquals(14, ctx.getCurrentTransfer().getConnectorFile().getSize());
+
+        SessionContext missing = new SessionContext("other-session");
+        missing.transitionTo(ServerState.CN03_CONNECTED);
+        missing.setLogicalFileConfig(fileConfig);
+        response = handler.handleSelect(missing, new Fpdu(FpduType.SELECT)
+                .withParameter(new ParameterValue(ParameterGroupIdentifier.PGI_09_ID_FICHIER,
+                        new ParameterValue(ParameterIdentifier.PI_12_NOM_FICHIER, "REPORT_2"))));
+
+        assertEquals(FpduType.ABORT, response.getFpduType());
+        assertNull(missing.getCurrentTransfer());
+    }
+
+    @Test
+    @DisplayName("handleCreate should refuse more stripes than the server accepts")
+    void handleCreateShouldRefuseTooManyStripes() throws Exception {
+        SessionContext ctx = new SessionContext("test-session");
+        ctx.transitionTo(ServerState.CN03_CONNECTED);
+        Fpdu fpdu = new Fpdu(FpduType.CREATE)
+                .withParameter(new ParameterValue(ParameterGroupIdentifier.PGI_09_ID_FICHIER,
+                        new ParameterValue(ParameterIdentifier.PI_12_NOM_FICHIER, "BIGFILE")))
+                .withParameter(new ParameterValue(ParameterIdentifier.PI_99_MESSAGE_LIBRE,
+                        Stripe.split("set-1", 10_000, 4).get(0).encode()));
+
+        when(fileValidator.validateForCreate(any(), any())).thenReturn(ValidationResult.ok());
+        when(properties.getMaxStripes()).thenReturn(2);
+
+        Fpdu response = handler.handleCreate(ctx, fpdu);
+
+        assertEquals(FpduType.ABORT, response.getFpduType());
+        assertNull(ctx.getCurrentTransfer());
+        assertEquals(0, stripedTransfers.size());
+    }
+
     @Test
     @DisplayName("handleCreate should return ABORT when directory creation fails")
     void handleCreateShouldReturnAbortWhenDirectoryCreationFails() throws Exception {
@@ -491,6 +682,38 @@ class TransferOperationHandlerTest {
         verify(transferTracker).trackTransferStart(any(), any(), any(), any(), any(), any(), any());
     }
 
+    @Test
+    @DisplayName("handleSelect should negotiate the entity size within the partner maximum")
+    void handleSelectShouldNegotiateEntitySizeWithinPartnerMaximum() throws Exception {
+        java.nio.file.Files.writeString(tempDir.resolve("TESTFILE"), "test content");
+
+        SessionContext ctx = new SessionContext("test-session");
+        ctx.transitionTo(ServerState.CN03_CONNECTED);
+        PartnerConfig partner = new PartnerConfig();
+        partner.setMaxEntitySize(4096);
+        ctx.setPartnerConfig(partner);
+
+        Fpdu fpdu = new Fpdu(FpduType.SELECT);
+        fpdu.withParameter(new ParameterValue(ParameterGroupIdentifier.PGI_09_ID_FICHIER,
+                new ParameterValue(ParameterIdentifier.PI_12_NOM_FICHIER, "TESTFILE".getBytes())));
+        fpdu.withParameter(new ParameterValue(ParameterIdentifier.PI_25_TAILLE_MAX_ENTITE, 32768));
+
+        when(fileValidator.validateForSelect(any(), any())).thenReturn(ValidationResult.ok());
+        when(properties.getSendDirectory()).thenReturn(tempDir.toString());
+        when(properties.getMaxEntitySize()).thenReturn(65535);
+        when(properties.getServerId()).thenReturn("TEST_SERVER");
+
+        handler.handleSelect(ctx, fpdu);
+        assertEquals(4096, ctx.getCurrentTransfer().getMaxEntitySize());
+
+        // Without a partner maximum, the client proposal is accepted up to the server maximum
+        ctx.endTransfer();
+        ctx.transitionTo(ServerState.CN03_CONNECTED);
+        ctx.setPartnerConfig(new PartnerConfig());
+        handler.handleSelect(ctx, fpdu);
+        assertEquals(32768, ctx.getCurrentTransfer().getMaxEntitySize());
+    }
+
     @Test
     @DisplayName("handleSelect should return ABORT when file not found")
     void handleSelectShouldReturnAbortWhenFileNotFound() throws Exception {
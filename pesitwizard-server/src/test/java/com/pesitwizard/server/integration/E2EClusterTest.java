@@ -39,6 +39,7 @@ import com.pesitwizard.server.service.ConfigService;
 import com.pesitwizard.server.service.FpduValidator;
 import com.pesitwizard.server.service.PathPlaceholderService;
 import com.pesitwizard.server.service.PesitServerInstance;
+import com.pesitwizard.server.service.StripedTransferRegistry;
 import com.pesitwizard.server.service.TransferTracker;
 import com.pesitwizard.server.ssl.SslContextFactory;
 
@@ -322,9 +323,11 @@ public class E2EClusterTest {
         ConnectionValidator connectionValidator = new ConnectionValidator(properties, configService, secretsService);
         FileValidator fileValidator = new FileValidator(properties, configService);
         TransferOperationHandler transferOperationHandler = new TransferOperationHandler(
-                properties, fileValidator, transferTracker, pathPlaceholderService, fileSystemService);
+                properties, fileValidator, transferTracker, pathPlaceholderService, fileSystemService,
+                new StripedTransferRegistry(), new com.pesitwizard.server.connector.ConnectorRegistry(properties));
         FpduValidator fpduValidator = new FpduValidator();
-        DataTransferHandler dataTransferHandler = new DataTransferHandler(properties, transferTracker, fpduValidator);
+        DataTransferHandler dataTransferHandler = new DataTransferHandler(properties, transferTracker, fpduValidator,
+                mock(com.pesitwizard.server.observability.PesitMetrics.class));
         MessageHandler messageHandler = new MessageHandler();
         AuditService auditService = org.mockito.Mockito.mock(AuditService.class);
         com.pesitwizard.server.cluster.ClusterProvider clusterProvider = org.mockito.Mockito
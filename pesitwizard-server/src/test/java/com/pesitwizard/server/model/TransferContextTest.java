@@ -1,16 +1,34 @@
 package com.pesitwizard.server.model;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
 import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import com.pesitwizard.compression.ArticleCompressor;
+import com.pesitwizard.compression.CompressionType;
+import com.pesitwizard.connector.Abortable;
+import com.pesitwizard.connector.StorageConnector;
+import com.pesitwizard.fpdu.Stripe;
+import com.pesitwizard.transcoding.CodePage;
+import com.pesitwizard.transcoding.LineEnding;
+import com.pesitwizard.transcoding.RecordTranscoder;
+
 @DisplayName("TransferContext Tests")
 class TransferContextTest {
 
@@ -60,6 +78,146 @@ class TransferContextTest {
         assertEquals("Hello World!", new String(result));
     }
 
+    @Test
+    @DisplayName("should append heap and direct buffer slices without copying")
+    void shouldAppendBufferSlices() throws IOException {
+        context.setLocalPath(tempDir.resolve("slices.dat"));
+        context.openOutputStream();
+
+        ByteBuffer heap = ByteBuffer.wrap("xxHello ".getBytes()).position(2);
+        ByteBuffer direct = ByteBuffer.allocateDirect(6).put("World!".getBytes()).flip();
+        context.appendData(heap);
+        context.appendData(direct);
+        context.closeOutputStream();
+
+        assertFalse(heap.hasRemaining());
+        assertFalse(direct.hasRemaining());
+        assertEquals(12, context.getBytesTransferred());
+        assertEquals(2, context.getRecordsTransferred());
+        assertEquals("Hello World!", new String(context.getData()));
+    }
+
+    @Test
+    @DisplayName("should decode compressed articles split over several DTFs")
+    void shouldDecodeCompressedArticles() throws Exception {
+        context.setLocalPath(tempDir.resolve("compressed.dat"));
+        context.setCompression(CompressionType.BOTH.getCode());
+        context.openOutputStream();
+
+        ArticleCompressor compressor = new ArticleCompressor(CompressionType.BOTH);
+        byte[] first = "0001;DUPONT    ;PARIS     ".getBytes();
+        byte[] second = "0002;DUPONT    ;LYON      ".getBytes();
+        byte[] buffer = new byte[ArticleCompressor.maxCompressedLength(first.length)];
+        int n = compressor.compress(first, 0, first.length, buffer, 0);
+        context.appendData(ByteBuffer.wrap(buffer, 0, 5), false);
+        context.appendData(ByteBuffer.wrap(buffer, 5, n - 5), true);
+        int m = compressor.compress(second, 0, second.length, buffer, 0);
+        context.appendData(ByteBuffer.wrap(buffer, 0, m), true);
+        context.closeOutputStream();
+
+        assertEquals(first.length + second.length, context.getBytesTransferred());
+        assertEquals(n + m, context.getCompressedBytes());
+        assertEquals(2, context.getRecordsTransferred());
+        assertEquals(new String(first) + new String(second), new String(context.getData()));
+        byte[] expected = MessageDigest.getInstance("SHA-256").digest(context.getData());
+        assertEquals(HexFormat.of().formatHex(expected), context.finishDigest());
+    }
+
+    @Test
+    @DisplayName("should decode the first article after a sync point without the previous one")
+    void shouldDecodeFirstArticleAfterSyncPoint() throws Exception {
+        context.setLocalPath(tempDir.resolve("synced.dat"));
+        context.setCompression(CompressionType.VERTICAL.getCode());
+        context.openOutputStream();
+
+        // A vertical string in the first article after a sync point is invalid
+        context.appendData(ByteBuffer.wrap(new byte[] { 2, 'A', 'B' }), true);
+        context.appendData(ByteBuffer.wrap(new byte[] { (byte) 0xC2 }), true);
+        context.syncPointReceived();
+        assertThrows(IOException.class, () -> context.appendData(ByteBuffer.wrap(new byte[] { (byte) 0xC2 }), true));
+    }
+
+    @Test
+    @DisplayName("should transcode EBCDIC records and end each one with a line")
+    void shouldTranscodeEbcdicRecords() throws Exception {
+        Charset ebcdic = Charset.forName("IBM1047");
+        context.setLocalPath(tempDir.resolve("transcoded.txt"));
+        context.setTranscoder(RecordTranscoder.toLocal(CodePage.of("IBM1047"), LineEnding.LF, 0));
+        context.openOutputStream();
+        context.startDigest();
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(8).put("SECOND".getBytes(ebcdic)).flip();
+        context.appendData(ByteBuffer.wrap("FIRST".getBytes(ebcdic), 0, 3), false);
+        context.appendData(ByteBuffer.wrap("FIRST".getBytes(ebcdic), 3, 2), true);
+        context.appendData(direct, true);
+        context.closeOutputStream();
+
+        assertEquals("FIRST\nSECOND\n", new String(context.getData()));
+        assertEquals(13, context.getBytesTransferred());
+        assertEquals(2, context.getRecordsTransferred());
+        byte[] expected = MessageDigest.getInstance("SHA-256").digest(context.getData());
+        assertEquals(HexFormat.of().formatHex(expected), context.finishDigest());
+    }
+
+    @Test
+    @DisplayName("should compute the checksum of streamed data")
+    void shouldComputeStreamingChecksum() throws Exception {
+        context.setLocalPath(tempDir.resolve("digest.dat"));
+        context.openOutputStream();
+
+        context.appendData("Hello ".getBytes());
+        context.appendData(ByteBuffer.allocateDirect(6).put("World!".getBytes()).flip());
+        context.closeOutputStream();
+
+        byte[] expected = MessageDigest.getInstance("SHA-256").digest("Hello World!".getBytes());
+        assertEquals(HexFormat.of().formatHex(expected), context.finishDigest());
+        assertNull(context.finishDigest());
+    }
+
+    @Test
+    @DisplayName("should write stripes out of order into one pre-allocated file")
+    void shouldWriteStripesIntoOneFile() throws Exception {
+        byte[] data = "Hello striped World!".getBytes();
+        java.util.List<Stripe> stripes = Stripe.split("set-1", data.length, 3);
+        StripedFile file = new StripedFile(stripes.get(0), tempDir.resolve("striped.dat"));
+        assertEquals(data.length, Files.size(file.getPath()));
+
+        String checksum = null;
+        for (int i : new int[] { 2, 0, 1 }) {
+            Stripe stripe = stripes.get(i);
+            TransferContext stripeContext = new TransferContext();
+            stripeContext.setLocalPath(file.getPath());
+            stripeContext.setStripe(stripe);
+            stripeContext.setStripedFile(file);
+            stripeContext.openOutputStream();
+            stripeContext.appendData(ByteBuffer.wrap(data, (int) stripe.offset(), (int) stripe.length()));
+            stripeContext.closeOutputStream();
+            assertFalse(file.isComplete());
+            checksum = file.complete(stripe, stripeContext.finishDigest());
+        }
+
+        assertTrue(file.isComplete());
+        assertArrayEquals(data, Files.readAllBytes(file.getPath()));
+        java.util.List<String> stripeChecksums = new java.util.ArrayList<>();
+        for (Stripe stripe : stripes) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(data, (int) stripe.offset(), (int) stripe.length());
+            stripeChecksums.add(HexFormat.of().formatHex(digest.digest()));
+        }
+        assertEquals(Stripe.fileChecksum(stripeChecksums), checksum);
+    }
+
+    @Test
+    @DisplayName("should give no file checksum when a stripe has none")
+    void shouldSkipChecksumWithoutStripeDigest() throws Exception {
+        java.util.List<Stripe> stripes = Stripe.split("set-1", 10, 2);
+        StripedFile file = new StripedFile(stripes.get(0), tempDir.resolve("striped.dat"));
+
+        assertNull(file.complete(stripes.get(0), "00".repeat(32)));
+        assertNull(file.complete(stripes.get(1), null));
+        assertTrue(file.isComplete());
+    }
+
     @Test
     @DisplayName("should reset all fields")
     void shouldResetAllFields() throws IOException {
@@ -152,4 +310,65 @@ class TransferContextTest {
 
         assertEquals(endTime, context.getEndTime());
     }
+
+    @Test
+    @DisplayName("a dropped connection should abort an unfinished connector write")
+    void endTransferShouldAbortUnfinishedConnectorWrite() throws Exception {
+        UploadStream upload = new UploadStream(false);
+        SessionContext session = new SessionContext("test-session");
+        TransferContext transfer = session.startTransfer();
+        transfer.setConnector(connectorWriting(upload));
+        transfer.setConnectorPath("OUT.DAT");
+        transfer.openOutputStream();
+        transfer.appendData("partial".getBytes());
+
+        session.endTransfer();
+
+        assertTrue(upload.aborted);
+        assertFalse(upload.closed, "a truncated file must not be published");
+    }
+
+    @Test
+    @DisplayName("closeOutputStream should propagate a failure to publish the file")
+    void closeOutputStreamShouldPropagateFailure() throws Exception {
+        context.setConnector(connectorWriting(new UploadStream(true)));
+        context.setConnectorPath("OUT.DAT");
+        context.openOutputStream();
+        context.appendData("data".getBytes());
+
+        IOException e = assertThrows(IOException.class, context::closeOutputStream);
+        assertEquals("complete refused", e.getMessage());
+        assertNull(context.getFileOutputStream());
+    }
+
+    private static StorageConnector connectorWriting(UploadStream upload) throws Exception {
+        StorageConnector connector = mock(StorageConnector.class);
+        when(connector.capability(any())).thenReturn(Optional.empty());
+        when(connector.write("OUT.DAT")).thenReturn(upload);
+        return connector;
+    }
+
+    /** Connector stream publishing its data on close, like an S3 upload */
+    private static class UploadStream extends ByteArrayOutputStream implements Abortable {
+        private final boolean failOnClose;
+        boolean closed;
+        boolean aborted;
+
+        UploadStream(boolean failOnClose) {
+            this.failOnClose = failOnClose;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (failOnClose) {
+                throw new IOException("complete refused");
+            }
+            closed = true;
+        }
+
+        @Override
+        public void abort() {
+            aborted = true;
+        }
+    }
 }
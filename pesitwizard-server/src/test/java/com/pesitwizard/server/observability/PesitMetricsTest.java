@@ -71,6 +71,16 @@ class PesitMetricsTest {
         assertEquals(1.0, count);
     }
 
+    @Test
+    @DisplayName("transferCompressed should record the compression ratio")
+    void transferCompressedShouldRecordRatio() {
+        metrics.transferCompressed("SEND", 4000L, 1000L);
+
+        assertEquals(4.0, registry.get("pesit.transfers.compression.ratio").tag("direction", "SEND")
+                .summary().max());
+        assertEquals(3000.0, registry.get("pesit.transfers.compression.saved").counter().count());
+    }
+
     @Test
     @DisplayName("transferFailed should increment failure counter")
     void transferFailedShouldIncrementCounter() {
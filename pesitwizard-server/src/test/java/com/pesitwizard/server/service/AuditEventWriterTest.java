@@ -0,0 +1,152 @@
+package com.pesitwizard.server.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pesitwizard.server.config.AuditProperties;
+import com.pesitwizard.server.config.AuditProperties.OverflowPolicy;
+import com.pesitwizard.server.config.ClusterSchemaConfig;
+import com.pesitwizard.server.entity.AuditEvent;
+import com.pesitwizard.server.entity.AuditEvent.AuditCategory;
+import com.pesitwizard.server.entity.AuditEvent.AuditEventType;
+import com.pesitwizard.server.entity.AuditEvent.AuditOutcome;
+import com.pesitwizard.server.observability.PesitMetrics;
+import com.pesitwizard.server.repository.AuditEventRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tests for the audit write-behind pipeline
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class AuditEventWriterTest {
+
+    @Autowired
+    private AuditEventWriter auditWriter;
+
+    @Autowired
+    private AuditEventRepository auditRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TempDir
+    Path tempDir;
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        auditRepository.deleteAll();
+        registry = new SimpleMeterRegistry();
+    }
+
+    private static AuditEvent event(String username) {
+        return AuditEvent.builder()
+                .timestamp(Instant.now())
+                .category(AuditCategory.AUTHENTICATION)
+                .eventType(AuditEventType.LOGIN_FAILURE)
+                .outcome(AuditOutcome.FAILURE)
+                .username(username)
+                .clientIp("10.0.0.1")
+                .durationMs(12L)
+                .httpStatus(401)
+                .build();
+    }
+
+    /** Writer with no background thread, over a mocked JdbcTemplate */
+    private AuditEventWriter unstartedWriter(JdbcTemplate jdbcTemplate, OverflowPolicy policy) {
+        AuditProperties properties = new AuditProperties();
+        properties.setQueueCapacity(2);
+        properties.setBatchSize(10);
+        properties.setOverflowPolicy(policy);
+        properties.setBlockTimeoutMs(10);
+        properties.setSpillFile(tempDir.resolve("spill.jsonl").toString());
+        return new AuditEventWriter(jdbcTemplate, properties, new PesitMetrics(registry), objectMapper,
+                new ClusterSchemaConfig());
+    }
+
+    @Test
+    @DisplayName("Queued events are batch inserted with all mapped columns")
+    void testBatchInsert() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(auditWriter.submit(event("user" + i)));
+        }
+        auditWriter.flush();
+
+        List<AuditEvent> saved = auditRepository.findAll();
+        assertEquals(5, saved.size());
+        AuditEvent first = saved.stream().filter(e -> "user0".equals(e.getUsername())).findFirst().orElseThrow();
+        assertNotNull(first.getId());
+        assertEquals(AuditCategory.AUTHENTICATION, first.getCategory());
+        assertEquals(AuditEventType.LOGIN_FAILURE, first.getEventType());
+        assertEquals(AuditOutcome.FAILURE, first.getOutcome());
+        assertEquals("10.0.0.1", first.getClientIp());
+        assertEquals(12L, first.getDurationMs());
+        assertEquals(401, first.getHttpStatus());
+        assertNull(first.getBytesTransferred());
+    }
+
+    @Test
+    @DisplayName("DROP policy counts events that do not fit in the queue")
+    void testDropPolicy() {
+        AuditEventWriter writer = unstartedWriter(mock(JdbcTemplate.class), OverflowPolicy.DROP);
+
+        assertTrue(writer.submit(event("a")));
+        assertTrue(writer.submit(event("b")));
+        assertFalse(writer.submit(event("c")));
+
+        assertEquals(2, writer.getQueueDepth());
+        assertEquals(1.0, registry.get("pesit.audit.dropped").counter().count());
+    }
+
+    @Test
+    @DisplayName("BLOCK policy waits for space, then drops")
+    void testBlockPolicy() {
+        AuditEventWriter writer = unstartedWriter(mock(JdbcTemplate.class), OverflowPolicy.BLOCK);
+
+        writer.submit(event("a"));
+        writer.submit(event("b"));
+        assertFalse(writer.submit(event("c")));
+
+        assertEquals(1.0, registry.get("pesit.audit.blocked").counter().count());
+        assertEquals(1.0, registry.get("pesit.audit.dropped").counter().count());
+    }
+
+    @Test
+    @DisplayName("SPILL policy appends overflow and failed batches to the spill file")
+    void testSpillPolicy() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any()))
+                .thenThrow(new IllegalStateException("database down"));
+        AuditEventWriter writer = unstartedWriter(jdbcTemplate, OverflowPolicy.SPILL);
+
+        writer.submit(event("a"));
+        writer.submit(event("b"));
+        assertTrue(writer.submit(event("c")));
+        writer.flush();
+
+        List<String> lines = Files.readAllLines(tempDir.resolve("spill.jsonl"));
+        assertEquals(3, lines.size());
+        assertEquals("c", objectMapper.readValue(lines.get(0), AuditEvent.class).getUsername());
+        assertEquals(3.0, registry.get("pesit.audit.spilled").counter().count());
+        assertEquals(2.0, registry.get("pesit.audit.errors").counter().count());
+    }
+}
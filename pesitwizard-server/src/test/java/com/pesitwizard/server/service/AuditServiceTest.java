@@ -37,6 +37,9 @@ class AuditServiceTest {
     @Mock
     private ObjectMapper objectMapper;
 
+    @Mock
+    private AuditEventWriter auditWriter;
+
     @InjectMocks
     private AuditService auditService;
 
@@ -72,6 +75,21 @@ class AuditServiceTest {
             verify(auditRepository).save(any(AuditEvent.class));
         }
 
+        @Test
+        @DisplayName("Should queue audit event when write-behind is enabled")
+        void shouldQueueAuditEvent() {
+            when(auditWriter.isEnabled()).thenReturn(true);
+
+            AuditEvent result = auditService.log(AuditEvent.builder()
+                    .category(AuditCategory.AUTHENTICATION)
+                    .eventType(AuditEventType.LOGIN_FAILURE)
+                    .outcome(AuditOutcome.FAILURE));
+
+            assertNotNull(result.getTimestamp());
+            verify(auditWriter).submit(result);
+            verifyNoInteractions(auditRepository);
+        }
+
         @Test
         @DisplayName("Should log authentication success")
         void shouldLogAuthSuccess() {
@@ -16,6 +16,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.pesitwizard.server.cluster.ClusterEvent;
+import com.pesitwizard.server.cluster.ClusterMessage;
+import com.pesitwizard.server.cluster.ClusterProvider;
 import com.pesitwizard.server.config.PesitServerProperties;
 import com.pesitwizard.server.entity.Partner;
 import com.pesitwizard.server.entity.VirtualFile;
@@ -39,6 +42,9 @@ class ConfigServiceTest {
     @Mock
     private SecretsService secretsService;
 
+    @Mock
+    private ClusterProvider clusterProvider;
+
     @InjectMocks
     private ConfigService configService;
 
@@ -106,7 +112,6 @@ class ConfigServiceTest {
         @Test
         @DisplayName("Should find partner case-insensitively")
         void shouldFindPartnerCaseInsensitive() {
-            when(partnerRepository.findById("partner1")).thenReturn(Optional.empty());
             when(partnerRepository.findAll()).thenReturn(List.of(testPartner));
 
             Optional<Partner> result = configService.findPartner("partner1");
@@ -115,6 +120,17 @@ class ConfigServiceTest {
             assertEquals("PARTNER1", result.get().getId());
         }
 
+        @Test
+        @DisplayName("Should prefer exact partner ID over case-insensitive match")
+        void shouldPreferExactPartnerId() {
+            Partner lower = Partner.builder().id("partner1").build();
+            when(partnerRepository.findAll()).thenReturn(List.of(testPartner, lower));
+
+            assertSame(lower, configService.findPartner("partner1").orElseThrow());
+            assertSame(testPartner, configService.findPartner("PARTNER1").orElseThrow());
+            assertTrue(configService.findPartner("PARTNER2").isEmpty());
+        }
+
         @Test
         @DisplayName("Should return empty for null partner ID")
         void shouldReturnEmptyForNullPartnerId() {
@@ -196,6 +212,20 @@ class ConfigServiceTest {
             assertTrue(result.isEmpty());
         }
 
+        @Test
+        @DisplayName("Should find virtual file by exact name or enabled wildcard pattern")
+        void shouldFindVirtualFileByPattern() {
+            VirtualFile wildcard = VirtualFile.builder().id("DATA_*").enabled(true).build();
+            VirtualFile disabled = VirtualFile.builder().id("OLD*").enabled(false).build();
+            when(virtualFileRepository.findAll()).thenReturn(List.of(testVirtualFile, wildcard, disabled));
+
+            assertSame(testVirtualFile, configService.findVirtualFile("FILE1").orElseThrow());
+            assertSame(wildcard, configService.findVirtualFile("DATA_2024").orElseThrow());
+            assertSame(disabled, configService.findVirtualFile("OLD*").orElseThrow());
+            assertTrue(configService.findVirtualFile("OLD_2024").isEmpty());
+            assertTrue(configService.findVirtualFile("file1").isEmpty());
+        }
+
         @Test
         @DisplayName("Should save virtual file")
         void shouldSaveVirtualFile() {
@@ -223,4 +253,53 @@ class ConfigServiceTest {
             assertTrue(configService.virtualFileExists("FILE1"));
         }
     }
+
+    @Nested
+    @DisplayName("Lookup Snapshot Tests")
+    class LookupSnapshotTests {
+
+        @Test
+        @DisplayName("Should serve repeated lookups without querying the database")
+        void shouldReuseSnapshot() {
+            when(partnerRepository.findAll()).thenReturn(List.of(testPartner));
+            when(virtualFileRepository.findAll()).thenReturn(List.of(testVirtualFile));
+
+            for (int i = 0; i < 3; i++) {
+                assertTrue(configService.findPartner("PARTNER1").isPresent());
+                assertTrue(configService.findVirtualFile("FILE1").isPresent());
+            }
+
+            verify(partnerRepository, times(1)).findAll();
+            verify(virtualFileRepository, times(1)).findAll();
+            verify(partnerRepository, never()).findById(anyString());
+            verify(virtualFileRepository, never()).findById(anyString());
+        }
+
+        @Test
+        @DisplayName("Should reload after a change and notify the cluster")
+        void shouldReloadAfterChange() {
+            when(clusterProvider.getNodeName()).thenReturn("node-1");
+            when(partnerRepository.findAll()).thenReturn(List.of()).thenReturn(List.of(testPartner));
+            when(partnerRepository.save(testPartner)).thenReturn(testPartner);
+
+            assertTrue(configService.findPartner("PARTNER1").isEmpty());
+            configService.savePartner(testPartner);
+            assertTrue(configService.findPartner("PARTNER1").isPresent());
+
+            verify(clusterProvider).broadcast(
+                    new ClusterMessage(ClusterMessage.Type.CONFIG_CHANGED, null, "node-1"));
+        }
+
+        @Test
+        @DisplayName("Should reload when another node changes the configuration")
+        void shouldReloadOnClusterEvent() {
+            when(virtualFileRepository.findAll()).thenReturn(List.of()).thenReturn(List.of(testVirtualFile));
+
+            assertTrue(configService.findVirtualFile("FILE1").isEmpty());
+            configService.onClusterEvent(ClusterEvent.serverStateChanged("srv", "node-2"));
+            assertTrue(configService.findVirtualFile("FILE1").isEmpty());
+            configService.onClusterEvent(ClusterEvent.configChanged("node-2"));
+            assertTrue(configService.findVirtualFile("FILE1").isPresent());
+        }
+    }
 }
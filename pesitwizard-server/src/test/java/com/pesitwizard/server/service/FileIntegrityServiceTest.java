@@ -7,6 +7,7 @@ import static org.mockito.Mockito.*;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -308,6 +309,60 @@ class FileIntegrityServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Large File and Batch Verification Tests")
+    class BatchVerificationTests {
+
+        @Test
+        @DisplayName("Should compute the same checksum from mappings and from the buffer")
+        void shouldComputeSameChecksumFromMappings() throws IOException {
+            Path testFile = tempDir.resolve("large.bin");
+            byte[] content = new byte[3 * 8192 + 17];
+            for (int i = 0; i < content.length; i++) {
+                content[i] = (byte) (i * 31);
+            }
+            Files.write(testFile, content);
+
+            ReflectionTestUtils.setField(service, "mmapThreshold", 0L);
+            String buffered = service.computeChecksum(testFile);
+            ReflectionTestUtils.setField(service, "mmapThreshold", 1L);
+            String mapped = service.computeChecksum(testFile);
+
+            assertEquals(service.computeChecksum(content), buffered);
+            assertEquals(buffered, mapped);
+        }
+
+        @Test
+        @DisplayName("Should re-verify old files in parallel under a rate limit")
+        void shouldReVerifyOldFilesInParallel() throws IOException {
+            ReflectionTestUtils.setField(service, "verificationParallelism", 3);
+            ReflectionTestUtils.setField(service, "verificationMaxBytesPerSecond", 1_000_000L);
+
+            List<FileChecksum> oldFiles = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                Path testFile = tempDir.resolve("old" + i + ".txt");
+                Files.writeString(testFile, "Content " + i);
+                oldFiles.add(FileChecksum.builder()
+                        .id((long) i)
+                        .filename(testFile.getFileName().toString())
+                        .checksumHash(i == 5 ? "0".repeat(64) : service.computeChecksum(testFile))
+                        .algorithm(HashAlgorithm.SHA_256)
+                        .localPath(testFile.toString())
+                        .status(VerificationStatus.VERIFIED)
+                        .build());
+            }
+            when(checksumRepository.findByVerifiedAtBeforeAndStatusOrderByVerifiedAtAsc(any(),
+                    eq(VerificationStatus.VERIFIED))).thenReturn(oldFiles);
+            when(checksumRepository.save(any(FileChecksum.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            service.reVerifyOldFiles();
+
+            verify(checksumRepository, times(6)).save(any(FileChecksum.class));
+            assertEquals(5, oldFiles.stream().filter(c -> c.getStatus() == VerificationStatus.VERIFIED).count());
+            assertEquals(VerificationStatus.FAILED, oldFiles.get(5).getStatus());
+        }
+    }
+
     @Nested
     @DisplayName("Duplicate Detection Tests")
     class DuplicateDetectionTests {
@@ -130,6 +130,20 @@ class FpduResponseBuilderTest {
             Fpdu response = FpduResponseBuilder.buildAckOpen(sessionContext);
 
             assertEquals(FpduType.ACK_OPEN, response.getFpduType());
+            assertNull(response.getParameter(ParameterIdentifier.PI_21_COMPRESSION));
+        }
+
+        @Test
+        @DisplayName("should echo the accepted compression in ACK_OPEN")
+        void shouldBuildAckOpenWithCompression() {
+            TransferContext transfer = new TransferContext();
+            transfer.setCompression(1);
+            sessionContext.setCurrentTransfer(transfer);
+
+            Fpdu response = FpduResponseBuilder.buildAckOpen(sessionContext);
+
+            assertArrayEquals(new byte[] { 1, 1 },
+                    response.getParameter(ParameterIdentifier.PI_21_COMPRESSION).getValue());
         }
 
         @Test
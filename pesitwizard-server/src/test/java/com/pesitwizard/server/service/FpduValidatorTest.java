@@ -79,6 +79,27 @@ class FpduValidatorTest {
             assertTrue(result.message().contains("1024"));
         }
 
+        @Test
+        @DisplayName("should check each article of a multi-article DTF")
+        void shouldCheckEachArticleOfMultiArticleDtf() {
+            TransferContext transfer = new TransferContext();
+            transfer.setRecordLength(4);
+            Fpdu fpdu = new Fpdu(FpduType.DTF).withIdSrc(2);
+
+            byte[] fits = { 0, 4, 1, 2, 3, 4, 0, 2, 5, 6 };
+            assertTrue(validator.validateDtf(fpdu, transfer, fits).valid());
+
+            byte[] tooLong = { 0, 4, 1, 2, 3, 4, 0, 5, 5, 6, 7, 8, 9 };
+            ValidationResult result = validator.validateDtf(fpdu, transfer, tooLong);
+            assertFalse(result.valid());
+            assertEquals(DiagnosticCode.D2_220, result.errorCode());
+
+            byte[] truncated = { 0, 4, 1, 2, 3, 4, 0, 3, 5 };
+            result = validator.validateDtf(fpdu, transfer, truncated);
+            assertFalse(result.valid());
+            assertEquals(DiagnosticCode.D2_220, result.errorCode());
+        }
+
         @Test
         @DisplayName("should accept any data when record length is 0 (unlimited)")
         void shouldAcceptAnyDataWhenRecordLengthZero() {
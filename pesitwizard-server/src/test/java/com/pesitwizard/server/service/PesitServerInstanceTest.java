@@ -0,0 +1,142 @@
+package com.pesitwizard.server.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.pesitwizard.server.config.PesitServerProperties;
+import com.pesitwizard.server.config.PesitServerProperties.ConnectionMode;
+import com.pesitwizard.server.config.SslProperties;
+import com.pesitwizard.server.entity.PesitServerConfig;
+import com.pesitwizard.server.handler.PesitSessionHandler;
+import com.pesitwizard.server.model.SessionContext;
+import com.pesitwizard.server.ssl.SslContextFactory;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("PesitServerInstance Tests")
+class PesitServerInstanceTest {
+
+    @Mock
+    private PesitSessionHandler sessionHandler;
+
+    @Mock
+    private SslProperties sslProperties;
+
+    @Mock
+    private SslContextFactory sslContextFactory;
+
+    private PesitServerProperties properties;
+    private PesitServerInstance instance;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        properties = new PesitServerProperties();
+        properties.setServerId("TEST");
+        properties.setPort(freePort());
+        properties.setMaxConnections(1);
+        properties.setReadTimeout(10000);
+
+        when(sslProperties.isEnabled()).thenReturn(false);
+        when(sessionHandler.createSession(anyString(), anyString()))
+                .thenAnswer(inv -> new SessionContext("session"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (instance != null) {
+            instance.stop();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private PesitServerInstance start(ConnectionMode mode) throws IOException {
+        properties.setConnectionMode(mode);
+        PesitServerConfig config = new PesitServerConfig();
+        config.setServerId("TEST");
+        instance = new PesitServerInstance(config, properties, sessionHandler, sslProperties, sslContextFactory);
+        instance.start();
+        return instance;
+    }
+
+    private static void awaitActive(PesitServerInstance instance, int expected) throws InterruptedException {
+        for (int i = 0; i < 100 && instance.getActiveConnections() != expected; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, instance.getActiveConnections());
+    }
+
+    @Test
+    @DisplayName("virtual mode should queue connections beyond maxConnections instead of dropping them")
+    void shouldQueueConnectionsWhenSaturated() throws Exception {
+        start(ConnectionMode.VIRTUAL);
+
+        try (Socket first = new Socket("localhost", properties.getPort());
+                Socket second = new Socket("localhost", properties.getPort())) {
+            awaitActive(instance, 1);
+            Thread.sleep(200);
+            verify(sessionHandler, times(1)).createSession(anyString(), anyString());
+
+            // Second partner waits in the backlog; once the first leaves it is served
+            first.close();
+            verify(sessionHandler, timeout(2000).times(2)).createSession(anyString(), anyString());
+            awaitActive(instance, 1);
+        }
+    }
+
+    @Test
+    @DisplayName("platform mode should serve connections from a fixed pool")
+    void shouldServeConnectionsInPlatformMode() throws Exception {
+        start(ConnectionMode.PLATFORM);
+
+        try (Socket socket = new Socket("localhost", properties.getPort())) {
+            awaitActive(instance, 1);
+        }
+        awaitActive(instance, 0);
+
+        // Slot released: a new partner is served
+        try (Socket socket = new Socket("localhost", properties.getPort())) {
+            awaitActive(instance, 1);
+        }
+        verify(sessionHandler, timeout(2000).times(2)).createSession(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("stop should refuse new connections and let running sessions drain")
+    void stopShouldLetSessionsDrain() throws Exception {
+        start(ConnectionMode.VIRTUAL);
+        Socket partner = new Socket("localhost", properties.getPort());
+        awaitActive(instance, 1);
+
+        Thread stopping = Thread.ofVirtual().start(() -> instance.stop(Duration.ofSeconds(10)));
+        Thread.sleep(300);
+        assertThrows(IOException.class, () -> new Socket("localhost", properties.getPort()).close());
+        assertTrue(stopping.isAlive(), "stop waits for the running session");
+        assertEquals(1, instance.getActiveConnections());
+
+        partner.close();
+        stopping.join(5000);
+        assertFalse(stopping.isAlive());
+        assertEquals(0, instance.getActiveConnections());
+    }
+}
@@ -4,7 +4,11 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -17,10 +21,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.pesitwizard.server.cluster.ClusterEvent;
 import com.pesitwizard.server.cluster.ClusterProvider;
+import com.pesitwizard.server.config.ClusterPlacementProperties;
+import com.pesitwizard.server.config.ClusterPlacementProperties.PlacementMode;
 import com.pesitwizard.server.config.SslProperties;
 import com.pesitwizard.server.entity.PesitServerConfig;
 import com.pesitwizard.server.entity.PesitServerConfig.ServerStatus;
 import com.pesitwizard.server.handler.PesitSessionHandler;
+import com.pesitwizard.server.model.SessionContext;
 import com.pesitwizard.server.repository.PesitServerConfigRepository;
 import com.pesitwizard.server.ssl.SslContextFactory;
 
@@ -46,14 +53,17 @@ class PesitServerManagerTest {
     @Mock
     private SslContextFactory sslContextFactory;
 
+    private ClusterPlacementProperties placementProperties;
+
     private PesitServerManager serverManager;
 
     private PesitServerConfig testConfig;
 
     @BeforeEach
     void setUp() {
+        placementProperties = new ClusterPlacementProperties();
         serverManager = new PesitServerManager(configRepository, clusterProvider,
-                sessionHandler, fileSystemService, sslProperties, sslContextFactory);
+                sessionHandler, fileSystemService, sslProperties, sslContextFactory, placementProperties);
 
         testConfig = new PesitServerConfig();
         testConfig.setId(1L);
@@ -62,6 +72,12 @@ class PesitServerManagerTest {
         testConfig.setStatus(ServerStatus.STOPPED);
     }
 
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
     @Nested
     @DisplayName("CRUD Operations")
     class CrudTests {
@@ -228,6 +244,90 @@ class PesitServerManagerTest {
             // No server operations should be triggered
             verifyNoInteractions(configRepository);
         }
+
+        @Test
+        @DisplayName("should not start servers on BECAME_LEADER with distributed placement")
+        void shouldIgnoreLeadershipWhenDistributed() {
+            placementProperties.setMode(PlacementMode.DISTRIBUTED);
+
+            serverManager.onClusterEvent(ClusterEvent.becameLeader("node-1"));
+
+            verifyNoInteractions(configRepository);
+        }
+
+        @Test
+        @DisplayName("should wait for the previous owner before starting an assigned server")
+        void shouldWaitForReleaseOfAssignedServer() {
+            placementProperties.setMode(PlacementMode.DISTRIBUTED);
+            when(clusterProvider.getNodeName()).thenReturn("node-1");
+            when(clusterProvider.getServerOwner("server-1")).thenReturn("node-2");
+
+            serverManager.onClusterEvent(ClusterEvent.serverAssigned("server-1", "node-1"));
+
+            verify(configRepository, never()).findByServerId(anyString());
+            assertFalse(serverManager.isServerRunning("server-1"));
+        }
+
+        @Test
+        @DisplayName("should retry an assigned server when its previous owner releases it")
+        void shouldRetryAssignedServerOnRelease() {
+            placementProperties.setMode(PlacementMode.DISTRIBUTED);
+            when(clusterProvider.getNodeName()).thenReturn("node-1");
+            when(clusterProvider.getServerAssignments()).thenReturn(Map.of("server-1", "node-1"));
+            when(configRepository.findByServerId("server-1")).thenReturn(Optional.empty());
+
+            serverManager.onClusterEvent(ClusterEvent.serverReleased("server-1", "node-2"));
+
+            // startServer was attempted (and failed on the missing config)
+            verify(configRepository).findByServerId("server-1");
+        }
+
+        @Test
+        @DisplayName("should move ownership only with shared-port placement")
+        void shouldMoveOwnershipWhenSharedPort() {
+            placementProperties.setMode(PlacementMode.SHARED_PORT);
+            when(clusterProvider.getNodeName()).thenReturn("node-1");
+            when(clusterProvider.ownsServer("server-1")).thenReturn(true);
+            when(clusterProvider.acquireServerOwnership("server-2")).thenReturn(true);
+
+            serverManager.onClusterEvent(ClusterEvent.serverAssigned("server-1", "node-2"));
+            serverManager.onClusterEvent(ClusterEvent.serverAssigned("server-2", "node-1"));
+
+            verify(clusterProvider).releaseServerOwnership("server-1");
+            verify(clusterProvider).acquireServerOwnership("server-2");
+            verify(configRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("should drain a handed-over server in the background before releasing it")
+        void shouldDrainHandedOverServerInBackground() throws Exception {
+            placementProperties.setMode(PlacementMode.DISTRIBUTED);
+            testConfig.setPort(freePort());
+            testConfig.setReceiveDirectory(null);
+            testConfig.setSendDirectory(null);
+            when(clusterProvider.getNodeName()).thenReturn("node-1");
+            when(clusterProvider.acquireServerOwnership("server-1")).thenReturn(true);
+            when(clusterProvider.ownsServer("server-1")).thenReturn(true);
+            when(configRepository.findByServerId("server-1")).thenReturn(Optional.of(testConfig));
+            when(sessionHandler.createSession(anyString(), anyString()))
+                    .thenAnswer(inv -> new SessionContext("session"));
+            serverManager.onClusterEvent(ClusterEvent.serverAssigned("server-1", "node-1"));
+            assertTrue(serverManager.isServerRunning("server-1"));
+
+            try (Socket partner = new Socket("localhost", testConfig.getPort())) {
+                verify(sessionHandler, timeout(2000)).createSession(anyString(), anyString());
+
+                // Returns at once, the session keeps running
+                serverManager.onClusterEvent(ClusterEvent.serverAssigned("server-1", "node-2"));
+
+                assertFalse(serverManager.isServerRunning("server-1"));
+                Thread.sleep(300);
+                verify(clusterProvider, never()).releaseServerOwnership("server-1");
+            }
+
+            // Session ended: the server is released to the new node
+            verify(clusterProvider, timeout(5000)).releaseServerOwnership("server-1");
+        }
     }
 
     @Nested
@@ -0,0 +1,91 @@
+package com.pesitwizard.server.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.pesitwizard.fpdu.Stripe;
+import com.pesitwizard.server.model.StripedFile;
+
+@DisplayName("StripedTransferRegistry Tests")
+class StripedTransferRegistryTest {
+
+    private StripedTransferRegistry registry;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        registry = new StripedTransferRegistry();
+    }
+
+    @Test
+    @DisplayName("should drop stale stripe sets and delete their partial files")
+    void shouldPurgeStaleSets() throws Exception {
+        List<Stripe> stripes = Stripe.split("set-1", 10, 2);
+        Path target = tempDir.resolve("striped.dat");
+        registry.join("partner-1", stripes.get(0), () -> target);
+        assertTrue(Files.exists(target));
+
+        registry.purgeStale(Instant.now().minusSeconds(60));
+        assertEquals(1, registry.size());
+
+        registry.purgeStale(Instant.now().plusSeconds(1));
+        assertEquals(0, registry.size());
+        assertFalse(Files.exists(target));
+    }
+
+    @Test
+    @DisplayName("should keep stripe sets with a range being written")
+    void shouldKeepSetsBeingWritten() throws Exception {
+        List<Stripe> stripes = Stripe.split("set-1", 10, 2);
+        Path target = tempDir.resolve("striped.dat");
+        StripedFile file = registry.join("partner-1", stripes.get(0), () -> target);
+
+        try (OutputStream out = file.openRange(stripes.get(0))) {
+            registry.purgeStale(Instant.now().plusSeconds(1));
+            assertEquals(1, registry.size());
+        }
+        registry.purgeStale(Instant.now().plusSeconds(1));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    @DisplayName("should not delete a target rewritten by another stripe set")
+    void shouldKeepTargetOfRetriedSet() throws Exception {
+        Path target = tempDir.resolve("striped.dat");
+        registry.join("partner-1", Stripe.split("set-1", 10, 2).get(0), () -> target);
+        Thread.sleep(5);
+        Instant staleBefore = Instant.now();
+        Thread.sleep(5);
+        registry.join("partner-1", Stripe.split("set-2", 10, 2).get(0), () -> target);
+
+        registry.purgeStale(staleBefore);
+        assertEquals(1, registry.size());
+        assertTrue(Files.exists(target));
+    }
+
+    @Test
+    @DisplayName("should forget complete stripe sets")
+    void shouldEvictCompleteSets() throws Exception {
+        List<Stripe> stripes = Stripe.split("set-1", 10, 2);
+        Path target = tempDir.resolve("striped.dat");
+        StripedFile file = registry.join("partner-1", stripes.get(0), () -> target);
+        file.complete(stripes.get(0), null);
+        file.complete(stripes.get(1), null);
+
+        registry.purgeStale(Instant.now().plusSeconds(1));
+        assertEquals(0, registry.size());
+        assertTrue(Files.exists(target));
+    }
+}
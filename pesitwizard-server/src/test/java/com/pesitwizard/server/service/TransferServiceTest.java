@@ -2,6 +2,8 @@ package com.pesitwizard.server.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -17,6 +19,8 @@ import com.pesitwizard.server.entity.TransferRecord;
 import com.pesitwizard.server.entity.TransferRecord.TransferDirection;
 import com.pesitwizard.server.entity.TransferRecord.TransferStatus;
 import com.pesitwizard.server.repository.TransferRecordRepository;
+import com.pesitwizard.server.service.TransferService.DailyTransferStats;
+import com.pesitwizard.server.service.TransferService.PartnerTransferStatistics;
 import com.pesitwizard.server.service.TransferService.TransferStatistics;
 
 /**
@@ -71,6 +75,35 @@ public class TransferServiceTest {
         assertEquals("abc123checksum", transfer.getChecksum());
     }
 
+    @Test
+    @DisplayName("Apply coalesced progress updates in one batch")
+    void testApplyProgressUpdates() {
+        TransferRecord first = transferService.createTransfer(
+                "session-b", "server-1", "node-1",
+                "PARTNER_A", "BATCH_1.dat",
+                TransferDirection.RECEIVE, "192.168.1.100");
+        transferService.startTransfer(first.getTransferId(), 1000L, "/data/batch1.dat");
+        TransferRecord second = transferService.createTransfer(
+                "session-b", "server-1", "node-1",
+                "PARTNER_A", "BATCH_2.dat",
+                TransferDirection.RECEIVE, "192.168.1.100");
+
+        int updated = transferService.applyProgressUpdates(List.of(
+                new TransferService.ProgressUpdate(first.getTransferId(), 500L, 400L, 3),
+                new TransferService.ProgressUpdate(second.getTransferId(), 42L, null, 0),
+                new TransferService.ProgressUpdate("unknown-transfer", 1L, null, 0)));
+
+        assertEquals(2, updated);
+        first = transferService.getTransferOrThrow(first.getTransferId());
+        assertEquals(500L, first.getBytesTransferred());
+        assertEquals(50, first.getProgressPercent());
+        assertEquals(400L, first.getLastSyncPoint());
+        assertEquals(3, first.getSyncPointCount());
+        second = transferService.getTransferOrThrow(second.getTransferId());
+        assertEquals(42L, second.getBytesTransferred());
+        assertEquals(0, second.getSyncPointCount());
+    }
+
     @Test
     @DisplayName("Fail a transfer")
     void testFailTransfer() {
@@ -257,6 +290,70 @@ public class TransferServiceTest {
         assertEquals(7000L, stats.getTotalBytesTransferred()); // Only completed transfers
     }
 
+    @Test
+    @DisplayName("Partner and daily statistics from the rollups match a rebuild")
+    void testStatisticsRollups() {
+        for (int i = 0; i < 3; i++) {
+            TransferRecord t = transferService.createTransfer(
+                    "session-" + (40 + i), "server-1", "node-1",
+                    "PARTNER_R", "ROLLUP_" + i + ".dat",
+                    TransferDirection.SEND, "192.168.1." + (140 + i));
+            transferService.startTransfer(t.getTransferId(), 500L, "/data/rollup" + i + ".dat");
+            transferService.updateProgress(t.getTransferId(), 500L);
+            if (i < 2) {
+                transferService.completeTransfer(t.getTransferId(), null);
+            } else {
+                transferService.failTransfer(t.getTransferId(), "E005", "Test error");
+            }
+        }
+        String today = LocalDate.now(ZoneOffset.UTC).toString();
+
+        for (int pass = 0; pass < 2; pass++) {
+            PartnerTransferStatistics partner = transferService.getPartnerStatistics("PARTNER_R");
+            assertEquals(3, partner.getTotalTransfers());
+            assertEquals(1000L, partner.getTotalBytesTransferred());
+
+            List<DailyTransferStats> daily = transferService.getDailyStatistics(1);
+            assertEquals(today, daily.get(0).getDate());
+            assertEquals(2, daily.get(0).getCount());
+            assertEquals(1000L, daily.get(0).getBytes());
+
+            TransferStatistics stats = transferService.getStatistics();
+            assertEquals(3, stats.getSendTransfers());
+            assertEquals(1, stats.getStatusBreakdown().get("FAILED"));
+
+            if (pass == 0) {
+                assertEquals(3, transferService.rebuildStatistics());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Retried transfers move from FAILED to RETRY_PENDING in the rollups")
+    void testRetryStatistics() {
+        TransferStatistics before = transferService.getStatistics();
+        TransferRecord original = transferService.createTransfer(
+                "session-45", "server-1", "node-1",
+                "PARTNER_RP", "RETRY_STATS.dat",
+                TransferDirection.RECEIVE, "192.168.1.145");
+        transferService.startTransfer(original.getTransferId(), 1000L, "/data/retry-stats.dat");
+        transferService.failTransfer(original.getTransferId(), "E006", "Timeout");
+        transferService.retryTransfer(original.getTransferId());
+
+        for (int pass = 0; pass < 2; pass++) {
+            TransferStatistics stats = transferService.getStatistics();
+            assertEquals(before.getTotalTransfers() + 2, stats.getTotalTransfers());
+            assertEquals(before.getFailedTransfers(), stats.getFailedTransfers());
+            assertEquals(before.getStatusBreakdown().getOrDefault("RETRY_PENDING", 0L) + 1,
+                    stats.getStatusBreakdown().get("RETRY_PENDING"));
+            assertEquals(2, transferService.getPartnerStatistics("PARTNER_RP").getTotalTransfers());
+
+            if (pass == 0) {
+                transferService.rebuildStatistics();
+            }
+        }
+    }
+
     @Test
     @DisplayName("Record sync points")
     void testSyncPoints() {
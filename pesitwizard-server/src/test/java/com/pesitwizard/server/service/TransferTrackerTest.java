@@ -4,19 +4,27 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.util.Collection;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.pesitwizard.server.config.TransferTrackingProperties;
+import com.pesitwizard.server.config.TransferTrackingProperties.Durability;
 import com.pesitwizard.server.entity.TransferRecord;
 import com.pesitwizard.server.entity.TransferRecord.TransferDirection;
 import com.pesitwizard.server.model.SessionContext;
 import com.pesitwizard.server.model.TransferContext;
+import com.pesitwizard.server.observability.PesitMetrics;
+import com.pesitwizard.server.service.TransferService.ProgressUpdate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("TransferTracker Tests")
@@ -25,13 +33,21 @@ class TransferTrackerTest {
     @Mock
     private TransferService transferService;
 
-    @InjectMocks
+    private TransferTrackingProperties trackingProperties;
+    private TransferTrackingWriter trackingWriter;
     private TransferTracker transferTracker;
 
     private SessionContext sessionContext;
 
     @BeforeEach
     void setUp() {
+        // Synchronous tracking unless a test enables write-behind
+        trackingProperties = new TransferTrackingProperties();
+        trackingProperties.setWriteBehind(false);
+        trackingWriter = new TransferTrackingWriter(transferService, trackingProperties,
+                new PesitMetrics(new SimpleMeterRegistry()));
+        transferTracker = new TransferTracker(transferService, trackingWriter, trackingProperties);
+
         sessionContext = new SessionContext("session-123");
         sessionContext.setClientIdentifier("partner-1");
         sessionContext.setRemoteAddress("192.168.1.100");
@@ -334,4 +350,125 @@ class TransferTrackerTest {
             verify(transferService).completeTransfer(eq("transfer-123"), isNull());
         }
     }
+
+    @Nested
+    @DisplayName("Write-Behind")
+    class WriteBehindTests {
+
+        @BeforeEach
+        void enableWriteBehind() {
+            trackingProperties.setWriteBehind(true);
+            sessionContext.setTransferRecordId("transfer-123");
+        }
+
+        @Test
+        @DisplayName("should queue progress and sync points without touching the database")
+        void shouldQueueProgressAndSyncPoints() {
+            transferTracker.trackProgress(sessionContext, 512L);
+            transferTracker.trackSyncPoint(sessionContext, 512L);
+
+            assertEquals(2, trackingWriter.getQueueDepth());
+            verifyNoInteractions(transferService);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Test
+        @DisplayName("should coalesce queued updates per transfer into one batch")
+        void shouldCoalesceUpdatesPerTransfer() {
+            transferTracker.trackProgress(sessionContext, 100L);
+            transferTracker.trackSyncPoint(sessionContext, 100L);
+            transferTracker.trackProgress(sessionContext, 200L);
+            transferTracker.trackSyncPoint(sessionContext, 200L);
+
+            trackingWriter.flush();
+
+            ArgumentCaptor<Collection<ProgressUpdate>> batch = ArgumentCaptor.forClass(Collection.class);
+            verify(transferService).applyProgressUpdates(batch.capture());
+            assertEquals(1, batch.getValue().size());
+            ProgressUpdate update = batch.getValue().iterator().next();
+            assertEquals("transfer-123", update.getTransferId());
+            assertEquals(200L, update.getBytesTransferred());
+            assertEquals(200L, update.getLastSyncPoint());
+            assertEquals(2, update.getSyncPoints());
+            assertEquals(0, trackingWriter.getQueueDepth());
+        }
+
+        @Test
+        @DisplayName("synchronous completion should flush queued updates first")
+        void shouldFlushBeforeSynchronousCompletion() {
+            transferTracker.trackSyncPoint(sessionContext, 1000L);
+
+            transferTracker.trackTransferComplete(sessionContext);
+
+            var order = inOrder(transferService);
+            order.verify(transferService).applyProgressUpdates(anyCollection());
+            order.verify(transferService).completeTransfer(eq("transfer-123"), any());
+            assertEquals(0, trackingWriter.getQueueDepth());
+        }
+
+        @Test
+        @DisplayName("asynchronous failure should be queued behind earlier updates")
+        void shouldQueueAsynchronousFailure() {
+            trackingProperties.getDurability().setFailure(Durability.ASYNC);
+            transferTracker.trackProgress(sessionContext, 100L);
+
+            transferTracker.trackTransferFailed(sessionContext, "ERR001", "Error");
+
+            assertNull(sessionContext.getTransferRecordId());
+            verifyNoInteractions(transferService);
+
+            trackingWriter.flush();
+
+            var order = inOrder(transferService);
+            order.verify(transferService).applyProgressUpdates(anyCollection());
+            order.verify(transferService).failTransfer("transfer-123", "ERR001", "Error");
+        }
+
+        @Test
+        @DisplayName("asynchronous start should assign the transfer ID immediately")
+        void shouldQueueAsynchronousStart() {
+            sessionContext.setTransferRecordId(null);
+            trackingProperties.getDurability().setStart(Durability.ASYNC);
+
+            transferTracker.trackTransferStart(sessionContext, "server-1", "node-1",
+                    TransferDirection.RECEIVE, "test.dat", 1024L, "/data/test.dat");
+
+            String transferId = sessionContext.getTransferRecordId();
+            assertNotNull(transferId);
+            verifyNoInteractions(transferService);
+
+            trackingWriter.flush();
+
+            verify(transferService).createTransfer(transferId, "session-123", "server-1", "node-1",
+                    "partner-1", "test.dat", TransferDirection.RECEIVE, "192.168.1.100");
+            verify(transferService).startTransfer(transferId, 1024L, "/data/test.dat");
+        }
+
+        @Test
+        @DisplayName("should flush on the caller thread when the queue is full")
+        void shouldFlushWhenQueueFull() {
+            trackingProperties.setQueueCapacity(2);
+            trackingWriter = new TransferTrackingWriter(transferService, trackingProperties,
+                    new PesitMetrics(new SimpleMeterRegistry()));
+            transferTracker = new TransferTracker(transferService, trackingWriter, trackingProperties);
+
+            transferTracker.trackProgress(sessionContext, 100L);
+            transferTracker.trackProgress(sessionContext, 200L);
+            transferTracker.trackProgress(sessionContext, 300L);
+
+            verify(transferService).applyProgressUpdates(anyCollection());
+            assertEquals(1, trackingWriter.getQueueDepth());
+        }
+
+        @Test
+        @DisplayName("should keep flushing after a batch fails")
+        void shouldSurviveBatchFailure() {
+            doThrow(new RuntimeException("Database error")).when(transferService)
+                    .applyProgressUpdates(anyCollection());
+            transferTracker.trackProgress(sessionContext, 100L);
+
+            assertDoesNotThrow(() -> trackingWriter.flush());
+            assertEquals(0, trackingWriter.getQueueDepth());
+        }
+    }
 }
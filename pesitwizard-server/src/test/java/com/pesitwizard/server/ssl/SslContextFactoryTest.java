@@ -8,6 +8,8 @@ import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 
+import javax.net.ssl.SSLContext;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -297,6 +299,25 @@ class SslContextFactoryTest {
         assertThrows(SslConfigurationException.class, () -> factory.validateStore(store));
     }
 
+    @Test
+    @DisplayName("createSslContext should reuse the context until a store changes")
+    void createSslContextShouldCacheUntilStoreChanges() throws Exception {
+        CertificateStore keystore = createStore("server-ks", StoreType.KEYSTORE);
+        keystore.setStorePassword("changeit");
+        keystore.setStoreData(factory.createEmptyKeyStore(StoreFormat.PKCS12, "changeit"));
+        keystore.setUpdatedAt(Instant.now());
+
+        SSLContext first = factory.createSslContext(keystore, null);
+        assertSame(first, factory.createSslContext(keystore, null));
+
+        keystore.setUpdatedAt(keystore.getUpdatedAt().plusSeconds(1));
+        SSLContext updated = factory.createSslContext(keystore, null);
+        assertNotSame(first, updated);
+
+        factory.invalidate("server-ks");
+        assertNotSame(updated, factory.createSslContext(keystore, null));
+    }
+
     private CertificateStore createStore(String name, StoreType type) {
         CertificateStore store = new CertificateStore();
         store.setName(name);